@@ -4,6 +4,7 @@ module aion.node.harness {
     requires offline.signer;
     requires gson;
     requires ed25519;
+    requires aion.rlp;
 
     exports org.aion.harness.statistics;
     exports org.aion.harness.result;
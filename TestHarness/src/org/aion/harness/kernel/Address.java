@@ -1,19 +1,25 @@
 package org.aion.harness.kernel;
 
+import org.aion.harness.util.Bytes32;
 import org.apache.commons.codec.binary.Hex;
-import java.util.Arrays;
 
 /**
  * An Aion address.
  *
- * An address consists of {@value SIZE} bytes.
+ * An address consists of {@value SIZE} bytes, which are stored as four longs (see
+ * {@link #getWord(int)}) so that addresses are compact and cheap to compare and hash when held in
+ * large numbers.
  *
  * This class is immutable.
  */
 public final class Address {
     public static final int SIZE = 32;
 
-    private final byte[] addressBytes;
+    private final long word0;
+    private final long word1;
+    private final long word2;
+    private final long word3;
+    private final int hashCode;
 
     /**
      * Constructs a new address using the provided bytes.
@@ -27,7 +33,11 @@ public final class Address {
         if (addressBytes.length != SIZE) {
             throw new IllegalArgumentException("bytes of an address must have a length of " + SIZE);
         }
-        this.addressBytes = copyByteArray(addressBytes);
+        this.word0 = Bytes32.word(addressBytes, 0);
+        this.word1 = Bytes32.word(addressBytes, 1);
+        this.word2 = Bytes32.word(addressBytes, 2);
+        this.word3 = Bytes32.word(addressBytes, 3);
+        this.hashCode = Bytes32.hash(this.word0, this.word1, this.word2, this.word3);
     }
 
     /**
@@ -36,19 +46,29 @@ public final class Address {
      * @return the bytes of this address.
      */
     public byte[] getAddressBytes() {
-        return copyByteArray(this.addressBytes);
+        return Bytes32.toBytes(this.word0, this.word1, this.word2, this.word3);
     }
 
     /**
-     * This helper is used to make the bytes immutable
+     * Returns the specified 8-byte word of this address, read big-endian, such that word 0 holds
+     * the first 8 bytes of the address. This does not copy the address.
+     *
+     * @param index The index of the word, from 0 to 3.
+     * @return the word.
      */
-    private static byte[] copyByteArray(byte[] byteArray) {
-        return Arrays.copyOf(byteArray, byteArray.length);
+    public long getWord(int index) {
+        switch (index) {
+            case 0: return this.word0;
+            case 1: return this.word1;
+            case 2: return this.word2;
+            case 3: return this.word3;
+            default: throw new IndexOutOfBoundsException("An address has no word #" + index);
+        }
     }
 
     @Override
     public String toString() {
-        return "Address { 0x" + Hex.encodeHexString(this.addressBytes) + " }";
+        return "Address { 0x" + Hex.encodeHexString(getAddressBytes()) + " }";
     }
 
     @Override
@@ -61,11 +81,12 @@ public final class Address {
         }
 
         Address otherAddress = (Address)other;
-        return Arrays.equals(this.addressBytes, otherAddress.getAddressBytes());
+        return (this.word0 == otherAddress.word0) && (this.word1 == otherAddress.word1)
+            && (this.word2 == otherAddress.word2) && (this.word3 == otherAddress.word3);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(this.addressBytes);
+        return this.hashCode;
     }
 }
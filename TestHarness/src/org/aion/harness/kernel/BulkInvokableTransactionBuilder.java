@@ -0,0 +1,315 @@
+package org.aion.harness.kernel;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.aion.harness.result.BulkResult;
+
+/**
+ * A builder of large numbers of signed invokable (meta) transactions, the counterpart of
+ * {@link BulkRawTransactionBuilder} and {@link StreamingTransactionBuilder} for
+ * {@link SignedInvokableTransaction}.
+ *
+ * Each part of a transaction is given either as a single value shared by all transactions or as a
+ * function of the index of the transaction. If a part is set multiple times then the latest
+ * invocation takes precedence. The executor is optional: if it is never set, any account may
+ * execute the transactions.
+ *
+ * The transactions can either be built all at once, with {@code build()}, which by default signs
+ * them serially on the calling thread and across a fork-join pool if {@code useParallelism()} has
+ * been set, or they can be consumed as a {@link Stream} or {@link Iterator} that signs each
+ * transaction only when it is reached. In every case the i'th transaction is the same, and is built
+ * from the values at index i alone, so that the transactions may be signed in any order without
+ * disturbing the nonce sequence of any sender. The builder's settings are captured when the
+ * transactions are built or a stream or iterator is created.
+ *
+ * Since streamed transactions are signed lazily, a transaction that fails to be created causes an
+ * {@link IllegalStateException} to be thrown by whatever is consuming the stream.
+ */
+public final class BulkInvokableTransactionBuilder {
+    private final int numTransactions;
+    private IntFunction<PrivateKey> senderKeys = null;
+    private IntFunction<BigInteger> nonces = null;
+    private IntFunction<Address> destinations = null;
+    private IntFunction<byte[]> datas = null;
+    private IntFunction<BigInteger> values = null;
+    private IntFunction<Address> executors = i -> null;
+    private int parallelism = 1;
+
+    /**
+     * Constructs a new bulk invokable transaction builder that will be used to build the specified
+     * number of transactions.
+     *
+     * @param numberOfTransactions The number of transactions to build.
+     */
+    public BulkInvokableTransactionBuilder(int numberOfTransactions) {
+        if (numberOfTransactions < 0) {
+            throw new IllegalArgumentException("Cannot build a negative number of transactions.");
+        }
+
+        this.numTransactions = numberOfTransactions;
+    }
+
+    private BulkInvokableTransactionBuilder(BulkInvokableTransactionBuilder builder) {
+        this.numTransactions = builder.numTransactions;
+        this.senderKeys = builder.senderKeys;
+        this.nonces = builder.nonces;
+        this.destinations = builder.destinations;
+        this.datas = builder.datas;
+        this.values = builder.values;
+        this.executors = builder.executors;
+        this.parallelism = builder.parallelism;
+    }
+
+    /**
+     * Causes all transactions to be signed by the same sender, with nonces incrementing from the
+     * initial nonce, such that the i'th transaction has nonce {@code initialNonce + i}.
+     *
+     * @param senderKey The key of the sender account.
+     * @param initialNonce The initial nonce.
+     * @return this builder.
+     */
+    public BulkInvokableTransactionBuilder useSameSender(PrivateKey senderKey, BigInteger initialNonce) {
+        if (senderKey == null) {
+            throw new NullPointerException("Cannot set a null sender key.");
+        }
+        if (initialNonce == null) {
+            throw new NullPointerException("Cannot set a null initial nonce.");
+        }
+
+        this.senderKeys = i -> senderKey;
+        this.nonces = i -> initialNonce.add(BigInteger.valueOf(i));
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to be signed by the sender whose key is given by
+     * {@code senderKeys} for index i, using the nonce given by {@code nonces} for index i.
+     *
+     * @param senderKeys The key of the sender of each transaction.
+     * @param nonces The nonce of each transaction.
+     * @return this builder.
+     */
+    public BulkInvokableTransactionBuilder useSenders(IntFunction<PrivateKey> senderKeys, IntFunction<BigInteger> nonces) {
+        if (senderKeys == null) {
+            throw new NullPointerException("Cannot set a null sender key function.");
+        }
+        if (nonces == null) {
+            throw new NullPointerException("Cannot set a null nonce function.");
+        }
+
+        this.senderKeys = senderKeys;
+        this.nonces = nonces;
+        return this;
+    }
+
+    /**
+     * Causes all transactions to use the same destination, which may be null for contract
+     * deployments.
+     *
+     * @param destination The destination for all transactions.
+     * @return this builder.
+     */
+    public BulkInvokableTransactionBuilder useSameDestination(Address destination) {
+        this.destinations = i -> destination;
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to use the destination given by {@code destinations} for
+     * index i.
+     *
+     * @param destinations The destination of each transaction.
+     * @return this builder.
+     */
+    public BulkInvokableTransactionBuilder useDestinations(IntFunction<Address> destinations) {
+        if (destinations == null) {
+            throw new NullPointerException("Cannot set a null destination function.");
+        }
+
+        this.destinations = destinations;
+        return this;
+    }
+
+    /**
+     * Causes all transactions to use the same data.
+     *
+     * @param data The data for all transactions.
+     * @return this builder.
+     */
+    public BulkInvokableTransactionBuilder useSameTransactionData(byte[] data) {
+        if (data == null) {
+            throw new NullPointerException("Cannot set a null data.");
+        }
+
+        byte[] copy = Arrays.copyOf(data, data.length);
+        this.datas = i -> copy;
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to use the data given by {@code datas} for index i.
+     *
+     * @param datas The data of each transaction.
+     * @return this builder.
+     */
+    public BulkInvokableTransactionBuilder useTransactionDatas(IntFunction<byte[]> datas) {
+        if (datas == null) {
+            throw new NullPointerException("Cannot set a null data function.");
+        }
+
+        this.datas = datas;
+        return this;
+    }
+
+    /**
+     * Causes all transactions to send the same amount of value.
+     *
+     * @param value The value to send in all transactions.
+     * @return this builder.
+     */
+    public BulkInvokableTransactionBuilder useSameTransferValue(BigInteger value) {
+        if (value == null) {
+            throw new NullPointerException("Cannot set a null value.");
+        }
+
+        this.values = i -> value;
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to send the value given by {@code values} for index i.
+     *
+     * @param values The value to send in each transaction.
+     * @return this builder.
+     */
+    public BulkInvokableTransactionBuilder useTransferValues(IntFunction<BigInteger> values) {
+        if (values == null) {
+            throw new NullPointerException("Cannot set a null value function.");
+        }
+
+        this.values = values;
+        return this;
+    }
+
+    /**
+     * Causes all transactions to be executable only by the specified account, or by any account if
+     * the executor is null.
+     *
+     * @param executor The executor of all transactions.
+     * @return this builder.
+     */
+    public BulkInvokableTransactionBuilder useSameExecutor(Address executor) {
+        this.executors = i -> executor;
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to be executable only by the executor given by {@code executors}
+     * for index i, or by any account if that executor is null.
+     *
+     * @param executors The executor of each transaction.
+     * @return this builder.
+     */
+    public BulkInvokableTransactionBuilder useExecutors(IntFunction<Address> executors) {
+        if (executors == null) {
+            throw new NullPointerException("Cannot set a null executor function.");
+        }
+
+        this.executors = executors;
+        return this;
+    }
+
+    /**
+     * Causes {@code build()} to sign the transactions across a fork-join pool of the specified
+     * parallelism rather than serially on the calling thread. A parallelism of 1 signs serially.
+     *
+     * @param parallelism The number of threads to sign with.
+     * @return this builder.
+     */
+    public BulkInvokableTransactionBuilder useParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Constructs all of the transactions according to the options set by the various builder
+     * methods.
+     *
+     * If any transaction fails to be created then this method will not return any transactions but
+     * instead an error message related to the failed creation. When signing serially, this is the
+     * first transaction that fails and no further transactions are attempted. When signing in
+     * parallel, every transaction is attempted and the reason each failed transaction failed is
+     * available from {@link BulkResult#getFailures()}.
+     *
+     * @return a result indicating whether or not the transactions were created, and if so, holds the
+     * transactions themselves.
+     */
+    public BulkResult<SignedInvokableTransaction> build() {
+        BulkInvokableTransactionBuilder snapshot = snapshot();
+        return BulkSigner.sign(this.numTransactions, this.parallelism, snapshot::buildTransaction);
+    }
+
+    /**
+     * Returns an ordered stream of the transactions, each of which is signed as the stream reaches
+     * it. The stream may be made parallel.
+     *
+     * @return a stream of the transactions.
+     */
+    public Stream<SignedInvokableTransaction> stream() {
+        BulkInvokableTransactionBuilder snapshot = snapshot();
+        return IntStream.range(0, this.numTransactions).mapToObj(i -> {
+            try {
+                return snapshot.buildTransaction(i);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to create transaction #" + i + " due to: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Returns an iterator over the transactions, each of which is signed as the iterator reaches
+     * it.
+     *
+     * @return an iterator over the transactions.
+     */
+    public Iterator<SignedInvokableTransaction> iterator() {
+        return stream().iterator();
+    }
+
+    /**
+     * Returns a copy of this builder's current settings, ensuring every required part has been set.
+     */
+    private BulkInvokableTransactionBuilder snapshot() {
+        if (this.senderKeys == null) {
+            throw new IllegalStateException("No sender has been specified.");
+        }
+        if (this.destinations == null) {
+            throw new IllegalStateException("No destination has been specified.");
+        }
+        if (this.datas == null) {
+            throw new IllegalStateException("No transaction data has been specified.");
+        }
+        if (this.values == null) {
+            throw new IllegalStateException("No transfer value has been specified.");
+        }
+        return new BulkInvokableTransactionBuilder(this);
+    }
+
+    /**
+     * Signs the i'th transaction. This only reads the builder's fields, and so may be invoked
+     * concurrently.
+     */
+    private SignedInvokableTransaction buildTransaction(int i) throws Exception {
+        return new SignedInvokableTransaction(this.senderKeys.apply(i), this.nonces.apply(i), this.destinations.apply(i),
+            this.datas.apply(i), this.values.apply(i), this.executors.apply(i));
+    }
+
+}
@@ -4,6 +4,9 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntToLongFunction;
+import org.aion.harness.main.EnergyEstimator;
 import org.aion.harness.result.BulkResult;
 
 /**
@@ -22,6 +25,17 @@ import org.aion.harness.result.BulkResult;
  * to be thrown, then the latest invocation takes precedence.
  *
  * The build method may be invoked multiple times.
+ *
+ * By default, transactions are signed serially on the calling thread. Signing dominates the cost
+ * of building a large batch, and so {@code useParallelism()} can be used to sign the transactions
+ * across a fork-join pool instead. The transactions are returned in the same order either way, and
+ * the i'th transaction always has the same nonce, so the nonce sequence of each sender is
+ * unaffected by the order in which the transactions happen to be signed.
+ *
+ * Rather than fixed energy limits, {@code useEstimatedEnergyLimits()} gives each transaction a
+ * limit picked by an {@link EnergyEstimator}. The limits are estimated on the calling thread before
+ * any transaction is signed, and since estimates are cached by the shape of the call, a batch of
+ * similar transactions costs the node only a handful of estimates.
  */
 public final class BulkRawTransactionBuilder {
     private final int numTransactions;
@@ -36,6 +50,8 @@ public final class BulkRawTransactionBuilder {
     private boolean singleEnergyPriceSpecified = false;
     private long energyPrice = -1;
     private TransactionType type = null;
+    private int parallelism = 1;
+    private EnergyEstimator energyEstimator = null;
 
     private List<BigInteger> nonces = null;
     private List<BigInteger> values = null;
@@ -245,6 +261,9 @@ public final class BulkRawTransactionBuilder {
         if (this.energyLimits != null) {
             throw new IllegalStateException("Multiple energy limits have already been specified. Cannot also set a single limit.");
         }
+        if (this.energyEstimator != null) {
+            throw new IllegalStateException("Estimated energy limits have already been specified. Cannot also set a single limit.");
+        }
 
         this.energyLimit = energyLimit;
         this.singleEnergyLimitSpecified = true;
@@ -265,6 +284,9 @@ public final class BulkRawTransactionBuilder {
         if (this.singleEnergyLimitSpecified) {
             throw new IllegalStateException("A single energy limit has already been specified. Cannot also set multiple energy limits.");
         }
+        if (this.energyEstimator != null) {
+            throw new IllegalStateException("Estimated energy limits have already been specified. Cannot also set multiple energy limits.");
+        }
         if (energyLimits == null) {
             throw new NullPointerException("Cannot set a null list of energy limits.");
         }
@@ -273,6 +295,31 @@ public final class BulkRawTransactionBuilder {
         return this;
     }
 
+    /**
+     * Causes each transaction to use the energy limit that the specified estimator picks for it.
+     *
+     * <b>If this method is invoked then {@code useSameEnergyLimit()} and
+     * {@code useMultipleEnergyLimits()} are prohibited. These methods are mutually exclusive
+     * because they are entirely incompatible.</b>
+     *
+     * @param estimator The estimator of the energy limits.
+     * @return this builder.
+     */
+    public BulkRawTransactionBuilder useEstimatedEnergyLimits(EnergyEstimator estimator) {
+        if (this.singleEnergyLimitSpecified) {
+            throw new IllegalStateException("A single energy limit has already been specified. Cannot also set estimated energy limits.");
+        }
+        if (this.energyLimits != null) {
+            throw new IllegalStateException("Multiple energy limits have already been specified. Cannot also set estimated energy limits.");
+        }
+        if (estimator == null) {
+            throw new NullPointerException("Cannot set a null energy estimator.");
+        }
+
+        this.energyEstimator = estimator;
+        return this;
+    }
+
     /**
      * Causes all transactions to use the same energy price, which is the price specified here.
      *
@@ -357,12 +404,33 @@ public final class BulkRawTransactionBuilder {
         return this;
     }
 
+    /**
+     * Causes the transactions to be signed in parallel by a fork-join pool of the specified
+     * parallelism, which is created for each build and shut down once it is done. A parallelism of
+     * 1, the default, signs the transactions serially on the calling thread.
+     *
+     * @param parallelism The number of threads to sign the transactions with.
+     * @return this builder.
+     */
+    public BulkRawTransactionBuilder useParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+
+        this.parallelism = parallelism;
+        return this;
+    }
+
     /**
      * Constructs the number of transactions specified by the builder according to all of the options
      * set by the various builder methods.
      *
-     * If any transaction in the batch fails to be created then this method will not return any
-     * transactions but instead an error message related to the failed creation.
+     * If any transaction in the batch fails to be created, including failing to have its energy
+     * limit estimated, then this method will not return any transactions but instead an error
+     * message related to the failed creation. When signing
+     * serially, this is the first transaction that fails and no further transactions are attempted.
+     * When signing in parallel, every transaction is attempted and the reason each failed
+     * transaction failed is available from {@link BulkResult#getFailures()}.
      *
      * Otherwise, if all transactions are made correctly, this method will return a successful
      * {@link BulkResult} that will contain all of the newly constructed transactions.
@@ -405,46 +473,69 @@ public final class BulkRawTransactionBuilder {
                 + ", but there are " + this.numTransactions + " transactions to be made!");
         }
 
-        // Create the transactions.
-        List<SignedTransaction> transactions = new ArrayList<>();
-
-        SignedTransaction transaction;
-        BigInteger nonce = this.initialNonce;
-        for (int i = 0; i < this.numTransactions; i++) {
-
-            TransactionType type = (this.type == null) ? this.types.get(i) : this.type;
-            PrivateKey key = (this.senderKey == null) ? this.senderKeys.get(i) : this.senderKey;
-            BigInteger senderNonce = (this.initialNonce == null) ? this.nonces.get(i) : nonce;
-            Address destination = (this.singleDestinationSpecified) ? this.destination : this.destinations.get(i);
-            byte[] data = (this.data == null) ? this.datas.get(i) : this.data;
-            long energyLimit = (this.singleEnergyLimitSpecified) ? this.energyLimit : this.energyLimits.get(i);
-            long energyPrice = (this.singleEnergyPriceSpecified) ? this.energyPrice : this.energyPrices.get(i);
-            BigInteger value = (this.value == null) ? this.values.get(i) : this.value;
-
-            // Construct the appropriate transaction based on the type.
-            try {
-                if ((type == TransactionType.AVM) && (destination == null)) {
-                    transaction = SignedTransaction
-                        .newAvmCreateTransaction(key, senderNonce, data, energyLimit, energyPrice, value,
-                            null);
-                } else {
-                    transaction = SignedTransaction
-                        .newGeneralTransaction(key, senderNonce, destination, data, energyLimit, energyPrice, value,
-                            null);
+        IntToLongFunction energyLimits;
+        if (this.energyEstimator != null) {
+            long[] estimatedEnergyLimits = new long[this.numTransactions];
+            for (int i = 0; i < this.numTransactions; i++) {
+                try {
+                    estimatedEnergyLimits[i] = estimateEnergyLimit(i);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return BulkResult.unsuccessful("Interrupted while estimating the energy limit of transaction #" + i);
+                } catch (Exception e) {
+                    return BulkResult.unsuccessful("Failed to estimate the energy limit of transaction #" + i + " due to: " + e.getMessage(), Map.of(i, String.valueOf(e.getMessage())));
                 }
-            } catch (Exception e) {
-                return BulkResult.unsuccessful("Failed to create transaction #" + i + " due to: " + e.getMessage());
             }
+            energyLimits = i -> estimatedEnergyLimits[i];
+        } else {
+            energyLimits = i -> (this.singleEnergyLimitSpecified) ? this.energyLimit : this.energyLimits.get(i);
+        }
 
-            transactions.add(transaction);
+        return BulkSigner.sign(this.numTransactions, this.parallelism, i -> buildTransaction(i, energyLimits));
+    }
 
-            // Increment our initial nonce only if this option was specified.
-            if (this.initialNonce != null) {
-                nonce = nonce.add(BigInteger.ONE);
-            }
-        }
+    /**
+     * Returns the energy limit the estimator picks for the i'th transaction.
+     */
+    private long estimateEnergyLimit(int i) throws InterruptedException {
+        TransactionType type = (this.type == null) ? this.types.get(i) : this.type;
+        PrivateKey key = (this.senderKey == null) ? this.senderKeys.get(i) : this.senderKey;
+        Address destination = (this.singleDestinationSpecified) ? this.destination : this.destinations.get(i);
+        byte[] data = (this.data == null) ? this.datas.get(i) : this.data;
+        BigInteger value = (this.value == null) ? this.values.get(i) : this.value;
+
+        return this.energyEstimator.energyLimitFor(key.getAddress(), destination, value, data, (type == TransactionType.AVM) && (destination == null));
+    }
+
+    /**
+     * Signs the i'th transaction. This only reads the builder's fields, and so may be invoked
+     * concurrently.
+     */
+    private SignedTransaction buildTransaction(int i, IntToLongFunction energyLimits) throws Exception {
+        TransactionType type = (this.type == null) ? this.types.get(i) : this.type;
+        PrivateKey key = (this.senderKey == null) ? this.senderKeys.get(i) : this.senderKey;
+        BigInteger senderNonce = (this.initialNonce == null) ? this.nonces.get(i) : this.initialNonce.add(BigInteger.valueOf(i));
+        Address destination = (this.singleDestinationSpecified) ? this.destination : this.destinations.get(i);
+        byte[] data = (this.data == null) ? this.datas.get(i) : this.data;
+        long energyLimit = energyLimits.applyAsLong(i);
+        long energyPrice = (this.singleEnergyPriceSpecified) ? this.energyPrice : this.energyPrices.get(i);
+        BigInteger value = (this.value == null) ? this.values.get(i) : this.value;
+
+        return newTransaction(type, key, senderNonce, destination, data, energyLimit, energyPrice, value);
+    }
 
-        return BulkResult.successful(transactions);
+    /**
+     * Constructs the appropriate transaction based on the type: an AVM transaction without a
+     * destination is a contract deployment.
+     */
+    static SignedTransaction newTransaction(TransactionType type, PrivateKey key, BigInteger nonce, Address destination,
+        byte[] data, long energyLimit, long energyPrice, BigInteger value) throws Exception {
+
+        if ((type == TransactionType.AVM) && (destination == null)) {
+            return SignedTransaction.newAvmCreateTransaction(key, nonce, data, energyLimit, energyPrice, value, null);
+        } else {
+            return SignedTransaction.newGeneralTransaction(key, nonce, destination, data, energyLimit, energyPrice, value, null);
+        }
     }
 
     private List<byte[]> copyDataList(List<byte[]> datas) {
@@ -0,0 +1,110 @@
+package org.aion.harness.kernel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.aion.harness.result.BulkResult;
+
+/**
+ * Signs a batch of transactions, each identified by its index, on behalf of the bulk transaction
+ * builders.
+ *
+ * With a parallelism of 1 the transactions are signed in order on the calling thread, and signing
+ * stops at the first transaction that fails. Otherwise the transactions are split into batches that
+ * are signed across a fork-join pool of the given parallelism. Every transaction is then attempted,
+ * and the reason each failed transaction failed is available from {@link BulkResult#getFailures()}.
+ * Each transaction is written into its own index of the output, so that ordering is preserved
+ * without any coordination between batches.
+ */
+final class BulkSigner {
+    // The number of transactions a single task of the pool signs.
+    private static final int PARALLEL_BATCH_SIZE = 256;
+
+    private BulkSigner() {}
+
+    /**
+     * Signs the transaction at some index.
+     */
+    interface Signer<T> {
+        T sign(int index) throws Exception;
+    }
+
+    /**
+     * Signs the specified number of transactions using the specified signer.
+     *
+     * @param numberOfTransactions The number of transactions to sign.
+     * @param parallelism The number of threads to sign with, where 1 signs serially.
+     * @param signer The signer of each transaction.
+     * @return a result holding the transactions in order, or the failures.
+     */
+    static <T> BulkResult<T> sign(int numberOfTransactions, int parallelism, Signer<T> signer) {
+        return (parallelism == 1) ? signSerially(numberOfTransactions, signer) : signInParallel(numberOfTransactions, parallelism, signer);
+    }
+
+    private static <T> BulkResult<T> signSerially(int numberOfTransactions, Signer<T> signer) {
+        List<T> transactions = new ArrayList<>(numberOfTransactions);
+
+        for (int i = 0; i < numberOfTransactions; i++) {
+            try {
+                transactions.add(signer.sign(i));
+            } catch (Exception e) {
+                return BulkResult.unsuccessful("Failed to create transaction #" + i + " due to: " + e.getMessage(), Map.of(i, String.valueOf(e.getMessage())));
+            }
+        }
+
+        return BulkResult.successful(transactions);
+    }
+
+    private static <T> BulkResult<T> signInParallel(int numberOfTransactions, int parallelism, Signer<T> signer) {
+        @SuppressWarnings("unchecked")
+        T[] transactions = (T[]) new Object[numberOfTransactions];
+        String[] failures = new String[numberOfTransactions];
+
+        List<ForkJoinTask<?>> batches = new ArrayList<>();
+        for (int from = 0; from < numberOfTransactions; from += PARALLEL_BATCH_SIZE) {
+            int batchStart = from;
+            int batchEnd = Math.min(numberOfTransactions, from + PARALLEL_BATCH_SIZE);
+            batches.add(ForkJoinTask.adapt(() -> signBatch(signer, transactions, failures, batchStart, batchEnd)));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(batches)));
+        } finally {
+            pool.shutdown();
+        }
+
+        TreeMap<Integer, String> failuresByIndex = new TreeMap<>();
+        for (int i = 0; i < failures.length; i++) {
+            if (failures[i] != null) {
+                failuresByIndex.put(i, failures[i]);
+            }
+        }
+
+        if (failuresByIndex.isEmpty()) {
+            return BulkResult.successful(Arrays.asList(transactions));
+        } else {
+            Map.Entry<Integer, String> first = failuresByIndex.firstEntry();
+            return BulkResult.unsuccessful("Failed to create " + failuresByIndex.size() + " transactions, the first being transaction #"
+                + first.getKey() + " due to: " + first.getValue(), failuresByIndex);
+        }
+    }
+
+    /**
+     * Signs the transactions in the range [from, to), recording the reason for each failure.
+     */
+    private static <T> void signBatch(Signer<T> signer, T[] transactions, String[] failures, int from, int to) {
+        for (int i = from; i < to; i++) {
+            try {
+                transactions[i] = signer.sign(i);
+            } catch (Exception e) {
+                failures[i] = String.valueOf(e.getMessage());
+            }
+        }
+    }
+
+}
@@ -5,8 +5,19 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.spec.InvalidKeySpecException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import org.aion.harness.kernel.utils.KeystoreFormat;
 import org.aion.harness.main.Network;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
@@ -19,6 +30,10 @@ import org.apache.commons.io.FileUtils;
  */
 public final class Kernel {
     private static final Pattern ADDRESS_PATTERN = Pattern.compile("\\p{XDigit}{64}");
+
+    // The scrypt cost of the keystore files written by the harness (see KeystoreFormat).
+    private static final int KEYSTORE_SCRYPT_N = 1 << 12;
+
     private final File kernelDirectory;
     private final String network;
 
@@ -75,12 +90,84 @@ public final class Kernel {
         }
     }
 
+    /**
+     * Creates the specified number of new accounts in the kernel's keystore, all sharing the same
+     * password, and returns their addresses.
+     *
+     * Unlike {@link #createNewAccountInKeystore(String)}, this does not invoke the kernel at all.
+     * The keystore files are written directly in the kernel's format, in parallel by a fork-join
+     * pool of the specified parallelism. The files use a far lower scrypt cost than the kernel's
+     * own, which the kernel reads back out of each file, so that unlocking the accounts is cheap
+     * as well.
+     *
+     * @param password The password to unlock the keystore files.
+     * @param numberOfAccounts The number of accounts to create.
+     * @param parallelism The number of threads to write the files with.
+     * @return the account addresses.
+     */
+    public List<Address> createNewAccountsInKeystore(String password, int numberOfAccounts, int parallelism) throws IOException, InvalidKeySpecException {
+        if (password == null) {
+            throw new NullPointerException("Cannot create accounts with a null password!");
+        }
+        if (numberOfAccounts < 0) {
+            throw new IllegalArgumentException("Cannot create a negative number of accounts!");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+
+        File keystore = keystoreDirectory();
+        Files.createDirectories(keystore.toPath());
+
+        List<PrivateKey> keys = PrivateKey.random(numberOfAccounts, parallelism);
+        Address[] addresses = new Address[numberOfAccounts];
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, numberOfAccounts).parallel().forEach(i -> {
+                try {
+                    addresses[i] = writeKeystoreFile(keystore, keys.get(i), password);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Failed to write the keystore file of account #" + i, e);
+                }
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+        return Arrays.asList(addresses);
+    }
+
+    /**
+     * Writes the keystore file of the private key, named as the kernel names its own files, and
+     * returns its address. The file is moved into place once written, so that a running kernel
+     * never reads a partially written file.
+     */
+    private static Address writeKeystoreFile(File keystore, PrivateKey key, String password) throws IOException {
+        Address address = key.getAddress();
+        byte[] contents = KeystoreFormat.toKeystore(key.getPrivateKeyBytes(), address.getAddressBytes(), password, KEYSTORE_SCRYPT_N);
+
+        String date = DateTimeFormatter.ISO_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC));
+        File file = new File(keystore, "UTC--" + date + "--" + Hex.encodeHexString(address.getAddressBytes()));
+
+        File temporary = File.createTempFile("keystore", ".tmp", keystore);
+        try {
+            Files.write(temporary.toPath(), contents);
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            temporary.delete();
+        }
+        return address;
+    }
+
     /**
      * Deletes all accounts in this kernel's keystore.
      */
     public void clearKeystore() throws IOException {
-        String keystorePath = this.kernelDirectory.getCanonicalPath() + File.separator + this.network + File.separator + "keystore";
-        FileUtils.deleteDirectory(new File(keystorePath));
+        FileUtils.deleteDirectory(keystoreDirectory());
+    }
+
+    private File keystoreDirectory() throws IOException {
+        return new File(this.kernelDirectory.getCanonicalPath() + File.separator + this.network + File.separator + "keystore");
     }
 
     @Override
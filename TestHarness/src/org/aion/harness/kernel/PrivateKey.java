@@ -1,10 +1,15 @@
 package org.aion.harness.kernel;
 
+import net.i2p.crypto.eddsa.EdDSAPrivateKey;
 import org.aion.harness.kernel.utils.CryptoUtils;
 import org.apache.commons.codec.binary.Hex;
 
 import java.security.spec.InvalidKeySpecException;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 /**
  * An Aion private key corresponding to some Aion address.
@@ -17,6 +22,9 @@ public final class PrivateKey {
     private final byte[] privateKeyBytes;
     private final Address address;
 
+    // Created on first use. Threads racing to create it create equal keys, so no lock is needed.
+    private volatile EdDSAPrivateKey signingKey = null;
+
     /**
      * Constructs a new private key consisting of the provided bytes.
      *
@@ -33,6 +41,24 @@ public final class PrivateKey {
         this.address = new Address(CryptoUtils.deriveAddress(this.privateKeyBytes));
     }
 
+    /**
+     * Constructs a private key whose address is already known, such as one loaded from a
+     * {@link SenderKeyFile}, without deriving the address again.
+     */
+    PrivateKey(byte[] privateKeyBytes, Address address) {
+        if (privateKeyBytes == null) {
+            throw new NullPointerException("private key bytes cannot be null");
+        }
+        if (privateKeyBytes.length != SIZE) {
+            throw new IllegalArgumentException("bytes of a private key must have a length of " + SIZE);
+        }
+        if (address == null) {
+            throw new NullPointerException("address cannot be null");
+        }
+        this.privateKeyBytes = copyByteArray(privateKeyBytes);
+        this.address = address;
+    }
+
     public static PrivateKey fromBytes(byte[] privateKeyBytes) throws InvalidKeySpecException {
         return new PrivateKey(privateKeyBytes);
     }
@@ -41,6 +67,85 @@ public final class PrivateKey {
         return new PrivateKey(CryptoUtils.generatePrivateKey());
     }
 
+    /**
+     * Returns the specified number of new random private keys, generated (and their addresses
+     * derived) in parallel by a fork-join pool of the specified parallelism, which is shut down
+     * once the keys are generated.
+     *
+     * @param numberOfKeys The number of keys to generate.
+     * @param parallelism The number of threads to generate the keys with.
+     * @return the random private keys.
+     */
+    public static List<PrivateKey> random(int numberOfKeys, int parallelism) throws InvalidKeySpecException {
+        if (numberOfKeys < 0) {
+            throw new IllegalArgumentException("Cannot create a negative number of private keys!");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+
+        return generate(numberOfKeys, parallelism, i -> CryptoUtils.generatePrivateKey());
+    }
+
+    /**
+     * Returns the private key at the specified index of the sequence of keys derived from the
+     * specified seed. The same seed and index always derive the same key, so that a test can
+     * recreate the same accounts on every run.
+     *
+     * @param seed The seed.
+     * @param index The index of the key.
+     * @return the derived private key.
+     */
+    public static PrivateKey derive(byte[] seed, long index) throws InvalidKeySpecException {
+        return new PrivateKey(CryptoUtils.derivePrivateKey(seed, index));
+    }
+
+    /**
+     * Returns the first {@code numberOfKeys} keys of the sequence of keys derived from the
+     * specified seed, such that the i'th key is {@code derive(seed, i)}, derived in parallel by a
+     * fork-join pool of the specified parallelism.
+     *
+     * @param seed The seed.
+     * @param numberOfKeys The number of keys to derive.
+     * @param parallelism The number of threads to derive the keys with.
+     * @return the derived private keys.
+     */
+    public static List<PrivateKey> derive(byte[] seed, int numberOfKeys, int parallelism) throws InvalidKeySpecException {
+        if (seed == null) {
+            throw new NullPointerException("Cannot derive keys from a null seed.");
+        }
+        if (numberOfKeys < 0) {
+            throw new IllegalArgumentException("Cannot create a negative number of private keys!");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+
+        byte[] seedCopy = copyByteArray(seed);
+        return generate(numberOfKeys, parallelism, i -> CryptoUtils.derivePrivateKey(seedCopy, i));
+    }
+
+    /**
+     * Returns a key for each of the specified key bytes, deriving their addresses in parallel.
+     * Raw seeds are always valid Ed25519 keys, so deriving an address never fails.
+     */
+    private static List<PrivateKey> generate(int numberOfKeys, int parallelism, IntFunction<byte[]> keyBytes) {
+        PrivateKey[] keys = new PrivateKey[numberOfKeys];
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, numberOfKeys).parallel().forEach(i -> {
+                try {
+                    keys[i] = new PrivateKey(keyBytes.apply(i));
+                } catch (InvalidKeySpecException e) {
+                    throw new IllegalStateException("Failed to derive the address of key #" + i, e);
+                }
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+        return Arrays.asList(keys);
+    }
+
     public Address getAddress() {
         return this.address;
     }
@@ -54,6 +159,19 @@ public final class PrivateKey {
         return copyByteArray(this.privateKeyBytes);
     }
 
+    /**
+     * Returns the Ed25519 key that signs on behalf of this private key, which is created once
+     * and then reused, since creating it derives the public key.
+     */
+    EdDSAPrivateKey signingKey() {
+        EdDSAPrivateKey key = this.signingKey;
+        if (key == null) {
+            key = CryptoUtils.newSigningKey(this.privateKeyBytes);
+            this.signingKey = key;
+        }
+        return key;
+    }
+
     private static byte[] copyByteArray(byte[] byteArray) {
         return Arrays.copyOf(byteArray, byteArray.length);
     }
@@ -0,0 +1,193 @@
+package org.aion.harness.kernel;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.spec.InvalidKeySpecException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * A set of sender accounts, each with its private key, its address and the last-known nonce of
+ * the account (that is, the nonce its next transaction should use), which can be saved to and
+ * loaded from a keyfile.
+ *
+ * A test that runs against a preserved database can save its senders once they have been funded,
+ * and then on subsequent runs load them back rather than generating and funding new senders. The
+ * addresses are stored alongside the keys so that loading a keyfile does not need to derive them
+ * again.
+ *
+ * A keyfile is a text file holding a header line followed by one line per account:
+ *
+ *   private key (hex) SPACE address (hex) SPACE nonce (decimal)
+ *
+ * This class is thread-safe.
+ */
+public final class SenderKeyFile {
+    private static final String HEADER = "# aion test harness sender keyfile, version 1";
+
+    private final List<PrivateKey> keys;
+    private final BigInteger[] nonces;
+
+    private SenderKeyFile(List<PrivateKey> keys, BigInteger[] nonces) {
+        this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+        this.nonces = nonces;
+    }
+
+    /**
+     * Returns the specified number of sender accounts, whose keys are the first keys derived from
+     * the specified seed (see {@link PrivateKey#derive(byte[], long)}), and whose nonces are all
+     * zero.
+     *
+     * @param seed The seed to derive the keys from.
+     * @param numberOfAccounts The number of accounts.
+     * @return the sender accounts.
+     */
+    public static SenderKeyFile derive(byte[] seed, int numberOfAccounts) throws InvalidKeySpecException {
+        List<PrivateKey> keys = PrivateKey.derive(seed, numberOfAccounts, Runtime.getRuntime().availableProcessors());
+        BigInteger[] nonces = new BigInteger[numberOfAccounts];
+        Arrays.fill(nonces, BigInteger.ZERO);
+        return new SenderKeyFile(keys, nonces);
+    }
+
+    /**
+     * Loads the sender accounts held in the specified keyfile.
+     *
+     * @param keyfile The keyfile.
+     * @return the sender accounts.
+     */
+    public static SenderKeyFile load(File keyfile) throws IOException {
+        if (keyfile == null) {
+            throw new NullPointerException("Cannot load a null keyfile.");
+        }
+
+        List<PrivateKey> keys = new ArrayList<>();
+        List<BigInteger> nonces = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(keyfile.toPath(), StandardCharsets.US_ASCII)) {
+            if (!HEADER.equals(reader.readLine())) {
+                throw new IOException("Not a sender keyfile: " + keyfile);
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                String[] fields = line.split(" ");
+                if (fields.length != 3) {
+                    throw new IOException("Malformed account #" + keys.size() + " in keyfile: " + keyfile);
+                }
+
+                try {
+                    keys.add(new PrivateKey(Hex.decodeHex(fields[0]), new Address(Hex.decodeHex(fields[1]))));
+                    nonces.add(new BigInteger(fields[2]));
+                } catch (DecoderException | IllegalArgumentException e) {
+                    throw new IOException("Malformed account #" + keys.size() + " in keyfile: " + keyfile, e);
+                }
+            }
+        }
+
+        return new SenderKeyFile(keys, nonces.toArray(new BigInteger[0]));
+    }
+
+    /**
+     * Saves these sender accounts, with their current nonces, to the specified keyfile, replacing
+     * it. The keyfile is replaced atomically, so that an interrupted save never leaves a partially
+     * written keyfile behind.
+     *
+     * @param keyfile The keyfile.
+     */
+    public synchronized void save(File keyfile) throws IOException {
+        if (keyfile == null) {
+            throw new NullPointerException("Cannot save to a null keyfile.");
+        }
+
+        File temporary = new File(keyfile.getAbsoluteFile().getParentFile(), keyfile.getName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary.toPath(), StandardCharsets.US_ASCII)) {
+            writer.write(HEADER);
+            writer.newLine();
+
+            for (int i = 0; i < this.keys.size(); i++) {
+                PrivateKey key = this.keys.get(i);
+                writer.write(Hex.encodeHexString(key.getPrivateKeyBytes()));
+                writer.write(' ');
+                writer.write(Hex.encodeHexString(key.getAddress().getAddressBytes()));
+                writer.write(' ');
+                writer.write(this.nonces[i].toString());
+                writer.newLine();
+            }
+        }
+        Files.move(temporary.toPath(), keyfile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the number of sender accounts.
+     *
+     * @return the number of accounts.
+     */
+    public int numberOfAccounts() {
+        return this.keys.size();
+    }
+
+    /**
+     * Returns the private keys of the sender accounts, in order.
+     *
+     * @return the private keys.
+     */
+    public List<PrivateKey> getKeys() {
+        return this.keys;
+    }
+
+    /**
+     * Returns the private key of the i'th sender account.
+     *
+     * @param index The index of the account.
+     * @return the private key.
+     */
+    public PrivateKey getKey(int index) {
+        return this.keys.get(index);
+    }
+
+    /**
+     * Returns the last-known nonce of the i'th sender account.
+     *
+     * @param index The index of the account.
+     * @return the nonce.
+     */
+    public synchronized BigInteger getNonce(int index) {
+        return this.nonces[index];
+    }
+
+    /**
+     * Records the nonce of the i'th sender account, such as after it has sent transactions.
+     *
+     * @param index The index of the account.
+     * @param nonce The nonce.
+     */
+    public synchronized void setNonce(int index, BigInteger nonce) {
+        if (nonce == null) {
+            throw new NullPointerException("Cannot set a null nonce.");
+        }
+        if (nonce.signum() < 0) {
+            throw new IllegalArgumentException("Cannot set a negative nonce: " + nonce);
+        }
+        this.nonces[index] = nonce;
+    }
+
+    @Override
+    public String toString() {
+        return "SenderKeyFile { accounts = " + this.keys.size() + " }";
+    }
+
+}
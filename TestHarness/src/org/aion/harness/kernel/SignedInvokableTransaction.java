@@ -7,13 +7,12 @@ import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Arrays;
 import main.SignedInvokableTransactionBuilder;
-import main.SignedTransactionBuilder;
 import org.apache.commons.codec.binary.Hex;
 
 public class SignedInvokableTransaction {
 
     private final byte[] transactionBytes;
-    private byte[] hash;
+    private final byte[] hash;
 
     public SignedInvokableTransaction(
             PrivateKey sender,
@@ -33,6 +32,7 @@ public class SignedInvokableTransaction {
             .executor((executor == null) ? null : executor.getAddressBytes());
 
         this.transactionBytes = transactionBuilder.buildSignedInvokableTransaction();
+        this.hash = SignedTransaction.hashOfSignedTransaction(this.transactionBytes);
     }
 
     /**
@@ -45,15 +45,12 @@ public class SignedInvokableTransaction {
     }
 
     /**
-     * Returns the hash of this transaction.
+     * Returns a copy of the hash of this transaction.
      *
      * @return The transaction hash.
      */
     public byte[] getTransactionHash() {
-        if (this.hash == null) {
-            this.hash = SignedTransactionBuilder.getTransactionHashOfSignedTransaction(this.transactionBytes);
-        }
-        return this.hash;
+        return Arrays.copyOf(this.hash, this.hash.length);
     }
 
     @Override
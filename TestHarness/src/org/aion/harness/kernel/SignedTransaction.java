@@ -1,5 +1,6 @@
 package org.aion.harness.kernel;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import main.SignedTransactionBuilder;
 
@@ -8,16 +9,21 @@ import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
+import org.aion.harness.kernel.utils.CryptoUtils;
 import org.apache.commons.codec.binary.Hex;
 
 /**
  * A signed Aion transaction.
  *
+ * The hash of the transaction is computed once, when it is signed. Besides the getters, which
+ * return copies, the transaction exposes read-only views of its bytes and hash for callers, such
+ * as the send path, that only need to read them.
+ *
  * This class is immutable.
  */
 public final class SignedTransaction {
     private final byte[] transactionBytes;
-    private byte[] hash;
+    private final byte[] hash;
 
     private SignedTransaction(PrivateKey sender, BigInteger nonce, Address destination, byte[] data,
         long energyLimit, long energyPrice, BigInteger value, boolean isAvmCreate, byte[] beaconHash)
@@ -38,6 +44,16 @@ public final class SignedTransaction {
         }
 
         this.transactionBytes = transactionBuilder.buildSignedTransaction();
+        this.hash = hashOfSignedTransaction(this.transactionBytes);
+    }
+
+    /**
+     * Constructs a transaction from bytes that were signed elsewhere in this package, such as by a
+     * {@link TransactionTemplate}, along with their already computed hash.
+     */
+    SignedTransaction(byte[] transactionBytes, byte[] hash) {
+        this.transactionBytes = transactionBytes;
+        this.hash = hash;
     }
 
     /**
@@ -83,7 +99,7 @@ public final class SignedTransaction {
     }
 
     /**
-     * Returns the bytes of the signed transaction.
+     * Returns a copy of the bytes of the signed transaction.
      *
      * @return The transaction bytes.
      */
@@ -92,17 +108,96 @@ public final class SignedTransaction {
     }
 
     /**
-     * Returns the hash of this transaction.
+     * Returns a read-only view of the bytes of the signed transaction. Nothing is copied.
+     *
+     * @return The transaction bytes.
+     */
+    public ByteBuffer getSignedTransactionBytesView() {
+        return ByteBuffer.wrap(this.transactionBytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a copy of the hash of this transaction.
      *
      * @return The transaction hash.
      */
     public byte[] getTransactionHash() {
-        if (this.hash == null) {
-            this.hash = SignedTransactionBuilder.getTransactionHashOfSignedTransaction(this.transactionBytes);
-        }
+        return Arrays.copyOf(this.hash, this.hash.length);
+    }
+
+    /**
+     * Returns a read-only view of the hash of this transaction. Nothing is copied.
+     *
+     * @return The transaction hash.
+     */
+    public ByteBuffer getTransactionHashView() {
+        return ByteBuffer.wrap(this.hash).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the bytes of the signed transaction without copying them, for use within this
+     * package by callers that will not modify them.
+     */
+    byte[] signedTransactionBytes() {
+        return this.transactionBytes;
+    }
+
+    /**
+     * Returns the hash of this transaction without copying it, for use within this package by
+     * callers that will not modify it.
+     */
+    byte[] transactionHash() {
         return this.hash;
     }
 
+    /**
+     * Returns the hash of the specified signed transaction, which is the blake2b-256 hash of its
+     * RLP encoding, that is, of the first RLP element it holds.
+     *
+     * Only the header of that element is read, in order to find its length, and the element is
+     * then hashed in place. This is equivalent to, but much cheaper than,
+     * {@link SignedTransactionBuilder#getTransactionHashOfSignedTransaction(byte[])}, which
+     * decodes the entire transaction first, and which is still used if the encoding is not the
+     * expected one.
+     */
+    static byte[] hashOfSignedTransaction(byte[] signedTransaction) {
+        long length = encodedListLength(signedTransaction);
+        if ((length < 0) || (length > signedTransaction.length)) {
+            return SignedTransactionBuilder.getTransactionHashOfSignedTransaction(signedTransaction);
+        }
+
+        byte[] hash = new byte[CryptoUtils.BLAKE256_LENGTH];
+        CryptoUtils.blake256(signedTransaction, 0, (int) length, hash, 0);
+        return hash;
+    }
+
+    /**
+     * Returns the length, header included, of the RLP list at the start of the specified bytes, or
+     * -1 if they do not begin with a well-formed list header.
+     */
+    private static long encodedListLength(byte[] rlp) {
+        if (rlp.length == 0) {
+            return -1;
+        }
+
+        int prefix = rlp[0] & 0xFF;
+        if (prefix < 0xc0) {
+            return -1;
+        } else if (prefix <= 0xf7) {
+            return 1 + (prefix - 0xc0);
+        }
+
+        int lengthOfLength = prefix - 0xf7;
+        if ((lengthOfLength > 4) || (1 + lengthOfLength > rlp.length)) {
+            return -1;
+        }
+        long length = 0;
+        for (int i = 1; i <= lengthOfLength; i++) {
+            length = (length << 8) | (rlp[i] & 0xFF);
+        }
+        return 1 + lengthOfLength + length;
+    }
+
     @Override
     public String toString() {
         return "SignedTransaction { hash = " + Hex.encodeHexString(getTransactionHash()) + " }";
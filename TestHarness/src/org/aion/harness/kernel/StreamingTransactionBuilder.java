@@ -0,0 +1,467 @@
+package org.aion.harness.kernel;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+import java.util.function.IntToLongFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.aion.harness.kernel.BulkRawTransactionBuilder.TransactionType;
+import org.aion.harness.main.EnergyEstimator;
+
+/**
+ * A builder of very large numbers of raw transactions that signs each transaction only when it
+ * is asked for, rather than holding every input and every signed transaction in memory at once
+ * as {@link BulkRawTransactionBuilder} does.
+ *
+ * Each part of a transaction is given either as a single value shared by all transactions, or as
+ * a function of the index of the transaction, or as a primitive array indexed likewise. Arrays
+ * are not copied, so that a workload costs no more than its arrays, and so must not be modified
+ * while transactions are still being built from them. If a part is set multiple times then the
+ * latest invocation takes precedence.
+ *
+ * The transactions can be consumed as a {@link Stream}, an {@link Iterator} or an iterator over
+ * fixed-size chunks. In every case the i'th transaction is the same, and is built from the values
+ * at index i alone, so that a stream may be made parallel without disturbing the nonce sequence of
+ * any sender. The builder's settings are captured when a stream or iterator is created, so the
+ * builder may be reconfigured afterwards without affecting it.
+ *
+ * Since these transactions are signed lazily, a transaction that fails to be created causes an
+ * {@link IllegalStateException} to be thrown by whatever is consuming the transactions.
+ *
+ * Energy limits may also be picked by an {@link EnergyEstimator}, in which case each limit is
+ * estimated as its transaction is built. The estimator caches its estimates by the shape of the
+ * call, so only the first transaction of each shape waits on the node.
+ */
+public final class StreamingTransactionBuilder {
+    private final int numTransactions;
+    private IntFunction<PrivateKey> senderKeys = null;
+    private IntFunction<BigInteger> nonces = null;
+    private IntFunction<BigInteger> values = null;
+    private IntFunction<Address> destinations = null;
+    private IntFunction<byte[]> datas = null;
+    private IntToLongFunction energyLimits = null;
+    private EnergyEstimator energyEstimator = null;
+    private IntToLongFunction energyPrices = null;
+    private IntFunction<TransactionType> types = null;
+
+    /**
+     * Constructs a new streaming transaction builder that will be used to build the specified
+     * number of transactions.
+     *
+     * @param numberOfTransactions The number of transactions to build.
+     */
+    public StreamingTransactionBuilder(int numberOfTransactions) {
+        if (numberOfTransactions < 0) {
+            throw new IllegalArgumentException("Cannot build a negative number of transactions.");
+        }
+
+        this.numTransactions = numberOfTransactions;
+    }
+
+    private StreamingTransactionBuilder(StreamingTransactionBuilder builder) {
+        this.numTransactions = builder.numTransactions;
+        this.senderKeys = builder.senderKeys;
+        this.nonces = builder.nonces;
+        this.values = builder.values;
+        this.destinations = builder.destinations;
+        this.datas = builder.datas;
+        this.energyLimits = builder.energyLimits;
+        this.energyEstimator = builder.energyEstimator;
+        this.energyPrices = builder.energyPrices;
+        this.types = builder.types;
+    }
+
+    /**
+     * Causes all transactions to be sent from the same sender, with nonces incrementing from the
+     * initial nonce, such that the i'th transaction has nonce {@code initialNonce + i}.
+     *
+     * @param senderKey The key of the sender account.
+     * @param initialNonce The initial nonce.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useSameSender(PrivateKey senderKey, BigInteger initialNonce) {
+        if (senderKey == null) {
+            throw new NullPointerException("Cannot set a null sender key.");
+        }
+        if (initialNonce == null) {
+            throw new NullPointerException("Cannot set a null initial nonce.");
+        }
+
+        this.senderKeys = i -> senderKey;
+        this.nonces = i -> initialNonce.add(BigInteger.valueOf(i));
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to be sent by the sender whose key is given by
+     * {@code senderKeys} for index i, using the nonce given by {@code nonces} for index i.
+     *
+     * @param senderKeys The key of the sender of each transaction.
+     * @param nonces The nonce of each transaction.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useSenders(IntFunction<PrivateKey> senderKeys, IntFunction<BigInteger> nonces) {
+        if (senderKeys == null) {
+            throw new NullPointerException("Cannot set a null sender key function.");
+        }
+        if (nonces == null) {
+            throw new NullPointerException("Cannot set a null nonce function.");
+        }
+
+        this.senderKeys = senderKeys;
+        this.nonces = nonces;
+        return this;
+    }
+
+    /**
+     * Causes all transactions to send the same amount of value.
+     *
+     * @param value The value to send in all transactions.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useSameTransferValue(BigInteger value) {
+        if (value == null) {
+            throw new NullPointerException("Cannot set a null value.");
+        }
+
+        this.values = i -> value;
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to send the value given by {@code values} for index i.
+     *
+     * @param values The value to send in each transaction.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useTransferValues(IntFunction<BigInteger> values) {
+        if (values == null) {
+            throw new NullPointerException("Cannot set a null value function.");
+        }
+
+        this.values = values;
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to send the value at index i of {@code values}.
+     *
+     * @param values The value to send in each transaction.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useTransferValues(long[] values) {
+        checkLength(values, "values");
+        this.values = i -> BigInteger.valueOf(values[i]);
+        return this;
+    }
+
+    /**
+     * Causes all transactions to use the same destination, which may be null for contract
+     * deployments.
+     *
+     * @param destination The destination for all transactions.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useSameDestination(Address destination) {
+        this.destinations = i -> destination;
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to use the destination given by {@code destinations} for
+     * index i.
+     *
+     * @param destinations The destination of each transaction.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useDestinations(IntFunction<Address> destinations) {
+        if (destinations == null) {
+            throw new NullPointerException("Cannot set a null destination function.");
+        }
+
+        this.destinations = destinations;
+        return this;
+    }
+
+    /**
+     * Causes all transactions to use the same data.
+     *
+     * @param data The data for all transactions.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useSameTransactionData(byte[] data) {
+        if (data == null) {
+            throw new NullPointerException("Cannot set a null data.");
+        }
+
+        byte[] copy = Arrays.copyOf(data, data.length);
+        this.datas = i -> copy;
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to use the data given by {@code datas} for index i.
+     *
+     * @param datas The data of each transaction.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useTransactionDatas(IntFunction<byte[]> datas) {
+        if (datas == null) {
+            throw new NullPointerException("Cannot set a null data function.");
+        }
+
+        this.datas = datas;
+        return this;
+    }
+
+    /**
+     * Causes all transactions to use the same energy limit.
+     *
+     * @param energyLimit The energy limit for all transactions.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useSameEnergyLimit(long energyLimit) {
+        this.energyLimits = i -> energyLimit;
+        this.energyEstimator = null;
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to use the energy limit given by {@code energyLimits} for
+     * index i.
+     *
+     * @param energyLimits The energy limit of each transaction.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useEnergyLimits(IntToLongFunction energyLimits) {
+        if (energyLimits == null) {
+            throw new NullPointerException("Cannot set a null energy limit function.");
+        }
+
+        this.energyLimits = energyLimits;
+        this.energyEstimator = null;
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to use the energy limit at index i of {@code energyLimits}.
+     *
+     * @param energyLimits The energy limit of each transaction.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useEnergyLimits(long[] energyLimits) {
+        checkLength(energyLimits, "energy limits");
+        this.energyLimits = i -> energyLimits[i];
+        this.energyEstimator = null;
+        return this;
+    }
+
+    /**
+     * Causes each transaction to use the energy limit that the specified estimator picks for it.
+     *
+     * @param estimator The estimator of the energy limits.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useEstimatedEnergyLimits(EnergyEstimator estimator) {
+        if (estimator == null) {
+            throw new NullPointerException("Cannot set a null energy estimator.");
+        }
+
+        this.energyLimits = null;
+        this.energyEstimator = estimator;
+        return this;
+    }
+
+    /**
+     * Causes all transactions to use the same energy price.
+     *
+     * @param energyPrice The energy price for all transactions.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useSameEnergyPrice(long energyPrice) {
+        this.energyPrices = i -> energyPrice;
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to use the energy price given by {@code energyPrices} for
+     * index i.
+     *
+     * @param energyPrices The energy price of each transaction.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useEnergyPrices(IntToLongFunction energyPrices) {
+        if (energyPrices == null) {
+            throw new NullPointerException("Cannot set a null energy price function.");
+        }
+
+        this.energyPrices = energyPrices;
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to use the energy price at index i of {@code energyPrices}.
+     *
+     * @param energyPrices The energy price of each transaction.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useEnergyPrices(long[] energyPrices) {
+        checkLength(energyPrices, "energy prices");
+        this.energyPrices = i -> energyPrices[i];
+        return this;
+    }
+
+    /**
+     * Causes all transactions to be of the same type.
+     *
+     * @param type The transaction type for all transactions.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useSameTransactionType(TransactionType type) {
+        if (type == null) {
+            throw new NullPointerException("Cannot set a null transaction type.");
+        }
+
+        this.types = i -> type;
+        return this;
+    }
+
+    /**
+     * Causes the i'th transaction to be of the type given by {@code types} for index i.
+     *
+     * @param types The type of each transaction.
+     * @return this builder.
+     */
+    public StreamingTransactionBuilder useTransactionTypes(IntFunction<TransactionType> types) {
+        if (types == null) {
+            throw new NullPointerException("Cannot set a null transaction type function.");
+        }
+
+        this.types = types;
+        return this;
+    }
+
+    /**
+     * Returns an ordered stream of the transactions, each of which is signed as the stream reaches
+     * it. The stream may be made parallel.
+     *
+     * @return a stream of the transactions.
+     */
+    public Stream<SignedTransaction> stream() {
+        StreamingTransactionBuilder snapshot = snapshot();
+        return IntStream.range(0, this.numTransactions).mapToObj(snapshot::buildTransaction);
+    }
+
+    /**
+     * Returns an iterator over the transactions, each of which is signed as the iterator reaches
+     * it.
+     *
+     * @return an iterator over the transactions.
+     */
+    public Iterator<SignedTransaction> iterator() {
+        return stream().iterator();
+    }
+
+    /**
+     * Returns an iterator over consecutive chunks of the transactions. Every chunk holds
+     * {@code chunkSize} transactions except possibly the last. Only one chunk is held in memory at a
+     * time, and it is signed when it is asked for.
+     *
+     * @param chunkSize The number of transactions in each chunk.
+     * @return an iterator over chunks of the transactions.
+     */
+    public Iterator<List<SignedTransaction>> chunks(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+
+        StreamingTransactionBuilder snapshot = snapshot();
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < snapshot.numTransactions;
+            }
+
+            @Override
+            public List<SignedTransaction> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more transactions to build.");
+                }
+
+                int end = (int) Math.min((long) this.next + chunkSize, snapshot.numTransactions);
+                List<SignedTransaction> chunk = new ArrayList<>(end - this.next);
+                for (; this.next < end; this.next++) {
+                    chunk.add(snapshot.buildTransaction(this.next));
+                }
+                return chunk;
+            }
+        };
+    }
+
+    /**
+     * Returns a copy of this builder's current settings, ensuring every part has been set.
+     */
+    private StreamingTransactionBuilder snapshot() {
+        if (this.senderKeys == null) {
+            throw new IllegalStateException("No sender has been specified.");
+        }
+        if (this.values == null) {
+            throw new IllegalStateException("No transfer value has been specified.");
+        }
+        if (this.destinations == null) {
+            throw new IllegalStateException("No destination has been specified.");
+        }
+        if (this.datas == null) {
+            throw new IllegalStateException("No transaction data has been specified.");
+        }
+        if ((this.energyLimits == null) && (this.energyEstimator == null)) {
+            throw new IllegalStateException("No energy limit has been specified.");
+        }
+        if (this.energyPrices == null) {
+            throw new IllegalStateException("No energy price has been specified.");
+        }
+        if (this.types == null) {
+            throw new IllegalStateException("No transaction type has been specified.");
+        }
+        return new StreamingTransactionBuilder(this);
+    }
+
+    private SignedTransaction buildTransaction(int i) {
+        try {
+            TransactionType type = this.types.apply(i);
+            PrivateKey key = this.senderKeys.apply(i);
+            Address destination = this.destinations.apply(i);
+            byte[] data = this.datas.apply(i);
+            BigInteger value = this.values.apply(i);
+            long energyLimit = (this.energyEstimator == null)
+                ? this.energyLimits.applyAsLong(i)
+                : this.energyEstimator.energyLimitFor(key.getAddress(), destination, value, data, (type == TransactionType.AVM) && (destination == null));
+
+            return BulkRawTransactionBuilder.newTransaction(type, key, this.nonces.apply(i), destination, data, energyLimit,
+                this.energyPrices.applyAsLong(i), value);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while estimating the energy limit of transaction #" + i, e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to create transaction #" + i + " due to: " + e.getMessage(), e);
+        }
+    }
+
+    private void checkLength(long[] array, String name) {
+        if (array == null) {
+            throw new NullPointerException("Cannot set a null array of " + name + ".");
+        }
+        if (array.length != this.numTransactions) {
+            throw new IllegalArgumentException("Specified incorrect number of " + name + ": " + array.length
+                + ", but there are " + this.numTransactions + " transactions to be made!");
+        }
+    }
+
+}
@@ -0,0 +1,289 @@
+package org.aion.harness.kernel;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A corpus of pre-signed transactions stored on disk, so that the cost of signing transactions is
+ * paid once, ahead of time, rather than during the run that submits them. The same corpus can
+ * also be replayed identically against different builds of a kernel.
+ *
+ * A corpus is written by {@code write()}, typically from a parallel stream of a
+ * {@link StreamingTransactionBuilder}, and is read back by {@code open()}, which returns a
+ * sequential cursor over the corpus. The cursor memory-maps the file and exposes each raw
+ * transaction as a read-only view of the mapping, which can be handed directly to
+ * {@link org.aion.harness.main.RPC#sendRawTransaction(ByteBuffer)}, so that nothing is decoded,
+ * re-encoded or copied on the way to the node.
+ *
+ * The file is laid out as a header followed by one record per transaction, all big-endian:
+ *
+ *   header: magic (4 bytes), version (4 bytes), number of transactions (8 bytes)
+ *   record: length of the raw transaction (4 bytes), transaction hash (32 bytes), raw transaction
+ *
+ * A cursor is not thread-safe. Each thread replaying a corpus should open its own cursor.
+ */
+public final class TransactionCorpus implements Closeable {
+    private static final int MAGIC = 0x41485443;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int HASH_SIZE = 32;
+    private static final int RECORD_HEADER_SIZE = 4 + HASH_SIZE;
+
+    // Large corpora are mapped a window at a time, since a single mapping is limited to 2GB.
+    private static final long WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long numberOfTransactions;
+
+    private MappedByteBuffer window = null;
+    private long windowStart = 0;
+
+    private long nextRecord = HEADER_SIZE;
+    private long index = -1;
+    private int currentOffset = -1;
+    private int currentLength = -1;
+
+    private TransactionCorpus(File corpus) throws IOException {
+        this.file = new RandomAccessFile(corpus, "r");
+        try {
+            this.channel = this.file.getChannel();
+            this.fileSize = this.channel.size();
+
+            if (this.fileSize < HEADER_SIZE) {
+                throw new IOException("Not a transaction corpus, file is too short: " + corpus);
+            }
+            if (this.file.readInt() != MAGIC) {
+                throw new IOException("Not a transaction corpus, bad magic number: " + corpus);
+            }
+            int version = this.file.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported transaction corpus version: " + version);
+            }
+            this.numberOfTransactions = this.file.readLong();
+        } catch (IOException e) {
+            this.file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the specified transactions to a new corpus file, replacing any existing file, in the
+     * order they are encountered in the stream. The stream may be parallel, in which case the
+     * transactions are signed in parallel but still written in order.
+     *
+     * @param corpus The corpus file.
+     * @param transactions The transactions to write.
+     * @return the number of transactions written.
+     */
+    public static long write(File corpus, Stream<SignedTransaction> transactions) throws IOException {
+        if (corpus == null) {
+            throw new NullPointerException("Cannot write to a null corpus file.");
+        }
+        if (transactions == null) {
+            throw new NullPointerException("Cannot write a null stream of transactions.");
+        }
+
+        long[] count = new long[1];
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(corpus), 1 << 16))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(0);
+
+            transactions.forEachOrdered(transaction -> {
+                byte[] raw = transaction.signedTransactionBytes();
+                try {
+                    output.writeInt(raw.length);
+                    output.write(transaction.transactionHash());
+                    output.write(raw);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // The count is only known once the stream is exhausted.
+        try (RandomAccessFile file = new RandomAccessFile(corpus, "rw")) {
+            file.seek(8);
+            file.writeLong(count[0]);
+        }
+        return count[0];
+    }
+
+    /**
+     * Writes the transactions produced by the specified iterator to a new corpus file, replacing
+     * any existing file.
+     *
+     * @param corpus The corpus file.
+     * @param transactions The transactions to write.
+     * @return the number of transactions written.
+     */
+    public static long write(File corpus, Iterator<SignedTransaction> transactions) throws IOException {
+        if (transactions == null) {
+            throw new NullPointerException("Cannot write a null iterator of transactions.");
+        }
+        Iterable<SignedTransaction> iterable = () -> transactions;
+        return write(corpus, StreamSupport.stream(iterable.spliterator(), false));
+    }
+
+    /**
+     * Signs every transaction of the specified builder, in parallel on the common fork-join pool,
+     * and writes them in order to a new corpus file, replacing any existing file.
+     *
+     * @param corpus The corpus file.
+     * @param builder The builder of the transactions.
+     * @return the number of transactions written.
+     */
+    public static long presign(File corpus, StreamingTransactionBuilder builder) throws IOException {
+        if (builder == null) {
+            throw new NullPointerException("Cannot presign from a null builder.");
+        }
+        return write(corpus, builder.stream().parallel());
+    }
+
+    /**
+     * Opens a cursor over the specified corpus file, positioned before its first transaction.
+     *
+     * @param corpus The corpus file.
+     * @return a cursor over the corpus.
+     */
+    public static TransactionCorpus open(File corpus) throws IOException {
+        if (corpus == null) {
+            throw new NullPointerException("Cannot open a null corpus file.");
+        }
+        return new TransactionCorpus(corpus);
+    }
+
+    /**
+     * Returns the number of transactions in the corpus.
+     *
+     * @return the number of transactions.
+     */
+    public long numberOfTransactions() {
+        return this.numberOfTransactions;
+    }
+
+    /**
+     * Advances the cursor to the next transaction, returning {@code false} if there is none.
+     *
+     * @return whether the cursor is on a transaction.
+     */
+    public boolean next() throws IOException {
+        if (this.index + 1 >= this.numberOfTransactions) {
+            this.currentOffset = -1;
+            return false;
+        }
+
+        ensureMapped(this.nextRecord, RECORD_HEADER_SIZE);
+        int length = this.window.getInt((int) (this.nextRecord - this.windowStart));
+        if ((length < 0) || (this.nextRecord + RECORD_HEADER_SIZE + length > this.fileSize)) {
+            throw new IOException("Corrupt transaction corpus, record #" + (this.index + 1) + " overruns the file.");
+        }
+
+        ensureMapped(this.nextRecord, RECORD_HEADER_SIZE + length);
+        this.currentOffset = (int) (this.nextRecord - this.windowStart);
+        this.currentLength = length;
+        this.nextRecord += RECORD_HEADER_SIZE + length;
+        this.index++;
+        return true;
+    }
+
+    /**
+     * Returns the index of the transaction the cursor is on.
+     *
+     * @return the current index.
+     */
+    public long index() {
+        checkOnTransaction();
+        return this.index;
+    }
+
+    /**
+     * Returns a read-only view of the raw bytes of the current transaction. The view is only valid
+     * until the cursor is advanced or closed.
+     *
+     * @return the raw transaction bytes.
+     */
+    public ByteBuffer rawTransaction() {
+        checkOnTransaction();
+        ByteBuffer view = this.window.asReadOnlyBuffer();
+        view.position(this.currentOffset + RECORD_HEADER_SIZE).limit(this.currentOffset + RECORD_HEADER_SIZE + this.currentLength);
+        return view.slice();
+    }
+
+    /**
+     * Returns the hash of the current transaction.
+     *
+     * @return the transaction hash.
+     */
+    public byte[] transactionHash() {
+        checkOnTransaction();
+        byte[] hash = new byte[HASH_SIZE];
+        ByteBuffer view = this.window.asReadOnlyBuffer();
+        view.position(this.currentOffset + 4);
+        view.get(hash);
+        return hash;
+    }
+
+    /**
+     * Moves the cursor back to before the first transaction, so the corpus can be replayed.
+     */
+    public void rewind() {
+        this.nextRecord = HEADER_SIZE;
+        this.index = -1;
+        this.currentOffset = -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.window = null;
+        this.currentOffset = -1;
+        this.file.close();
+    }
+
+    /**
+     * Ensures that the region of the file at the specified position and of the specified length
+     * is covered by the current window, mapping a new window beginning at that position if not.
+     */
+    private void ensureMapped(long position, int length) throws IOException {
+        if ((this.window != null) && (position >= this.windowStart) && (position + length <= this.windowStart + this.window.limit())) {
+            return;
+        }
+        if (position + length > this.fileSize) {
+            throw new IOException("Corrupt transaction corpus, truncated at record #" + (this.index + 1) + ".");
+        }
+
+        long mapLength = Math.min(this.fileSize - position, Math.max(WINDOW_SIZE, length));
+        this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, position, mapLength);
+        this.windowStart = position;
+    }
+
+    private void checkOnTransaction() {
+        if (this.currentOffset < 0) {
+            throw new NoSuchElementException("The cursor is not on a transaction.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionCorpus { transactions = " + this.numberOfTransactions + ", index = " + this.index + " }";
+    }
+
+}
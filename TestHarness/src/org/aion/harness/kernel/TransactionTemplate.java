@@ -0,0 +1,292 @@
+package org.aion.harness.kernel;
+
+import java.math.BigInteger;
+import java.security.InvalidKeyException;
+import java.security.SignatureException;
+import net.i2p.crypto.eddsa.EdDSAPrivateKey;
+import org.aion.harness.kernel.utils.CryptoUtils;
+import org.aion.rlp.RLP;
+
+/**
+ * A template for signing many transactions that differ only in their sender, nonce, destination
+ * and value, such as the transactions of a saturation test.
+ *
+ * Building a transaction from scratch RLP-encodes every field and re-creates the sender's signing
+ * key, which derives its public key. A template instead encodes its invariant fields (the data,
+ * energy limit, energy price, transaction type and beacon hash) once, when it is created. Each
+ * transaction is then assembled by writing only its nonce, destination, value and timestamp into a
+ * reusable per-thread buffer around the invariant fields, hashing the result and signing the hash
+ * with the sender's cached signing key. The only allocation of any size is the signed transaction
+ * itself.
+ *
+ * The transactions are byte-for-byte what {@link SignedTransaction#newGeneralTransaction} and
+ * {@link SignedTransaction#newAvmCreateTransaction} would produce for the same timestamp. Like
+ * theirs, the timestamp is taken when the transaction is signed, in microseconds.
+ *
+ * This class is immutable and thread-safe.
+ */
+public final class TransactionTemplate {
+    private static final byte GENERAL_TRANSACTION_TYPE = 1;
+    private static final byte AVM_CREATE_TRANSACTION_TYPE = 2;
+    private static final int MAXIMUM_LIST_HEADER_LENGTH = 5;
+    private static final int SIGNATURE_LENGTH = 96;
+    private static final int ENCODED_SIGNATURE_LENGTH = 2 + SIGNATURE_LENGTH;
+
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[1024]);
+    private static final ThreadLocal<byte[]> HASH = ThreadLocal.withInitial(() -> new byte[CryptoUtils.BLAKE256_LENGTH]);
+
+    private final boolean isAvmCreate;
+
+    // The invariant fields, already encoded: the data, which follows the value; the energy limit,
+    // energy price and type, which follow the timestamp; and the beacon hash, which comes last.
+    private final byte[] encodedData;
+    private final byte[] encodedEnergyAndType;
+    private final byte[] encodedBeaconHash;
+
+    private TransactionTemplate(byte[] data, long energyLimit, long energyPrice, byte[] beaconHash, boolean isAvmCreate) {
+        if (energyLimit < 0) {
+            throw new IllegalArgumentException("Energy limit cannot be negative: " + energyLimit);
+        }
+        if (energyPrice < 0) {
+            throw new IllegalArgumentException("Energy price cannot be negative: " + energyPrice);
+        }
+
+        this.isAvmCreate = isAvmCreate;
+        this.encodedData = RLP.encodeElement((data == null) ? new byte[0] : data);
+        this.encodedEnergyAndType = concatenate(
+            RLP.encodeLong(energyLimit),
+            RLP.encodeLong(energyPrice),
+            RLP.encodeByte(isAvmCreate ? AVM_CREATE_TRANSACTION_TYPE : GENERAL_TRANSACTION_TYPE));
+        this.encodedBeaconHash = (beaconHash == null)
+            ? new byte[0]
+            : concatenate(RLP.encodeByte((byte) 1), RLP.encodeElement(beaconHash));
+    }
+
+    /**
+     * Returns a template for general transactions, that is, any transaction that is not an Avm
+     * create transaction.
+     *
+     * @param data The data.
+     * @param energyLimit The energy limit.
+     * @param energyPrice The price per unit energy.
+     * @param beaconHash beacon hash (null allowed)
+     * @return the template.
+     */
+    public static TransactionTemplate forGeneralTransactions(byte[] data, long energyLimit, long energyPrice, byte[] beaconHash) {
+        return new TransactionTemplate(data, energyLimit, energyPrice, beaconHash, false);
+    }
+
+    /**
+     * Returns a template for avm create transactions, each of which attempts to deploy the same
+     * Java smart contract.
+     *
+     * @param data The bytes of the jar file to be deployed.
+     * @param energyLimit The energy limit.
+     * @param energyPrice The price per unit energy.
+     * @param beaconHash beacon hash (null allowed)
+     * @return the template.
+     */
+    public static TransactionTemplate forAvmCreateTransactions(byte[] data, long energyLimit, long energyPrice, byte[] beaconHash) {
+        return new TransactionTemplate(data, energyLimit, energyPrice, beaconHash, true);
+    }
+
+    /**
+     * Returns a new transaction made from this template with the given sender, nonce, destination
+     * and value.
+     *
+     * @param sender The private key of the sender.
+     * @param nonce The nonce of the sender.
+     * @param destination The destination address, which must be null for an avm create
+     *     transaction, and may be null for a general transaction that creates a contract.
+     * @param value The amount to be transferred.
+     * @return a new signed transaction.
+     */
+    public SignedTransaction sign(PrivateKey sender, BigInteger nonce, Address destination, BigInteger value) throws InvalidKeyException, SignatureException {
+        if (sender == null) {
+            throw new NullPointerException("Cannot sign with a null sender.");
+        }
+        if (nonce == null) {
+            throw new NullPointerException("Cannot sign with a null nonce.");
+        }
+        if (value == null) {
+            throw new NullPointerException("Cannot sign with a null value.");
+        }
+        if ((nonce.signum() < 0) || (value.signum() < 0)) {
+            throw new IllegalArgumentException("Nonce and value cannot be negative: nonce = " + nonce + ", value = " + value);
+        }
+        if (this.isAvmCreate && (destination != null)) {
+            throw new IllegalArgumentException("An avm create transaction cannot have a destination.");
+        }
+
+        // The same resolution the signer library uses.
+        long timestamp = System.currentTimeMillis() * 1000;
+
+        int fieldsLength = encodedLength(nonce) + ((destination == null) ? 1 : 1 + Address.SIZE) + encodedLength(value)
+            + this.encodedData.length + encodedLength(timestamp) + this.encodedEnergyAndType.length;
+        int unsignedLength = fieldsLength + this.encodedBeaconHash.length;
+
+        // Lay the unsigned transaction out in the scratch buffer, leaving room for its list header.
+        byte[] scratch = scratch(MAXIMUM_LIST_HEADER_LENGTH + unsignedLength);
+        int position = MAXIMUM_LIST_HEADER_LENGTH;
+        position = writeNumber(nonce, scratch, position);
+        position = writeDestination(destination, scratch, position);
+        position = writeNumber(value, scratch, position);
+        position = write(this.encodedData, scratch, position);
+        position = writeNumber(timestamp, scratch, position);
+        position = write(this.encodedEnergyAndType, scratch, position);
+        position = write(this.encodedBeaconHash, scratch, position);
+
+        int unsignedStart = MAXIMUM_LIST_HEADER_LENGTH - headerLength(unsignedLength);
+        writeListHeader(unsignedLength, scratch, unsignedStart);
+
+        byte[] hash = HASH.get();
+        CryptoUtils.blake256(scratch, unsignedStart, position - unsignedStart, hash, 0);
+        EdDSAPrivateKey key = sender.signingKey();
+        byte[] signature = CryptoUtils.sign(key, hash);
+
+        // The signed transaction is the same fields, then the public key and signature, then the
+        // beacon hash.
+        int signedLength = fieldsLength + ENCODED_SIGNATURE_LENGTH + this.encodedBeaconHash.length;
+        byte[] transaction = new byte[headerLength(signedLength) + signedLength];
+        int offset = writeListHeader(signedLength, transaction, 0);
+        System.arraycopy(scratch, MAXIMUM_LIST_HEADER_LENGTH, transaction, offset, fieldsLength);
+        offset += fieldsLength;
+        transaction[offset++] = (byte) (0xb7 + 1);
+        transaction[offset++] = (byte) SIGNATURE_LENGTH;
+        offset = write(key.getAbyte(), transaction, offset);
+        offset = write(signature, transaction, offset);
+        write(this.encodedBeaconHash, transaction, offset);
+
+        return new SignedTransaction(transaction, CryptoUtils.blake256(transaction));
+    }
+
+    /**
+     * Returns the length of the RLP encoding of the non-negative number, encoded as its
+     * {@link BigInteger#toByteArray()} bytes, as the signer library encodes numbers.
+     */
+    private static int encodedLength(BigInteger number) {
+        if (number.bitLength() < Long.SIZE) {
+            return encodedLength(number.longValue());
+        }
+        return headerLength(number.bitLength() / 8 + 1) + number.bitLength() / 8 + 1;
+    }
+
+    private static int encodedLength(long number) {
+        int length = numberLength(number);
+        return (length == 1) ? 1 : 1 + length;
+    }
+
+    private static int writeNumber(BigInteger number, byte[] buffer, int offset) {
+        if (number.bitLength() < Long.SIZE) {
+            return writeNumber(number.longValue(), buffer, offset);
+        }
+
+        byte[] bytes = number.toByteArray();
+        offset = writeElementHeader(bytes.length, buffer, offset);
+        return write(bytes, buffer, offset);
+    }
+
+    /**
+     * Writes the non-negative number as the encoding of its {@link BigInteger#toByteArray()}
+     * bytes, which are its big-endian bytes with a leading zero byte whenever its top bit is set.
+     * A single byte below 0x80, zero included, is its own encoding.
+     */
+    private static int writeNumber(long number, byte[] buffer, int offset) {
+        int length = numberLength(number);
+        if (length > 1) {
+            buffer[offset++] = (byte) (0x80 + length);
+        }
+        for (int shift = (length - 1) * 8; shift >= 0; shift -= 8) {
+            buffer[offset++] = (byte) (number >>> shift);
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the length of {@link BigInteger#toByteArray()} for the non-negative number.
+     */
+    private static int numberLength(long number) {
+        return (Long.SIZE - Long.numberOfLeadingZeros(number)) / 8 + 1;
+    }
+
+    private static int writeDestination(Address destination, byte[] buffer, int offset) {
+        if (destination == null) {
+            buffer[offset++] = (byte) 0x80;
+            return offset;
+        }
+
+        buffer[offset++] = (byte) (0x80 + Address.SIZE);
+        for (int word = 0; word < 4; word++) {
+            long value = destination.getWord(word);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[offset++] = (byte) (value >>> shift);
+            }
+        }
+        return offset;
+    }
+
+    private static int writeElementHeader(int length, byte[] buffer, int offset) {
+        return writeHeader(0x80, 0xb7, length, buffer, offset);
+    }
+
+    private static int headerLength(int length) {
+        return (length < 56) ? 1 : 1 + bytesOfLength(length);
+    }
+
+    private static int writeListHeader(int length, byte[] buffer, int offset) {
+        return writeHeader(0xc0, 0xf7, length, buffer, offset);
+    }
+
+    private static int writeHeader(int shortOffset, int longOffset, int length, byte[] buffer, int offset) {
+        if (length < 56) {
+            buffer[offset++] = (byte) (shortOffset + length);
+            return offset;
+        }
+
+        int bytesOfLength = bytesOfLength(length);
+        buffer[offset++] = (byte) (longOffset + bytesOfLength);
+        for (int shift = (bytesOfLength - 1) * 8; shift >= 0; shift -= 8) {
+            buffer[offset++] = (byte) (length >>> shift);
+        }
+        return offset;
+    }
+
+    private static int bytesOfLength(int length) {
+        return (Integer.SIZE - Integer.numberOfLeadingZeros(length) + 7) / 8;
+    }
+
+    private static int write(byte[] bytes, byte[] buffer, int offset) {
+        System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+        return offset + bytes.length;
+    }
+
+    private static byte[] scratch(int length) {
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    private static byte[] concatenate(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+
+        byte[] concatenated = new byte[length];
+        int offset = 0;
+        for (byte[] part : parts) {
+            offset = write(part, concatenated, offset);
+        }
+        return concatenated;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionTemplate { type = " + (this.isAvmCreate ? "avm create" : "general") + ", encoded invariant fields = "
+            + (this.encodedData.length + this.encodedEnergyAndType.length + this.encodedBeaconHash.length) + " bytes }";
+    }
+
+}
@@ -1,26 +1,64 @@
 package org.aion.harness.kernel.utils;
 
+import net.i2p.crypto.eddsa.EdDSAEngine;
 import net.i2p.crypto.eddsa.EdDSAPrivateKey;
-import net.i2p.crypto.eddsa.KeyPairGenerator;
 import net.i2p.crypto.eddsa.Utils;
 import net.i2p.crypto.eddsa.spec.EdDSANamedCurveTable;
 import net.i2p.crypto.eddsa.spec.EdDSAParameterSpec;
+import net.i2p.crypto.eddsa.spec.EdDSAPrivateKeySpec;
 
-import java.nio.ByteBuffer;
-import java.security.KeyPair;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
-import java.security.spec.PKCS8EncodedKeySpec;
 
+/**
+ * Works directly on the raw 32-byte Ed25519 seeds that make up Aion private keys, rather than
+ * round-tripping them through hex strings and PKCS8 encodings, so that keys can be generated and
+ * addresses derived in bulk cheaply.
+ */
 public class CryptoUtils {
-    private static final String skEncodedPrefix = "302e020100300506032b657004220420";
+    public static final int BLAKE256_LENGTH = 32;
+
     private static final String pkEncodedPrefix = "302a300506032b6570032100";
     private static final EdDSAParameterSpec spec = EdDSANamedCurveTable.getByName(EdDSANamedCurveTable.ED_25519);
 
+    // One generator per thread, so that generating keys in parallel does not contend on a lock.
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    // One digest per thread, reused for every hash since a digest resets itself once it is done.
+    private static final ThreadLocal<Blake2b> BLAKE256 = ThreadLocal.withInitial(() -> Blake2b.Digest.newInstance(32));
+
+    // One signing engine per thread, which is re-initialized with whichever key signs next.
+    private static final ThreadLocal<EdDSAEngine> SIGNER = ThreadLocal.withInitial(CryptoUtils::newSigningEngine);
+
+    /**
+     * Returns a new random private key, which is simply a random 32-byte Ed25519 seed.
+     */
     public static byte[] generatePrivateKey() {
-        KeyPairGenerator keyPairGenerator = new KeyPairGenerator();
-        KeyPair pair = keyPairGenerator.generateKeyPair();
-        EdDSAPrivateKey privateKey = (EdDSAPrivateKey) pair.getPrivate();
-        return Utils.hexToBytes(Utils.bytesToHex(privateKey.getEncoded()).substring(32, 96));
+        byte[] seed = new byte[32];
+        RANDOM.get().nextBytes(seed);
+        return seed;
+    }
+
+    /**
+     * Returns the private key at the specified index of the sequence of keys derived from the
+     * specified seed, which is the blake2b-256 hash of the seed followed by the big-endian index.
+     * The same seed and index always derive the same key.
+     */
+    public static byte[] derivePrivateKey(byte[] seed, long index) {
+        if (seed == null) {
+            throw new NullPointerException("seed cannot be null");
+        }
+
+        Blake2b digest = BLAKE256.get();
+        digest.update(seed);
+        for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            digest.update((byte) (index >>> shift));
+        }
+        return digest.digest();
     }
 
     /**
@@ -35,10 +73,39 @@ public class CryptoUtils {
             throw new IllegalArgumentException("private key mute be 32 bytes");
         }
 
-        EdDSAPrivateKey privateKey = new EdDSAPrivateKey(new PKCS8EncodedKeySpec(addSkPrefix(Utils.bytesToHex(privateKeyBytes))));
-        byte[] publicKeyBytes = privateKey.getAbyte();
+        return computeA0Address(derivePublicKey(privateKeyBytes));
+    }
+
+    /**
+     * Derive the 32-byte Ed25519 public key, given the private key bytes (the seed).
+     */
+    public static byte[] derivePublicKey(byte[] privateKeyBytes) {
+        return new EdDSAPrivateKeySpec(privateKeyBytes, spec).getA().toByteArray();
+    }
+
+    /**
+     * Returns the Ed25519 signing key of the given private key bytes (the seed). Creating the key
+     * derives its public key, so a key that signs repeatedly should be created once and reused.
+     */
+    public static EdDSAPrivateKey newSigningKey(byte[] privateKeyBytes) {
+        return new EdDSAPrivateKey(new EdDSAPrivateKeySpec(privateKeyBytes, spec));
+    }
+
+    /**
+     * Returns the 64-byte Ed25519 signature of the message, using this thread's signing engine.
+     */
+    public static byte[] sign(EdDSAPrivateKey key, byte[] message) throws InvalidKeyException, SignatureException {
+        EdDSAEngine engine = SIGNER.get();
+        engine.initSign(key);
+        return engine.signOneShot(message);
+    }
 
-        return computeA0Address(publicKeyBytes);
+    private static EdDSAEngine newSigningEngine() {
+        try {
+            return new EdDSAEngine(MessageDigest.getInstance(spec.getHashAlgorithm()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The Ed25519 hash algorithm is unavailable: " + spec.getHashAlgorithm(), e);
+        }
     }
 
     /**
@@ -49,25 +116,67 @@ public class CryptoUtils {
         return Utils.hexToBytes(pkEncoded);
     }
 
+    private static byte[] computeA0Address(byte[] publicKey) {
+        byte A0_IDENTIFIER = (byte) 0xa0;
+
+        // The address is the hash of the public key with its first byte replaced by the identifier.
+        byte[] address = new byte[32];
+        blake256(publicKey, 0, publicKey.length, address, 0);
+        address[0] = A0_IDENTIFIER;
+        return address;
+    }
+
     /**
-     * Add encoding prefix for importing private key
+     * Returns the blake2b-256 hash of the input, using this thread's digest.
      */
-    private static byte[] addSkPrefix(String skString){
-        String skEncoded = skEncodedPrefix + skString;
-        return Utils.hexToBytes(skEncoded);
+    public static byte[] blake256(byte[] input) {
+        if (input == null) {
+            throw new NullPointerException("input cannot be null");
+        }
+
+        byte[] hash = new byte[BLAKE256_LENGTH];
+        blake256(input, 0, input.length, hash, 0);
+        return hash;
     }
 
-    private static byte[] computeA0Address(byte[] publicKey) {
-        byte A0_IDENTIFIER = (byte) 0xa0;
-        ByteBuffer buf = ByteBuffer.allocate(32);
-        buf.put(A0_IDENTIFIER);
-        buf.put(blake256(publicKey), 1, 31);
-        return buf.array();
+    /**
+     * Writes the blake2b-256 hash of the specified region of the input into the output at the
+     * specified offset, using this thread's digest and allocating nothing.
+     */
+    public static void blake256(byte[] input, int offset, int length, byte[] output, int outputOffset) {
+        if ((input == null) || (output == null)) {
+            throw new NullPointerException("input and output cannot be null");
+        }
+        if ((offset < 0) || (length < 0) || (offset + length > input.length)) {
+            throw new IndexOutOfBoundsException("input region out of bounds: offset " + offset + ", length " + length);
+        }
+        if ((outputOffset < 0) || (outputOffset + BLAKE256_LENGTH > output.length)) {
+            throw new IndexOutOfBoundsException("output too small for a hash at offset " + outputOffset);
+        }
+
+        Blake2b digest = BLAKE256.get();
+        digest.update(input, offset, length);
+        digest.digest(output, outputOffset, BLAKE256_LENGTH);
     }
 
-    private static byte[] blake256(byte[] input) {
-        Blake2b digest = Blake2b.Digest.newInstance(32);
-        digest.update(input);
-        return digest.digest();
+    /**
+     * Writes the blake2b-256 hash of each input, in order, into the output beginning at the
+     * specified offset, such that the i'th hash occupies the 32 bytes at
+     * {@code outputOffset + 32 * i}. Only this thread's digest is used and nothing is allocated.
+     */
+    public static void blake256(byte[][] inputs, byte[] output, int outputOffset) {
+        if ((inputs == null) || (output == null)) {
+            throw new NullPointerException("inputs and output cannot be null");
+        }
+        if ((outputOffset < 0) || (outputOffset + ((long) inputs.length * BLAKE256_LENGTH) > output.length)) {
+            throw new IndexOutOfBoundsException("output too small for " + inputs.length + " hashes at offset " + outputOffset);
+        }
+
+        for (int i = 0; i < inputs.length; i++) {
+            if (inputs[i] == null) {
+                throw new NullPointerException("input #" + i + " cannot be null");
+            }
+            blake256(inputs[i], 0, inputs[i].length, output, outputOffset + (i * BLAKE256_LENGTH));
+        }
     }
 }
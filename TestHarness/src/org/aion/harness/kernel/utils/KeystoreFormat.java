@@ -0,0 +1,191 @@
+package org.aion.harness.kernel.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.UUID;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.aion.rlp.RLP;
+import org.aion.rlp.RLPElement;
+import org.aion.rlp.RLPList;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Reads and writes keystore files in the format of the kernel's own keystore, so that the harness
+ * can create keystore accounts without launching the kernel once per account.
+ *
+ * A keystore file is the RLP encoding of the account's id, the format version (3), the account
+ * address and the encrypted key. The 64-byte Ed25519 private key (the seed followed by the public
+ * key) is encrypted with AES-128-CTR under the first half of a key derived from the password by
+ * scrypt, and authenticated by the blake2b hash of the second half of that key and the cipher text.
+ *
+ * The kernel reads the scrypt parameters back out of each file, so a file may use any cost. The
+ * kernel itself uses N = 2^18, which takes around a second and 256MB per account both to write
+ * and to unlock; test accounts have no need of that protection, so the harness can use a far
+ * cheaper N.
+ */
+public final class KeystoreFormat {
+    private static final int VERSION = 3;
+    private static final String CIPHER = "aes-128-ctr";
+    private static final String KDF = "scrypt";
+    private static final int SCRYPT_R = 8;
+    private static final int SCRYPT_P = 1;
+    private static final int SCRYPT_DERIVED_KEY_LENGTH = 32;
+    private static final int SALT_LENGTH = 32;
+    private static final int IV_LENGTH = 16;
+
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    private KeystoreFormat() {}
+
+    /**
+     * Returns the contents of a keystore file holding the specified private key, encrypted under
+     * the specified password using the specified scrypt cost.
+     *
+     * @param privateKeyBytes The 32-byte private key (the Ed25519 seed).
+     * @param address The address of the private key.
+     * @param password The password.
+     * @param scryptN The scrypt CPU/memory cost, a power of 2.
+     * @return the keystore file contents.
+     */
+    public static byte[] toKeystore(byte[] privateKeyBytes, byte[] address, String password, int scryptN) {
+        if (privateKeyBytes == null) {
+            throw new NullPointerException("Cannot write a keystore file for a null private key.");
+        }
+        if (address == null) {
+            throw new NullPointerException("Cannot write a keystore file for a null address.");
+        }
+        if (password == null) {
+            throw new NullPointerException("Cannot write a keystore file with a null password.");
+        }
+
+        byte[] salt = randomBytes(SALT_LENGTH);
+        byte[] iv = randomBytes(IV_LENGTH);
+        byte[] derivedKey = Scrypt.scrypt(password.getBytes(StandardCharsets.UTF_8), salt, scryptN, SCRYPT_R, SCRYPT_P, SCRYPT_DERIVED_KEY_LENGTH);
+
+        byte[] secret = concatenate(privateKeyBytes, CryptoUtils.derivePublicKey(privateKeyBytes));
+        byte[] cipherText = aes(Cipher.ENCRYPT_MODE, derivedKey, iv, secret);
+        byte[] mac = mac(derivedKey, cipherText);
+
+        byte[] cipherParams = RLP.encodeList(RLP.encodeString(Hex.encodeHexString(iv)));
+        byte[] kdfParams = RLP.encodeList(
+            RLP.encodeInt(0),
+            RLP.encodeInt(SCRYPT_DERIVED_KEY_LENGTH),
+            RLP.encodeInt(scryptN),
+            RLP.encodeInt(SCRYPT_P),
+            RLP.encodeInt(SCRYPT_R),
+            RLP.encodeString(Hex.encodeHexString(salt)));
+        byte[] crypto = RLP.encodeList(
+            RLP.encodeString(CIPHER),
+            RLP.encodeString(Hex.encodeHexString(cipherText)),
+            RLP.encodeString(KDF),
+            RLP.encodeString(Hex.encodeHexString(mac)),
+            RLP.encodeElement(cipherParams),
+            RLP.encodeElement(kdfParams));
+
+        return RLP.encodeList(
+            RLP.encodeString(UUID.randomUUID().toString()),
+            RLP.encodeInt(VERSION),
+            RLP.encodeString(Hex.encodeHexString(address)),
+            RLP.encodeElement(crypto));
+    }
+
+    /**
+     * Returns the 32-byte private key held in the keystore file contents, decrypted using the
+     * specified password, as the kernel does when it unlocks the account.
+     *
+     * @param keystore The keystore file contents.
+     * @param password The password.
+     * @return the private key (the Ed25519 seed).
+     * @throws IllegalArgumentException if the file is malformed or the password is incorrect.
+     */
+    public static byte[] fromKeystore(byte[] keystore, String password) {
+        if (keystore == null) {
+            throw new NullPointerException("Cannot read a null keystore file.");
+        }
+        if (password == null) {
+            throw new NullPointerException("Cannot read a keystore file with a null password.");
+        }
+
+        try {
+            RLPList item = list(keystore);
+            if (integer(item.get(1)) != VERSION) {
+                throw new IllegalArgumentException("Unsupported keystore version: " + integer(item.get(1)));
+            }
+
+            RLPList crypto = list(item.get(3).getRLPData());
+            if (!CIPHER.equals(string(crypto.get(0))) || !KDF.equals(string(crypto.get(2)))) {
+                throw new IllegalArgumentException("Unsupported keystore encryption: " + string(crypto.get(0)) + " with " + string(crypto.get(2)));
+            }
+            byte[] cipherText = Hex.decodeHex(string(crypto.get(1)));
+            byte[] iv = Hex.decodeHex(string(list(crypto.get(4).getRLPData()).get(0)));
+
+            RLPList kdfParams = list(crypto.get(5).getRLPData());
+            byte[] derivedKey = Scrypt.scrypt(
+                password.getBytes(StandardCharsets.UTF_8),
+                Hex.decodeHex(string(kdfParams.get(5))),
+                integer(kdfParams.get(2)),
+                integer(kdfParams.get(4)),
+                integer(kdfParams.get(3)),
+                integer(kdfParams.get(1)));
+
+            if (!MessageDigest.isEqual(mac(derivedKey, cipherText), Hex.decodeHex(string(crypto.get(3))))) {
+                throw new IllegalArgumentException("Incorrect keystore password.");
+            }
+            return Arrays.copyOf(aes(Cipher.DECRYPT_MODE, derivedKey, iv, cipherText), 32);
+        } catch (ClassCastException | IndexOutOfBoundsException | DecoderException e) {
+            throw new IllegalArgumentException("Malformed keystore file: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] aes(int mode, byte[] derivedKey, byte[] iv, byte[] input) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+            cipher.init(mode, new SecretKeySpec(derivedKey, 0, 16, "AES"), new IvParameterSpec(iv));
+            return cipher.doFinal(input);
+        } catch (GeneralSecurityException e) {
+            // Every Java platform is required to support AES, we should never hit this.
+            throw new IllegalStateException("AES/CTR is unavailable!", e);
+        }
+    }
+
+    private static byte[] mac(byte[] derivedKey, byte[] cipherText) {
+        return CryptoUtils.blake256(concatenate(Arrays.copyOfRange(derivedKey, 16, 32), cipherText));
+    }
+
+    private static RLPList list(byte[] encoding) {
+        return (RLPList) RLP.decode2(encoding).get(0);
+    }
+
+    private static String string(RLPElement element) {
+        return new String(element.getRLPData(), StandardCharsets.UTF_8);
+    }
+
+    private static int integer(RLPElement element) {
+        int value = 0;
+        byte[] bytes = element.getRLPData();
+        if (bytes != null) {
+            for (byte b : bytes) {
+                value = (value << 8) | (b & 0xff);
+            }
+        }
+        return value;
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        RANDOM.get().nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] concatenate(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
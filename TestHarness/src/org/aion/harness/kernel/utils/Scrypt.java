@@ -0,0 +1,199 @@
+package org.aion.harness.kernel.utils;
+
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * The scrypt key derivation function of RFC 7914, which the kernel uses to derive the key that
+ * encrypts each of its keystore files.
+ *
+ * The kernel's own implementation is not a dependency of the harness, so this is a plain Java
+ * implementation built on the JDK's HMAC-SHA256.
+ */
+public final class Scrypt {
+
+    private Scrypt() {}
+
+    /**
+     * Returns the key of the specified length derived from the password and salt using the
+     * specified cost parameters.
+     *
+     * @param password The password.
+     * @param salt The salt.
+     * @param n The CPU/memory cost, a power of 2 greater than 1.
+     * @param r The block size.
+     * @param p The parallelization.
+     * @param derivedKeyLength The length of the derived key in bytes.
+     * @return the derived key.
+     */
+    public static byte[] scrypt(byte[] password, byte[] salt, int n, int r, int p, int derivedKeyLength) {
+        if (password == null) {
+            throw new NullPointerException("Cannot derive a key from a null password.");
+        }
+        if (salt == null) {
+            throw new NullPointerException("Cannot derive a key from a null salt.");
+        }
+        if ((n < 2) || (Integer.bitCount(n) != 1)) {
+            throw new IllegalArgumentException("N must be a power of 2 greater than 1: " + n);
+        }
+        if ((r < 1) || (p < 1)) {
+            throw new IllegalArgumentException("r and p must be positive: r = " + r + ", p = " + p);
+        }
+        if ((n > Integer.MAX_VALUE / 128 / r) || (p > Integer.MAX_VALUE / 128 / r)) {
+            throw new IllegalArgumentException("Parameters are too large: N = " + n + ", r = " + r + ", p = " + p);
+        }
+        if (derivedKeyLength < 1) {
+            throw new IllegalArgumentException("Derived key length must be positive: " + derivedKeyLength);
+        }
+
+        Mac hmac = newHmacSha256(password);
+        int blockLength = 128 * r;
+
+        byte[] blocks = pbkdf2(hmac, salt, p * blockLength);
+        int[] x = new int[32 * r];
+        int[] v = new int[32 * r * n];
+        int[] scratch = new int[32 * r];
+        for (int i = 0; i < p; i++) {
+            romix(blocks, i * blockLength, r, n, x, v, scratch);
+        }
+        return pbkdf2(hmac, blocks, derivedKeyLength);
+    }
+
+    /**
+     * PBKDF2-HMAC-SHA256 with a single iteration, which is all that scrypt uses.
+     */
+    private static byte[] pbkdf2(Mac hmac, byte[] salt, int length) {
+        byte[] output = new byte[length];
+        byte[] blockIndex = new byte[4];
+
+        for (int offset = 0, i = 1; offset < length; offset += 32, i++) {
+            blockIndex[0] = (byte) (i >>> 24);
+            blockIndex[1] = (byte) (i >>> 16);
+            blockIndex[2] = (byte) (i >>> 8);
+            blockIndex[3] = (byte) i;
+
+            hmac.update(salt);
+            byte[] u = hmac.doFinal(blockIndex);
+            System.arraycopy(u, 0, output, offset, Math.min(32, length - offset));
+        }
+        return output;
+    }
+
+    /**
+     * Mixes the block of 128 * r bytes at the specified offset in place.
+     */
+    private static void romix(byte[] blocks, int offset, int r, int n, int[] x, int[] v, int[] scratch) {
+        int words = 32 * r;
+        for (int i = 0; i < words; i++) {
+            x[i] = littleEndianInt(blocks, offset + 4 * i);
+        }
+
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(x, 0, v, i * words, words);
+            blockMix(x, scratch, r);
+        }
+        for (int i = 0; i < n; i++) {
+            int j = x[words - 16] & (n - 1);
+            for (int k = 0; k < words; k++) {
+                x[k] ^= v[j * words + k];
+            }
+            blockMix(x, scratch, r);
+        }
+
+        for (int i = 0; i < words; i++) {
+            int word = x[i];
+            int at = offset + 4 * i;
+            blocks[at] = (byte) word;
+            blocks[at + 1] = (byte) (word >>> 8);
+            blocks[at + 2] = (byte) (word >>> 16);
+            blocks[at + 3] = (byte) (word >>> 24);
+        }
+    }
+
+    /**
+     * Mixes the 2 * r 64-byte chunks of the block in place, writing the even chunks to the first
+     * half of the block and the odd chunks to the second half.
+     */
+    private static void blockMix(int[] block, int[] scratch, int r) {
+        int[] chunk = new int[16];
+        System.arraycopy(block, (2 * r - 1) * 16, chunk, 0, 16);
+
+        for (int i = 0; i < 2 * r; i++) {
+            for (int k = 0; k < 16; k++) {
+                chunk[k] ^= block[i * 16 + k];
+            }
+            salsa20_8(chunk);
+            int destination = ((i % 2 == 0) ? (i / 2) : (r + i / 2)) * 16;
+            System.arraycopy(chunk, 0, scratch, destination, 16);
+        }
+        System.arraycopy(scratch, 0, block, 0, 32 * r);
+    }
+
+    private static void salsa20_8(int[] b) {
+        int x0 = b[0], x1 = b[1], x2 = b[2], x3 = b[3], x4 = b[4], x5 = b[5], x6 = b[6], x7 = b[7];
+        int x8 = b[8], x9 = b[9], x10 = b[10], x11 = b[11], x12 = b[12], x13 = b[13], x14 = b[14], x15 = b[15];
+
+        for (int i = 0; i < 8; i += 2) {
+            // Columns.
+            x4 ^= Integer.rotateLeft(x0 + x12, 7);
+            x8 ^= Integer.rotateLeft(x4 + x0, 9);
+            x12 ^= Integer.rotateLeft(x8 + x4, 13);
+            x0 ^= Integer.rotateLeft(x12 + x8, 18);
+            x9 ^= Integer.rotateLeft(x5 + x1, 7);
+            x13 ^= Integer.rotateLeft(x9 + x5, 9);
+            x1 ^= Integer.rotateLeft(x13 + x9, 13);
+            x5 ^= Integer.rotateLeft(x1 + x13, 18);
+            x14 ^= Integer.rotateLeft(x10 + x6, 7);
+            x2 ^= Integer.rotateLeft(x14 + x10, 9);
+            x6 ^= Integer.rotateLeft(x2 + x14, 13);
+            x10 ^= Integer.rotateLeft(x6 + x2, 18);
+            x3 ^= Integer.rotateLeft(x15 + x11, 7);
+            x7 ^= Integer.rotateLeft(x3 + x15, 9);
+            x11 ^= Integer.rotateLeft(x7 + x3, 13);
+            x15 ^= Integer.rotateLeft(x11 + x7, 18);
+
+            // Rows.
+            x1 ^= Integer.rotateLeft(x0 + x3, 7);
+            x2 ^= Integer.rotateLeft(x1 + x0, 9);
+            x3 ^= Integer.rotateLeft(x2 + x1, 13);
+            x0 ^= Integer.rotateLeft(x3 + x2, 18);
+            x6 ^= Integer.rotateLeft(x5 + x4, 7);
+            x7 ^= Integer.rotateLeft(x6 + x5, 9);
+            x4 ^= Integer.rotateLeft(x7 + x6, 13);
+            x5 ^= Integer.rotateLeft(x4 + x7, 18);
+            x11 ^= Integer.rotateLeft(x10 + x9, 7);
+            x8 ^= Integer.rotateLeft(x11 + x10, 9);
+            x9 ^= Integer.rotateLeft(x8 + x11, 13);
+            x10 ^= Integer.rotateLeft(x9 + x8, 18);
+            x12 ^= Integer.rotateLeft(x15 + x14, 7);
+            x13 ^= Integer.rotateLeft(x12 + x15, 9);
+            x14 ^= Integer.rotateLeft(x13 + x12, 13);
+            x15 ^= Integer.rotateLeft(x14 + x13, 18);
+        }
+
+        b[0] += x0; b[1] += x1; b[2] += x2; b[3] += x3; b[4] += x4; b[5] += x5; b[6] += x6; b[7] += x7;
+        b[8] += x8; b[9] += x9; b[10] += x10; b[11] += x11; b[12] += x12; b[13] += x13; b[14] += x14; b[15] += x15;
+    }
+
+    private static int littleEndianInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff)
+            | ((bytes[offset + 1] & 0xff) << 8)
+            | ((bytes[offset + 2] & 0xff) << 16)
+            | ((bytes[offset + 3] & 0xff) << 24);
+    }
+
+    private static Mac newHmacSha256(byte[] password) {
+        try {
+            Mac hmac = Mac.getInstance("HmacSHA256");
+            // An empty password is valid for scrypt, but not as a SecretKeySpec, so it is padded
+            // with a zero byte, which HMAC does anyway for keys shorter than its block.
+            hmac.init(new SecretKeySpec((password.length == 0) ? new byte[1] : password, "HmacSHA256"));
+            return hmac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            // Every Java platform is required to support HmacSHA256, we should never hit this.
+            throw new IllegalStateException("HmacSHA256 is unavailable!", e);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package org.aion.harness.main;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.kernel.utils.CryptoUtils;
+import org.aion.harness.main.util.Bytes32Set;
+import org.aion.harness.result.RpcResult;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Picks tight energy limits for transactions, using the node's {@code eth_estimateGas} estimates,
+ * so that the node does not reserve block energy far beyond what a transaction will actually use,
+ * and more transactions fit into each block.
+ *
+ * Estimating every transaction would cost an RPC call per transaction, so estimates are cached by
+ * the shape of the call: the hash of the destination's code, the method selector and the length
+ * of the data. Calls of the same shape are assumed to use about the same energy, and so are given
+ * the same limit. Every account without code shares the same code hash, so that all plain
+ * balance transfers are estimated once. A contract deployment's shape is instead the hash of the
+ * deployment data itself.
+ *
+ * The code of each destination is looked up once. The accounts found to have no code are
+ * remembered compactly, so that sending to many fresh accounts costs one lookup apiece, and the
+ * code hashes of up to {@value #MAX_CACHED_CODE_HASHES} of the most recently called contracts are
+ * cached. A caller that knows its destination has no code, such as when funding a new account,
+ * can skip the lookup altogether with {@link #transferEnergyLimitFor(Address, Address, BigInteger)}.
+ *
+ * The method selector of Avm transaction data is its leading ABI-encoded method name, and
+ * otherwise the first 4 bytes of the data, as Fvm contracts use.
+ *
+ * Calls of the same shape may still differ in the energy they use, for instance by writing to
+ * storage for the first time, and so each limit is the estimate plus the configured percentage of
+ * headroom.
+ *
+ * This class is thread-safe, though estimates are made one at a time.
+ */
+public final class EnergyEstimator {
+    public static final int DEFAULT_HEADROOM_PERCENT = 20;
+    public static final int MAX_CACHED_CODE_HASHES = 4_096;
+
+    // The ABI token that precedes an encoded string, such as the method name of an Avm call.
+    private static final byte ABI_STRING_TOKEN = 0x21;
+    private static final int FVM_SELECTOR_LENGTH = 4;
+    private static final String EMPTY_CODE_HASH = Hex.encodeHexString(CryptoUtils.blake256(new byte[0]));
+
+    // The shape of a call without data to an account without code.
+    private static final String TRANSFER_SHAPE = EMPTY_CODE_HASH + "::0";
+
+    private final Backend backend;
+    private final int headroomPercent;
+    private final Bytes32Set<Address> accountsWithoutCode = Bytes32Set.forAddresses();
+    // In access order, so that the least recently called contract is evicted first.
+    private final Map<Address, String> codeHashes = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> estimates = new HashMap<>();
+
+    /**
+     * Constructs a new estimator that asks the node for estimates using the specified RPC, and
+     * adds the default headroom to them.
+     *
+     * @param rpc The RPC to estimate energy with.
+     */
+    public EnergyEstimator(RPC rpc) {
+        this(rpc, DEFAULT_HEADROOM_PERCENT);
+    }
+
+    /**
+     * Constructs a new estimator that asks the node for estimates using the specified RPC, and
+     * adds the specified percentage of headroom to them.
+     *
+     * @param rpc The RPC to estimate energy with.
+     * @param headroomPercent The percentage of the estimate to add to it.
+     */
+    public EnergyEstimator(RPC rpc, int headroomPercent) {
+        this(toBackend(rpc), headroomPercent);
+    }
+
+    /**
+     * Constructs a new estimator that gets estimates from the specified backend, and adds the
+     * specified percentage of headroom to them.
+     *
+     * @param backend The source of code and estimates.
+     * @param headroomPercent The percentage of the estimate to add to it.
+     */
+    public EnergyEstimator(Backend backend, int headroomPercent) {
+        if (backend == null) {
+            throw new NullPointerException("Cannot construct an estimator with a null backend.");
+        }
+        if (headroomPercent < 0) {
+            throw new IllegalArgumentException("Headroom must be non-negative: " + headroomPercent);
+        }
+
+        this.backend = backend;
+        this.headroomPercent = headroomPercent;
+    }
+
+    /**
+     * Returns the energy limit to use for the specified transaction, which is the estimate of a
+     * call of its shape plus the headroom. A null destination is a contract deployment, which is
+     * an Avm deployment if {@code isAvmCreate} is true.
+     *
+     * @param sender The sender of the transaction.
+     * @param destination The destination of the transaction.
+     * @param value The value to transfer.
+     * @param data The transaction data.
+     * @param isAvmCreate Whether the transaction deploys an Avm contract.
+     * @return the energy limit.
+     * @throws IllegalStateException if the node fails to give the code or the estimate.
+     */
+    public synchronized long energyLimitFor(Address sender, Address destination, BigInteger value, byte[] data, boolean isAvmCreate) throws InterruptedException {
+        if (sender == null) {
+            throw new NullPointerException("Cannot estimate energy with a null sender.");
+        }
+        if (value == null) {
+            throw new NullPointerException("Cannot estimate energy with a null value.");
+        }
+
+        byte[] callData = (data == null) ? new byte[0] : data;
+        return limitFor(shapeOf(destination, callData, isAvmCreate), sender, destination, value, callData, isAvmCreate);
+    }
+
+    /**
+     * Returns the energy limit to use for a balance transfer, without data, to the specified
+     * destination, which the caller knows to have no code. The code of the destination is not
+     * looked up, and the limit is the one that any other call without data to an account without
+     * code is given.
+     *
+     * @param sender The sender of the transaction.
+     * @param destination The destination of the transaction, which has no code.
+     * @param value The value to transfer.
+     * @return the energy limit.
+     * @throws IllegalStateException if the node fails to give the estimate.
+     */
+    public synchronized long transferEnergyLimitFor(Address sender, Address destination, BigInteger value) throws InterruptedException {
+        if (sender == null) {
+            throw new NullPointerException("Cannot estimate energy with a null sender.");
+        }
+        if (destination == null) {
+            throw new NullPointerException("Cannot estimate the energy of a transfer with a null destination.");
+        }
+        if (value == null) {
+            throw new NullPointerException("Cannot estimate energy with a null value.");
+        }
+
+        return limitFor(TRANSFER_SHAPE, sender, destination, value, new byte[0], false);
+    }
+
+    private long limitFor(String shape, Address sender, Address destination, BigInteger value, byte[] callData, boolean isAvmCreate) throws InterruptedException {
+        Long estimate = this.estimates.get(shape);
+        if (estimate == null) {
+            RpcResult<Long> result = this.backend.estimateEnergy(sender, destination, value, callData, isAvmCreate);
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("Failed to estimate the energy of a call of shape " + shape + " due to: " + result.getError());
+            }
+            estimate = result.getResult();
+            this.estimates.put(shape, estimate);
+        }
+
+        return estimate + (estimate * this.headroomPercent + 99) / 100;
+    }
+
+    /**
+     * Returns the shape of the call: the hash of the destination's code (or of the deployment
+     * data), the method selector and the data length.
+     */
+    private String shapeOf(Address destination, byte[] data, boolean isAvmCreate) throws InterruptedException {
+        if (destination == null) {
+            return (isAvmCreate ? "avm-create:" : "create:") + Hex.encodeHexString(CryptoUtils.blake256(data));
+        }
+        return codeHashOf(destination) + ":" + Hex.encodeHexString(selectorOf(data)) + ":" + data.length;
+    }
+
+    private String codeHashOf(Address destination) throws InterruptedException {
+        if (this.accountsWithoutCode.contains(destination)) {
+            return EMPTY_CODE_HASH;
+        }
+
+        String codeHash = this.codeHashes.get(destination);
+        if (codeHash == null) {
+            RpcResult<byte[]> result = this.backend.getCode(destination);
+            if (!result.isSuccess()) {
+                throw new IllegalStateException("Failed to get the code of " + destination + " due to: " + result.getError());
+            }
+            if (result.getResult().length == 0) {
+                this.accountsWithoutCode.add(destination);
+                return EMPTY_CODE_HASH;
+            }
+            codeHash = Hex.encodeHexString(CryptoUtils.blake256(result.getResult()));
+            this.codeHashes.put(destination, codeHash);
+            if (this.codeHashes.size() > MAX_CACHED_CODE_HASHES) {
+                Iterator<Address> eldest = this.codeHashes.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return codeHash;
+    }
+
+    /**
+     * Returns the ABI-encoded method name that begins Avm call data, if the data begins with one,
+     * and otherwise the first 4 bytes of the data.
+     */
+    private static byte[] selectorOf(byte[] data) {
+        if ((data.length >= 3) && (data[0] == ABI_STRING_TOKEN)) {
+            int nameLength = ((data[1] & 0xff) << 8) | (data[2] & 0xff);
+            if (data.length >= 3 + nameLength) {
+                return Arrays.copyOf(data, 3 + nameLength);
+            }
+        }
+        return Arrays.copyOf(data, Math.min(FVM_SELECTOR_LENGTH, data.length));
+    }
+
+    private static Backend toBackend(RPC rpc) {
+        if (rpc == null) {
+            throw new NullPointerException("Cannot construct an estimator with a null rpc.");
+        }
+        return new Backend() {
+            @Override
+            public RpcResult<byte[]> getCode(Address address) throws InterruptedException {
+                return rpc.getCode(address);
+            }
+
+            @Override
+            public RpcResult<Long> estimateEnergy(Address sender, Address destination, BigInteger value, byte[] data, boolean isAvmCreate) throws InterruptedException {
+                return rpc.estimateEnergy(sender, destination, value, data, isAvmCreate);
+            }
+        };
+    }
+
+    /**
+     * The means by which the estimator gets the code of contracts and estimates from the node.
+     */
+    public interface Backend {
+
+        /**
+         * Returns the code of the contract at the specified address, which is empty if there is
+         * no contract there.
+         */
+        RpcResult<byte[]> getCode(Address address) throws InterruptedException;
+
+        /**
+         * Returns the energy the specified transaction is estimated to use.
+         */
+        RpcResult<Long> estimateEnergy(Address sender, Address destination, BigInteger value, byte[] data, boolean isAvmCreate) throws InterruptedException;
+    }
+}
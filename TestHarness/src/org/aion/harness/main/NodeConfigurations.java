@@ -20,6 +20,8 @@ public final class NodeConfigurations {
     private final DatabaseOption databaseNodeOption;
     private final BuildOption buildOption;
     private final String buildDirectory;
+    private final long maxOutputLogSizeInBytes;
+    private final int numberOfArchivedOutputLogs;
 
     private enum BuildOption { ALWAYS_FROM_SOURCE, USE_BUILD }
 
@@ -28,7 +30,7 @@ public final class NodeConfigurations {
     /**
      * Constructs an instance of this class using the specified parameters.
      */
-    private NodeConfigurations(Network network, String kernelSourceDirectory, String builtKernelDirectory, DatabaseOption databaseOption, BuildOption buildOption) {
+    private NodeConfigurations(Network network, String kernelSourceDirectory, String builtKernelDirectory, DatabaseOption databaseOption, BuildOption buildOption, long maxOutputLogSizeInBytes, int numberOfArchivedOutputLogs) {
         if (network == null) {
             throw new NullPointerException("Cannot construct NodeConfigurations with null network.");
         }
@@ -44,6 +46,8 @@ public final class NodeConfigurations {
         this.builtKernelDir = builtKernelDirectory;
         this.databaseNodeOption = databaseOption;
         this.buildOption = buildOption;
+        this.maxOutputLogSizeInBytes = maxOutputLogSizeInBytes;
+        this.numberOfArchivedOutputLogs = numberOfArchivedOutputLogs;
 
         this.buildDirectory = (kernelSourceDirectory == null) ? builtKernelDirectory : NodeFileManager.getSandboxPath();
     }
@@ -53,7 +57,7 @@ public final class NodeConfigurations {
             throw new NullPointerException("Cannot construct NodeConfigurations with null kernelSourceDirectory.");
         }
 
-        return new NodeConfigurations(network, kernelSourceDirectory, null, DatabaseOption.DO_NOT_PRESERVE_DATABASE, BuildOption.ALWAYS_FROM_SOURCE);
+        return new NodeConfigurations(network, kernelSourceDirectory, null, DatabaseOption.DO_NOT_PRESERVE_DATABASE, BuildOption.ALWAYS_FROM_SOURCE, 0, 0);
     }
 
     public static NodeConfigurations alwaysUseBuiltKernel(Network network, String builtKernelDirectory, DatabaseOption databaseOption) {
@@ -61,7 +65,27 @@ public final class NodeConfigurations {
             throw new NullPointerException("Cannot construct NodeConfigurations with null builtKernelDirectory.");
         }
 
-        return new NodeConfigurations(network, null, builtKernelDirectory, databaseOption, BuildOption.USE_BUILD);
+        return new NodeConfigurations(network, null, builtKernelDirectory, databaseOption, BuildOption.USE_BUILD, 0, 0);
+    }
+
+    /**
+     * Returns a copy of these configurations under which the node's output log is rotated once it
+     * grows larger than the specified size, keeping at most the specified number of archives of
+     * it. This keeps the disk usage of long-running nodes bounded.
+     *
+     * @param maxSizeInBytes The size beyond which the output log is rotated.
+     * @param numberOfArchives The number of archived output logs to keep, possibly zero.
+     * @return the new configurations.
+     */
+    public NodeConfigurations withOutputLogRotation(long maxSizeInBytes, int numberOfArchives) {
+        if (maxSizeInBytes <= 0) {
+            throw new IllegalArgumentException("Maximum output log size must be positive but was: " + maxSizeInBytes);
+        }
+        if (numberOfArchives < 0) {
+            throw new IllegalArgumentException("Number of archived output logs cannot be negative but was: " + numberOfArchives);
+        }
+
+        return new NodeConfigurations(this.network, this.kernelSourceDirectory, this.builtKernelDir, this.databaseNodeOption, this.buildOption, maxSizeInBytes, numberOfArchives);
     }
 
     /**
@@ -132,6 +156,34 @@ public final class NodeConfigurations {
         return this.databaseNodeOption == DatabaseOption.PRESERVE_DATABASE;
     }
 
+    /**
+     * Returns {@code true} only if the node's output log is to be rotated once it grows too large.
+     *
+     * @return whether or not to rotate the output log.
+     */
+    public boolean rotateOutputLog() {
+        return this.maxOutputLogSizeInBytes > 0;
+    }
+
+    /**
+     * Returns the size beyond which the node's output log is rotated, or zero if it is never
+     * rotated.
+     *
+     * @return the maximum output log size.
+     */
+    public long getMaxOutputLogSizeInBytes() {
+        return this.maxOutputLogSizeInBytes;
+    }
+
+    /**
+     * Returns the number of archived output logs to keep when rotating the output log.
+     *
+     * @return the number of archived output logs.
+     */
+    public int getNumberOfArchivedOutputLogs() {
+        return this.numberOfArchivedOutputLogs;
+    }
+
     public boolean alwaysBuildFromSource() {
         return this.buildOption == BuildOption.ALWAYS_FROM_SOURCE;
     }
@@ -84,6 +84,79 @@ public final class NodeListener {
         return this.logListener.submitEventToBeListenedFor(event, timeout, unit);
     }
 
+    /**
+     * Listens for the specified event to occur, including any occurrence of it within the
+     * specified look-back window prior to this call.
+     *
+     * The node's recently logged lines are retained by the listener, and these are checked first.
+     * If the event already occurred within the look-back window then the returned future completes
+     * immediately, and its observation time is the time that the event was originally observed.
+     * This closes the race in which an event occurs (for example, a transaction is sealed) before
+     * the caller gets a chance to start listening for it.
+     *
+     * Only a bounded number of recent lines are retained, so a look-back window is not a guarantee
+     * that every line logged within that window is still available.
+     *
+     * This method is non-blocking but returns a blocking {@link java.util.concurrent.Future}
+     * implementation.
+     *
+     * @param event The event to listen for.
+     * @param timeout The duration after which the event expires.
+     * @param unit The time unit of the duration.
+     * @param lookBack How far back in time to check for the event.
+     * @param lookBackUnit The time unit of the look-back window.
+     * @return the result of this event.
+     */
+    public FutureResult<LogEventResult> listenForEvent(IEvent event, long timeout, TimeUnit unit, long lookBack, TimeUnit lookBackUnit) {
+        if (event == null) {
+            throw new NullPointerException("Cannot wait for a null event.");
+        }
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Timeout value was negative: " + timeout);
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("Cannot specify a null time unit.");
+        }
+        if (lookBack < 0) {
+            throw new IllegalArgumentException("Look-back value was negative: " + lookBack);
+        }
+        if (lookBackUnit == null) {
+            throw new IllegalArgumentException("Cannot specify a null look-back time unit.");
+        }
+
+        return this.logListener.submitEventToBeListenedFor(event, timeout, unit, lookBack, lookBackUnit);
+    }
+
+    /**
+     * Attaches the specified transaction tracker to the node being listened to, so that the
+     * tracker learns of the transactions that are sealed or rejected from now on. The tracker
+     * remains attached, regardless of this listener, until it is detached.
+     *
+     * Unlike listening for an event per transaction, a tracker costs a few dozen bytes per
+     * transaction and a single hash-token scan per log line, and so is the way to follow the
+     * outcomes of bulk workloads.
+     *
+     * @param tracker The tracker to attach.
+     */
+    public void attachTransactionTracker(TransactionTracker tracker) {
+        if (tracker == null) {
+            throw new NullPointerException("Cannot attach a null tracker.");
+        }
+        this.logListener.attach(tracker);
+    }
+
+    /**
+     * Detaches the specified transaction tracker from the node being listened to, if attached.
+     *
+     * @param tracker The tracker to detach.
+     */
+    public void detachTransactionTracker(TransactionTracker tracker) {
+        if (tracker == null) {
+            throw new NullPointerException("Cannot detach a null tracker.");
+        }
+        this.logListener.detach(tracker);
+    }
+
     /**
      * Returns the number of events that are currently being listened for. These events may have
      * been requested by separate {@link NodeListener} objects. But these are the total number
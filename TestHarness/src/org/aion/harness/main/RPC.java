@@ -1,7 +1,12 @@
 package org.aion.harness.main;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.List;
@@ -37,6 +42,12 @@ import org.apache.commons.codec.binary.Hex;
  * This class is not thread-safe.
  */
 public final class RPC {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // The number of unlocks per batch call, which keeps each payload well within the size that
+    // can be passed to curl as a single argument.
+    private static final int UNLOCK_BATCH_SIZE = 100;
+
     private final SimpleLog logger;
     private final RpcCaller rpc;
 
@@ -407,6 +418,44 @@ public final class RPC {
         return callUnlockKeystoreAccount(account, password, units.toSeconds(unlockDuration), false);
     }
 
+    /**
+     * Attempts to unlock each of the specified accounts using the given password for the duration
+     * specified in the given units, and returns the result of each attempt, in the same order as
+     * the accounts.
+     *
+     * The unlocks are sent as batch calls, each of which unlocks many accounts at once, rather
+     * than as one call per account.
+     *
+     * The output of this method call will be verbose.
+     *
+     * @param accounts The accounts to unlock.
+     * @param password The password of every account.
+     * @param unlockDuration The duration to leave the accounts unlocked.
+     * @param units The units that the duration are in.
+     * @return the result of each attempt to unlock an account.
+     */
+    public List<RpcResult<Boolean>> unlockKeystoreAccountsVerbose(List<Address> accounts, String password, long unlockDuration, TimeUnit units) throws InterruptedException {
+        return callUnlockKeystoreAccounts(accounts, password, units.toSeconds(unlockDuration), true);
+    }
+
+    /**
+     * Attempts to unlock each of the specified accounts using the given password for the duration
+     * specified in the given units, and returns the result of each attempt, in the same order as
+     * the accounts.
+     *
+     * The unlocks are sent as batch calls, each of which unlocks many accounts at once, rather
+     * than as one call per account.
+     *
+     * @param accounts The accounts to unlock.
+     * @param password The password of every account.
+     * @param unlockDuration The duration to leave the accounts unlocked.
+     * @param units The units that the duration are in.
+     * @return the result of each attempt to unlock an account.
+     */
+    public List<RpcResult<Boolean>> unlockKeystoreAccounts(List<Address> accounts, String password, long unlockDuration, TimeUnit units) throws InterruptedException {
+        return callUnlockKeystoreAccounts(accounts, password, units.toSeconds(unlockDuration), false);
+    }
+
     /**
      * Sends the specified unsigned transaction to the node. This will only work if the account has
      * already been unlocked.
@@ -459,6 +508,38 @@ public final class RPC {
         return callSendSignedTransaction(transaction, true);
     }
 
+    /**
+     * Sends the signed transaction whose raw bytes are the remaining bytes of the specified buffer
+     * to the node. The bytes are hex-encoded directly into the request, so that transactions read
+     * from a memory-mapped {@link org.aion.harness.kernel.TransactionCorpus} are neither copied
+     * into arrays nor re-encoded. The buffer's position is not changed.
+     *
+     * This call is asynchronous, and as such, the returned receipt hash will not correspond to a
+     * receipt until the transaction has been fully processed.
+     *
+     * @param rawTransaction The raw bytes of the signed transaction.
+     * @return the result of this attempt to send the transaction.
+     */
+    public RpcResult<ReceiptHash> sendRawTransaction(ByteBuffer rawTransaction) throws InterruptedException {
+        return callSendRawTransaction(rawTransaction, false);
+    }
+
+    /**
+     * Sends the signed transaction whose raw bytes are the remaining bytes of the specified buffer
+     * to the node.
+     *
+     * Displays the I/O of the attempt to hit the RPC endpoint.
+     *
+     * This call is asynchronous, and as such, the returned receipt hash will not correspond to a
+     * receipt until the transaction has been fully processed.
+     *
+     * @param rawTransaction The raw bytes of the signed transaction.
+     * @return the result of this attempt to send the transaction.
+     */
+    public RpcResult<ReceiptHash> sendRawTransactionVerbose(ByteBuffer rawTransaction) throws InterruptedException {
+        return callSendRawTransaction(rawTransaction, true);
+    }
+
     /**
      * Returns the block whose number is the specified number, if such a block exists.
      *
@@ -531,6 +612,33 @@ public final class RPC {
         return callGetBalance(address, true);
     }
 
+    /**
+     * Returns the code of the contract at the specified address, which is empty if there is no
+     * contract at the address.
+     *
+     * @param address The address whose code is to be queried.
+     * @return the result of the call.
+     */
+    public RpcResult<byte[]> getCode(Address address) throws InterruptedException {
+        return callGetCode(address, false);
+    }
+
+    /**
+     * Returns the node's estimate of the energy that the specified transaction would use if it
+     * were executed against the latest block. A null destination is a contract deployment, which is
+     * an Avm deployment if {@code isAvmCreate} is true.
+     *
+     * @param sender The sender of the transaction.
+     * @param destination The destination of the transaction.
+     * @param value The value to transfer.
+     * @param data The transaction data.
+     * @param isAvmCreate Whether the transaction deploys an Avm contract.
+     * @return the result of the call.
+     */
+    public RpcResult<Long> estimateEnergy(Address sender, Address destination, BigInteger value, byte[] data, boolean isAvmCreate) throws InterruptedException {
+        return callEstimateEnergy(sender, destination, value, data, isAvmCreate, false);
+    }
+
     /**
      * Returns the nonce of the specified address.
      *
@@ -724,8 +832,7 @@ public final class RPC {
         }
 
         // Construct the payload to the rpc call (ie. the content of --data).
-        String params = "\"0x" + Hex.encodeHexString(account.getAddressBytes()) + "\",\"" + password + "\",\"" + unlockDurationInSeconds + "\"";
-        String payload = RpcPayload.generatePayload(RpcMethod.UNLOCK_ACCOUNT, params);
+        String payload = RpcPayload.generatePayload(RpcMethod.UNLOCK_ACCOUNT, unlockParams(account, password, unlockDurationInSeconds));
 
         logMessage("-->" + payload);
         InternalRpcResult internalResult = this.rpc.call(payload, verbose);
@@ -744,6 +851,130 @@ public final class RPC {
         }
     }
 
+    private List<RpcResult<Boolean>> callUnlockKeystoreAccounts(List<Address> accounts, String password, long unlockDurationInSeconds, boolean verbose) throws InterruptedException {
+        if (accounts == null) {
+            throw new NullPointerException("Cannot unlock null accounts!");
+        }
+        if (password == null) {
+            throw new NullPointerException("Cannot unlock accounts with null password!");
+        }
+        for (Address account : accounts) {
+            if (account == null) {
+                throw new NullPointerException("Cannot unlock null account!");
+            }
+        }
+
+        List<RpcResult<Boolean>> results = new ArrayList<>();
+        for (int start = 0; start < accounts.size(); start += UNLOCK_BATCH_SIZE) {
+            List<Address> batch = accounts.subList(start, Math.min(start + UNLOCK_BATCH_SIZE, accounts.size()));
+
+            // Construct the payload to the rpc call (ie. the content of --data).
+            List<String> params = new ArrayList<>();
+            for (Address account : batch) {
+                params.add(unlockParams(account, password, unlockDurationInSeconds));
+            }
+            String payload = RpcPayload.generateBatchPayload(RpcMethod.UNLOCK_ACCOUNT, params);
+
+            logMessage("-->" + payload);
+            InternalRpcResult internalResult = this.rpc.callBatch(payload, verbose);
+            logMessage("<--" + internalResult.output);
+
+            results.addAll(parseUnlockResults(internalResult, batch.size()));
+        }
+        return results;
+    }
+
+    /**
+     * Returns the result of each of the unlocks in the batch, matching each response to its
+     * request by its id, which is the index of the request in the batch.
+     *
+     * A malformed response never throws: a response without a usable id cannot be matched to its
+     * request, which is then reported as having no response, and a response with an error, without
+     * a result or with a result that is not a boolean is reported as a failed unlock.
+     */
+    private static List<RpcResult<Boolean>> parseUnlockResults(InternalRpcResult internalResult, int batchSize) {
+        List<RpcResult<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            results.add(RpcResult.unsuccessful(internalResult.success ? "No response was returned!" : internalResult.error));
+        }
+        if (!internalResult.success) {
+            return results;
+        }
+
+        JsonElement parsed;
+        try {
+            parsed = new JsonParser().parse(internalResult.output);
+        } catch (JsonParseException e) {
+            parsed = null;
+        }
+        if ((parsed == null) || !parsed.isJsonArray()) {
+            for (int i = 0; i < batchSize; i++) {
+                results.set(i, RpcResult.unsuccessful("Malformed batch response: " + internalResult.output));
+            }
+            return results;
+        }
+
+        long timeOfCall = internalResult.getTimeOfCall(TimeUnit.NANOSECONDS);
+        for (JsonElement element : parsed.getAsJsonArray()) {
+            if (!element.isJsonObject()) {
+                continue;
+            }
+            JsonObject response = element.getAsJsonObject();
+            int id = idOf(response.get("id"));
+            if ((id < 0) || (id >= batchSize)) {
+                continue;
+            }
+
+            JsonElement result = response.get("result");
+            JsonElement error = response.get("error");
+            if ((error != null) && !error.isJsonNull()) {
+                results.set(id, RpcResult.unsuccessful(errorMessage(error)));
+            } else if ((result == null) || result.isJsonNull()) {
+                results.set(id, RpcResult.unsuccessful("No result was returned!"));
+            } else if (!result.isJsonPrimitive() || !result.getAsJsonPrimitive().isBoolean()) {
+                results.set(id, RpcResult.unsuccessful("Result was not a boolean: " + result));
+            } else {
+                results.set(id, RpcResult.successful(result.getAsBoolean(), timeOfCall, TimeUnit.NANOSECONDS));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the id of a response, or -1 if it has no id or its id is not an integer.
+     */
+    private static int idOf(JsonElement id) {
+        if ((id == null) || !id.isJsonPrimitive() || !id.getAsJsonPrimitive().isNumber()) {
+            return -1;
+        }
+        try {
+            return id.getAsBigDecimal().intValueExact();
+        } catch (ArithmeticException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the message of a response's error, preferring its 'data' over its less informative
+     * 'message'.
+     */
+    private static String errorMessage(JsonElement error) {
+        if (error.isJsonObject()) {
+            JsonObject errorObject = error.getAsJsonObject();
+            for (String attribute : new String[] { "data", "message" }) {
+                JsonElement value = errorObject.get(attribute);
+                if ((value != null) && value.isJsonPrimitive()) {
+                    return value.getAsString();
+                }
+            }
+        }
+        return error.toString();
+    }
+
+    private static String unlockParams(Address account, String password, long unlockDurationInSeconds) {
+        return "\"0x" + Hex.encodeHexString(account.getAddressBytes()) + "\",\"" + password + "\",\"" + unlockDurationInSeconds + "\"";
+    }
+
     private RpcResult<ReceiptHash> callSendUnsignedTransaction(UnsignedTransaction transaction, boolean verbose) throws InterruptedException {
         if (transaction == null) {
             throw new IllegalArgumentException("Cannot send a null transaction.");
@@ -782,7 +1013,7 @@ public final class RPC {
                     internalResult.getTimeOfCall(TimeUnit.NANOSECONDS),
                     TimeUnit.NANOSECONDS);
 
-            } catch (DecoderException e) {
+            } catch (DecoderException | IllegalArgumentException e) {
                 return RpcResult.unsuccessful(e.toString());
             }
         } else {
@@ -795,8 +1026,24 @@ public final class RPC {
             throw new IllegalArgumentException("Cannot send a null transaction.");
         }
 
-        // Construct the payload to the rpc call (ie. the content of --data).
-        String params = "\"0x" + Hex.encodeHexString(transaction.getSignedTransactionBytes()) + "\"";
+        return callSendRawTransaction(transaction.getSignedTransactionBytesView(), verbose);
+    }
+
+    private RpcResult<ReceiptHash> callSendRawTransaction(ByteBuffer rawTransaction, boolean verbose) throws InterruptedException {
+        if (rawTransaction == null) {
+            throw new IllegalArgumentException("Cannot send a null transaction.");
+        }
+
+        // Encode straight from the buffer, which may be a direct or mapped buffer with no array.
+        StringBuilder params = new StringBuilder((rawTransaction.remaining() * 2) + 4).append("\"0x");
+        for (int i = rawTransaction.position(); i < rawTransaction.limit(); i++) {
+            byte b = rawTransaction.get(i);
+            params.append(HEX_DIGITS[(b >>> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+        }
+        return callSendRawTransaction(params.append('"').toString(), verbose);
+    }
+
+    private RpcResult<ReceiptHash> callSendRawTransaction(String params, boolean verbose) throws InterruptedException {
         String payload = RpcPayload.generatePayload(RpcMethod.SEND_RAW_TRANSACTION, params);
 
         logMessage("-->" + payload);
@@ -817,7 +1064,7 @@ public final class RPC {
                     internalResult.getTimeOfCall(TimeUnit.NANOSECONDS),
                     TimeUnit.NANOSECONDS);
 
-            } catch (DecoderException e) {
+            } catch (DecoderException | IllegalArgumentException e) {
                 return RpcResult.unsuccessful(e.toString());
             }
         } else {
@@ -857,6 +1104,85 @@ public final class RPC {
         }
     }
 
+    private RpcResult<byte[]> callGetCode(Address address, boolean verbose) throws InterruptedException {
+        if (address == null) {
+            throw new IllegalArgumentException("Cannot get code of a null address.");
+        }
+
+        // Construct the payload to the rpc call (ie. the content of --data).
+        String params = "\"0x" + Hex.encodeHexString(address.getAddressBytes()) + "\", \"latest\"";
+        String payload = RpcPayload.generatePayload(RpcMethod.GET_CODE, params);
+
+        logMessage("-->" + payload);
+        InternalRpcResult internalResult = this.rpc.call(payload, verbose);
+        logMessage("<--" + internalResult.output);
+
+        if (internalResult.success) {
+            JsonStringParser outputParser = new JsonStringParser(internalResult.output);
+            String result = outputParser.attributeToString("result");
+
+            // An address with no code has the empty code '0x', which parses to no result at all.
+            try {
+                return RpcResult.successful(
+                    (result == null) ? new byte[0] : Hex.decodeHex(result),
+                    internalResult.getTimeOfCall(TimeUnit.NANOSECONDS),
+                    TimeUnit.NANOSECONDS);
+            } catch (DecoderException e) {
+                return RpcResult.unsuccessful(e.toString());
+            }
+        } else {
+            return RpcResult.unsuccessful(internalResult.error);
+        }
+    }
+
+    private RpcResult<Long> callEstimateEnergy(Address sender, Address destination, BigInteger value, byte[] data, boolean isAvmCreate, boolean verbose) throws InterruptedException {
+        if (sender == null) {
+            throw new IllegalArgumentException("Cannot estimate energy with a null sender.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot estimate energy with a null value.");
+        }
+
+        // Construct the payload to the rpc call (ie. the content of --data), laid out as for an
+        // unsigned transaction.
+        String to = (destination == null) ? "" : ("\"to\":\"0x" + Hex.encodeHexString(destination.getAddressBytes()) + "\",");
+        String type = ((destination == null) && isAvmCreate) ? "\"type\":\"0x2\"," : "";
+        String params = "{\"from\":\"0x" + Hex.encodeHexString(sender.getAddressBytes()) + "\","
+            + to
+            + type
+            + "\"value\":\"0x" + value.toString(16) + "\","
+            + "\"data\":\"0x" + (((data == null) || (data.length == 0)) ? "0" : Hex.encodeHexString(data)) + "\"}";
+        String payload = RpcPayload.generatePayload(RpcMethod.ESTIMATE_ENERGY, params);
+
+        logMessage("-->" + payload);
+        InternalRpcResult internalResult = this.rpc.call(payload, verbose);
+        logMessage("<--" + internalResult.output);
+
+        if (internalResult.success) {
+            JsonElement result;
+            try {
+                JsonElement response = new JsonParser().parse(internalResult.output);
+                result = response.isJsonObject() ? response.getAsJsonObject().get("result") : null;
+            } catch (JsonParseException e) {
+                return RpcResult.unsuccessful("Malformed response: " + internalResult.output);
+            }
+            if ((result == null) || result.isJsonNull()) {
+                return RpcResult.unsuccessful("No estimate was returned!");
+            }
+
+            // The estimate may come back as a plain number or as a hex string.
+            try {
+                String estimate = result.getAsString();
+                long energy = estimate.startsWith("0x") ? Long.parseLong(estimate.substring(2), 16) : Long.parseLong(estimate);
+                return RpcResult.successful(energy, internalResult.getTimeOfCall(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+            } catch (NumberFormatException | IllegalStateException | UnsupportedOperationException e) {
+                return RpcResult.unsuccessful("Unparseable estimate: " + result);
+            }
+        } else {
+            return RpcResult.unsuccessful(internalResult.error);
+        }
+    }
+
     private RpcResult<BigInteger> callGetNonce(Address address, boolean verbose) throws InterruptedException {
         if (address == null) {
             throw new IllegalArgumentException("Cannot get nonce of a null address.");
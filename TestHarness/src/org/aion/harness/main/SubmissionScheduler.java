@@ -0,0 +1,344 @@
+package org.aion.harness.main;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.aion.harness.kernel.SignedTransaction;
+import org.aion.harness.main.TransactionTracker.State;
+import org.aion.harness.main.types.ReceiptHash;
+import org.aion.harness.result.RpcResult;
+
+/**
+ * Submits a workload of transactions from many senders so that the node always has transactions
+ * from many different accounts to choose from, rather than a long queue from one account that it
+ * can only include in nonce order.
+ *
+ * The workload is given as one list of transactions per sender, each in nonce order. Sends are
+ * interleaved round-robin across the senders: every pass over the senders sends at most one
+ * transaction of each, and a sender is skipped while it already has the configured number of
+ * transactions in flight, that is, sent but not yet sealed. A sender's transactions are always
+ * sent in order, one at a time, so that the node never receives a nonce before its predecessor.
+ *
+ * Whether a transaction has been sealed or rejected is learnt from a {@link TransactionTracker},
+ * which must be attached to a {@link NodeListener} listening to the node, so that sealing
+ * transactions frees their senders to send more without any polling of the node. Each transaction
+ * is tracked just before it is sent.
+ *
+ * The senders can be split across multiple sending threads, each of which owns every n'th sender
+ * and interleaves sends among those alone. A sender whose transaction is rejected, or fails to be
+ * sent, stops sending, since its later transactions can no longer be included. Note that a
+ * transaction that fails to be sent is left in the SENT state in the tracker.
+ *
+ * This class is immutable, and {@code submit()} may be invoked multiple times.
+ */
+public final class SubmissionScheduler {
+    private final TransactionSender sender;
+    private final TransactionTracker tracker;
+    private final int inFlightDepth;
+    private final int numberOfSendingThreads;
+
+    /**
+     * Constructs a new scheduler that sends transactions to the node using the specified RPC.
+     *
+     * @param rpc The RPC to send transactions with.
+     * @param tracker The tracker, attached to a listener of the node.
+     * @param inFlightDepthPerSender The maximum number of unsealed transactions per sender.
+     * @param numberOfSendingThreads The number of threads to send transactions on.
+     */
+    public SubmissionScheduler(RPC rpc, TransactionTracker tracker, int inFlightDepthPerSender, int numberOfSendingThreads) {
+        this(toSender(rpc), tracker, inFlightDepthPerSender, numberOfSendingThreads);
+    }
+
+    /**
+     * Constructs a new scheduler that sends transactions to the node using the specified sender.
+     *
+     * @param sender The means of sending transactions.
+     * @param tracker The tracker, attached to a listener of the node.
+     * @param inFlightDepthPerSender The maximum number of unsealed transactions per sender.
+     * @param numberOfSendingThreads The number of threads to send transactions on.
+     */
+    public SubmissionScheduler(TransactionSender sender, TransactionTracker tracker, int inFlightDepthPerSender, int numberOfSendingThreads) {
+        if (sender == null) {
+            throw new NullPointerException("Cannot construct a scheduler with a null sender.");
+        }
+        if (tracker == null) {
+            throw new NullPointerException("Cannot construct a scheduler with a null tracker.");
+        }
+        if (inFlightDepthPerSender < 1) {
+            throw new IllegalArgumentException("In-flight depth must be positive: " + inFlightDepthPerSender);
+        }
+        if (numberOfSendingThreads < 1) {
+            throw new IllegalArgumentException("Number of sending threads must be positive: " + numberOfSendingThreads);
+        }
+
+        this.sender = sender;
+        this.tracker = tracker;
+        this.inFlightDepth = inFlightDepthPerSender;
+        this.numberOfSendingThreads = numberOfSendingThreads;
+    }
+
+    /**
+     * Submits the workload, where the i'th list holds the transactions of the i'th sender in nonce
+     * order, and returns once every transaction has been sealed, every sender has stopped, or the
+     * timeout has elapsed, whichever is first.
+     *
+     * @param workload The transactions of each sender.
+     * @param timeout The timeout duration.
+     * @param unit The time unit of the duration.
+     * @return a report of what became of the transactions.
+     */
+    public Report submit(List<List<SignedTransaction>> workload, long timeout, TimeUnit unit) throws InterruptedException {
+        if (workload == null) {
+            throw new NullPointerException("Cannot submit a null workload.");
+        }
+        if (unit == null) {
+            throw new NullPointerException("Cannot submit using a null time unit.");
+        }
+        for (int i = 0; i < workload.size(); i++) {
+            List<SignedTransaction> transactions = workload.get(i);
+            if ((transactions == null) || transactions.contains(null)) {
+                throw new NullPointerException("The transactions of sender #" + i + " are or contain null.");
+            }
+        }
+
+        long startTimeInNanos = System.nanoTime();
+        long deadlineInNanos = startTimeInNanos + unit.toNanos(timeout);
+
+        int numberOfLanes = Math.max(1, Math.min(this.numberOfSendingThreads, workload.size()));
+        List<Lane> lanes = new ArrayList<>();
+        for (int lane = 0; lane < numberOfLanes; lane++) {
+            List<List<SignedTransaction>> senders = new ArrayList<>();
+            for (int i = lane; i < workload.size(); i += numberOfLanes) {
+                senders.add(workload.get(i));
+            }
+            lanes.add(new Lane(senders, deadlineInNanos));
+        }
+
+        Report report = new Report();
+        ExecutorService threads = Executors.newFixedThreadPool(numberOfLanes);
+        try {
+            for (Future<Report> laneReport : threads.invokeAll(lanes)) {
+                report.add(laneReport.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to submit the workload: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            threads.shutdownNow();
+        }
+
+        report.elapsedTimeInNanos = System.nanoTime() - startTimeInNanos;
+        return report;
+    }
+
+    private static TransactionSender toSender(RPC rpc) {
+        if (rpc == null) {
+            throw new NullPointerException("Cannot construct a scheduler with a null rpc.");
+        }
+        return rpc::sendSignedTransaction;
+    }
+
+    /**
+     * The senders owned by one sending thread, and how far each has got.
+     */
+    private final class Lane implements Callable<Report> {
+        private final List<List<SignedTransaction>> senders;
+        private final long deadlineInNanos;
+        private final int[] next;
+        private final int[] oldestUnsealed;
+        private final boolean[] stopped;
+        private final Report report = new Report();
+
+        private Lane(List<List<SignedTransaction>> senders, long deadlineInNanos) {
+            this.senders = senders;
+            this.deadlineInNanos = deadlineInNanos;
+            this.next = new int[senders.size()];
+            this.oldestUnsealed = new int[senders.size()];
+            this.stopped = new boolean[senders.size()];
+        }
+
+        @Override
+        public Report call() throws InterruptedException {
+            while (true) {
+                int numberDecided = tracker.numberOfDecidedTransactions();
+                boolean sentAny = false;
+                boolean allStopped = true;
+
+                for (int i = 0; i < this.senders.size(); i++) {
+                    if (this.stopped[i]) {
+                        continue;
+                    }
+
+                    List<SignedTransaction> transactions = this.senders.get(i);
+                    advance(i);
+                    if (this.stopped[i] || (this.oldestUnsealed[i] == transactions.size())) {
+                        this.stopped[i] = true;
+                        continue;
+                    }
+                    allStopped = false;
+
+                    if ((this.next[i] < transactions.size()) && (this.next[i] - this.oldestUnsealed[i] < inFlightDepth)) {
+                        send(i, transactions.get(this.next[i]));
+                        sentAny = true;
+                    }
+                }
+
+                long remainingInNanos = this.deadlineInNanos - System.nanoTime();
+                if (allStopped || (remainingInNanos <= 0)) {
+                    for (int i = 0; i < this.senders.size(); i++) {
+                        this.report.numberNotSent += this.senders.get(i).size() - this.next[i];
+                    }
+                    return this.report;
+                }
+
+                // Every sender is either done sending or at its in-flight depth, so nothing can be
+                // sent until one of the in-flight transactions is sealed or rejected.
+                if (!sentAny) {
+                    tracker.awaitMoreDecidedTransactionsThan(numberDecided, remainingInNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+
+        /**
+         * Moves past the sender's in-flight transactions that have been sealed, stopping the sender
+         * if one was rejected.
+         */
+        private void advance(int i) {
+            while (this.oldestUnsealed[i] < this.next[i]) {
+                State state = tracker.stateOf(this.senders.get(i).get(this.oldestUnsealed[i]).getTransactionHashView());
+
+                if ((state == State.SEALED) || (state == State.RECEIPT_FETCHED)) {
+                    this.report.numberSealed++;
+                    this.oldestUnsealed[i]++;
+                } else if (state == State.REJECTED) {
+                    this.report.numberRejected++;
+                    this.stopped[i] = true;
+                    return;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private void send(int i, SignedTransaction transaction) throws InterruptedException {
+            ByteBuffer hash = transaction.getTransactionHashView();
+            tracker.track(hash);
+
+            RpcResult<ReceiptHash> result;
+            try {
+                result = sender.send(transaction);
+            } catch (RuntimeException e) {
+                result = RpcResult.unsuccessful(String.valueOf(e.getMessage()));
+            }
+
+            if (result.isSuccess()) {
+                tracker.markAcked(hash);
+                this.next[i]++;
+                this.report.numberSent++;
+            } else {
+                this.report.numberFailedToSend++;
+                this.next[i]++;
+                this.stopped[i] = true;
+            }
+        }
+    }
+
+    /**
+     * The means by which the scheduler sends a transaction to the node.
+     */
+    public interface TransactionSender {
+
+        /**
+         * Sends the transaction to the node.
+         *
+         * @param transaction The transaction.
+         * @return the result of sending it.
+         */
+        RpcResult<ReceiptHash> send(SignedTransaction transaction) throws InterruptedException;
+    }
+
+    /**
+     * What became of the transactions of a submitted workload.
+     */
+    public static final class Report {
+        private int numberSent = 0;
+        private int numberSealed = 0;
+        private int numberRejected = 0;
+        private int numberFailedToSend = 0;
+        private int numberNotSent = 0;
+        private long elapsedTimeInNanos = 0;
+
+        private Report() {}
+
+        private void add(Report report) {
+            this.numberSent += report.numberSent;
+            this.numberSealed += report.numberSealed;
+            this.numberRejected += report.numberRejected;
+            this.numberFailedToSend += report.numberFailedToSend;
+            this.numberNotSent += report.numberNotSent;
+        }
+
+        /**
+         * Returns the number of transactions the node accepted.
+         */
+        public int numberOfTransactionsSent() {
+            return this.numberSent;
+        }
+
+        /**
+         * Returns the number of sent transactions that were seen to be sealed.
+         */
+        public int numberOfTransactionsSealed() {
+            return this.numberSealed;
+        }
+
+        /**
+         * Returns the number of sent transactions that were seen to be rejected.
+         */
+        public int numberOfTransactionsRejected() {
+            return this.numberRejected;
+        }
+
+        /**
+         * Returns the number of transactions the node did not accept.
+         */
+        public int numberOfTransactionsFailedToSend() {
+            return this.numberFailedToSend;
+        }
+
+        /**
+         * Returns the number of transactions that were never sent, because their sender had stopped
+         * or the timeout elapsed.
+         */
+        public int numberOfTransactionsNotSent() {
+            return this.numberNotSent;
+        }
+
+        /**
+         * Returns the time the submission took, in the desired units.
+         */
+        public long elapsedTime(TimeUnit unit) {
+            return unit.convert(this.elapsedTimeInNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Returns the number of transactions sealed per second over the whole submission.
+         */
+        public double sealedTransactionsPerSecond() {
+            return (this.elapsedTimeInNanos == 0) ? 0 : this.numberSealed * 1_000_000_000.0 / this.elapsedTimeInNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "SubmissionScheduler.Report { sent = " + this.numberSent + ", sealed = " + this.numberSealed + ", rejected = "
+                + this.numberRejected + ", failed to send = " + this.numberFailedToSend + ", not sent = " + this.numberNotSent
+                + ", elapsed = " + elapsedTime(TimeUnit.MILLISECONDS) + " ms }";
+        }
+    }
+
+}
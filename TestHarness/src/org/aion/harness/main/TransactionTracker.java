@@ -0,0 +1,630 @@
+package org.aion.harness.main;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.aion.harness.kernel.SignedTransaction;
+import org.aion.harness.main.event.PrepackagedLogEvents;
+import org.aion.harness.util.HashTokenScanner;
+
+/**
+ * Tracks the lifecycle of a large number of transactions using a compact, primitive table rather
+ * than an event and a request per transaction.
+ *
+ * A transaction moves through the following states, always forwards:
+ *
+ *   SENT -> ACKED -> SEALED -> RECEIPT_FETCHED
+ *        \         \-> REJECTED
+ *         \-> SEALED or REJECTED (if the node logs the outcome before the send call returns)
+ *
+ * The caller marks transactions as sent, acknowledged (the node accepted the send request) and as
+ * having had their receipt fetched. Whether a transaction was sealed or rejected is discovered
+ * from the node's log: once attached to a {@link NodeListener}, the tracker is handed every log
+ * line, scans it for hash tokens (see {@link HashTokenScanner}), and looks each token up in its
+ * table. Only a line holding the hash of a tracked, pending transaction is inspected any further.
+ *
+ * Each transaction is an entry holding its 32-byte hash, stored as four longs, a state byte and
+ * two int timestamps (the time the transaction was sent and the time it was sealed or rejected, in
+ * milliseconds since the tracker was created), which is 41 bytes. The entries are stored densely,
+ * in the order they were tracked, in fixed-size chunks that are added as needed and never copied.
+ * They are found through an open-addressing index of int entry numbers, keyed on the hash, whose
+ * capacity is a power of two kept at most three quarters full. A million transactions thus take
+ * about 41 MB of entries and an 8 MB index, and growing only ever copies the index. The hashes
+ * themselves are kept in full, rather than as shorter fingerprints, since the oldest pending
+ * transaction and the visited transactions are reported by hash. Tracking a transaction allocates
+ * nothing beyond occasionally adding a chunk or growing the index.
+ *
+ * A tracker cannot measure intervals longer than about 24 days.
+ *
+ * This class is thread-safe.
+ */
+public final class TransactionTracker {
+    private static final int HASH_LENGTH = 32;
+    private static final int MINIMUM_CAPACITY = 16;
+    private static final int MAXIMUM_CHUNK_SIZE = 1 << 16;
+    private static final float MAXIMUM_LOAD = 0.75f;
+
+    public enum State { SENT, ACKED, SEALED, REJECTED, RECEIPT_FETCHED }
+    // State codes. Zero marks no state at all, otherwise the code is the state's ordinal plus one.
+    // State codes. Zero marks an empty slot, otherwise the code is the state's ordinal plus one.
+    private static final byte EMPTY = 0;
+    private static final byte SENT = code(State.SENT);
+    private static final byte ACKED = code(State.ACKED);
+    private static final byte SEALED = code(State.SEALED);
+    private static final byte REJECTED = code(State.REJECTED);
+    private static final byte RECEIPT_FETCHED = code(State.RECEIPT_FETCHED);
+    private static final State[] STATES = State.values();
+
+    private final String sealedMarker;
+    private final String rejectedMarker;
+    private final long creationTimeInNanos = System.nanoTime();
+
+    // The entries, in chunks of chunkSize entries. Entry e is at index (e & chunkMask) of chunk
+    // (e >>> chunkShift), and its key at four times that index.
+    private final int chunkShift;
+    private final int chunkMask;
+    private long[][] keys = new long[0][];
+    private byte[][] states = new byte[0][];
+    private int[][] sentAtInMillis = new int[0][];
+    private int[][] decidedAtInMillis = new int[0][];
+
+    // Each slot holds an entry number plus one, or zero if it is empty.
+    private int[] index;
+    private int mask;
+    private int size = 0;
+    private final int[] countsByState = new int[STATES.length + 1];
+
+    // Scratch space for the key currently being looked up.
+    private final long[] lookupKey = new long[4];
+
+    /**
+     * Constructs a new tracker that recognizes sealed and rejected transactions using the log
+     * format of the specified events, sized for the expected number of transactions.
+     *
+     * The table grows if more transactions than expected are tracked.
+     *
+     * @param events The prepackaged events of the kind of node being tracked.
+     * @param expectedNumberOfTransactions The expected number of transactions.
+     */
+    public TransactionTracker(PrepackagedLogEvents events, int expectedNumberOfTransactions) {
+        if (events == null) {
+            throw new NullPointerException("Cannot construct a tracker with null prepackaged events.");
+        }
+        if (expectedNumberOfTransactions < 0) {
+            throw new IllegalArgumentException("Expected number of transactions cannot be negative: " + expectedNumberOfTransactions);
+        }
+
+        this.sealedMarker = events.getTransactionSealedMarker();
+        this.rejectedMarker = events.getTransactionRejectedMarker();
+
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity * MAXIMUM_LOAD < expectedNumberOfTransactions) {
+            capacity <<= 1;
+        }
+        allocateIndex(capacity);
+
+        int chunkSize = MINIMUM_CAPACITY;
+        while ((chunkSize < MAXIMUM_CHUNK_SIZE) && (chunkSize < expectedNumberOfTransactions)) {
+            chunkSize <<= 1;
+        }
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        this.chunkMask = chunkSize - 1;
+    }
+
+    /**
+     * Starts tracking the specified transaction in the SENT state. The transaction should be
+     * tracked before it is sent, so that its outcome cannot be logged before it is tracked.
+     *
+     * Returns {@code false} if the transaction is already being tracked, in which case nothing
+     * changes.
+     *
+     * @param transaction The transaction.
+     * @return whether the transaction is newly tracked.
+     */
+    public boolean track(SignedTransaction transaction) {
+        if (transaction == null) {
+            throw new NullPointerException("Cannot track a null transaction.");
+        }
+        return track(transaction.getTransactionHashView());
+    }
+
+    /**
+     * Starts tracking the transaction with the specified hash in the SENT state.
+     *
+     * Returns {@code false} if the transaction is already being tracked, in which case nothing
+     * changes.
+     *
+     * @param transactionHash The 32-byte transaction hash.
+     * @return whether the transaction is newly tracked.
+     */
+    public synchronized boolean track(byte[] transactionHash) {
+        loadKey(transactionHash);
+        return trackLoadedKey();
+    }
+
+    /**
+     * Starts tracking the transaction with the specified hash in the SENT state, exactly as
+     * {@code track(byte[])} does, but reading the hash from the remaining bytes of a buffer, such
+     * as {@link SignedTransaction#getTransactionHashView()}, without copying it.
+     *
+     * @param transactionHash The 32-byte transaction hash.
+     * @return whether the transaction is newly tracked.
+     */
+    public synchronized boolean track(ByteBuffer transactionHash) {
+        loadKey(transactionHash);
+        return trackLoadedKey();
+    }
+
+    private boolean trackLoadedKey() {
+        if (this.size + 1 > this.index.length * MAXIMUM_LOAD) {
+            allocateIndex(this.index.length << 1);
+        }
+
+        int slot = findSlot(this.lookupKey);
+        if (this.index[slot] != 0) {
+            return false;
+        }
+
+        int entry = this.size;
+        int chunk = entry >>> this.chunkShift;
+        int offset = entry & this.chunkMask;
+        if (chunk == this.states.length) {
+            addChunk();
+        }
+
+        System.arraycopy(this.lookupKey, 0, this.keys[chunk], offset * 4, 4);
+        this.states[chunk][offset] = SENT;
+        this.sentAtInMillis[chunk][offset] = now();
+        this.decidedAtInMillis[chunk][offset] = -1;
+        this.index[slot] = entry + 1;
+        this.countsByState[SENT]++;
+        this.size++;
+        return true;
+    }
+
+    /**
+     * Marks the transaction as acknowledged by the node, if it is still in the SENT state.
+     *
+     * @param transactionHash The 32-byte transaction hash.
+     * @return whether the transaction moved into the ACKED state.
+     */
+    public synchronized boolean markAcked(byte[] transactionHash) {
+        loadKey(transactionHash);
+        return transition(SENT, SENT, ACKED);
+    }
+
+    /**
+     * Marks the transaction as acknowledged by the node, exactly as {@code markAcked(byte[])}
+     * does, but reading the hash from the remaining bytes of a buffer without copying it.
+     *
+     * @param transactionHash The 32-byte transaction hash.
+     * @return whether the transaction moved into the ACKED state.
+     */
+    public synchronized boolean markAcked(ByteBuffer transactionHash) {
+        loadKey(transactionHash);
+        return transition(SENT, SENT, ACKED);
+    }
+
+    /**
+     * Marks the transaction as having had its receipt fetched, if it has been sealed.
+     *
+     * @param transactionHash The 32-byte transaction hash.
+     * @return whether the transaction moved into the RECEIPT_FETCHED state.
+     */
+    public synchronized boolean markReceiptFetched(byte[] transactionHash) {
+        loadKey(transactionHash);
+        return transition(SEALED, SEALED, RECEIPT_FETCHED);
+    }
+
+    /**
+     * Returns the state of the transaction, or null if it is not being tracked.
+     *
+     * @param transactionHash The 32-byte transaction hash.
+     * @return the state or null.
+     */
+    public synchronized State stateOf(byte[] transactionHash) {
+        loadKey(transactionHash);
+        return stateOfLoadedKey();
+    }
+
+    /**
+     * Returns the state of the transaction, or null if it is not being tracked, exactly as
+     * {@code stateOf(byte[])} does, but reading the hash from the remaining bytes of a buffer
+     * without copying it.
+     *
+     * @param transactionHash The 32-byte transaction hash.
+     * @return the state or null.
+     */
+    public synchronized State stateOf(ByteBuffer transactionHash) {
+        loadKey(transactionHash);
+        return stateOfLoadedKey();
+    }
+
+    private State stateOfLoadedKey() {
+        int entry = findEntry(this.lookupKey);
+        return (entry < 0) ? null : STATES[stateAt(entry) - 1];
+    }
+
+    /**
+     * Returns the time between the transaction being tracked and it being sealed or rejected, in
+     * the desired units, or a negative number if it is not tracked or has not been sealed or
+     * rejected yet.
+     *
+     * @param transactionHash The 32-byte transaction hash.
+     * @param unit The time unit of the latency.
+     * @return the latency or a negative number.
+     */
+    public synchronized long latencyOf(byte[] transactionHash, TimeUnit unit) {
+        if (unit == null) {
+            throw new NullPointerException("Cannot get a latency in null time units.");
+        }
+
+        loadKey(transactionHash);
+        int entry = findEntry(this.lookupKey);
+        if (entry < 0) {
+            return -1;
+        }
+        int chunk = entry >>> this.chunkShift;
+        int offset = entry & this.chunkMask;
+        if (this.decidedAtInMillis[chunk][offset] < 0) {
+            return -1;
+        }
+        return unit.convert(this.decidedAtInMillis[chunk][offset] - this.sentAtInMillis[chunk][offset], TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the number of transactions being tracked.
+     *
+     * @return the number of tracked transactions.
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of tracked transactions currently in the specified state.
+     *
+     * @param state The state.
+     * @return the number of transactions in that state.
+     */
+    public synchronized int countOf(State state) {
+        if (state == null) {
+            throw new NullPointerException("Cannot count a null state.");
+        }
+        return this.countsByState[code(state)];
+    }
+
+    /**
+     * Returns the number of tracked transactions that have been neither sealed nor rejected.
+     *
+     * @return the number of pending transactions.
+     */
+    public synchronized int numberOfPendingTransactions() {
+        return this.countsByState[SENT] + this.countsByState[ACKED];
+    }
+
+    /**
+     * Returns the number of tracked transactions that have been sealed or rejected.
+     *
+     * @return the number of decided transactions.
+     */
+    public synchronized int numberOfDecidedTransactions() {
+        return this.size - numberOfPendingTransactions();
+    }
+
+    /**
+     * Returns the hash of the pending transaction that has been tracked the longest, or null if
+     * no transaction is pending. Entries are stored in the order they were tracked, so this is a
+     * scan up to the first pending transaction.
+     *
+     * @return the hash of the oldest pending transaction or null.
+     */
+    public synchronized byte[] oldestPendingTransaction() {
+        for (int entry = 0; entry < this.size; entry++) {
+            if (isPending(stateAt(entry))) {
+                return hashAt(entry);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Visits every tracked transaction in the specified state, or every tracked transaction if the
+     * state is null, in no particular order.
+     *
+     * The visitor is invoked while this tracker is locked, and so must not call back into it.
+     *
+     * @param state The state to visit, or null for all states.
+     * @param visitor The visitor.
+     */
+    public synchronized void forEach(State state, TransactionVisitor visitor) {
+        if (visitor == null) {
+            throw new NullPointerException("Cannot visit with a null visitor.");
+        }
+
+        byte code = (state == null) ? EMPTY : code(state);
+        for (int entry = 0; entry < this.size; entry++) {
+            byte entryState = stateAt(entry);
+            if ((code == EMPTY) || (entryState == code)) {
+                int chunk = entry >>> this.chunkShift;
+                int offset = entry & this.chunkMask;
+                visitor.visit(hashAt(entry), STATES[entryState - 1], this.sentAtInMillis[chunk][offset], this.decidedAtInMillis[chunk][offset]);
+            }
+        }
+    }
+
+    /**
+     * Blocks until no tracked transaction is pending or until the timeout elapses, whichever is
+     * first, and returns {@code true} only if no transaction is pending.
+     *
+     * @param timeout The timeout duration.
+     * @param unit The time unit of the duration.
+     * @return whether every tracked transaction has been sealed or rejected.
+     */
+    public synchronized boolean awaitNoPendingTransactions(long timeout, TimeUnit unit) throws InterruptedException {
+        if (unit == null) {
+            throw new NullPointerException("Cannot wait using a null time unit.");
+        }
+
+        long deadlineInNanos = System.nanoTime() + unit.toNanos(timeout);
+        while (numberOfPendingTransactions() > 0) {
+            long remainingInNanos = deadlineInNanos - System.nanoTime();
+            if (remainingInNanos <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remainingInNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Blocks until more than the specified number of tracked transactions have been sealed or
+     * rejected, or until the timeout elapses, whichever is first, and returns {@code true} only if
+     * more than that number have been.
+     *
+     * A caller waiting for the next outcome passes the value {@code numberOfDecidedTransactions()}
+     * returned before it last looked at the tracker.
+     *
+     * @param numberOfDecidedTransactions The number of decided transactions to wait beyond.
+     * @param timeout The timeout duration.
+     * @param unit The time unit of the duration.
+     * @return whether more transactions than specified have been sealed or rejected.
+     */
+    public synchronized boolean awaitMoreDecidedTransactionsThan(int numberOfDecidedTransactions, long timeout, TimeUnit unit) throws InterruptedException {
+        if (unit == null) {
+            throw new NullPointerException("Cannot wait using a null time unit.");
+        }
+
+        long deadlineInNanos = System.nanoTime() + unit.toNanos(timeout);
+        while (numberOfDecidedTransactions() <= numberOfDecidedTransactions) {
+            long remainingInNanos = deadlineInNanos - System.nanoTime();
+            if (remainingInNanos <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remainingInNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Inspects a log line for the outcome of any tracked, pending transaction.
+     *
+     * This method should <b>never</b> be called by client code. This is for internal use only.
+     *
+     * @param line The log line.
+     */
+    public synchronized void observe(String line) {
+        if ((this.countsByState[SENT] + this.countsByState[ACKED]) == 0) {
+            return;
+        }
+
+        int index = HashTokenScanner.indexOfNextToken(line, 0);
+        while (index >= 0) {
+            if (loadKey(line, index)) {
+                int entry = findEntry(this.lookupKey);
+                if ((entry >= 0) && isPending(stateAt(entry))) {
+                    if (line.contains(this.sealedMarker)) {
+                        decide(entry, SEALED);
+                    } else if (line.contains(this.rejectedMarker)) {
+                        decide(entry, REJECTED);
+                    }
+                }
+            }
+            index = HashTokenScanner.indexOfNextToken(line, index + HashTokenScanner.TOKEN_LENGTH);
+        }
+    }
+
+    /**
+     * A visitor of tracked transactions.
+     */
+    public interface TransactionVisitor {
+
+        /**
+         * Visits a tracked transaction.
+         *
+         * @param transactionHash The transaction hash.
+         * @param state The state of the transaction.
+         * @param sentAtInMillis The time it was tracked, in milliseconds since the tracker was created.
+         * @param decidedAtInMillis The time it was sealed or rejected, likewise, or -1.
+         */
+        void visit(byte[] transactionHash, State state, long sentAtInMillis, long decidedAtInMillis);
+    }
+
+    private void decide(int entry, byte outcome) {
+        int chunk = entry >>> this.chunkShift;
+        int offset = entry & this.chunkMask;
+        this.countsByState[this.states[chunk][offset]]--;
+        this.countsByState[outcome]++;
+        this.states[chunk][offset] = outcome;
+        this.decidedAtInMillis[chunk][offset] = now();
+        notifyAll();
+    }
+
+    private boolean transition(byte fromLow, byte fromHigh, byte to) {
+        int entry = findEntry(this.lookupKey);
+        if (entry < 0) {
+            return false;
+        }
+        byte current = stateAt(entry);
+        if ((current < fromLow) || (current > fromHigh)) {
+            return false;
+        }
+
+        this.countsByState[current]--;
+        this.countsByState[to]++;
+        this.states[entry >>> this.chunkShift][entry & this.chunkMask] = to;
+        return true;
+    }
+
+    private byte stateAt(int entry) {
+        return this.states[entry >>> this.chunkShift][entry & this.chunkMask];
+    }
+
+    /**
+     * Returns the number of the entry holding the lookup key, or -1 if there is none.
+     */
+    private int findEntry(long[] key) {
+        return this.index[findSlot(key)] - 1;
+    }
+
+    /**
+     * Returns the slot of the index holding the entry with the lookup key, or else the empty slot
+     * at which it belongs.
+     */
+    private int findSlot(long[] key) {
+        int slot = (int) (key[0] ^ (key[0] >>> 32)) & this.mask;
+        while (this.index[slot] != 0) {
+            int entry = this.index[slot] - 1;
+            long[] keys = this.keys[entry >>> this.chunkShift];
+            int offset = (entry & this.chunkMask) * 4;
+            if ((keys[offset] == key[0]) && (keys[offset + 1] == key[1])
+                && (keys[offset + 2] == key[2]) && (keys[offset + 3] == key[3])) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Allocates an index of the specified capacity and re-inserts every existing entry into it.
+     */
+    private void allocateIndex(int capacity) {
+        this.index = new int[capacity];
+        this.mask = capacity - 1;
+
+        for (int entry = 0; entry < this.size; entry++) {
+            long firstWord = this.keys[entry >>> this.chunkShift][(entry & this.chunkMask) * 4];
+            int slot = (int) (firstWord ^ (firstWord >>> 32)) & this.mask;
+            while (this.index[slot] != 0) {
+                slot = (slot + 1) & this.mask;
+            }
+            this.index[slot] = entry + 1;
+        }
+    }
+
+    private void addChunk() {
+        int chunks = this.states.length + 1;
+        int chunkSize = this.chunkMask + 1;
+
+        this.keys = Arrays.copyOf(this.keys, chunks);
+        this.states = Arrays.copyOf(this.states, chunks);
+        this.sentAtInMillis = Arrays.copyOf(this.sentAtInMillis, chunks);
+        this.decidedAtInMillis = Arrays.copyOf(this.decidedAtInMillis, chunks);
+
+        this.keys[chunks - 1] = new long[chunkSize * 4];
+        this.states[chunks - 1] = new byte[chunkSize];
+        this.sentAtInMillis[chunks - 1] = new int[chunkSize];
+        this.decidedAtInMillis[chunks - 1] = new int[chunkSize];
+    }
+
+    private void loadKey(byte[] transactionHash) {
+        if (transactionHash == null) {
+            throw new NullPointerException("Cannot use a null transaction hash.");
+        }
+        if (transactionHash.length != HASH_LENGTH) {
+            throw new IllegalArgumentException("Transaction hash must be " + HASH_LENGTH + " bytes but was: " + transactionHash.length);
+        }
+
+        for (int word = 0; word < 4; word++) {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (transactionHash[(word * 8) + i] & 0xFF);
+            }
+            this.lookupKey[word] = value;
+        }
+    }
+
+    /**
+     * Loads the remaining bytes of the specified buffer into the lookup key, without allocating
+     * or moving the buffer's position.
+     */
+    private void loadKey(ByteBuffer transactionHash) {
+        if (transactionHash == null) {
+            throw new NullPointerException("Cannot use a null transaction hash.");
+        }
+        if (transactionHash.remaining() != HASH_LENGTH) {
+            throw new IllegalArgumentException("Transaction hash must be " + HASH_LENGTH + " bytes but was: " + transactionHash.remaining());
+        }
+
+        int start = transactionHash.position();
+        for (int word = 0; word < 4; word++) {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (transactionHash.get(start + (word * 8) + i) & 0xFF);
+            }
+            this.lookupKey[word] = value;
+        }
+    }
+
+    /**
+     * Loads the hash token beginning at the specified index of the line into the lookup key,
+     * without allocating. Returns false if the token is not valid hexadecimal.
+     */
+    private boolean loadKey(String line, int index) {
+        for (int word = 0; word < 4; word++) {
+            long value = 0;
+            for (int i = 0; i < 16; i++) {
+                int nibble = Character.digit(line.charAt(index + (word * 16) + i), 16);
+                if (nibble < 0) {
+                    return false;
+                }
+                value = (value << 4) | nibble;
+            }
+            this.lookupKey[word] = value;
+        }
+        return true;
+    }
+
+    private byte[] hashAt(int entry) {
+        long[] keys = this.keys[entry >>> this.chunkShift];
+        int offset = (entry & this.chunkMask) * 4;
+        byte[] hash = new byte[HASH_LENGTH];
+        for (int word = 0; word < 4; word++) {
+            long value = keys[offset + word];
+            for (int i = 7; i >= 0; i--) {
+                hash[(word * 8) + i] = (byte) value;
+                value >>>= 8;
+            }
+        }
+        return hash;
+    }
+
+    private int now() {
+        return (int) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.creationTimeInNanos);
+    }
+
+    private static boolean isPending(byte state) {
+        return (state == SENT) || (state == ACKED);
+    }
+
+    private static byte code(State state) {
+        return (byte) (state.ordinal() + 1);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TransactionTracker { size = " + this.size + ", counts by state = " + Arrays.toString(Arrays.copyOfRange(this.countsByState, 1, this.countsByState.length)) + " }";
+    }
+
+}
@@ -0,0 +1,258 @@
+package org.aion.harness.main.event;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An event that is satisfied if some underlying event is <b>not</b> observed within a window of
+ * time. This is how a negative assertion ("this transaction is never rejected") is expressed.
+ *
+ * The window begins when a listener begins to listen for this event (see
+ * {@code beginListeningAt()}), or else when this event is constructed. Lines read before the
+ * window begins, such as those a listener looks back at, do not count.
+ *
+ * The time at which a line is read is later than the time at which it was written, and so the
+ * read time of a line cannot tell whether it was written within the window. Thus this event is
+ * only ever satisfied through {@code isSatisfiedAt()}, which the listener calls with the time up
+ * to which its reader has read the whole log, even if the log is quiet. Every line containing the
+ * underlying event that is read before then falsifies this event, since it may have been written
+ * within the window, and so a request for it is decided at once rather than lingering until its
+ * timeout.
+ *
+ * Nothing is observed when an absence is satisfied, so a satisfied absent event contributes no
+ * observed events or logs. A falsified absent event reports the observations of the underlying
+ * event, since these are the evidence that falsified it.
+ *
+ * This class satisfies the immutability requirements of the IEvent interface.
+ */
+public final class AbsentEvent implements IEvent {
+    private final IEvent event;
+    private final long windowInNanos;
+    private long windowStartInNanos;
+    private long windowEndInNanos;
+
+    private boolean isFalsified = false;
+    private long timeOfObservationInNanos = -1;
+
+    /**
+     * Constructs a new event that is satisfied if the specified event is not observed within the
+     * specified window of time, beginning now unless a listener begins to listen for it later.
+     *
+     * @param event The event that must be absent.
+     * @param window The duration of the window.
+     * @param unit The unit of the window.
+     */
+    public AbsentEvent(IEvent event, long window, TimeUnit unit) {
+        if (event == null) {
+            throw new NullPointerException("Cannot construct AbsentEvent from a null event.");
+        }
+        if (unit == null) {
+            throw new NullPointerException("Cannot construct AbsentEvent with a null time unit.");
+        }
+        if (window < 0) {
+            throw new IllegalArgumentException("Cannot construct AbsentEvent with a negative window: " + window);
+        }
+
+        this.event = event;
+        this.windowInNanos = unit.toNanos(window);
+        this.windowStartInNanos = System.nanoTime();
+        this.windowEndInNanos = this.windowStartInNanos + this.windowInNanos;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AndEvent and(IEvent event) {
+        return new AndEvent(this, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OrEvent or(IEvent event) {
+        return new OrEvent(this, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSatisfiedBy(String line, long observedAt, TimeUnit unit) {
+        if (line == null) {
+            throw new NullPointerException("Cannot check satisfaction on null line.");
+        }
+        return isSatisfiedBy(new LogRecord(line), observedAt, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * A line never satisfies this event, and a line read before the window began cannot falsify
+     * it. Once this event is satisfied, no line can falsify it.
+     */
+    @Override
+    public synchronized boolean isSatisfiedBy(LogRecord record, long observedAt, TimeUnit unit) {
+        if (record == null) {
+            throw new NullPointerException("Cannot check satisfaction on null record.");
+        }
+        if (observedAt < 0) {
+            throw new IllegalArgumentException("Cannot check satisfaction given negative timestamp.");
+        }
+        if (unit == null) {
+            throw new NullPointerException("Cannot check satisfaction given null time unit.");
+        }
+
+        if ((this.timeOfObservationInNanos >= 0) || this.isFalsified) {
+            return this.timeOfObservationInNanos >= 0;
+        }
+
+        // Compare via subtraction since nano times may overflow.
+        if (unit.toNanos(observedAt) - this.windowStartInNanos < 0) {
+            return false;
+        }
+
+        if (this.event.isSatisfiedBy(record, observedAt, unit)) {
+            this.isFalsified = true;
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The specified time must be one up to which every line in the log has already been handed to
+     * this event, since any line yet to be read may have been written within the window.
+     */
+    @Override
+    public synchronized boolean isSatisfiedAt(long time, TimeUnit unit) {
+        if (unit == null) {
+            throw new NullPointerException("Cannot check satisfaction given null time unit.");
+        }
+
+        // Once satisfied or falsified, this value can never change.
+        if ((this.timeOfObservationInNanos < 0) && !this.isFalsified) {
+            long timeInNanos = unit.toNanos(time);
+
+            // Compare via subtraction since nano times may overflow.
+            if (timeInNanos - this.windowEndInNanos >= 0) {
+                this.timeOfObservationInNanos = timeInNanos;
+            }
+        }
+        return this.timeOfObservationInNanos >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isTimed() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The window begins at the specified time, unless this event has already been decided.
+     */
+    @Override
+    public synchronized void beginListeningAt(long time, TimeUnit unit) {
+        if (unit == null) {
+            throw new NullPointerException("Cannot begin listening given null time unit.");
+        }
+
+        if ((this.timeOfObservationInNanos < 0) && !this.isFalsified) {
+            this.windowStartInNanos = unit.toNanos(time);
+            this.windowEndInNanos = this.windowStartInNanos + this.windowInNanos;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean hasBeenFalsified() {
+        return this.isFalsified;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean hasBeenObserved() {
+        return this.timeOfObservationInNanos >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<String> getAllObservedEvents() {
+        return this.isFalsified ? this.event.getAllObservedEvents() : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<String> getAllObservedLogs() {
+        return this.isFalsified ? this.event.getAllObservedLogs() : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Long> getAllObservationTimes(TimeUnit unit) {
+        return this.isFalsified ? this.event.getAllObservationTimes(unit) : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Long> getAllKernelObservationTimes(TimeUnit unit) {
+        return this.isFalsified ? this.event.getAllKernelObservationTimes(unit) : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Map<String, String>> getAllCapturedFields() {
+        return this.isFalsified ? this.event.getAllCapturedFields() : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized long observedAt(TimeUnit unit) {
+        return (this.timeOfObservationInNanos < 0)
+            ? this.timeOfObservationInNanos
+            : unit.convert(this.timeOfObservationInNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String eventStatement() {
+        return "(NOT " + this.event.eventStatement() + " WITHIN " + TimeUnit.NANOSECONDS.toMillis(this.windowInNanos) + " MILLISECONDS)";
+    }
+
+    /**
+     * A String representation of this object, based off of the event statement (see the
+     * {@code eventStatement()} method).
+     *
+     * @return this object as a string.
+     */
+    @Override
+    public String toString() {
+        return "AbsentEvent { " + this.eventStatement() + " }";
+    }
+
+}
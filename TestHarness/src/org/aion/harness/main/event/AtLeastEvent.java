@@ -0,0 +1,434 @@
+package org.aion.harness.main.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.aion.harness.util.HashTokenScanner;
+
+/**
+ * A flat, n-ary event that is satisfied once at least some threshold number of its underlying
+ * events have been satisfied.
+ *
+ * This single class covers three logical operators:
+ *   - all-of: the threshold is the number of underlying events (a flat logical-and).
+ *   - any-of: the threshold is 1 (a flat logical-or).
+ *   - at-least-k: the threshold is k.
+ *
+ * Unlike chaining {@link AndEvent} or {@link OrEvent} objects, which builds a deep binary tree that
+ * must be walked recursively for every line, this event holds its children in an indexed set.
+ * Any underlying {@link Event} whose event string contains a bounded hash token (a transaction
+ * hash, for example) is indexed by that token, so that a line is only ever tested against the
+ * children that share a hash token with it. The remaining children are tested linearly. Once a
+ * child is satisfied it is removed from the index and is never tested again.
+ *
+ * Thus, waiting on thousands of transactions costs a single pass over each line plus the cost of
+ * the matching children, rather than thousands of substring searches per line.
+ *
+ * Underlying events that have been falsified (see {@code hasBeenFalsified()}) are dropped too, and
+ * once too few events remain for the threshold to be reached, this event is itself falsified.
+ *
+ * The time at which each underlying event was observed is retained and is reported through
+ * {@code getAllObservationTimes()}.
+ *
+ * This class meets the immutability guarantees of the {@link IEvent} interface.
+ */
+public final class AtLeastEvent implements IEvent {
+    private final int threshold;
+    private final List<IEvent> events;
+
+    // Pending children, either indexed by their hash token or else tested against every line.
+    private final Map<String, List<Integer>> pendingIndexedEvents = new HashMap<>();
+    private final Set<Integer> pendingUnindexedEvents = new LinkedHashSet<>();
+
+    // The pending children that the passage of time alone can decide (a subset of the unindexed).
+    private final Set<Integer> pendingTimedEvents = new LinkedHashSet<>();
+    private final boolean isTimed;
+
+    private final long[] timesOfObservationInNanos;
+    private int numberOfSatisfiedEvents = 0;
+    private int numberOfFalsifiedEvents = 0;
+    private long timeOfObservationInNanos = -1;
+
+    /**
+     * Constructs a new event that is satisfied once at least {@code threshold} of the specified
+     * events have been satisfied.
+     *
+     * @param threshold The minimum number of events that must be satisfied.
+     * @param events The underlying events.
+     * @throws NullPointerException if events is null or contains a null event.
+     * @throws IllegalArgumentException if threshold is not in the range [1, events.size()].
+     */
+    public AtLeastEvent(int threshold, List<? extends IEvent> events) {
+        if (events == null) {
+            throw new NullPointerException("Cannot construct AtLeastEvent from a null list of events.");
+        }
+        if ((threshold < 1) || (threshold > events.size())) {
+            throw new IllegalArgumentException("Threshold must be in the range [1, " + events.size() + "] but was: " + threshold);
+        }
+
+        this.threshold = threshold;
+        this.events = new ArrayList<>(events);
+        this.timesOfObservationInNanos = new long[this.events.size()];
+
+        for (int i = 0; i < this.events.size(); i++) {
+            IEvent event = this.events.get(i);
+            if (event == null) {
+                throw new NullPointerException("Cannot construct AtLeastEvent from a null event.");
+            }
+
+            this.timesOfObservationInNanos[i] = -1;
+            if (event.isTimed()) {
+                this.pendingTimedEvents.add(i);
+            }
+
+            String token = hashTokenOf(event);
+            if (token == null) {
+                this.pendingUnindexedEvents.add(i);
+            } else {
+                this.pendingIndexedEvents.computeIfAbsent(token, k -> new ArrayList<>(1)).add(i);
+            }
+        }
+        this.isTimed = !this.pendingTimedEvents.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AndEvent and(IEvent event) {
+        return new AndEvent(this, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OrEvent or(IEvent event) {
+        return new OrEvent(this, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSatisfiedBy(String line, long observedAt, TimeUnit unit) {
+        if (line == null) {
+            throw new NullPointerException("Cannot check satisfaction on null line.");
+        }
+        return isSatisfiedBy(new LogRecord(line), observedAt, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The same record is passed down to each of the underlying events, so that its header is
+     * parsed at most once.
+     */
+    @Override
+    public synchronized boolean isSatisfiedBy(LogRecord record, long observedAt, TimeUnit unit) {
+        if (record == null) {
+            throw new NullPointerException("Cannot check satisfaction on null record.");
+        }
+        if (observedAt < 0) {
+            throw new IllegalArgumentException("Cannot check satisfaction given negative timestamp.");
+        }
+        if (unit == null) {
+            throw new NullPointerException("Cannot check satisfaction given null time unit.");
+        }
+
+        // Once satisfied, this value can never change.
+        if (this.numberOfSatisfiedEvents >= this.threshold) {
+            return true;
+        }
+
+        long observedAtInNanos = unit.toNanos(observedAt);
+        String line = record.line();
+
+        // Only the indexed children that share a hash token with this line can be satisfied by it.
+        if (!this.pendingIndexedEvents.isEmpty()) {
+            int index = HashTokenScanner.indexOfNextToken(line, 0);
+            while (index >= 0) {
+                String token = line.substring(index, index + HashTokenScanner.TOKEN_LENGTH);
+                List<Integer> candidates = this.pendingIndexedEvents.get(token);
+
+                if (candidates != null) {
+                    Iterator<Integer> candidateIterator = candidates.iterator();
+                    while (candidateIterator.hasNext()) {
+                        int candidate = candidateIterator.next();
+                        if (this.events.get(candidate).isSatisfiedBy(record, observedAt, unit)) {
+                            markSatisfied(candidate, observedAtInNanos);
+                            candidateIterator.remove();
+                        }
+                    }
+                    if (candidates.isEmpty()) {
+                        this.pendingIndexedEvents.remove(token);
+                    }
+                }
+
+                index = HashTokenScanner.indexOfNextToken(line, index + HashTokenScanner.TOKEN_LENGTH);
+            }
+        }
+
+        Iterator<Integer> unindexedIterator = this.pendingUnindexedEvents.iterator();
+        while (unindexedIterator.hasNext()) {
+            int candidate = unindexedIterator.next();
+            IEvent event = this.events.get(candidate);
+            if (event.isSatisfiedBy(record, observedAt, unit)) {
+                markSatisfied(candidate, observedAtInNanos);
+                unindexedIterator.remove();
+                this.pendingTimedEvents.remove(candidate);
+            } else if (event.hasBeenFalsified()) {
+                this.numberOfFalsifiedEvents++;
+                unindexedIterator.remove();
+                this.pendingTimedEvents.remove(candidate);
+            }
+        }
+
+        boolean isSatisfied = this.numberOfSatisfiedEvents >= this.threshold;
+        if (isSatisfied) {
+            this.timeOfObservationInNanos = observedAtInNanos;
+        }
+        return isSatisfied;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Only the underlying events that the passage of time can decide are tested.
+     */
+    @Override
+    public synchronized boolean isSatisfiedAt(long time, TimeUnit unit) {
+        if (unit == null) {
+            throw new NullPointerException("Cannot check satisfaction given null time unit.");
+        }
+
+        // Once satisfied, this value can never change.
+        if (this.numberOfSatisfiedEvents >= this.threshold) {
+            return true;
+        }
+
+        long timeInNanos = unit.toNanos(time);
+        Iterator<Integer> timedIterator = this.pendingTimedEvents.iterator();
+        while (timedIterator.hasNext()) {
+            int candidate = timedIterator.next();
+            IEvent event = this.events.get(candidate);
+            if (event.isSatisfiedAt(time, unit)) {
+                markSatisfied(candidate, timeInNanos);
+                timedIterator.remove();
+                this.pendingUnindexedEvents.remove(candidate);
+            } else if (event.hasBeenFalsified()) {
+                this.numberOfFalsifiedEvents++;
+                timedIterator.remove();
+                this.pendingUnindexedEvents.remove(candidate);
+            }
+        }
+
+        boolean isSatisfied = this.numberOfSatisfiedEvents >= this.threshold;
+        if (isSatisfied) {
+            this.timeOfObservationInNanos = timeInNanos;
+        }
+        return isSatisfied;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean hasBeenObserved() {
+        return this.numberOfSatisfiedEvents >= this.threshold;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * This event is falsified once so many of its underlying events have been falsified that the
+     * threshold can no longer be reached.
+     */
+    @Override
+    public synchronized boolean hasBeenFalsified() {
+        return this.events.size() - this.numberOfFalsifiedEvents < this.threshold;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isTimed() {
+        return this.isTimed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void beginListeningAt(long time, TimeUnit unit) {
+        for (IEvent event : this.events) {
+            event.beginListeningAt(time, unit);
+        }
+    }
+
+    /**
+     * Returns the number of underlying events that have been satisfied so far.
+     *
+     * @return the number of satisfied underlying events.
+     */
+    public synchronized int numberOfObservedEvents() {
+        return this.numberOfSatisfiedEvents;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<String> getAllObservedEvents() {
+        List<String> observedEvents = new ArrayList<>();
+        for (IEvent event : this.events) {
+            observedEvents.addAll(event.getAllObservedEvents());
+        }
+        return observedEvents;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<String> getAllObservedLogs() {
+        List<String> observedLogs = new ArrayList<>();
+        for (IEvent event : this.events) {
+            observedLogs.addAll(event.getAllObservedLogs());
+        }
+        return observedLogs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Long> getAllObservationTimes(TimeUnit unit) {
+        List<Long> times = new ArrayList<>();
+        for (IEvent event : this.events) {
+            times.addAll(event.getAllObservationTimes(unit));
+        }
+        return times;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Long> getAllKernelObservationTimes(TimeUnit unit) {
+        List<Long> times = new ArrayList<>();
+        for (IEvent event : this.events) {
+            times.addAll(event.getAllKernelObservationTimes(unit));
+        }
+        return times;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Map<String, String>> getAllCapturedFields() {
+        List<Map<String, String>> fields = new ArrayList<>();
+        for (IEvent event : this.events) {
+            fields.addAll(event.getAllCapturedFields());
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the times at which each of the underlying events were observed, in the desired time
+     * units, such that the i'th time belongs to the i'th event this event was constructed with.
+     *
+     * An underlying event that has not been observed has a negative time.
+     *
+     * @param unit The time units of the returned times.
+     * @return the observation time of each underlying event.
+     */
+    public synchronized long[] observationTimesOfEachEvent(TimeUnit unit) {
+        long[] times = new long[this.timesOfObservationInNanos.length];
+        for (int i = 0; i < times.length; i++) {
+            long time = this.timesOfObservationInNanos[i];
+            times[i] = (time < 0) ? time : unit.convert(time, TimeUnit.NANOSECONDS);
+        }
+        return times;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized long observedAt(TimeUnit unit) {
+        return (this.timeOfObservationInNanos < 0)
+            ? this.timeOfObservationInNanos
+            : unit.convert(this.timeOfObservationInNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String eventStatement() {
+        String operator;
+        if (this.threshold == this.events.size()) {
+            operator = " AND ";
+        } else if (this.threshold == 1) {
+            operator = " OR ";
+        } else {
+            operator = ", ";
+        }
+
+        StringBuilder statement = new StringBuilder("(");
+        if ((this.threshold != 1) && (this.threshold != this.events.size())) {
+            statement.append("AT LEAST ").append(this.threshold).append(" OF ");
+        }
+        for (int i = 0; i < this.events.size(); i++) {
+            if (i > 0) {
+                statement.append(operator);
+            }
+            statement.append(this.events.get(i).eventStatement());
+        }
+        return statement.append(")").toString();
+    }
+
+    /**
+     * A String representation of this object, based off of the event statement (see the
+     * {@code eventStatement()} method).
+     *
+     * @return this object as a string.
+     */
+    @Override
+    public String toString() {
+        return "AtLeastEvent { " + this.eventStatement() + " }";
+    }
+
+    private void markSatisfied(int eventIndex, long observedAtInNanos) {
+        this.timesOfObservationInNanos[eventIndex] = observedAtInNanos;
+        this.numberOfSatisfiedEvents++;
+    }
+
+    /**
+     * Returns the hash token that the specified event can be indexed by, or null if it cannot be
+     * indexed. Only a leaf event whose event string (or literal prefilter, for a regex event)
+     * contains a bounded hash token is indexable.
+     */
+    private static String hashTokenOf(IEvent event) {
+        String eventString;
+        if (event instanceof Event) {
+            eventString = ((Event) event).eventString();
+        } else if (event instanceof RegexEvent) {
+            eventString = ((RegexEvent) event).literal();
+        } else {
+            return null;
+        }
+
+        int index = HashTokenScanner.indexOfBoundedToken(eventString);
+        return (index < 0) ? null : eventString.substring(index, index + HashTokenScanner.TOKEN_LENGTH);
+    }
+
+}
@@ -0,0 +1,250 @@
+package org.aion.harness.main.event;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An event that is satisfied if one underlying event is observed strictly before another. For
+ * example, a transaction being sealed before it is ever rejected.
+ *
+ * This event is satisfied as soon as the first event is observed, provided the second has not
+ * been observed yet. It is falsified as soon as the second event is observed while the first has
+ * not been, or if the first event is itself falsified. A single line that satisfies both events
+ * falsifies this event, since the first was not observed strictly before the second.
+ *
+ * Either way, a request for this event is decided as soon as one of the two events is observed,
+ * unlike the logical-or of the two, whose request must then be inspected to learn which of them
+ * actually occurred.
+ *
+ * A satisfied before event reports the observations of the first event. A falsified before event
+ * reports the observations of the event that falsified it.
+ *
+ * This class satisfies the immutability requirements of the IEvent interface.
+ */
+public final class BeforeEvent implements IEvent {
+    private final IEvent first;
+    private final IEvent second;
+    private final boolean isTimed;
+
+    private boolean isFalsified = false;
+    private long timeOfObservationInNanos = -1;
+
+    /**
+     * Constructs a new event that is satisfied if the first event is observed before the second.
+     *
+     * @param first The event that must be observed first.
+     * @param second The event that must not be observed first.
+     */
+    public BeforeEvent(IEvent first, IEvent second) {
+        if ((first == null) || (second == null)) {
+            throw new NullPointerException("Cannot construct BeforeEvent from a null event.");
+        }
+        this.first = first;
+        this.second = second;
+        this.isTimed = first.isTimed() || second.isTimed();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AndEvent and(IEvent event) {
+        return new AndEvent(this, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OrEvent or(IEvent event) {
+        return new OrEvent(this, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSatisfiedBy(String line, long observedAt, TimeUnit unit) {
+        if (line == null) {
+            throw new NullPointerException("Cannot check satisfaction on null line.");
+        }
+        return isSatisfiedBy(new LogRecord(line), observedAt, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean isSatisfiedBy(LogRecord record, long observedAt, TimeUnit unit) {
+        if (record == null) {
+            throw new NullPointerException("Cannot check satisfaction on null record.");
+        }
+        if (observedAt < 0) {
+            throw new IllegalArgumentException("Cannot check satisfaction given negative timestamp.");
+        }
+        if (unit == null) {
+            throw new NullPointerException("Cannot check satisfaction given null time unit.");
+        }
+
+        // Once satisfied or falsified, this value can never change.
+        if ((this.timeOfObservationInNanos >= 0) || this.isFalsified) {
+            return this.timeOfObservationInNanos >= 0;
+        }
+
+        // The second event is tested first, so that a line satisfying both falsifies this event.
+        boolean secondIsSatisfied = this.second.isSatisfiedBy(record, observedAt, unit);
+        boolean firstIsSatisfied = !secondIsSatisfied && this.first.isSatisfiedBy(record, observedAt, unit);
+        return decide(firstIsSatisfied, secondIsSatisfied, unit.toNanos(observedAt));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean isSatisfiedAt(long time, TimeUnit unit) {
+        if (unit == null) {
+            throw new NullPointerException("Cannot check satisfaction given null time unit.");
+        }
+
+        // Once satisfied or falsified, this value can never change.
+        if ((this.timeOfObservationInNanos >= 0) || this.isFalsified) {
+            return this.timeOfObservationInNanos >= 0;
+        }
+
+        boolean secondIsSatisfied = this.second.isSatisfiedAt(time, unit);
+        boolean firstIsSatisfied = !secondIsSatisfied && this.first.isSatisfiedAt(time, unit);
+        return decide(firstIsSatisfied, secondIsSatisfied, unit.toNanos(time));
+    }
+
+    private boolean decide(boolean firstIsSatisfied, boolean secondIsSatisfied, long timeInNanos) {
+        if (secondIsSatisfied || this.first.hasBeenFalsified()) {
+            this.isFalsified = true;
+        } else if (firstIsSatisfied) {
+            this.timeOfObservationInNanos = timeInNanos;
+        }
+        return this.timeOfObservationInNanos >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isTimed() {
+        return this.isTimed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void beginListeningAt(long time, TimeUnit unit) {
+        this.first.beginListeningAt(time, unit);
+        this.second.beginListeningAt(time, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean hasBeenFalsified() {
+        return this.isFalsified;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean hasBeenObserved() {
+        return this.timeOfObservationInNanos >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<String> getAllObservedEvents() {
+        IEvent evidence = evidence();
+        return (evidence == null) ? Collections.emptyList() : evidence.getAllObservedEvents();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<String> getAllObservedLogs() {
+        IEvent evidence = evidence();
+        return (evidence == null) ? Collections.emptyList() : evidence.getAllObservedLogs();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Long> getAllObservationTimes(TimeUnit unit) {
+        IEvent evidence = evidence();
+        return (evidence == null) ? Collections.emptyList() : evidence.getAllObservationTimes(unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Long> getAllKernelObservationTimes(TimeUnit unit) {
+        IEvent evidence = evidence();
+        return (evidence == null) ? Collections.emptyList() : evidence.getAllKernelObservationTimes(unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Map<String, String>> getAllCapturedFields() {
+        IEvent evidence = evidence();
+        return (evidence == null) ? Collections.emptyList() : evidence.getAllCapturedFields();
+    }
+
+    /**
+     * Returns the event whose observations decided this event, or null if it is undecided.
+     */
+    private IEvent evidence() {
+        if (this.timeOfObservationInNanos >= 0) {
+            return this.first;
+        } else if (this.isFalsified) {
+            return this.second.hasBeenObserved() ? this.second : this.first;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized long observedAt(TimeUnit unit) {
+        return (this.timeOfObservationInNanos < 0)
+            ? this.timeOfObservationInNanos
+            : unit.convert(this.timeOfObservationInNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String eventStatement() {
+        return "(" + this.first.eventStatement() + " BEFORE " + this.second.eventStatement() + ")";
+    }
+
+    /**
+     * A String representation of this object, based off of the event statement (see the
+     * {@code eventStatement()} method).
+     *
+     * @return this object as a string.
+     */
+    @Override
+    public String toString() {
+        return "BeforeEvent { " + this.eventStatement() + " }";
+    }
+
+}
@@ -2,7 +2,9 @@ package org.aion.harness.main.event;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import org.aion.harness.util.KernelClock;
 
 /**
  * A "base" or "leaf" event in the sense that this event is represented solely as a single String
@@ -15,6 +17,7 @@ public final class Event implements IEvent {
     private final String eventString;
     private boolean isSatisfied = false;
     private long timeOfObservationInNanos = -1;
+    private long kernelTimeOfObservationInNanos = -1;
     private String log = null;
 
     /**
@@ -61,6 +64,64 @@ public final class Event implements IEvent {
         return new OrEvent(event1, event2);
     }
 
+    /**
+     * Returns the flat logical-and of all the events. Unlike chaining binary and-events, the
+     * returned event tests each log line against only those events that could be satisfied by it.
+     */
+    public static AtLeastEvent allOf(List<? extends IEvent> events) {
+        if (events == null) {
+            throw new NullPointerException("Cannot construct AtLeastEvent from a null list of events.");
+        }
+        return new AtLeastEvent(events.size(), events);
+    }
+
+    /**
+     * Returns the flat logical-or of all the events.
+     */
+    public static AtLeastEvent anyOf(List<? extends IEvent> events) {
+        return new AtLeastEvent(1, events);
+    }
+
+    /**
+     * Returns an event that is satisfied once at least k of the events are satisfied.
+     */
+    public static AtLeastEvent atLeast(int k, List<? extends IEvent> events) {
+        return new AtLeastEvent(k, events);
+    }
+
+    /**
+     * Returns an event that is satisfied if the event is not observed within the specified window
+     * of time, beginning once it is listened for, and is falsified as soon as the event is
+     * observed.
+     */
+    public static AbsentEvent absent(IEvent event, long window, TimeUnit unit) {
+        return new AbsentEvent(event, window, unit);
+    }
+
+    /**
+     * Returns an event that is satisfied if the first event is observed before the second, and is
+     * falsified as soon as the second event is observed first.
+     */
+    public static BeforeEvent before(IEvent first, IEvent second) {
+        return new BeforeEvent(first, second);
+    }
+
+    /**
+     * Returns an event that only considers the lines written by the specified module (for
+     * example, {@code SYNC} or {@code rpc-server}) when testing the event.
+     */
+    public static FilteredEvent inModule(String module, IEvent event) {
+        return new FilteredEvent(module, null, event);
+    }
+
+    /**
+     * Returns an event that only considers the lines logged at the specified level (for example,
+     * {@code ERROR}) when testing the event.
+     */
+    public static FilteredEvent atLevel(String level, IEvent event) {
+        return new FilteredEvent(null, level, event);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -106,6 +167,7 @@ public final class Event implements IEvent {
                 this.log = line;
                 this.isSatisfied = true;
                 this.timeOfObservationInNanos = unit.toNanos(observedAt);
+                this.kernelTimeOfObservationInNanos = KernelClock.kernelTimeOf(line, this.timeOfObservationInNanos, TimeUnit.NANOSECONDS);
             }
         }
         return this.isSatisfied;
@@ -135,6 +197,37 @@ public final class Event implements IEvent {
         return (this.isSatisfied) ? Collections.singletonList(this.log) : Collections.emptyList();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Long> getAllObservationTimes(TimeUnit unit) {
+        return (this.isSatisfied)
+            ? Collections.singletonList(unit.convert(this.timeOfObservationInNanos, TimeUnit.NANOSECONDS))
+            : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Long> getAllKernelObservationTimes(TimeUnit unit) {
+        if (this.isSatisfied) {
+            return Collections.singletonList((this.kernelTimeOfObservationInNanos < 0)
+                ? this.kernelTimeOfObservationInNanos
+                : unit.convert(this.kernelTimeOfObservationInNanos, TimeUnit.NANOSECONDS));
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Map<String, String>> getAllCapturedFields() {
+        return (this.isSatisfied) ? Collections.singletonList(Collections.emptyMap()) : Collections.emptyList();
+    }
+
     @Override
     public synchronized long observedAt(TimeUnit unit) {
         return (this.isSatisfied)
@@ -142,6 +235,13 @@ public final class Event implements IEvent {
             : -1;
     }
 
+    /**
+     * Returns the raw event string that this event is waiting to witness.
+     */
+    String eventString() {
+        return this.eventString;
+    }
+
     /**
      * A String representation of this object, based off of the event statement (see the
      * {@code eventStatement()} method).
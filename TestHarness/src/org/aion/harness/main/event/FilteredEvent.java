@@ -0,0 +1,214 @@
+package org.aion.harness.main.event;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An event that restricts an underlying event to the log lines written by a particular module
+ * and/or at a particular log level, as given by the header of each line (see {@link LogRecord}).
+ *
+ * The module and level of a line are tested before the line is handed to the underlying event,
+ * and these tests are allocation-free comparisons against the header. Thus, lines from other
+ * modules or at other levels are discarded without any substring searching at all.
+ *
+ * A line without a recognizable header never satisfies a filtered event.
+ *
+ * This class satisfies the immutability requirements of the IEvent interface.
+ */
+public final class FilteredEvent implements IEvent {
+    private final String module;
+    private final String level;
+    private final IEvent event;
+
+    /**
+     * Constructs a new filtered event. Either the module or the level may be null, in which case
+     * lines are not filtered by that field, but not both.
+     *
+     * @param module The module whose lines are considered, or null.
+     * @param level The level of the lines that are considered, or null.
+     * @param event The underlying event.
+     */
+    public FilteredEvent(String module, String level, IEvent event) {
+        if (event == null) {
+            throw new NullPointerException("Cannot construct FilteredEvent from a null event.");
+        }
+        if ((module == null) && (level == null)) {
+            throw new NullPointerException("Cannot construct FilteredEvent with neither a module nor a level.");
+        }
+        this.module = module;
+        this.level = level;
+        this.event = event;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AndEvent and(IEvent event) {
+        return new AndEvent(this, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OrEvent or(IEvent event) {
+        return new OrEvent(this, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSatisfiedBy(String line, long observedAt, TimeUnit unit) {
+        if (line == null) {
+            throw new NullPointerException("Cannot check satisfaction on null line.");
+        }
+        return isSatisfiedBy(new LogRecord(line), observedAt, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean isSatisfiedBy(LogRecord record, long observedAt, TimeUnit unit) {
+        if (record == null) {
+            throw new NullPointerException("Cannot check satisfaction on null record.");
+        }
+        if (observedAt < 0) {
+            throw new IllegalArgumentException("Cannot check satisfaction given negative timestamp.");
+        }
+        if (unit == null) {
+            throw new NullPointerException("Cannot check satisfaction given null time unit.");
+        }
+
+        // Once satisfied, this value can never change.
+        if (this.event.hasBeenObserved()) {
+            return true;
+        }
+
+        if ((this.module != null) && !record.isModule(this.module)) {
+            return false;
+        }
+        if ((this.level != null) && !record.isLevel(this.level)) {
+            return false;
+        }
+        return this.event.isSatisfiedBy(record, observedAt, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSatisfiedAt(long time, TimeUnit unit) {
+        return this.event.isSatisfiedAt(time, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isTimed() {
+        return this.event.isTimed();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void beginListeningAt(long time, TimeUnit unit) {
+        this.event.beginListeningAt(time, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasBeenFalsified() {
+        return this.event.hasBeenFalsified();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean hasBeenObserved() {
+        return this.event.hasBeenObserved();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getAllObservedEvents() {
+        return this.event.getAllObservedEvents();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getAllObservedLogs() {
+        return this.event.getAllObservedLogs();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Long> getAllObservationTimes(TimeUnit unit) {
+        return this.event.getAllObservationTimes(unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Long> getAllKernelObservationTimes(TimeUnit unit) {
+        return this.event.getAllKernelObservationTimes(unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Map<String, String>> getAllCapturedFields() {
+        return this.event.getAllCapturedFields();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized long observedAt(TimeUnit unit) {
+        return this.event.observedAt(unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String eventStatement() {
+        StringBuilder statement = new StringBuilder("(");
+        if (this.module != null) {
+            statement.append("IN MODULE ").append(this.module).append(' ');
+        }
+        if (this.level != null) {
+            statement.append("AT LEVEL ").append(this.level).append(' ');
+        }
+        return statement.append(this.event.eventStatement()).append(')').toString();
+    }
+
+    /**
+     * A String representation of this object, based off of the event statement (see the
+     * {@code eventStatement()} method).
+     *
+     * @return this object as a string.
+     */
+    @Override
+    public String toString() {
+        return "FilteredEvent { " + this.eventStatement() + " }";
+    }
+
+}
@@ -1,7 +1,10 @@
 package org.aion.harness.main.event;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import org.aion.harness.util.KernelClock;
 
 /**
  * An event is fundamentally a String (called the "event string", and
@@ -99,6 +102,84 @@ public interface IEvent {
      */
     boolean isSatisfiedBy(String line, long observedAt, TimeUnit unit);
 
+    /**
+     * Behaves exactly as {@code isSatisfiedBy(String, long, TimeUnit)} given the line of the
+     * specified record.
+     *
+     * A listener hands each line to its events as a {@link LogRecord} so that the structured
+     * header of the line (its level, module, thread) is parsed at most once, no matter how many
+     * events inspect it. Events that filter on these fields should override this method.
+     *
+     * @param record The incoming log record that may satisfy the event.
+     * @param observedAt The time of observation.
+     * @param unit The unit of time of observedAt.
+     * @return whether or not the event is now satisfied.
+     */
+    default boolean isSatisfiedBy(LogRecord record, long observedAt, TimeUnit unit) {
+        if (record == null) {
+            throw new NullPointerException("Cannot check satisfaction on null record.");
+        }
+        return isSatisfiedBy(record.line(), observedAt, unit);
+    }
+
+    /**
+     * Tests this event against the passage of time alone, without any new line. This is how
+     * events that can be decided by time (see {@code isTimed()}), such as the absence of some
+     * other event over a window of time, come to be satisfied.
+     *
+     * The return value follows the same rules as {@code isSatisfiedBy()}. Events that are not
+     * timed are unaffected by the passage of time and so only report whether they have already
+     * been satisfied.
+     *
+     * A listener tests its events at the time up to which it has read every line of the log, which
+     * may be a little earlier than the current time, since a line is read some time after it is
+     * written.
+     *
+     * @param time The time up to which every line has been handed to this event.
+     * @param unit The unit of time of time.
+     * @return whether or not the event is now satisfied.
+     */
+    default boolean isSatisfiedAt(long time, TimeUnit unit) {
+        return hasBeenObserved();
+    }
+
+    /**
+     * Returns {@code true} only if the passage of time alone can satisfy or falsify this event,
+     * in which case the listener will periodically test it using {@code isSatisfiedAt()}.
+     *
+     * @return whether or not this event is timed.
+     */
+    default boolean isTimed() {
+        return false;
+    }
+
+    /**
+     * Called by the listener when a request for this event enters its pool, which is when the
+     * event begins to be listened for. Events whose meaning depends on when they begin to be
+     * listened for, such as the absence of some other event over a window of time, begin then.
+     * Composite events pass the call on to the events they are composed of.
+     *
+     * @param time The time at which the event begins to be listened for.
+     * @param unit The unit of time of time.
+     */
+    default void beginListeningAt(long time, TimeUnit unit) {
+    }
+
+    /**
+     * Returns {@code true} only if this event can now never be satisfied, whatever lines follow.
+     * For example, an event requiring the absence of some other event is falsified as soon as that
+     * other event is observed.
+     *
+     * A falsified event is decided just as a satisfied one is, and so a listener need not wait for
+     * it any longer. An event can never be both satisfied and falsified, and once falsified, it
+     * remains falsified.
+     *
+     * @return whether or not the event has been falsified.
+     */
+    default boolean hasBeenFalsified() {
+        return false;
+    }
+
     /**
      * Returns {@code true} only if this event has been observed or "satisfied" (the two terms are
      * used interchangeably here). Otherwise returns {@code false}.
@@ -130,6 +211,57 @@ public interface IEvent {
      */
     List<String> getAllObservedLogs();
 
+    /**
+     * Returns the times at which each of the event strings returned by
+     * {@code getAllObservedEvents()} were observed, in the desired time units.
+     *
+     * The time at index i of the returned list is the observation time of the event string at
+     * index i of the list returned by {@code getAllObservedEvents()}.
+     *
+     * @param unit The time units of the returned times.
+     * @return the observation times of all observed event strings.
+     */
+    List<Long> getAllObservationTimes(TimeUnit unit);
+
+    /**
+     * Returns the times at which the kernel logged each of the event strings returned by
+     * {@code getAllObservedEvents()}, according to the timestamps at the start of their log lines,
+     * in the desired time units. These times are on the same clock as the times returned by
+     * {@code getAllObservationTimes()} (see {@link KernelClock}), and a time is negative if its log
+     * line does not begin with a recognized kernel timestamp.
+     *
+     * Events ought to translate each of these times onto the harness clock when they observe its
+     * line, so that a later calibration of the kernel clock does not shift it. By default, the
+     * times are instead translated now, from the observed logs.
+     *
+     * @param unit The time units of the returned times.
+     * @return the kernel times of all observed event strings.
+     */
+    default List<Long> getAllKernelObservationTimes(TimeUnit unit) {
+        List<String> logs = getAllObservedLogs();
+        List<Long> observationTimes = getAllObservationTimes(TimeUnit.NANOSECONDS);
+
+        int size = Math.min(logs.size(), observationTimes.size());
+        List<Long> times = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long timeInNanos = KernelClock.kernelTimeOf(logs.get(i), observationTimes.get(i), TimeUnit.NANOSECONDS);
+            times.add((timeInNanos < 0) ? timeInNanos : unit.convert(timeInNanos, TimeUnit.NANOSECONDS));
+        }
+        return times;
+    }
+
+    /**
+     * Returns the fields captured by each of the event strings returned by
+     * {@code getAllObservedEvents()}, keyed by field name.
+     *
+     * The map at index i of the returned list holds the fields captured when the event string at
+     * index i of the list returned by {@code getAllObservedEvents()} was observed. Events that do
+     * not capture anything from the log line contribute an empty map.
+     *
+     * @return the captured fields of all observed event strings.
+     */
+    List<Map<String, String>> getAllCapturedFields();
+
     /**
      * Returns the time at which this event was observed in the desired time units.
      *
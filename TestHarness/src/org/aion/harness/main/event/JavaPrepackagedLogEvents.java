@@ -1,7 +1,8 @@
 package org.aion.harness.main.event;
 
+import java.util.regex.Pattern;
 import org.aion.harness.kernel.SignedTransaction;
-import org.apache.commons.codec.binary.Hex;
+import org.aion.harness.main.util.TestHarnessHelper;
 
 public final class JavaPrepackagedLogEvents implements PrepackagedLogEvents {
     @Override
@@ -14,7 +15,9 @@ public final class JavaPrepackagedLogEvents implements PrepackagedLogEvents {
         if (transaction == null) {
             throw new NullPointerException("Cannot get event for null transaction hash.");
         }
-        return new Event("Transaction: " + Hex.encodeHexString(transaction.getTransactionHash()) + " was sealed into block");
+        // The block number is optional so that the event remains satisfied by nodes that omit it.
+        String literal = "Transaction: " + TestHarnessHelper.toHexString(transaction.getTransactionHashView()) + " was sealed into block";
+        return new RegexEvent(literal, Pattern.compile(Pattern.quote(literal) + "(?: #?(?<" + BLOCK_NUMBER_FIELD + ">\\d+))?"));
     }
 
     @Override
@@ -22,7 +25,17 @@ public final class JavaPrepackagedLogEvents implements PrepackagedLogEvents {
         if (transaction == null) {
             throw new NullPointerException("Cannot get event for null transaction hash.");
         }
-        return new Event("tx " + Hex.encodeHexString(transaction.getTransactionHash()) + " is rejected");
+        return new Event("tx " + TestHarnessHelper.toHexString(transaction.getTransactionHashView()) + " is rejected");
+    }
+
+    @Override
+    public String getTransactionSealedMarker() {
+        return " was sealed into block";
+    }
+
+    @Override
+    public String getTransactionRejectedMarker() {
+        return " is rejected";
     }
 
     @Override
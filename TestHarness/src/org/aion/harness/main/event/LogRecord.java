@@ -0,0 +1,314 @@
+package org.aion.harness.main.event;
+
+import java.util.concurrent.TimeUnit;
+import org.aion.harness.util.KernelClock;
+
+/**
+ * A single line of a kernel log, along with the structured header that the kernels print at the
+ * start of each line.
+ *
+ * The two kernels lay out their headers as follows:
+ *   - Java:  {@code yy-MM-dd HH:mm:ss.SSS LEVEL MODULE [thread]: message}
+ *   - Rust:  {@code yyyy-MM-dd HH:mm:ss [thread] LEVEL module message}
+ *
+ * Nothing is copied or parsed when a record is created. The header is only scanned the first time
+ * one of its fields is asked for, and even then only the boundaries of each field are recorded, so
+ * that testing a field (see {@code isLevel()} and {@code isModule()}) costs no allocations. The
+ * field accessors that return strings allocate them on demand.
+ *
+ * If a line has no recognizable header (it does not begin with a timestamp, or no log level
+ * follows the timestamp) then its level, module and thread are all {@code null} and its message
+ * is the entire line.
+ *
+ * This class is not thread-safe. A record is meant to be confined to the thread handling its line.
+ */
+public final class LogRecord {
+    private static final String[] LEVELS = { "TRACE", "DEBUG", "INFO", "WARN", "ERROR" };
+
+    // The number of tokens after the timestamp that are searched for a log level.
+    private static final int MAX_TOKENS_BEFORE_LEVEL = 4;
+
+    private final String line;
+
+    private boolean isParsed = false;
+    private int levelStart = -1, levelEnd = -1;
+    private int moduleStart = -1, moduleEnd = -1;
+    private int threadStart = -1, threadEnd = -1;
+    private int messageStart = 0;
+
+    public LogRecord(String line) {
+        if (line == null) {
+            throw new NullPointerException("Cannot construct a log record from a null line.");
+        }
+        this.line = line;
+    }
+
+    /**
+     * Returns the entire log line.
+     *
+     * @return the log line.
+     */
+    public String line() {
+        return this.line;
+    }
+
+    /**
+     * Returns the timestamp at the start of this line as nanoseconds since the epoch, or a negative
+     * number if the line does not begin with a recognized timestamp.
+     *
+     * @return the timestamp of the line or a negative number.
+     */
+    public long epochNanos() {
+        return KernelClock.parseEpochNanos(this.line);
+    }
+
+    /**
+     * Returns the time at which the kernel wrote this line in terms of the harness clock, see
+     * {@link KernelClock#kernelTimeOf(String, long, TimeUnit)}.
+     *
+     * @param readAt The time, on the harness clock, at which the line was read.
+     * @param unit The time unit of readAt and of the returned time.
+     * @return the kernel time of the line or a negative number.
+     */
+    public long kernelTime(long readAt, TimeUnit unit) {
+        return KernelClock.kernelTimeOf(this.line, readAt, unit);
+    }
+
+    /**
+     * Returns the log level of this line (for example, {@code INFO}) or {@code null} if the line
+     * has no header.
+     *
+     * @return the log level or null.
+     */
+    public String level() {
+        parse();
+        return substring(this.levelStart, this.levelEnd);
+    }
+
+    /**
+     * Returns the module (the logger or target) that wrote this line (for example,
+     * {@code SYNC} or {@code rpc-server}) or {@code null} if the line has no header.
+     *
+     * @return the module or null.
+     */
+    public String module() {
+        parse();
+        return substring(this.moduleStart, this.moduleEnd);
+    }
+
+    /**
+     * Returns the name of the thread that wrote this line, without any enclosing brackets, or
+     * {@code null} if the line has no header or the header does not name a thread.
+     *
+     * @return the thread name or null.
+     */
+    public String thread() {
+        parse();
+        return substring(this.threadStart, this.threadEnd);
+    }
+
+    /**
+     * Returns the remainder of the line following its header, or the entire line if it has no
+     * header.
+     *
+     * @return the message.
+     */
+    public String message() {
+        parse();
+        return this.line.substring(this.messageStart);
+    }
+
+    /**
+     * Returns {@code true} only if this line has a header whose log level is the specified level,
+     * ignoring case.
+     *
+     * @param level The level to test.
+     * @return whether the line is at the specified level.
+     */
+    public boolean isLevel(String level) {
+        if (level == null) {
+            throw new NullPointerException("Cannot test a null level.");
+        }
+        parse();
+        return regionEquals(this.levelStart, this.levelEnd, level);
+    }
+
+    /**
+     * Returns {@code true} only if this line has a header whose module is the specified module,
+     * ignoring case.
+     *
+     * @param module The module to test.
+     * @return whether the line was written by the specified module.
+     */
+    public boolean isModule(String module) {
+        if (module == null) {
+            throw new NullPointerException("Cannot test a null module.");
+        }
+        parse();
+        return regionEquals(this.moduleStart, this.moduleEnd, module);
+    }
+
+    /**
+     * Returns {@code true} only if the message of this line contains the specified string.
+     *
+     * @param string The string to search for.
+     * @return whether the message contains the string.
+     */
+    public boolean messageContains(String string) {
+        if (string == null) {
+            throw new NullPointerException("Cannot search for a null string.");
+        }
+        parse();
+        return this.line.indexOf(string, this.messageStart) >= 0;
+    }
+
+    /**
+     * Locates the boundaries of each header field. The header is a timestamp followed by a few
+     * whitespace-separated tokens, one of which is the log level. In the Rust format the tokens
+     * preceding the level name the thread, and in the Java format the thread follows the module
+     * inside square brackets.
+     */
+    private void parse() {
+        if (this.isParsed) {
+            return;
+        }
+        this.isParsed = true;
+
+        int index = KernelClock.endOfTimestamp(this.line);
+        if (index < 0) {
+            return;
+        }
+
+        int firstTokenStart = -1, previousTokenEnd = -1;
+        for (int token = 0; token <= MAX_TOKENS_BEFORE_LEVEL; token++) {
+            int start = skipSeparators(index);
+            int end = endOfToken(start);
+            if (start == end) {
+                return;
+            }
+
+            if (isLevelName(start, end)) {
+                this.levelStart = start;
+                this.levelEnd = end;
+                if (firstTokenStart >= 0) {
+                    setThread(firstTokenStart, previousTokenEnd);
+                }
+                index = end;
+                break;
+            }
+
+            if (firstTokenStart < 0) {
+                firstTokenStart = start;
+            }
+            previousTokenEnd = end;
+            index = end;
+        }
+
+        if (this.levelStart < 0) {
+            return;
+        }
+
+        int start = skipSeparators(index);
+        int end = endOfToken(start);
+        if ((end > start) && (this.line.charAt(end - 1) == ':')) {
+            end--;
+        }
+        this.moduleStart = start;
+        this.moduleEnd = end;
+        index = skipSeparators(end);
+
+        // The Java kernel follows the module with "[thread]:".
+        if ((index < this.line.length()) && (this.line.charAt(index) == '[')) {
+            int close = this.line.indexOf(']', index);
+            if (close > 0) {
+                this.threadStart = index + 1;
+                this.threadEnd = close;
+                index = close + 1;
+                if ((index < this.line.length()) && (this.line.charAt(index) == ':')) {
+                    index++;
+                }
+            }
+        }
+
+        this.messageStart = skipSeparators(index);
+    }
+
+    private void setThread(int start, int end) {
+        if ((this.line.charAt(start) == '[') && (this.line.charAt(end - 1) == ']')) {
+            start++;
+            end--;
+        }
+        this.threadStart = start;
+        this.threadEnd = end;
+    }
+
+    private boolean isLevelName(int start, int end) {
+        for (String level : LEVELS) {
+            if (regionEquals(start, end, level)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean regionEquals(int start, int end, String string) {
+        return (start >= 0)
+            && (end - start == string.length())
+            && this.line.regionMatches(true, start, string, 0, string.length());
+    }
+
+    /**
+     * Returns the index of the first character at or after the specified index that is neither
+     * whitespace nor part of an ANSI escape code.
+     */
+    private int skipSeparators(int index) {
+        while (index < this.line.length()) {
+            char character = this.line.charAt(index);
+            if (Character.isWhitespace(character)) {
+                index++;
+            } else if (isEscapeAt(index)) {
+                index = endOfEscape(index);
+            } else {
+                break;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index just past the token beginning at the specified index, where a token ends
+     * at whitespace or at an ANSI escape code.
+     */
+    private int endOfToken(int index) {
+        while ((index < this.line.length()) && !Character.isWhitespace(this.line.charAt(index)) && !isEscapeAt(index)) {
+            index++;
+        }
+        return index;
+    }
+
+    private boolean isEscapeAt(int index) {
+        return (this.line.charAt(index) == '\u001B') && (index + 1 < this.line.length()) && (this.line.charAt(index + 1) == '[');
+    }
+
+    /**
+     * Returns the index just past the escape sequence at the specified index, which ends at its
+     * first letter.
+     */
+    private int endOfEscape(int index) {
+        index += 2;
+        while ((index < this.line.length()) && !Character.isLetter(this.line.charAt(index))) {
+            index++;
+        }
+        return Math.min(index + 1, this.line.length());
+    }
+
+    private String substring(int start, int end) {
+        return (start < 0) ? null : this.line.substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return "LogRecord { " + this.line + " }";
+    }
+
+}
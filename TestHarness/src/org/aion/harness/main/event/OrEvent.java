@@ -2,6 +2,7 @@ package org.aion.harness.main.event;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -17,6 +18,7 @@ import java.util.concurrent.TimeUnit;
 public final class OrEvent implements IEvent {
     private final IEvent event1;
     private final IEvent event2;
+    private final boolean isTimed;
 
     private boolean event1isSatisfied = false;
     private boolean event2isSatisfied = false;
@@ -28,6 +30,7 @@ public final class OrEvent implements IEvent {
         }
         this.event1 = event1;
         this.event2 = event2;
+        this.isTimed = event1.isTimed() || event2.isTimed();
     }
 
     /**
@@ -50,10 +53,24 @@ public final class OrEvent implements IEvent {
      * {@inheritDoc}
      */
     @Override
-    public synchronized boolean isSatisfiedBy(String line, long observedAt, TimeUnit unit) {
+    public boolean isSatisfiedBy(String line, long observedAt, TimeUnit unit) {
         if (line == null) {
             throw new NullPointerException("Cannot check satisfaction on null line.");
         }
+        return isSatisfiedBy(new LogRecord(line), observedAt, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The same record is passed down to each of the underlying events, so that its header is
+     * parsed at most once.
+     */
+    @Override
+    public synchronized boolean isSatisfiedBy(LogRecord record, long observedAt, TimeUnit unit) {
+        if (record == null) {
+            throw new NullPointerException("Cannot check satisfaction on null record.");
+        }
         if (observedAt < 0) {
             throw new IllegalArgumentException("Cannot check satisfaction given negative timestamp.");
         }
@@ -67,10 +84,10 @@ public final class OrEvent implements IEvent {
         }
 
         if (!this.event1isSatisfied) {
-            this.event1isSatisfied = this.event1.isSatisfiedBy(line, observedAt, unit);
+            this.event1isSatisfied = this.event1.isSatisfiedBy(record, observedAt, unit);
         }
         if (!this.event2isSatisfied) {
-            this.event2isSatisfied = this.event2.isSatisfiedBy(line, observedAt, unit);
+            this.event2isSatisfied = this.event2.isSatisfiedBy(record, observedAt, unit);
         }
 
         boolean isSatisfied = this.event1isSatisfied || this.event2isSatisfied;
@@ -81,6 +98,60 @@ public final class OrEvent implements IEvent {
         return isSatisfied;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean isSatisfiedAt(long time, TimeUnit unit) {
+        if (unit == null) {
+            throw new NullPointerException("Cannot check satisfaction given null time unit.");
+        }
+
+        // Prevent this event from being 're-satisfied' if it is already.
+        if (this.event1isSatisfied || this.event2isSatisfied) {
+            return true;
+        }
+
+        if (!this.event1isSatisfied) {
+            this.event1isSatisfied = this.event1.isSatisfiedAt(time, unit);
+        }
+        if (!this.event2isSatisfied) {
+            this.event2isSatisfied = this.event2.isSatisfiedAt(time, unit);
+        }
+
+        boolean isSatisfied = this.event1isSatisfied || this.event2isSatisfied;
+        if ((isSatisfied) && (this.timeOfObservationInNanos < 0)) {
+            this.timeOfObservationInNanos = unit.toNanos(time);
+        }
+
+        return isSatisfied;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isTimed() {
+        return this.isTimed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void beginListeningAt(long time, TimeUnit unit) {
+        this.event1.beginListeningAt(time, unit);
+        this.event2.beginListeningAt(time, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean hasBeenFalsified() {
+        return this.event1.hasBeenFalsified() && this.event2.hasBeenFalsified();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -111,6 +182,39 @@ public final class OrEvent implements IEvent {
         return allEventLogs;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Long> getAllObservationTimes(TimeUnit unit) {
+        List<Long> times = new ArrayList<>();
+        times.addAll(this.event1.getAllObservationTimes(unit));
+        times.addAll(this.event2.getAllObservationTimes(unit));
+        return times;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Long> getAllKernelObservationTimes(TimeUnit unit) {
+        List<Long> times = new ArrayList<>();
+        times.addAll(this.event1.getAllKernelObservationTimes(unit));
+        times.addAll(this.event2.getAllKernelObservationTimes(unit));
+        return times;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Map<String, String>> getAllCapturedFields() {
+        List<Map<String, String>> fields = new ArrayList<>();
+        fields.addAll(this.event1.getAllCapturedFields());
+        fields.addAll(this.event2.getAllCapturedFields());
+        return fields;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,194 @@
+package org.aion.harness.main.event;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.aion.harness.util.KernelClock;
+
+/**
+ * A "leaf" event that is satisfied by any line accepted by an arbitrary predicate.
+ *
+ * This is intended for conditions that cannot be expressed as a plain event string or cheaply as
+ * a regular expression. Since the predicate may be expensive, an optional literal can be given
+ * such that the predicate is only ever tested against lines that contain that literal.
+ *
+ * A predicate has no meaningful "event string", and so the observed event string of a predicate
+ * event is the entire log line that satisfied it.
+ *
+ * The predicate must be thread-safe and free of side-effects, since it may be tested against
+ * lines from multiple threads and may be tested more than once against the same line.
+ *
+ * This class meets the immutability guarantees of the {@link IEvent} interface.
+ */
+public final class PredicateEvent implements IEvent {
+    private final String description;
+    private final String literal;
+    private final Predicate<String> predicate;
+
+    private String log = null;
+    private long timeOfObservationInNanos = -1;
+    private long kernelTimeOfObservationInNanos = -1;
+
+    /**
+     * Constructs a new predicate event that tests every line against the predicate.
+     *
+     * @param description A human-readable description of the condition, used in the event statement.
+     * @param predicate The predicate.
+     */
+    public PredicateEvent(String description, Predicate<String> predicate) {
+        this("", description, predicate);
+    }
+
+    /**
+     * Constructs a new predicate event that only tests lines containing the specified literal
+     * against the predicate.
+     *
+     * @param literal The literal that every line satisfying the predicate contains.
+     * @param description A human-readable description of the condition, used in the event statement.
+     * @param predicate The predicate.
+     */
+    public PredicateEvent(String literal, String description, Predicate<String> predicate) {
+        if (literal == null) {
+            throw new NullPointerException("Cannot construct predicate event with null literal.");
+        }
+        if (description == null) {
+            throw new NullPointerException("Cannot construct predicate event with null description.");
+        }
+        if (predicate == null) {
+            throw new NullPointerException("Cannot construct predicate event with null predicate.");
+        }
+
+        this.literal = literal;
+        this.description = description;
+        this.predicate = predicate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String eventStatement() {
+        return "(" + this.description + ")";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AndEvent and(IEvent event) {
+        return new AndEvent(this, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OrEvent or(IEvent event) {
+        return new OrEvent(this, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean isSatisfiedBy(String line, long observedAt, TimeUnit unit) {
+        if (line == null) {
+            throw new NullPointerException("Cannot check satisfaction on null line.");
+        }
+        if (observedAt < 0) {
+            throw new IllegalArgumentException("Cannot check satisfaction given negative timestamp.");
+        }
+        if (unit == null) {
+            throw new NullPointerException("Cannot check satisfaction given null time unit.");
+        }
+
+        // Once satisfied, this value can never change.
+        if (this.log == null) {
+            if (line.contains(this.literal) && this.predicate.test(line)) {
+                this.log = line;
+                this.timeOfObservationInNanos = unit.toNanos(observedAt);
+                this.kernelTimeOfObservationInNanos = KernelClock.kernelTimeOf(line, this.timeOfObservationInNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        return this.log != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean hasBeenObserved() {
+        return this.log != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<String> getAllObservedEvents() {
+        return (this.log != null) ? Collections.singletonList(this.log) : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<String> getAllObservedLogs() {
+        return (this.log != null) ? Collections.singletonList(this.log) : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Long> getAllObservationTimes(TimeUnit unit) {
+        return (this.log != null)
+            ? Collections.singletonList(unit.convert(this.timeOfObservationInNanos, TimeUnit.NANOSECONDS))
+            : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Long> getAllKernelObservationTimes(TimeUnit unit) {
+        if (this.log != null) {
+            return Collections.singletonList((this.kernelTimeOfObservationInNanos < 0)
+                ? this.kernelTimeOfObservationInNanos
+                : unit.convert(this.kernelTimeOfObservationInNanos, TimeUnit.NANOSECONDS));
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Map<String, String>> getAllCapturedFields() {
+        return (this.log != null) ? Collections.singletonList(Collections.emptyMap()) : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized long observedAt(TimeUnit unit) {
+        return (this.log != null)
+            ? unit.convert(this.timeOfObservationInNanos, TimeUnit.NANOSECONDS)
+            : -1;
+    }
+
+    /**
+     * A String representation of this object, based off of the event statement (see the
+     * {@code eventStatement()} method).
+     *
+     * @return this object as a string.
+     */
+    @Override
+    public String toString() {
+        return "PredicateEvent { " + this.eventStatement() + " }";
+    }
+
+}
@@ -13,6 +13,13 @@ import org.aion.harness.kernel.SignedTransaction;
  * This class always returns a {@code new} event when any of its methods are called.
  */
 public interface PrepackagedLogEvents {
+    /**
+     * The name of the field that a transaction sealed event captures the block number into, if
+     * the node logs the block number alongside the sealed transaction. See
+     * {@link org.aion.harness.result.LogEventResult#getCapturedFieldAsLong(String)}.
+     */
+    String BLOCK_NUMBER_FIELD = "blockNumber";
+
     /**
      * Returns an event that captures the miners being started up.
      *
@@ -36,6 +43,9 @@ public interface PrepackagedLogEvents {
     /**
      * Returns an event that captures a transaction being sealed into a block.
      *
+     * If the node logs the number of the block the transaction was sealed into, then the event
+     * captures it in the {@link #BLOCK_NUMBER_FIELD} field.
+     *
      * @param transaction The transaction.
      * @return the event.
      */
@@ -49,6 +59,24 @@ public interface PrepackagedLogEvents {
      */
     IEvent getTransactionRejectedEvent(SignedTransaction transaction);
 
+    /**
+     * Returns the literal text, independent of any transaction, that appears in every log line
+     * written when the node seals a transaction into a block. Used to classify lines that have
+     * already been matched to a transaction by its hash (see
+     * {@link org.aion.harness.main.TransactionTracker}).
+     *
+     * @return the sealed transaction marker.
+     */
+    String getTransactionSealedMarker();
+
+    /**
+     * Returns the literal text, independent of any transaction, that appears in every log line
+     * written when the node rejects a transaction.
+     *
+     * @return the rejected transaction marker.
+     */
+    String getTransactionRejectedMarker();
+
     /**
      * Returns an event that captures a log line that is expected to occur consistently over the
      * lifetime of a node.
@@ -0,0 +1,344 @@
+package org.aion.harness.main.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.aion.harness.util.KernelClock;
+
+/**
+ * A "leaf" event that is satisfied by any line matching a regular expression.
+ *
+ * The pattern is compiled once, when the event is constructed. Every named capture group in the
+ * pattern (for example {@code (?<blockNumber>\d+)}) is recorded as a captured field when the event
+ * is satisfied, and these fields are surfaced through {@code getAllCapturedFields()} and from
+ * there through the {@link org.aion.harness.result.LogEventResult}.
+ *
+ * Running a regular expression against every log line is expensive, so each event carries a
+ * literal that every matching line must contain. A line that does not contain this literal is
+ * rejected by a plain substring search and the pattern is never run against it. By default the
+ * literal is the leading literal text of the pattern, but an explicit literal can be provided
+ * when the pattern begins with something other than literal text.
+ *
+ * The observed event string of a regex event is the portion of the line that matched the pattern,
+ * so that it remains a substring of the observed log.
+ *
+ * This class meets the immutability guarantees of the {@link IEvent} interface.
+ */
+public final class RegexEvent implements IEvent {
+    private static final Pattern NAMED_GROUP = Pattern.compile("(?<!\\\\)\\(\\?<([a-zA-Z][a-zA-Z0-9]*)>");
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final Pattern pattern;
+    private final String literal;
+    private final boolean literalIsLeading;
+    private final List<String> groupNames;
+    private final Matcher matcher;
+
+    private String matchedText = null;
+    private String log = null;
+    private Map<String, String> capturedFields = null;
+    private long timeOfObservationInNanos = -1;
+    private long kernelTimeOfObservationInNanos = -1;
+
+    /**
+     * Constructs a new regex event from the specified pattern. The leading literal text of the
+     * pattern is used to pre-filter lines.
+     *
+     * @param regex The regular expression.
+     */
+    public RegexEvent(String regex) {
+        this(Pattern.compile(nonNullRegex(regex)));
+    }
+
+    /**
+     * Constructs a new regex event from the specified pre-compiled pattern. The leading literal
+     * text of the pattern is used to pre-filter lines.
+     *
+     * @param pattern The pattern.
+     */
+    public RegexEvent(Pattern pattern) {
+        this(pattern, leadingLiteralOf(nonNullPattern(pattern)), true);
+    }
+
+    /**
+     * Constructs a new regex event from the specified pre-compiled pattern that will only run the
+     * pattern against lines containing the specified literal.
+     *
+     * The caller is responsible for ensuring that every line matching the pattern contains the
+     * literal, otherwise such lines will never satisfy this event.
+     *
+     * @param literal The literal that every matching line contains.
+     * @param pattern The pattern.
+     */
+    public RegexEvent(String literal, Pattern pattern) {
+        this(pattern, literal, false);
+    }
+
+    private RegexEvent(Pattern pattern, String literal, boolean literalIsLeading) {
+        if (pattern == null) {
+            throw new NullPointerException("Cannot construct regex event with null pattern.");
+        }
+        if (literal == null) {
+            throw new NullPointerException("Cannot construct regex event with null literal.");
+        }
+
+        this.pattern = pattern;
+        this.literal = literal;
+        this.literalIsLeading = literalIsLeading;
+        this.groupNames = namedGroupsOf(pattern.pattern());
+        this.matcher = pattern.matcher("");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String eventStatement() {
+        return "(/" + this.pattern.pattern() + "/)";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AndEvent and(IEvent event) {
+        return new AndEvent(this, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OrEvent or(IEvent event) {
+        return new OrEvent(this, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean isSatisfiedBy(String line, long observedAt, TimeUnit unit) {
+        if (line == null) {
+            throw new NullPointerException("Cannot check satisfaction on null line.");
+        }
+        if (observedAt < 0) {
+            throw new IllegalArgumentException("Cannot check satisfaction given negative timestamp.");
+        }
+        if (unit == null) {
+            throw new NullPointerException("Cannot check satisfaction given null time unit.");
+        }
+
+        // Once satisfied, this value can never change.
+        if (this.log != null) {
+            return true;
+        }
+
+        int literalIndex = line.indexOf(this.literal);
+        if (literalIndex < 0) {
+            return false;
+        }
+
+        // If the literal leads the pattern then no match can begin before the literal does.
+        this.matcher.reset(line);
+        if (this.matcher.find(this.literalIsLeading ? literalIndex : 0)) {
+            Map<String, String> fields = new HashMap<>();
+            for (String groupName : this.groupNames) {
+                String value = this.matcher.group(groupName);
+                if (value != null) {
+                    fields.put(groupName, value);
+                }
+            }
+
+            this.matchedText = this.matcher.group();
+            this.capturedFields = Collections.unmodifiableMap(fields);
+            this.log = line;
+            this.timeOfObservationInNanos = unit.toNanos(observedAt);
+            this.kernelTimeOfObservationInNanos = KernelClock.kernelTimeOf(line, this.timeOfObservationInNanos, TimeUnit.NANOSECONDS);
+        }
+
+        // Do not hold on to the line any longer than necessary.
+        this.matcher.reset("");
+        return this.log != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized boolean hasBeenObserved() {
+        return this.log != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<String> getAllObservedEvents() {
+        return (this.log != null) ? Collections.singletonList(this.matchedText) : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<String> getAllObservedLogs() {
+        return (this.log != null) ? Collections.singletonList(this.log) : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Long> getAllObservationTimes(TimeUnit unit) {
+        return (this.log != null)
+            ? Collections.singletonList(unit.convert(this.timeOfObservationInNanos, TimeUnit.NANOSECONDS))
+            : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Long> getAllKernelObservationTimes(TimeUnit unit) {
+        if (this.log != null) {
+            return Collections.singletonList((this.kernelTimeOfObservationInNanos < 0)
+                ? this.kernelTimeOfObservationInNanos
+                : unit.convert(this.kernelTimeOfObservationInNanos, TimeUnit.NANOSECONDS));
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<Map<String, String>> getAllCapturedFields() {
+        return (this.log != null) ? Collections.singletonList(this.capturedFields) : Collections.emptyList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized long observedAt(TimeUnit unit) {
+        return (this.log != null)
+            ? unit.convert(this.timeOfObservationInNanos, TimeUnit.NANOSECONDS)
+            : -1;
+    }
+
+    /**
+     * Returns the literal that every line satisfying this event must contain.
+     */
+    String literal() {
+        return this.literal;
+    }
+
+    /**
+     * A String representation of this object, based off of the event statement (see the
+     * {@code eventStatement()} method).
+     *
+     * @return this object as a string.
+     */
+    @Override
+    public String toString() {
+        return "RegexEvent { " + this.eventStatement() + " }";
+    }
+
+    private static String leadingLiteralOf(Pattern pattern) {
+        // Under these flags the pattern text is not matched verbatim, so there is no safe literal.
+        int flags = Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.LITERAL;
+        return ((pattern.flags() & flags) == 0) ? leadingLiteralOf(pattern.pattern()) : "";
+    }
+
+    /**
+     * Returns the longest run of literal text that begins the specified regular expression. Any
+     * line matched by the expression must contain this text.
+     */
+    static String leadingLiteralOf(String regex) {
+        StringBuilder literal = new StringBuilder();
+
+        int index = 0;
+        while (index < regex.length()) {
+            char character = regex.charAt(index);
+
+            int next;
+            char literalCharacter;
+            if (character == '\\') {
+                // Only an escaped metacharacter is a literal; other escapes (\d, \s ...) are classes.
+                if ((index + 1 < regex.length()) && (METACHARACTERS.indexOf(regex.charAt(index + 1)) >= 0)) {
+                    literalCharacter = regex.charAt(index + 1);
+                    next = index + 2;
+                } else {
+                    break;
+                }
+            } else if (METACHARACTERS.indexOf(character) >= 0) {
+                break;
+            } else {
+                literalCharacter = character;
+                next = index + 1;
+            }
+
+            // A quantified character may be absent or repeated, so it cannot be part of the literal.
+            if ((next < regex.length()) && ("?*{".indexOf(regex.charAt(next)) >= 0)) {
+                break;
+            }
+            literal.append(literalCharacter);
+            index = next;
+        }
+
+        // A top-level alternation anywhere in the pattern means the prefix is not mandatory.
+        return hasTopLevelAlternation(regex) ? "" : literal.toString();
+    }
+
+    private static boolean hasTopLevelAlternation(String regex) {
+        int depth = 0;
+        boolean inCharacterClass = false;
+
+        for (int i = 0; i < regex.length(); i++) {
+            char character = regex.charAt(i);
+            if (character == '\\') {
+                i++;
+            } else if (inCharacterClass) {
+                inCharacterClass = (character != ']');
+            } else if (character == '[') {
+                inCharacterClass = true;
+            } else if (character == '(') {
+                depth++;
+            } else if (character == ')') {
+                depth--;
+            } else if ((character == '|') && (depth == 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> namedGroupsOf(String regex) {
+        List<String> names = new ArrayList<>();
+        Matcher groupMatcher = NAMED_GROUP.matcher(regex);
+        while (groupMatcher.find()) {
+            names.add(groupMatcher.group(1));
+        }
+        return names;
+    }
+
+    private static String nonNullRegex(String regex) {
+        if (regex == null) {
+            throw new NullPointerException("Cannot construct regex event with null regex.");
+        }
+        return regex;
+    }
+
+    private static Pattern nonNullPattern(Pattern pattern) {
+        if (pattern == null) {
+            throw new NullPointerException("Cannot construct regex event with null pattern.");
+        }
+        return pattern;
+    }
+
+}
@@ -1,7 +1,7 @@
 package org.aion.harness.main.event;
 
 import org.aion.harness.kernel.SignedTransaction;
-import org.apache.commons.codec.binary.Hex;
+import org.aion.harness.main.util.TestHarnessHelper;
 
 public class RustPrepackagedLogEvents implements PrepackagedLogEvents {
 
@@ -20,7 +20,7 @@ public class RustPrepackagedLogEvents implements PrepackagedLogEvents {
             throw new NullPointerException("Cannot get event for null transaction hash.");
         }
         return new Event(
-            "Transaction mined (hash " + Hex.encodeHexString(transaction.getTransactionHash()) + ")");
+            "Transaction mined (hash " + TestHarnessHelper.toHexString(transaction.getTransactionHashView()) + ")");
     }
 
     @Override
@@ -29,10 +29,20 @@ public class RustPrepackagedLogEvents implements PrepackagedLogEvents {
             throw new NullPointerException("Cannot get event for null transaction hash.");
         }
         return new Event(
-            "Transaction rejected (hash " + Hex.encodeHexString(transaction.getTransactionHash()) + ")");
+            "Transaction rejected (hash " + TestHarnessHelper.toHexString(transaction.getTransactionHashView()) + ")");
 
     }
 
+    @Override
+    public String getTransactionSealedMarker() {
+        return "Transaction mined (hash ";
+    }
+
+    @Override
+    public String getTransactionRejectedMarker() {
+        return "Transaction rejected (hash ";
+    }
+
     @Override
     public IEvent getHeartbeatEvent() {
         return new Event("= Sync Statics =");
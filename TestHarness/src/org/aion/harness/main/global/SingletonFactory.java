@@ -1,5 +1,6 @@
 package org.aion.harness.main.global;
 
+import org.aion.harness.util.LogMultiplexer;
 import org.aion.harness.util.NodeWatcher;
 
 /**
@@ -18,9 +19,11 @@ public final class SingletonFactory {
     private static final SingletonFactory SELF = new SingletonFactory();
 
     private final NodeWatcher nodeWatcher;
+    private final LogMultiplexer logMultiplexer;
 
     private SingletonFactory() {
         this.nodeWatcher = new NodeWatcher();
+        this.logMultiplexer = new LogMultiplexer();
     }
 
     /**
@@ -45,4 +48,17 @@ public final class SingletonFactory {
         return this.nodeWatcher;
     }
 
+    /**
+     * Returns an instance of {@link LogMultiplexer}.
+     *
+     * If two {@link LogMultiplexer} instances are obtained by subsequent calls to this method,
+     * then the two instances will in fact be the same instance, and so the logs of every node are
+     * tailed by the same I/O threads.
+     *
+     * @return a log multiplexer singleton.
+     */
+    public LogMultiplexer logMultiplexer() {
+        return this.logMultiplexer;
+    }
+
 }
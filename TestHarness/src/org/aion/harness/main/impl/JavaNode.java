@@ -1,5 +1,7 @@
 package org.aion.harness.main.impl;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeoutException;
@@ -13,6 +15,7 @@ import org.aion.harness.main.Network;
 import org.aion.harness.main.NodeConfigurations;
 import org.aion.harness.main.impl.internal.NodeInitializer;
 import org.aion.harness.misc.Assumptions;
+import org.aion.harness.result.LogEventResult;
 import org.aion.harness.result.Result;
 import org.aion.harness.sys.LeveldbLockAwaiter;
 import org.aion.harness.util.*;
@@ -40,6 +43,9 @@ public class JavaNode implements LocalNode {
     // The running instance of the kernel.
     private Process runningKernel = null;
 
+    // When the running instance was launched, so that start-up checks look back no further.
+    private long launchTimeInNanos = 0;
+
     public JavaNode() {
         this.log = new SimpleLog(getClass().getName());
         this.logReader = new LogReader();
@@ -138,12 +144,20 @@ public class JavaNode implements LocalNode {
             outputLog = this.logManager.getCurrentOutputLogFile();
         }
 
-        builder.redirectOutput(outputLog);
+        // Append, so that the kernel's writes follow the end of the log if it is ever truncated. An
+        // appended log is not truncated on launch, so we truncate it ourselves.
+        this.logManager.truncateOutputLog();
+        builder.redirectOutput(ProcessBuilder.Redirect.appendTo(outputLog));
         builder.redirectError(this.logManager.getCurrentErrorLogFile());
 
         new LeveldbLockAwaiter(this.configurations.getDatabaseJava().getAbsolutePath()).await();
+        this.launchTimeInNanos = System.nanoTime();
         this.runningKernel = builder.start();
 
+        if (this.configurations.rotateOutputLog()) {
+            this.logManager.startRotatingOutputLog(this.configurations.getMaxOutputLogSizeInBytes(), this.configurations.getNumberOfArchivedOutputLogs());
+        }
+
         return waitForKernelReadyOrError(outputLog);
     }
 
@@ -161,6 +175,7 @@ public class JavaNode implements LocalNode {
             this.runningKernel.destroy();
             boolean shutdown = this.runningKernel.waitFor(1, TimeUnit.MINUTES);
             this.runningKernel = null;
+            this.logManager.stopRotatingOutputLog();
             this.logReader.stopReading();
 
             result = (shutdown) ? Result.successful() : Result.unsuccessfulDueTo("Timed out waiting for node to shut down!");
@@ -269,27 +284,36 @@ public class JavaNode implements LocalNode {
      * Block until logs indicate that either RPC server started or an error happened
      */
     protected Result waitForKernelReadyOrError(File outputLog) throws InterruptedException {
-        // We wait for the rpc event to know we are ok to return. There is a chance that we will miss
-        // this event and start listening too late. That is why we timeout after 20 seconds, which
-        // should be more than sufficient for the server to activate, and then we check if the node
-        // is still live.
-        // See issue #1 relating to this decision, which will be refactored in the future.
+        // We wait for the rpc event to know we are ok to return. The output log is truncated just
+        // before the kernel is launched, so we read it from the beginning and look back over every
+        // line read since the launch, which means the event cannot be missed even if it is logged
+        // before we start listening, and cannot be matched by a previous launch.
 
         if (isAlive()) {
-            // We wait for the Rpc event or else 20 seconds, in case we come too late and never see it.
+            // We also stop waiting as soon as the kernel logs any known start-up error.
             IEvent rpcEvent = new Event("rpc-server - (UNDERTOW) started");
+            List<IEvent> readyOrErrorEvents = new ArrayList<>();
+            readyOrErrorEvents.add(rpcEvent);
+            for (String error : STARTUP_ERRORS) {
+                readyOrErrorEvents.add(new Event(error));
+            }
 
-            Result result = this.logReader.startReading(outputLog);
+            Result result = this.logReader.startReading(outputLog, true);
             if (!result.isSuccess()) {
                 return result;
             }
 
             log.log("Waiting for kernel to start RPC server");
+            LogEventResult rpcResult;
             try {
-                NodeListener.listenTo(this)
-                    .listenForEvent(rpcEvent, 20, TimeUnit.SECONDS)
-                    .get(20, TimeUnit.SECONDS);
+                rpcResult = NodeListener.listenTo(this)
+                    .listenForEvent(Event.anyOf(readyOrErrorEvents), 1, TimeUnit.MINUTES, nanosSinceLaunch(), TimeUnit.NANOSECONDS)
+                    .get(1, TimeUnit.MINUTES);
             } catch (TimeoutException te) {
+                rpcResult = null;
+            }
+
+            if ((rpcResult == null) || !rpcResult.eventWasObserved() || !rpcEvent.hasBeenObserved()) {
                 log.log("RPC Server did not start.");
                 Optional<String> maybeError = findError(outputLog);
                 if(maybeError.isPresent()) {
@@ -307,6 +331,14 @@ public class JavaNode implements LocalNode {
         }
     }
 
+    /**
+     * Returns the time that has passed since the kernel was last launched, in nanoseconds, which is
+     * as far back as a start-up check needs to look in the output log.
+     */
+    protected long nanosSinceLaunch() {
+        return System.nanoTime() - this.launchTimeInNanos;
+    }
+
     private Optional<String> findError(File file) {
         try {
             if(FileUtils.sizeOf(file) > FileUtils.ONE_MB) {
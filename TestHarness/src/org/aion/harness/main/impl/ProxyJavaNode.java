@@ -27,8 +27,10 @@ public class ProxyJavaNode extends JavaNode {
      * Block until logs indicate that either RPC server started or an error happened
      */
     protected Result waitForKernelReadyOrError(File outputLog) throws InterruptedException {
+        // As in JavaNode, the output log is truncated just before the kernel is launched, so we read
+        // it from the beginning and look back over every line read since the launch.
         if (isAlive()) {
-            Result result = this.logReader.startReading(outputLog);
+            Result result = this.logReader.startReading(outputLog, true);
             if (!result.isSuccess()) {
                 return result;
             }
@@ -41,10 +43,10 @@ public class ProxyJavaNode extends JavaNode {
                 NodeListener listener = NodeListener.listenTo(this);
 
                 FutureResult<LogEventResult> futureNearBestBlock = listener
-                    .listenForEvent(nearBestEv, 5, TimeUnit.MINUTES);
+                    .listenForEvent(nearBestEv, 5, TimeUnit.MINUTES, nanosSinceLaunch(), TimeUnit.NANOSECONDS);
 
                 listener.listenForEvent(
-                    rpcEv.and(havePeerEv), 60, TimeUnit.SECONDS
+                    rpcEv.and(havePeerEv), 60, TimeUnit.SECONDS, nanosSinceLaunch(), TimeUnit.NANOSECONDS
                 ).get(60, TimeUnit.SECONDS);
 
                 log.log("Kernel RPC server started and peer found.  Waiting for sync to get near best network block.");
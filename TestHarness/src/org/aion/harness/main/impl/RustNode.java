@@ -34,6 +34,9 @@ public class RustNode implements LocalNode {
     // The running instance of the kernel.
     private Process runningKernel = null;
 
+    // When the running instance was launched, so that start-up checks look back no further.
+    private long launchTimeInNanos = 0;
+
     /** The directory name of the database (relative to path of aionr root).  */
     private static final String DATA_DIR = "data";
 
@@ -161,7 +164,10 @@ public class RustNode implements LocalNode {
         builder.environment().put("AIONR_HOME", ".");
 
         builder.redirectErrorStream(true);
-        builder.redirectOutput(this.logManager.getCurrentOutputLogFile());
+        // Append, so that the kernel's writes follow the end of the log if it is ever truncated. An
+        // appended log is not truncated on launch, so we truncate it ourselves.
+        this.logManager.truncateOutputLog();
+        builder.redirectOutput(ProcessBuilder.Redirect.appendTo(this.logManager.getCurrentOutputLogFile()));
 
         File levelDbBaseDir = configurations.getDatabaseRust(DATA_DIR);
         // if null, don't need to wait because the db doesn't exist yet
@@ -169,7 +175,12 @@ public class RustNode implements LocalNode {
             new RustLeveldbLockAwaiter(levelDbBaseDir.getAbsolutePath()).await();
         }
 
+        this.launchTimeInNanos = System.nanoTime();
         this.runningKernel = builder.start();
+
+        if (this.configurations.rotateOutputLog()) {
+            this.logManager.startRotatingOutputLog(this.configurations.getMaxOutputLogSizeInBytes(), this.configurations.getNumberOfArchivedOutputLogs());
+        }
         return waitForReadyOrError(this.logManager.getCurrentOutputLogFile());
     }
 
@@ -180,6 +191,7 @@ public class RustNode implements LocalNode {
         }
 
         log.log("Destroying the process");
+        this.logManager.stopRotatingOutputLog();
         runningKernel.destroy();
 
         boolean terminated = runningKernel.waitFor(1, TimeUnit.MINUTES);
@@ -257,11 +269,10 @@ public class RustNode implements LocalNode {
      * Block until logs indicate that either RPC server started or an error happened
      */
     private Result waitForReadyOrError(File outputLog) throws InterruptedException {
-        // We wait for the rpc event to know we are ok to return. There is a chance that we will miss
-        // this event and start listening too late. That is why we timeout after 20 seconds, which
-        // should be more than sufficient for the server to activate, and then we check if the node
-        // is still live.
-        // See issue #1 relating to this decision, which will be refactored in the future.
+        // We wait for the rpc event to know we are ok to return. The output log is truncated just
+        // before the kernel is launched, so we read it from the beginning and look back over every
+        // line read since the launch, which means the event cannot be missed even if it is logged
+        // before we start listening, and cannot be matched by a previous launch.
 
         if (isAlive()) {
             // This isn't technically the 'RPC enabled' message because Rust kernel doesn't emit
@@ -270,14 +281,14 @@ public class RustNode implements LocalNode {
 //            IEvent rpcEvent = new Event("= Sync Statics =");
             IEvent rpcEvent = new Event("External blocks added");
 
-            Result result = this.logReader.startReading(outputLog);
+            Result result = this.logReader.startReading(outputLog, true);
             if (!result.isSuccess()) {
                 return result;
             }
 
             try {
                 NodeListener.listenTo(this)
-                    .listenForEvent(rpcEvent, 20, TimeUnit.SECONDS)
+                    .listenForEvent(rpcEvent, 20, TimeUnit.SECONDS, System.nanoTime() - this.launchTimeInNanos, TimeUnit.NANOSECONDS)
                     .get(40, TimeUnit.SECONDS);
             } catch (TimeoutException te) {
                 String msg = "RPC Server did not start within the allotted time (check kernel logs for details)";
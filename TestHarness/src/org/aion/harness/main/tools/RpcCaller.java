@@ -42,30 +42,10 @@ public final class RpcCaller {
      * parsed.
      */
     public InternalRpcResult call(String payload, boolean verbose) throws InterruptedException {
-        ProcessBuilder processBuilder = new ProcessBuilder()
-            .command("curl", "-X", "POST", "-H", "Content-type: application/json", "--data", payload, this.ip + ":" + this.port);
-
-        if (verbose) {
-            processBuilder.inheritIO();
-        }
-
         try {
             long timeOfCallInNanos = System.nanoTime();
-            Process rpcProcess = processBuilder.start();
-
-            int status = rpcProcess.waitFor();
-            StringBuilder stringBuilder = new StringBuilder();
-
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(rpcProcess.getInputStream()))) {
-                String line = reader.readLine();
-
-                while (line != null) {
-                    stringBuilder.append(line);
-                    line = reader.readLine();
-                }
-            }
-
-            String output = stringBuilder.toString();
+            CurlOutput curl = post(payload, verbose);
+            String output = curl.output;
 
             if (output.isEmpty()) {
                 return InternalRpcResult.unsuccessful("unknown error");
@@ -82,33 +62,98 @@ public final class RpcCaller {
             // This is only successful if the RPC Process exited successfully, and the RPC output
             // contained no 'error' content and it does contain 'result' content.
 
-            if ((status == 0) && (!outputParser.hasAttribute("error"))) {
+            if ((curl.status == 0) && (!outputParser.hasAttribute("error"))) {
                 return InternalRpcResult.successful(output, timeOfCallInNanos, TimeUnit.NANOSECONDS);
             } else {
-                String error = outputParser.attributeToString("error");
-
-                // We expect the content of 'error' to itself be a Json String. If it has no content
-                // then the error is unknown.
-                if (error == null) {
-                    return InternalRpcResult.unsuccessful(getCurlError(status));
-                } else {
-                    JsonStringParser errorParser = new JsonStringParser(error);
-
-                    // The 'data' attribute should capture the error.
-                    error = errorParser.attributeToString("data");
+                return InternalRpcResult.unsuccessful(errorOf(outputParser, curl.status));
+            }
 
-                    // If there was no data value then try to grab the less informative 'message'.
-                    error = (error == null) ? errorParser.attributeToString("message") : error;
+        } catch (IOException e) {
+            return InternalRpcResult.unsuccessful(e.toString());
+        }
+    }
 
-                    // If there was no message this is probably a curl error.
-                    error = (error == null) ? getCurlError(status) : error;
+    /**
+     * Returns an internal rpc result to the caller for a batch payload, that is, a Json array of
+     * requests, which the kernel answers with a Json array of responses.
+     *
+     * The returned result is unsuccessful only if the attempt to send the RPC call failed, or if
+     * the kernel rejected the batch as a whole. A successful result contains the raw array of
+     * responses, in any order, each of which may itself hold an error, and which the caller must
+     * match back to its request by id.
+     */
+    public InternalRpcResult callBatch(String payload, boolean verbose) throws InterruptedException {
+        try {
+            long timeOfCallInNanos = System.nanoTime();
+            CurlOutput curl = post(payload, verbose);
+            String output = curl.output.trim();
 
-                    return InternalRpcResult.unsuccessful(error);
-                }
+            if ((curl.status == 0) && output.startsWith("[")) {
+                return InternalRpcResult.successful(output, timeOfCallInNanos, TimeUnit.NANOSECONDS);
+            } else if (output.startsWith("{")) {
+                return InternalRpcResult.unsuccessful(errorOf(new JsonStringParser(output), curl.status));
+            } else {
+                return InternalRpcResult.unsuccessful(getCurlError(curl.status));
             }
 
         } catch (IOException e) {
             return InternalRpcResult.unsuccessful(e.toString());
+        } catch (JsonSyntaxException e) {
+            return InternalRpcResult.unsuccessful("Error parsing json: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Posts the payload to the RPC server and returns the curl exit code and everything it wrote
+     * to its standard output.
+     */
+    private CurlOutput post(String payload, boolean verbose) throws IOException, InterruptedException {
+        ProcessBuilder processBuilder = new ProcessBuilder()
+            .command("curl", "-X", "POST", "-H", "Content-type: application/json", "--data", payload, this.ip + ":" + this.port);
+
+        if (verbose) {
+            processBuilder.inheritIO();
+        }
+
+        Process rpcProcess = processBuilder.start();
+
+        int status = rpcProcess.waitFor();
+        StringBuilder stringBuilder = new StringBuilder();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(rpcProcess.getInputStream()))) {
+            String line = reader.readLine();
+
+            while (line != null) {
+                stringBuilder.append(line);
+                line = reader.readLine();
+            }
+        }
+
+        return new CurlOutput(status, stringBuilder.toString());
+    }
+
+    /**
+     * Returns the error held in the 'error' attribute of the response, or the curl error if there
+     * is none.
+     */
+    private String errorOf(JsonStringParser outputParser, int status) {
+        String error = outputParser.attributeToString("error");
+
+        // We expect the content of 'error' to itself be a Json String. If it has no content
+        // then the error is unknown.
+        if (error == null) {
+            return getCurlError(status);
+        } else {
+            JsonStringParser errorParser = new JsonStringParser(error);
+
+            // The 'data' attribute should capture the error.
+            error = errorParser.attributeToString("data");
+
+            // If there was no data value then try to grab the less informative 'message'.
+            error = (error == null) ? errorParser.attributeToString("message") : error;
+
+            // If there was no message this is probably a curl error.
+            return (error == null) ? getCurlError(status) : error;
         }
     }
 
@@ -130,4 +175,14 @@ public final class RpcCaller {
         }
     }
 
+    private static final class CurlOutput {
+        private final int status;
+        private final String output;
+
+        private CurlOutput(int status, String output) {
+            this.status = status;
+            this.output = output;
+        }
+    }
+
 }
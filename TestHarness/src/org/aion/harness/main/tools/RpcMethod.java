@@ -26,6 +26,10 @@ public enum RpcMethod {
 
     CALL("eth_call"),
 
+    ESTIMATE_ENERGY("eth_estimateGas"),
+
+    GET_CODE("eth_getCode"),
+
     UNLOCK_ACCOUNT("personal_unlockAccount");
 
     private String method;
@@ -1,5 +1,7 @@
 package org.aion.harness.main.tools;
 
+import java.util.List;
+
 /**
  * A class that generates the payload to an RPC call. The payload for an RPC call is simply the data
  * to that call (following the --data option).
@@ -18,4 +20,29 @@ public final class RpcPayload {
         }
         return PAYLOAD_START + method.getMethod() + PARAMS + params + PAYLOAD_END;
     }
+
+    /**
+     * Generates the payload of a batch call, which invokes the method once for each of the
+     * specified params. The i'th call has the id i, so that its response can be matched to it.
+     */
+    public static String generateBatchPayload(RpcMethod method, List<String> params) {
+        if (method == null) {
+            throw new NullPointerException("Cannot generate rpc payload with null method.");
+        }
+        if (params == null) {
+            throw new NullPointerException("Cannot generate rpc payload with null params.");
+        }
+
+        StringBuilder payload = new StringBuilder("[");
+        for (int i = 0; i < params.size(); i++) {
+            if (params.get(i) == null) {
+                throw new NullPointerException("Cannot generate rpc payload with null params.");
+            }
+            if (i > 0) {
+                payload.append(',');
+            }
+            payload.append(PAYLOAD_START).append(method.getMethod()).append(PARAMS).append(params.get(i)).append("],\"id\":").append(i).append('}');
+        }
+        return payload.append(']').toString();
+    }
 }
@@ -1,7 +1,7 @@
 package org.aion.harness.main.types;
 
-import java.util.Arrays;
 import org.aion.harness.main.RPC;
+import org.aion.harness.util.Bytes32;
 import org.apache.commons.codec.binary.Hex;
 
 /**
@@ -12,10 +12,20 @@ import org.apache.commons.codec.binary.Hex;
  * generally the return type of an RPC call that sends a transaction (and therefore produces a
  * transaction receipt).
  *
+ * A receipt hash consists of {@value SIZE} bytes, which are stored as four longs (see
+ * {@link #getWord(int)}) so that receipt hashes are compact and cheap to compare and hash when
+ * held in large numbers.
+ *
  * A receipt hash is immutable.
  */
 public final class ReceiptHash {
-    private final byte[] hash;
+    public static final int SIZE = 32;
+
+    private final long word0;
+    private final long word1;
+    private final long word2;
+    private final long word3;
+    private final int hashCode;
 
     /**
      * Constructs a new receipt hash given the provided hash.
@@ -26,8 +36,15 @@ public final class ReceiptHash {
         if (hash == null) {
             throw new NullPointerException("Cannot construct receipt hash with null hash.");
         }
+        if (hash.length != SIZE) {
+            throw new IllegalArgumentException("Cannot construct receipt hash from " + hash.length + " bytes, expected " + SIZE + ".");
+        }
 
-        this.hash = Arrays.copyOf(hash, hash.length);
+        this.word0 = Bytes32.word(hash, 0);
+        this.word1 = Bytes32.word(hash, 1);
+        this.word2 = Bytes32.word(hash, 2);
+        this.word3 = Bytes32.word(hash, 3);
+        this.hashCode = Bytes32.hash(this.word0, this.word1, this.word2, this.word3);
     }
 
     /**
@@ -36,12 +53,29 @@ public final class ReceiptHash {
      * @return the receipt hash.
      */
     public byte[] getHash() {
-        return Arrays.copyOf(this.hash, this.hash.length);
+        return Bytes32.toBytes(this.word0, this.word1, this.word2, this.word3);
+    }
+
+    /**
+     * Returns the specified 8-byte word of the receipt hash, read big-endian, such that word 0
+     * holds the first 8 bytes of the hash. This does not copy the hash.
+     *
+     * @param index The index of the word, from 0 to 3.
+     * @return the word.
+     */
+    public long getWord(int index) {
+        switch (index) {
+            case 0: return this.word0;
+            case 1: return this.word1;
+            case 2: return this.word2;
+            case 3: return this.word3;
+            default: throw new IndexOutOfBoundsException("A receipt hash has no word #" + index);
+        }
     }
 
     @Override
     public String toString() {
-        return "ReceiptHash { hash = 0x" + Hex.encodeHexString(this.hash) + " }";
+        return "ReceiptHash { hash = 0x" + Hex.encodeHexString(getHash()) + " }";
     }
 
     /**
@@ -58,12 +92,13 @@ public final class ReceiptHash {
         }
 
         ReceiptHash otherHash = (ReceiptHash) other;
-        return Arrays.equals(this.hash, otherHash.hash);
+        return (this.word0 == otherHash.word0) && (this.word1 == otherHash.word1)
+            && (this.word2 == otherHash.word2) && (this.word3 == otherHash.word3);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(this.hash);
+        return this.hashCode;
     }
 
 }
@@ -0,0 +1,324 @@
+package org.aion.harness.main.util;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.main.types.ReceiptHash;
+import org.aion.harness.util.Bytes32;
+
+/**
+ * A map keyed by a 32-byte value, either addresses or receipt hashes, for bookkeeping over a
+ * large number of them.
+ *
+ * The map uses open addressing with linear probing. Each key is stored in the table as its four
+ * words (see {@link Address#getWord(int)}) rather than as a reference to the key object, so that
+ * the map does not keep its keys alive and an entry costs a slot of four longs and a reference,
+ * instead of the entry object, key object and key array of a {@link java.util.HashMap}. Putting an
+ * entry allocates nothing beyond occasionally growing the table. The key objects are only
+ * re-created when the map is iterated over.
+ *
+ * Null values are not permitted.
+ *
+ * This class is not thread-safe.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public final class Bytes32Map<K, V> {
+    private static final int MINIMUM_CAPACITY = 16;
+    private static final float MAXIMUM_LOAD = 0.75f;
+
+    private final KeyType<K> keyType;
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size = 0;
+
+    private Bytes32Map(KeyType<K> keyType, int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative: " + expectedSize);
+        }
+        this.keyType = keyType;
+
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity * MAXIMUM_LOAD < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Returns a new, empty map keyed by addresses.
+     *
+     * @param <V> The type of the values.
+     * @return the new map.
+     */
+    public static <V> Bytes32Map<Address, V> forAddresses() {
+        return new Bytes32Map<>(KeyType.ADDRESS, 0);
+    }
+
+    /**
+     * Returns a new, empty map keyed by addresses, sized to hold the expected number of entries
+     * without growing.
+     *
+     * @param expectedSize The expected number of entries.
+     * @param <V> The type of the values.
+     * @return the new map.
+     */
+    public static <V> Bytes32Map<Address, V> forAddresses(int expectedSize) {
+        return new Bytes32Map<>(KeyType.ADDRESS, expectedSize);
+    }
+
+    /**
+     * Returns a new, empty map keyed by receipt hashes.
+     *
+     * @param <V> The type of the values.
+     * @return the new map.
+     */
+    public static <V> Bytes32Map<ReceiptHash, V> forReceiptHashes() {
+        return new Bytes32Map<>(KeyType.RECEIPT_HASH, 0);
+    }
+
+    /**
+     * Returns a new, empty map keyed by receipt hashes, sized to hold the expected number of
+     * entries without growing.
+     *
+     * @param expectedSize The expected number of entries.
+     * @param <V> The type of the values.
+     * @return the new map.
+     */
+    public static <V> Bytes32Map<ReceiptHash, V> forReceiptHashes(int expectedSize) {
+        return new Bytes32Map<>(KeyType.RECEIPT_HASH, expectedSize);
+    }
+
+    /**
+     * Associates the value with the key, returning the value previously associated with the key,
+     * or null if there was none.
+     *
+     * @param key The key.
+     * @param value The value.
+     * @return the previous value or null.
+     */
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("Cannot put a null key.");
+        }
+        if (value == null) {
+            throw new NullPointerException("Cannot put a null value.");
+        }
+
+        if (this.size + 1 > this.values.length * MAXIMUM_LOAD) {
+            allocate(this.values.length << 1);
+        }
+
+        long word0 = this.keyType.word(key, 0);
+        long word1 = this.keyType.word(key, 1);
+        long word2 = this.keyType.word(key, 2);
+        long word3 = this.keyType.word(key, 3);
+        int slot = findSlot(word0, word1, word2, word3);
+
+        V previous = valueAt(slot);
+        if (previous == null) {
+            int offset = slot * Bytes32.WORDS;
+            this.keys[offset] = word0;
+            this.keys[offset + 1] = word1;
+            this.keys[offset + 2] = word2;
+            this.keys[offset + 3] = word3;
+            this.size++;
+        }
+        this.values[slot] = value;
+        return previous;
+    }
+
+    /**
+     * Returns the value associated with the key, or null if there is none.
+     *
+     * @param key The key.
+     * @return the value or null.
+     */
+    public V get(K key) {
+        if (key == null) {
+            throw new NullPointerException("Cannot get a null key.");
+        }
+        return valueAt(findSlot(key));
+    }
+
+    /**
+     * Returns whether a value is associated with the key.
+     *
+     * @param key The key.
+     * @return whether the map contains the key.
+     */
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Removes the key and its value, returning the value, or null if the key was not present.
+     *
+     * @param key The key.
+     * @return the removed value or null.
+     */
+    public V remove(K key) {
+        if (key == null) {
+            throw new NullPointerException("Cannot remove a null key.");
+        }
+
+        int slot = findSlot(key);
+        V removed = valueAt(slot);
+        if (removed == null) {
+            return null;
+        }
+
+        // Shift back any subsequent entries of the probe sequence that may no longer be reachable
+        // across the hole, so that lookups never need to skip over deleted entries.
+        int hole = slot;
+        int next = (hole + 1) & this.mask;
+        while (this.values[next] != null) {
+            int offset = next * Bytes32.WORDS;
+            int home = Bytes32.hash(this.keys[offset], this.keys[offset + 1], this.keys[offset + 2], this.keys[offset + 3]) & this.mask;
+            if (((next - home) & this.mask) >= ((next - hole) & this.mask)) {
+                System.arraycopy(this.keys, offset, this.keys, hole * Bytes32.WORDS, Bytes32.WORDS);
+                this.values[hole] = this.values[next];
+                hole = next;
+            }
+            next = (next + 1) & this.mask;
+        }
+        this.values[hole] = null;
+        this.size--;
+        return removed;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the size of the map.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether the map is empty.
+     *
+     * @return whether the map is empty.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Removes every entry, keeping the current capacity of the table.
+     */
+    public void clear() {
+        Arrays.fill(this.values, null);
+        this.size = 0;
+    }
+
+    /**
+     * Hands each entry to the consumer, in no particular order. A new key object is created for
+     * each entry. The map must not be modified by the consumer.
+     *
+     * @param consumer The consumer of the entries.
+     */
+    public void forEach(BiConsumer<? super K, ? super V> consumer) {
+        if (consumer == null) {
+            throw new NullPointerException("Cannot hand entries to a null consumer.");
+        }
+
+        for (int slot = 0; slot < this.values.length; slot++) {
+            V value = valueAt(slot);
+            if (value != null) {
+                int offset = slot * Bytes32.WORDS;
+                byte[] bytes = Bytes32.toBytes(this.keys[offset], this.keys[offset + 1], this.keys[offset + 2], this.keys[offset + 3]);
+                consumer.accept(this.keyType.newKey(bytes), value);
+            }
+        }
+    }
+
+    private int findSlot(K key) {
+        return findSlot(this.keyType.word(key, 0), this.keyType.word(key, 1), this.keyType.word(key, 2), this.keyType.word(key, 3));
+    }
+
+    /**
+     * Returns the slot holding the key, or else the empty slot at which it belongs.
+     */
+    private int findSlot(long word0, long word1, long word2, long word3) {
+        int slot = Bytes32.hash(word0, word1, word2, word3) & this.mask;
+        while (this.values[slot] != null) {
+            int offset = slot * Bytes32.WORDS;
+            if ((this.keys[offset] == word0) && (this.keys[offset + 1] == word1)
+                && (this.keys[offset + 2] == word2) && (this.keys[offset + 3] == word3)) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Allocates a table of the specified capacity and re-inserts every existing entry into it.
+     */
+    private void allocate(int capacity) {
+        long[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+
+        this.keys = new long[capacity * Bytes32.WORDS];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+
+        if (oldValues != null) {
+            for (int oldSlot = 0; oldSlot < oldValues.length; oldSlot++) {
+                if (oldValues[oldSlot] != null) {
+                    int oldOffset = oldSlot * Bytes32.WORDS;
+                    int slot = findSlot(oldKeys[oldOffset], oldKeys[oldOffset + 1], oldKeys[oldOffset + 2], oldKeys[oldOffset + 3]);
+                    System.arraycopy(oldKeys, oldOffset, this.keys, slot * Bytes32.WORDS, Bytes32.WORDS);
+                    this.values[slot] = oldValues[oldSlot];
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) this.values[slot];
+    }
+
+    @Override
+    public String toString() {
+        return "Bytes32Map { size = " + this.size + " }";
+    }
+
+    /**
+     * How the words of a type of key are read and how a key is re-created from its bytes.
+     */
+    private interface KeyType<K> {
+        KeyType<Address> ADDRESS = new KeyType<>() {
+            @Override
+            public long word(Address key, int index) {
+                return key.getWord(index);
+            }
+
+            @Override
+            public Address newKey(byte[] bytes) {
+                return new Address(bytes);
+            }
+        };
+
+        KeyType<ReceiptHash> RECEIPT_HASH = new KeyType<>() {
+            @Override
+            public long word(ReceiptHash key, int index) {
+                return key.getWord(index);
+            }
+
+            @Override
+            public ReceiptHash newKey(byte[] bytes) {
+                return new ReceiptHash(bytes);
+            }
+        };
+
+        long word(K key, int index);
+
+        K newKey(byte[] bytes);
+    }
+}
@@ -0,0 +1,135 @@
+package org.aion.harness.main.util;
+
+import java.util.function.Consumer;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.main.types.ReceiptHash;
+
+/**
+ * A set of 32-byte values, either addresses or receipt hashes, for bookkeeping over a large number
+ * of them. The set is a {@link Bytes32Map} whose values are all the same, and so shares its
+ * compact layout.
+ *
+ * This class is not thread-safe.
+ *
+ * @param <K> The type of the elements.
+ */
+public final class Bytes32Set<K> {
+    private final Bytes32Map<K, Boolean> map;
+
+    private Bytes32Set(Bytes32Map<K, Boolean> map) {
+        this.map = map;
+    }
+
+    /**
+     * Returns a new, empty set of addresses.
+     *
+     * @return the new set.
+     */
+    public static Bytes32Set<Address> forAddresses() {
+        return new Bytes32Set<>(Bytes32Map.forAddresses());
+    }
+
+    /**
+     * Returns a new, empty set of addresses, sized to hold the expected number of elements without
+     * growing.
+     *
+     * @param expectedSize The expected number of elements.
+     * @return the new set.
+     */
+    public static Bytes32Set<Address> forAddresses(int expectedSize) {
+        return new Bytes32Set<>(Bytes32Map.forAddresses(expectedSize));
+    }
+
+    /**
+     * Returns a new, empty set of receipt hashes.
+     *
+     * @return the new set.
+     */
+    public static Bytes32Set<ReceiptHash> forReceiptHashes() {
+        return new Bytes32Set<>(Bytes32Map.forReceiptHashes());
+    }
+
+    /**
+     * Returns a new, empty set of receipt hashes, sized to hold the expected number of elements
+     * without growing.
+     *
+     * @param expectedSize The expected number of elements.
+     * @return the new set.
+     */
+    public static Bytes32Set<ReceiptHash> forReceiptHashes(int expectedSize) {
+        return new Bytes32Set<>(Bytes32Map.forReceiptHashes(expectedSize));
+    }
+
+    /**
+     * Adds the element, returning {@code false} if it was already present.
+     *
+     * @param element The element.
+     * @return whether the element was added.
+     */
+    public boolean add(K element) {
+        return this.map.put(element, Boolean.TRUE) == null;
+    }
+
+    /**
+     * Returns whether the element is present.
+     *
+     * @param element The element.
+     * @return whether the set contains the element.
+     */
+    public boolean contains(K element) {
+        return this.map.containsKey(element);
+    }
+
+    /**
+     * Removes the element, returning {@code false} if it was not present.
+     *
+     * @param element The element.
+     * @return whether the element was removed.
+     */
+    public boolean remove(K element) {
+        return this.map.remove(element) != null;
+    }
+
+    /**
+     * Returns the number of elements in the set.
+     *
+     * @return the size of the set.
+     */
+    public int size() {
+        return this.map.size();
+    }
+
+    /**
+     * Returns whether the set is empty.
+     *
+     * @return whether the set is empty.
+     */
+    public boolean isEmpty() {
+        return this.map.isEmpty();
+    }
+
+    /**
+     * Removes every element.
+     */
+    public void clear() {
+        this.map.clear();
+    }
+
+    /**
+     * Hands each element to the consumer, in no particular order. A new element object is created
+     * for each element. The set must not be modified by the consumer.
+     *
+     * @param consumer The consumer of the elements.
+     */
+    public void forEach(Consumer<? super K> consumer) {
+        if (consumer == null) {
+            throw new NullPointerException("Cannot hand elements to a null consumer.");
+        }
+        this.map.forEach((element, present) -> consumer.accept(element));
+    }
+
+    @Override
+    public String toString() {
+        return "Bytes32Set { size = " + this.map.size() + " }";
+    }
+}
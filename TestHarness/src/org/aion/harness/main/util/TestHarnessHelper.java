@@ -1,10 +1,13 @@
 package org.aion.harness.main.util;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.security.spec.InvalidKeySpecException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import org.aion.harness.kernel.Address;
@@ -21,6 +24,7 @@ import org.aion.harness.result.RpcResult;
  * common and useful idioms.
  */
 public final class TestHarnessHelper {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 
     /**
      * Returns a list of {@code transactions.size()} transaction hashes such that the i'th hash in
@@ -39,13 +43,40 @@ public final class TestHarnessHelper {
             if (transaction == null) {
                 throw new NullPointerException("Cannot extract hash from null transaction.");
             }
-            hashes.add(transaction.getTransactionHash());
+            // The caller owns the returned hashes, so each is copied once, out of the view.
+            ByteBuffer view = transaction.getTransactionHashView();
+            byte[] hash = new byte[view.remaining()];
+            view.get(hash);
+            hashes.add(hash);
         }
         return hashes;
     }
 
     /**
-     * Returns a list of the specified number of random private keys to create.
+     * Returns the remaining bytes of the specified buffer as a lowercase hexadecimal string,
+     * without moving the buffer's position. Unlike commons-codec, this works on read-only buffers,
+     * such as {@link SignedTransaction#getTransactionHashView()}.
+     *
+     * @param bytes The bytes to encode.
+     * @return the hexadecimal string.
+     */
+    public static String toHexString(ByteBuffer bytes) {
+        if (bytes == null) {
+            throw new NullPointerException("Cannot encode null bytes.");
+        }
+
+        char[] hex = new char[bytes.remaining() * 2];
+        for (int i = 0; i < bytes.remaining(); i++) {
+            byte b = bytes.get(bytes.position() + i);
+            hex[2 * i] = HEX_DIGITS[(b >>> 4) & 0xF];
+            hex[(2 * i) + 1] = HEX_DIGITS[b & 0xF];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Returns a list of the specified number of random private keys to create. The keys are
+     * generated in parallel, using every available processor.
      *
      * @param numberOfKeys The number of random keys to create.
      * @return the random private keys.
@@ -55,11 +86,7 @@ public final class TestHarnessHelper {
             throw new IllegalArgumentException("Cannot create a negative number of private keys!");
         }
 
-        List<PrivateKey> keys = new ArrayList<>();
-        for (int i = 0; i < numberOfKeys; i++) {
-            keys.add(PrivateKey.random());
-        }
-        return keys;
+        return new ArrayList<>(PrivateKey.random(numberOfKeys, Runtime.getRuntime().availableProcessors()));
     }
 
     /**
@@ -120,22 +147,42 @@ public final class TestHarnessHelper {
 
     /**
      * This method blocks until all of the futures given as inputs are finished and their results
-     * are in.
+     * are in, or until 30 minutes have elapsed, whichever happens first.
      *
      * @param futures The futures to wait on.
      */
     public static void waitOnFutures(List<FutureResult<LogEventResult>> futures)
+        throws InterruptedException, TimeoutException {
+        waitOnFutures(futures, 30, TimeUnit.MINUTES);
+    }
+
+    /**
+     * This method blocks until all of the futures given as inputs are finished and their results
+     * are in, or until the timeout duration elapses, whichever happens first.
+     *
+     * The timeout applies to the futures as a whole, not to each one individually, and only the
+     * calling thread is blocked while waiting, regardless of how many futures there are.
+     *
+     * @param futures The futures to wait on.
+     * @param timeout The maximum duration to wait for.
+     * @param unit The time unit of the timeout.
+     */
+    public static void waitOnFutures(List<FutureResult<LogEventResult>> futures, long timeout, TimeUnit unit)
         throws InterruptedException, TimeoutException {
         if (futures == null) {
             throw new NullPointerException("Cannot wait on null list of futures.");
         }
+        if (unit == null) {
+            throw new NullPointerException("Cannot wait using a null time unit.");
+        }
 
-        for (FutureResult<LogEventResult> future : futures) {
-            if (future == null) {
-                throw new NullPointerException("Cannot wait on a null future.");
+        try {
+            FutureResult.allOf(futures).get(timeout, unit);
+        } catch (ExecutionException e) {
+            // A future that was cancelled is finished, which is all we are waiting for here.
+            if (!(e.getCause() instanceof CancellationException)) {
+                throw new IllegalStateException(e.getCause());
             }
-
-            future.get(5, TimeUnit.MINUTES);
         }
     }
 
@@ -200,6 +247,44 @@ public final class TestHarnessHelper {
         return timestamps;
     }
 
+    /**
+     * Returns an array of long values that are the times at which the kernel logged each of the
+     * specified log event results (see {@link LogEventResult#kernelTimeOfObservation(TimeUnit)}),
+     * where these values are in terms of the specified units.
+     *
+     * Unlike {@code extractEventTimestamps()}, these times do not include the delay between the
+     * kernel logging an event and the listener reading it.
+     *
+     * Returns null if one of the results was not observed or its kernel time is unknown.
+     *
+     * @param eventResults The event results.
+     * @param unit The unit of time for the returned timestamps.
+     * @return the kernel timestamps on the event results.
+     */
+    public static long[] extractKernelEventTimestamps(List<LogEventResult> eventResults, TimeUnit unit) {
+        if (eventResults == null) {
+            throw new NullPointerException("Cannot extract timestamps from null list of futures.");
+        }
+        if (unit == null) {
+            throw new NullPointerException("Cannot extract timestamps using null time units.");
+        }
+
+        long[] timestamps = new long[eventResults.size()];
+
+        int index = 0;
+        for (LogEventResult result : eventResults) {
+            long timestamp = result.kernelTimeOfObservation(unit);
+            if (timestamp < 0) {
+                return null;
+            }
+
+            timestamps[index] = timestamp;
+            index++;
+        }
+
+        return timestamps;
+    }
+
     /**
      * Extracts all the block numbers from the corresponding transaction receipts such that the
      * number at index i in the returned list is the block number of the transaction receipt at
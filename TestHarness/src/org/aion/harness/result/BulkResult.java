@@ -2,19 +2,22 @@ package org.aion.harness.result;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A result that holds a bulk list of results iff the result is successful.
  *
  * Otherwise, if the result is not successful, then results is an empty list and an error
- * message will be set.
+ * message will be set. If the action failed on particular items, then the reason each of those
+ * items failed is also available, keyed by the index of the item.
  */
 public class BulkResult<T> {
     private final boolean success;
     private final String error;
     private final List<T> results;
+    private final Map<Integer, String> failures;
 
-    private BulkResult(boolean success, String error, List<T> results) {
+    private BulkResult(boolean success, String error, List<T> results, Map<Integer, String> failures) {
         if (error == null) {
             throw new NullPointerException("Cannot construct a BulkResult with a null error.");
         }
@@ -22,9 +25,14 @@ public class BulkResult<T> {
             throw new NullPointerException("Cannot construct a BulkResult with null results.");
         }
 
+        if (failures == null) {
+            throw new NullPointerException("Cannot construct a BulkResult with null failures.");
+        }
+
         this.success = success;
         this.error = error;
         this.results = results;
+        this.failures = failures;
     }
 
     /**
@@ -34,7 +42,7 @@ public class BulkResult<T> {
      * @return a successful result with the specified transactions.
      */
     public static <T> BulkResult<T> successful(List<T> results) {
-        return new BulkResult<>(true, "", results);
+        return new BulkResult<>(true, "", results, Collections.emptyMap());
     }
 
     /**
@@ -44,7 +52,22 @@ public class BulkResult<T> {
      * @return an unsuccessful result.
      */
     public static <T> BulkResult<T> unsuccessful(String error) {
-        return new BulkResult<>(false, error, Collections.emptyList());
+        return new BulkResult<>(false, error, Collections.emptyList(), Collections.emptyMap());
+    }
+
+    /**
+     * Constructs an unsuccessful result using the provided error message and the reasons that the
+     * individual items failed, keyed by the index of each failed item.
+     *
+     * @param error The error message.
+     * @param failures The reason each failed item failed.
+     * @return an unsuccessful result.
+     */
+    public static <T> BulkResult<T> unsuccessful(String error, Map<Integer, String> failures) {
+        if (failures == null) {
+            throw new NullPointerException("Cannot construct a BulkResult with null failures.");
+        }
+        return new BulkResult<>(false, error, Collections.emptyList(), Collections.unmodifiableMap(failures));
     }
 
     /**
@@ -79,6 +102,16 @@ public class BulkResult<T> {
         return this.results;
     }
 
+    /**
+     * Returns the reason that each item failed, keyed by the index of the item, if the failure of
+     * particular items is known. This map is possibly non-empty only if {@code isSuccess == false}.
+     *
+     * @return the failures of individual items.
+     */
+    public Map<Integer, String> getFailures() {
+        return this.failures;
+    }
+
     @Override
     public String toString() {
         if (this.success) {
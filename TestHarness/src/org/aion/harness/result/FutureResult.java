@@ -1,19 +1,33 @@
 package org.aion.harness.result;
 
-import java.util.concurrent.CountDownLatch;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 /**
- * A non-cancelling implementation of {@link Future}.
+ * An implementation of {@link Future} that is backed by a {@link CompletableFuture}.
  *
  * This class provides two {@code get()} methods that will block until the result is available to
  * consume.
+ *
+ * Rather than blocking, a result can also be composed with other results through the
+ * {@link java.util.concurrent.CompletionStage} API, see {@code toCompletableFuture()}, as well as
+ * the {@code allOf()} and {@code anyOf()} methods, so that many results can be awaited without
+ * parking a thread on each one.
+ *
+ * Cancelling this future (before it is finished) withdraws the work that would have produced its
+ * result. For a log event, this means the underlying event request is removed from the listener's
+ * request pool.
  */
-public class FutureResult<V> implements Future {
-    private CountDownLatch resultLatch = new CountDownLatch(1);
-    private V result = null;
+public class FutureResult<V> implements Future<V> {
+    private final CompletableFuture<V> future = new CompletableFuture<>();
+    private Runnable cancellationHook = null;
 
     /**
      * Finishes the future by supplying it with a result and releasing any thread blocked on this
@@ -26,38 +40,69 @@ public class FutureResult<V> implements Future {
      * @param result The result.
      */
     public void finish(V result) {
-        if (resultLatch.getCount() > 0) {
-            this.result = result;
-            this.resultLatch.countDown();
+        this.future.complete(result);
+    }
+
+    /**
+     * Sets the action to run if this future is cancelled before it is finished. If the future has
+     * already been cancelled then the action is run immediately.
+     *
+     * This method should <b>never</b> be called by client code. This is for internal use only.
+     *
+     * @param hook The action to run on cancellation.
+     */
+    public void onCancellation(Runnable hook) {
+        synchronized (this) {
+            if (!this.future.isCancelled()) {
+                this.cancellationHook = hook;
+                return;
+            }
         }
+        hook.run();
     }
 
     /**
-     * This method does nothing. It always returns {@code false}.
+     * Attempts to cancel this future. This fails only if the future has already finished.
      *
-     * This future cannot be cancelled.
+     * If the future is successfully cancelled then any thread blocked in {@code get()} will
+     * receive a {@link CancellationException}.
+     *
+     * @param mayInterruptIfRunning This value has no effect.
+     * @return whether or not the future was cancelled.
      */
     @Override
     public boolean cancel(boolean mayInterruptIfRunning) {
-        return false;
+        Runnable hook;
+        synchronized (this) {
+            if (!this.future.cancel(mayInterruptIfRunning)) {
+                return false;
+            }
+            hook = this.cancellationHook;
+            this.cancellationHook = null;
+        }
+
+        if (hook != null) {
+            hook.run();
+        }
+        return true;
     }
 
     /**
-     * This future cannot be cancelled. This method always returns {@code false}.
+     * Returns {@code true} only if this future was cancelled before it finished.
      */
     @Override
     public boolean isCancelled() {
-        return false;
+        return this.future.isCancelled();
     }
 
     /**
-     * Returns {@code true} only if the result is ready to be consumed.
+     * Returns {@code true} only if the result is ready to be consumed or the future was cancelled.
      *
      * @return true if the future is finished.
      */
     @Override
     public boolean isDone() {
-        return this.resultLatch.getCount() == 0;
+        return this.future.isDone();
     }
 
     /**
@@ -70,11 +115,16 @@ public class FutureResult<V> implements Future {
      * To strictly enforce a timeout, the other {@code get()} method should be used.
      *
      * @return the result.
+     * @throws CancellationException if this future was cancelled.
      */
     @Override
     public V get() throws InterruptedException {
-        this.resultLatch.await();
-        return this.result;
+        try {
+            return this.future.get();
+        } catch (ExecutionException e) {
+            // This future is only ever completed normally or cancelled.
+            throw new IllegalStateException(e.getCause());
+        }
     }
 
     /**
@@ -84,19 +134,124 @@ public class FutureResult<V> implements Future {
      * @param timeout The timeout duration.
      * @param unit The unit of measurement of the timeout quantity.
      * @return the result.
+     * @throws CancellationException if this future was cancelled.
      */
     @Override
     public V get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
-        if(!this.resultLatch.await(timeout, unit)) {
-            throw new TimeoutException();
+        try {
+            return this.future.get(timeout, unit);
+        } catch (ExecutionException e) {
+            // This future is only ever completed normally or cancelled.
+            throw new IllegalStateException(e.getCause());
         }
-        return this.result;
+    }
+
+    /**
+     * Returns a new {@link CompletableFuture} that is completed when this future is finished, with
+     * the same result, or is cancelled if this future is cancelled.
+     *
+     * The returned future is a dependent copy: completing or cancelling it (for example, by way of
+     * {@link CompletableFuture#orTimeout(long, TimeUnit)}) does not affect this future.
+     *
+     * @return a completable future view of this future.
+     */
+    public CompletableFuture<V> toCompletableFuture() {
+        return this.future.copy();
+    }
+
+    /**
+     * Returns a new {@link CompletableFuture} that is completed with the result of applying the
+     * specified function to the result of this future, once it is finished.
+     *
+     * @param function The function to apply.
+     * @param <U> The type of the new result.
+     * @return the new future.
+     */
+    public <U> CompletableFuture<U> thenApply(Function<? super V, ? extends U> function) {
+        return this.future.thenApply(function);
+    }
+
+    /**
+     * Returns a new {@link CompletableFuture} that is completed with the result of this future, or
+     * is completed exceptionally with a {@link TimeoutException} if this future does not finish
+     * within the specified duration.
+     *
+     * The timeout does not affect this future itself.
+     *
+     * @param timeout The timeout duration.
+     * @param unit The unit of measurement of the timeout quantity.
+     * @return the new future.
+     */
+    public CompletableFuture<V> orTimeout(long timeout, TimeUnit unit) {
+        return toCompletableFuture().orTimeout(timeout, unit);
+    }
+
+    /**
+     * Returns a new {@link CompletableFuture} that is completed once all of the specified futures
+     * are finished, with a list of their results such that the i'th result is the result of the
+     * i'th future.
+     *
+     * No thread is blocked while waiting on the futures.
+     *
+     * @param futures The futures.
+     * @param <V> The type of the results.
+     * @return a future of all the results.
+     */
+    public static <V> CompletableFuture<List<V>> allOf(List<FutureResult<V>> futures) {
+        if (futures == null) {
+            throw new NullPointerException("Cannot compose a null list of futures.");
+        }
+
+        CompletableFuture<?>[] underlyingFutures = new CompletableFuture<?>[futures.size()];
+        for (int i = 0; i < underlyingFutures.length; i++) {
+            if (futures.get(i) == null) {
+                throw new NullPointerException("Cannot compose a null future.");
+            }
+            underlyingFutures[i] = futures.get(i).future;
+        }
+
+        return CompletableFuture.allOf(underlyingFutures).thenApply(ignored -> {
+            List<V> results = new ArrayList<>(futures.size());
+            for (FutureResult<V> future : futures) {
+                results.add(future.future.join());
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Returns a new {@link CompletableFuture} that is completed with the result of whichever of
+     * the specified futures finishes first.
+     *
+     * No thread is blocked while waiting on the futures.
+     *
+     * @param futures The futures.
+     * @param <V> The type of the results.
+     * @return a future of the first result.
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> CompletableFuture<V> anyOf(List<FutureResult<V>> futures) {
+        if (futures == null) {
+            throw new NullPointerException("Cannot compose a null list of futures.");
+        }
+
+        CompletableFuture<?>[] underlyingFutures = new CompletableFuture<?>[futures.size()];
+        for (int i = 0; i < underlyingFutures.length; i++) {
+            if (futures.get(i) == null) {
+                throw new NullPointerException("Cannot compose a null future.");
+            }
+            underlyingFutures[i] = futures.get(i).future;
+        }
+
+        return CompletableFuture.anyOf(underlyingFutures).thenApply(result -> (V) result);
     }
 
     @Override
     public String toString() {
-        if (isDone()) {
-            return "FutureResult { task completed, result = " + this.result + " }";
+        if (isCancelled()) {
+            return "FutureResult { task cancelled }";
+        } else if (isDone()) {
+            return "FutureResult { task completed, result = " + this.future.join() + " }";
         } else {
             return "FutureResult { task waiting to complete }";
         }
@@ -1,21 +1,33 @@
 package org.aion.harness.result;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.aion.harness.util.KernelClock;
 
 /**
  * The result of a request for some log event to be observed.
  *
- * A log event result can be in 1 of 4 possible states:
+ * A log event result can be in 1 of 5 possible states:
  *   - The event has been observed: indicates the event occurred.
  *   - The event was not observed: indicates the node shutdown before the event was witnessed.
  *   - The event was rejected: indicates that observation at the time of the request was not possible.
  *   - The event was expired: indicates that the event timed out before being satisfied.
+ *   - The event was falsified: indicates that the event can now never be satisfied, for example
+ *     because something it required to be absent was observed (see {@code hasBeenFalsified()} in
+ *     {@link org.aion.harness.main.event.IEvent}).
  *
  * In the case of an event being observed, it will also come with a timestamp indicating when the
- * listener observed the event.
+ * listener observed the event. Since the listener only polls the log periodically, this can lag
+ * behind the time the kernel logged the event, and so the time that the kernel itself stamped on
+ * the satisfying log lines is also available (see {@code kernelTimeOfObservation()}). These kernel
+ * times are translated onto the harness clock as each line is observed, so that a later
+ * calibration of the kernel clock (see {@link KernelClock#calibrate()}) does not shift them.
  *
  * In the case of an event being rejected, it will also come with a reason for why the event request
  * was rejected.
@@ -28,13 +40,16 @@ public final class LogEventResult {
     private final RequestResultState resultState;
     private final List<String> observedEvents;
     private final List<String> observedLogs;
+    private final List<Long> observationTimesInNanos;
+    private final List<Long> kernelObservationTimesInNanos;
+    private final List<Map<String, String>> capturedFields;
 
     private final long timeOfObservationInNanos;
     private final String causeOfRejection;
 
-    private enum RequestResultState { OBSERVED, UNOBSERVED, REJECTED, EXPIRED }
+    private enum RequestResultState { OBSERVED, UNOBSERVED, REJECTED, EXPIRED, FALSIFIED }
 
-    private LogEventResult(RequestResultState requestState, List<String> observedEvents, List<String> observedLogs, String rejectionCause, long observationTime, TimeUnit unit) {
+    private LogEventResult(RequestResultState requestState, List<String> observedEvents, List<String> observedLogs, List<Long> observationTimesInNanos, List<Long> kernelObservationTimesInNanos, List<Map<String, String>> capturedFields, String rejectionCause, long observationTime, TimeUnit unit) {
         if (requestState == null) {
             throw new NullPointerException("Cannot construct result with null state.");
         }
@@ -42,6 +57,9 @@ public final class LogEventResult {
         this.resultState = requestState;
         this.observedEvents = (observedEvents == null) ? Collections.emptyList() : new ArrayList<>(observedEvents);
         this.observedLogs = (observedLogs == null) ? Collections.emptyList() : new ArrayList<>(observedLogs);
+        this.observationTimesInNanos = (observationTimesInNanos == null) ? Collections.emptyList() : new ArrayList<>(observationTimesInNanos);
+        this.kernelObservationTimesInNanos = (kernelObservationTimesInNanos == null) ? kernelTimesOf(this.observedLogs, this.observationTimesInNanos) : new ArrayList<>(kernelObservationTimesInNanos);
+        this.capturedFields = (capturedFields == null) ? Collections.emptyList() : new ArrayList<>(capturedFields);
         this.causeOfRejection = rejectionCause;
         this.timeOfObservationInNanos = (observationTime < 0) ? observationTime : unit.toNanos(observationTime);
     }
@@ -52,16 +70,68 @@ public final class LogEventResult {
      *
      * @param observedEvents The event strings that were observed.
      * @param observedLogs The log lines that satisfied the observed event strings.
+     * @param observationTimesInNanos The times, in nanoseconds, at which each observed event string was observed.
+     * @param kernelObservationTimesInNanos The times, in nanoseconds on the harness clock, at which the kernel logged each observed event string.
+     * @param capturedFields The fields captured by each observed event string.
      * @param timeOfObservation Time at which event was observed.
      * @param unit The time unit of the observation time.
      * @return a new observed event request result.
      */
-    public static LogEventResult observedEvent(List<String> observedEvents, List<String> observedLogs, long timeOfObservation, TimeUnit unit) {
+    public static LogEventResult observedEvent(List<String> observedEvents, List<String> observedLogs, List<Long> observationTimesInNanos, List<Long> kernelObservationTimesInNanos, List<Map<String, String>> capturedFields, long timeOfObservation, TimeUnit unit) {
         if (unit == null) {
             throw new NullPointerException("Cannot construct result with null time unit.");
         }
 
-        return new LogEventResult(RequestResultState.OBSERVED, observedEvents, observedLogs, null, timeOfObservation, unit);
+        return new LogEventResult(RequestResultState.OBSERVED, observedEvents, observedLogs, observationTimesInNanos, kernelObservationTimesInNanos, capturedFields, null, timeOfObservation, unit);
+    }
+
+    /**
+     * Returns a new event request result such that the corresponding event is confirmed to have
+     * been observed at the specified time.
+     *
+     * The kernel times of the observed log lines are taken now, from the lines themselves.
+     *
+     * @param observedEvents The event strings that were observed.
+     * @param observedLogs The log lines that satisfied the observed event strings.
+     * @param observationTimesInNanos The times, in nanoseconds, at which each observed event string was observed.
+     * @param capturedFields The fields captured by each observed event string.
+     * @param timeOfObservation Time at which event was observed.
+     * @param unit The time unit of the observation time.
+     * @return a new observed event request result.
+     */
+    public static LogEventResult observedEvent(List<String> observedEvents, List<String> observedLogs, List<Long> observationTimesInNanos, List<Map<String, String>> capturedFields, long timeOfObservation, TimeUnit unit) {
+        return observedEvent(observedEvents, observedLogs, observationTimesInNanos, null, capturedFields, timeOfObservation, unit);
+    }
+
+    /**
+     * Returns a new event request result such that the corresponding event is confirmed to have
+     * been observed at the specified time, without the times at which each event string was
+     * observed or any captured fields.
+     *
+     * @param observedEvents The event strings that were observed.
+     * @param observedLogs The log lines that satisfied the observed event strings.
+     * @param timeOfObservation Time at which event was observed.
+     * @param unit The time unit of the observation time.
+     * @return a new observed event request result.
+     */
+    public static LogEventResult observedEvent(List<String> observedEvents, List<String> observedLogs, long timeOfObservation, TimeUnit unit) {
+        return observedEvent(observedEvents, observedLogs, null, null, timeOfObservation, unit);
+    }
+
+    /**
+     * Returns a new event request result such that the corresponding event is confirmed to have not
+     * been observed at all. This can only happen if the event request was filed while the node was
+     * running and the node was shutdown before the event was witnessed.
+     *
+     * @param observedEvents The event strings that were observed.
+     * @param observedLogs The log lines that satisfied the observed event strings.
+     * @param observationTimesInNanos The times, in nanoseconds, at which each observed event string was observed.
+     * @param kernelObservationTimesInNanos The times, in nanoseconds on the harness clock, at which the kernel logged each observed event string.
+     * @param capturedFields The fields captured by each observed event string.
+     * @return a new unobserved event request result.
+     */
+    public static LogEventResult unobservedEvent(List<String> observedEvents, List<String> observedLogs, List<Long> observationTimesInNanos, List<Long> kernelObservationTimesInNanos, List<Map<String, String>> capturedFields) {
+        return new LogEventResult(RequestResultState.UNOBSERVED, observedEvents, observedLogs, observationTimesInNanos, kernelObservationTimesInNanos, capturedFields, null, -1, null);
     }
 
     /**
@@ -69,12 +139,28 @@ public final class LogEventResult {
      * been observed at all. This can only happen if the event request was filed while the node was
      * running and the node was shutdown before the event was witnessed.
      *
+     * The kernel times of the observed log lines are taken now, from the lines themselves.
+     *
+     * @param observedEvents The event strings that were observed.
+     * @param observedLogs The log lines that satisfied the observed event strings.
+     * @param observationTimesInNanos The times, in nanoseconds, at which each observed event string was observed.
+     * @param capturedFields The fields captured by each observed event string.
+     * @return a new unobserved event request result.
+     */
+    public static LogEventResult unobservedEvent(List<String> observedEvents, List<String> observedLogs, List<Long> observationTimesInNanos, List<Map<String, String>> capturedFields) {
+        return unobservedEvent(observedEvents, observedLogs, observationTimesInNanos, null, capturedFields);
+    }
+
+    /**
+     * Returns a new unobserved event request result, without the times at which each event string
+     * was observed or any captured fields.
+     *
      * @param observedEvents The event strings that were observed.
      * @param observedLogs The log lines that satisfied the observed event strings.
      * @return a new unobserved event request result.
      */
     public static LogEventResult unobservedEvent(List<String> observedEvents, List<String> observedLogs) {
-        return new LogEventResult(RequestResultState.UNOBSERVED, observedEvents, observedLogs, null, -1, null);
+        return unobservedEvent(observedEvents, observedLogs, null, null);
     }
 
     /**
@@ -85,22 +171,118 @@ public final class LogEventResult {
      * @param causeOfRejection The reason the event request was rejected.
      * @param observedEvents The event strings that were observed.
      * @param observedLogs The log lines that satisfied the observed event strings.
+     * @param observationTimesInNanos The times, in nanoseconds, at which each observed event string was observed.
+     * @param kernelObservationTimesInNanos The times, in nanoseconds on the harness clock, at which the kernel logged each observed event string.
+     * @param capturedFields The fields captured by each observed event string.
+     * @return a new rejected event request result
+     */
+    public static LogEventResult rejectedEvent(String causeOfRejection, List<String> observedEvents, List<String> observedLogs, List<Long> observationTimesInNanos, List<Long> kernelObservationTimesInNanos, List<Map<String, String>> capturedFields) {
+        return new LogEventResult(RequestResultState.REJECTED, observedEvents, observedLogs, observationTimesInNanos, kernelObservationTimesInNanos, capturedFields, causeOfRejection, -1, null);
+    }
+
+    /**
+     * Returns a new rejected request event result, indicating that the event request could not
+     * possibly have been satisfied in any meaningful way. Since there are a variety of reasons for
+     * this situation, a cause is also associated with this result.
+     *
+     * The kernel times of the observed log lines are taken now, from the lines themselves.
+     *
+     * @param causeOfRejection The reason the event request was rejected.
+     * @param observedEvents The event strings that were observed.
+     * @param observedLogs The log lines that satisfied the observed event strings.
+     * @param observationTimesInNanos The times, in nanoseconds, at which each observed event string was observed.
+     * @param capturedFields The fields captured by each observed event string.
+     * @return a new rejected event request result
+     */
+    public static LogEventResult rejectedEvent(String causeOfRejection, List<String> observedEvents, List<String> observedLogs, List<Long> observationTimesInNanos, List<Map<String, String>> capturedFields) {
+        return rejectedEvent(causeOfRejection, observedEvents, observedLogs, observationTimesInNanos, null, capturedFields);
+    }
+
+    /**
+     * Returns a new rejected event request result, without the times at which each event string
+     * was observed or any captured fields.
+     *
+     * @param causeOfRejection The reason the event request was rejected.
+     * @param observedEvents The event strings that were observed.
+     * @param observedLogs The log lines that satisfied the observed event strings.
      * @return a new rejected event request result
      */
     public static LogEventResult rejectedEvent(String causeOfRejection, List<String> observedEvents, List<String> observedLogs) {
-        return new LogEventResult(RequestResultState.REJECTED, observedEvents, observedLogs, causeOfRejection, -1, null);
+        return rejectedEvent(causeOfRejection, observedEvents, observedLogs, null, null);
+    }
+
+    /**
+     * Returns a new expired request event result, indicating that the event request had timed out
+     * before it had been satisfied.
+     *
+     * @param observedEvents The event strings that were observed.
+     * @param observedLogs The log lines that satisfied the observed event strings.
+     * @param observationTimesInNanos The times, in nanoseconds, at which each observed event string was observed.
+     * @param kernelObservationTimesInNanos The times, in nanoseconds on the harness clock, at which the kernel logged each observed event string.
+     * @param capturedFields The fields captured by each observed event string.
+     * @return a new expired event request result.
+     */
+    public static LogEventResult expiredEvent(List<String> observedEvents, List<String> observedLogs, List<Long> observationTimesInNanos, List<Long> kernelObservationTimesInNanos, List<Map<String, String>> capturedFields) {
+        return new LogEventResult(RequestResultState.EXPIRED, observedEvents, observedLogs, observationTimesInNanos, kernelObservationTimesInNanos, capturedFields, null, -1, null);
     }
 
     /**
      * Returns a new expired request event result, indicating that the event request had timed out
      * before it had been satisfied.
      *
+     * The kernel times of the observed log lines are taken now, from the lines themselves.
+     *
+     * @param observedEvents The event strings that were observed.
+     * @param observedLogs The log lines that satisfied the observed event strings.
+     * @param observationTimesInNanos The times, in nanoseconds, at which each observed event string was observed.
+     * @param capturedFields The fields captured by each observed event string.
+     * @return a new expired event request result.
+     */
+    public static LogEventResult expiredEvent(List<String> observedEvents, List<String> observedLogs, List<Long> observationTimesInNanos, List<Map<String, String>> capturedFields) {
+        return expiredEvent(observedEvents, observedLogs, observationTimesInNanos, null, capturedFields);
+    }
+
+    /**
+     * Returns a new expired event request result, without the times at which each event string
+     * was observed or any captured fields.
+     *
      * @param observedEvents The event strings that were observed.
      * @param observedLogs The log lines that satisfied the observed event strings.
      * @return a new expired event request result.
      */
     public static LogEventResult expiredEvent(List<String> observedEvents, List<String> observedLogs) {
-        return new LogEventResult(RequestResultState.EXPIRED, observedEvents, observedLogs,null, -1, null);
+        return expiredEvent(observedEvents, observedLogs, null, null);
+    }
+
+    /**
+     * Returns a new falsified request event result, indicating that the event can never be
+     * satisfied because of what has been observed, and so the request was decided early.
+     *
+     * @param observedEvents The event strings that were observed.
+     * @param observedLogs The log lines that satisfied the observed event strings.
+     * @param observationTimesInNanos The times, in nanoseconds, at which each observed event string was observed.
+     * @param kernelObservationTimesInNanos The times, in nanoseconds on the harness clock, at which the kernel logged each observed event string.
+     * @param capturedFields The fields captured by each observed event string.
+     * @return a new falsified event request result.
+     */
+    public static LogEventResult falsifiedEvent(List<String> observedEvents, List<String> observedLogs, List<Long> observationTimesInNanos, List<Long> kernelObservationTimesInNanos, List<Map<String, String>> capturedFields) {
+        return new LogEventResult(RequestResultState.FALSIFIED, observedEvents, observedLogs, observationTimesInNanos, kernelObservationTimesInNanos, capturedFields, null, -1, null);
+    }
+
+    /**
+     * Returns a new falsified request event result, indicating that the event can never be
+     * satisfied because of what has been observed, and so the request was decided early.
+     *
+     * The kernel times of the observed log lines are taken now, from the lines themselves.
+     *
+     * @param observedEvents The event strings that were observed.
+     * @param observedLogs The log lines that satisfied the observed event strings.
+     * @param observationTimesInNanos The times, in nanoseconds, at which each observed event string was observed.
+     * @param capturedFields The fields captured by each observed event string.
+     * @return a new falsified event request result.
+     */
+    public static LogEventResult falsifiedEvent(List<String> observedEvents, List<String> observedLogs, List<Long> observationTimesInNanos, List<Map<String, String>> capturedFields) {
+        return falsifiedEvent(observedEvents, observedLogs, observationTimesInNanos, null, capturedFields);
     }
 
     /**
@@ -140,6 +322,16 @@ public final class LogEventResult {
         return this.resultState == RequestResultState.EXPIRED;
     }
 
+    /**
+     * Returns {@code true} only if the event was falsified - that is, if what was observed means
+     * the event can never be satisfied.
+     *
+     * @return whether or not the event was falsified.
+     */
+    public boolean eventWasFalsified() {
+        return this.resultState == RequestResultState.FALSIFIED;
+    }
+
     /**
      * Returns the cause for this result being rejected only if it was rejected. Otherwise, returns
      * null.
@@ -167,6 +359,61 @@ public final class LogEventResult {
             : unit.convert(this.timeOfObservationInNanos, TimeUnit.NANOSECONDS);
     }
 
+    /**
+     * Returns the time that the kernel logged the event, according to the timestamps at the start
+     * of the log lines that satisfied the event, in the desired units. This time is on the same
+     * clock as {@code timeOfObservation()}, and is never later than it.
+     *
+     * If the event was satisfied by multiple log lines, this is the time of the latest of them.
+     *
+     * Returns a negative number if the event was not observed or if any of the satisfying log
+     * lines does not begin with a recognized kernel timestamp.
+     *
+     * @param unit The time unit to return the kernel observation time in.
+     * @return The kernel observation time or a negative number.
+     */
+    public long kernelTimeOfObservation(TimeUnit unit) {
+        if (unit == null) {
+            throw new NullPointerException("Cannot get the kernel observation time with null time units.");
+        }
+        if ((this.resultState != RequestResultState.OBSERVED) || this.observedLogs.isEmpty()) {
+            return -1;
+        }
+
+        long latestTimeInNanos = -1;
+        for (long timeInNanos : getAllKernelObservationTimes(TimeUnit.NANOSECONDS)) {
+            if (timeInNanos < 0) {
+                return -1;
+            }
+            latestTimeInNanos = ((latestTimeInNanos < 0) || (timeInNanos - latestTimeInNanos > 0)) ? timeInNanos : latestTimeInNanos;
+        }
+        return unit.convert(latestTimeInNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns a list of the times at which the kernel logged each of the underlying event strings,
+     * in the desired units, such that the i'th time corresponds to the i'th event string returned
+     * by {@code getAllObservedEvents()}. These times are on the same clock as the times returned by
+     * {@code getAllObservationTimes()}.
+     *
+     * A time is negative if the corresponding log line does not begin with a recognized kernel
+     * timestamp.
+     *
+     * @param unit The time unit to return the kernel observation times in.
+     * @return The kernel observation times of all observed event strings.
+     */
+    public List<Long> getAllKernelObservationTimes(TimeUnit unit) {
+        if (unit == null) {
+            throw new NullPointerException("Cannot get the kernel observation times with null time units.");
+        }
+
+        List<Long> times = new ArrayList<>(this.kernelObservationTimesInNanos.size());
+        for (long timeInNanos : this.kernelObservationTimesInNanos) {
+            times.add((timeInNanos < 0) ? timeInNanos : unit.convert(timeInNanos, TimeUnit.NANOSECONDS));
+        }
+        return times;
+    }
+
     /**
      * Returns a list of all of the underlying event strings that were actually observed by the
      * listener.
@@ -187,6 +434,127 @@ public final class LogEventResult {
         return new ArrayList<>(this.observedLogs);
     }
 
+    /**
+     * Returns a list of the times at which each of the underlying event strings were observed, in
+     * the desired units, such that the i'th time corresponds to the i'th event string returned by
+     * {@code getAllObservedEvents()}.
+     *
+     * This allows the completion time of each individual event in a composite event to be
+     * recovered from a single result.
+     *
+     * @param unit The time unit to return the observation times in.
+     * @return The observation times of all observed event strings.
+     */
+    public List<Long> getAllObservationTimes(TimeUnit unit) {
+        if (unit == null) {
+            throw new NullPointerException("Cannot get the observation times with null time units.");
+        }
+
+        List<Long> times = new ArrayList<>(this.observationTimesInNanos.size());
+        for (long time : this.observationTimesInNanos) {
+            times.add(unit.convert(time, TimeUnit.NANOSECONDS));
+        }
+        return times;
+    }
+
+    /**
+     * Returns a list of the fields captured by each of the underlying event strings, such that the
+     * i'th map holds the fields captured by the i'th event string returned by
+     * {@code getAllObservedEvents()}. Only events that extract fields from their log lines, such as
+     * a {@link org.aion.harness.main.event.RegexEvent} with named capture groups, capture anything.
+     *
+     * @return The captured fields of all observed event strings.
+     */
+    public List<Map<String, String>> getAllCapturedFields() {
+        return new ArrayList<>(this.capturedFields);
+    }
+
+    /**
+     * Returns the value of the named field as it was captured from the log, or null if no observed
+     * event string captured a field by this name. If more than one event string captured a field by
+     * this name then the first one, in the order of {@code getAllObservedEvents()}, is returned.
+     *
+     * @param name The name of the captured field.
+     * @return The captured value or null.
+     */
+    public String getCapturedField(String name) {
+        if (name == null) {
+            throw new NullPointerException("Cannot get a captured field with a null name.");
+        }
+
+        for (Map<String, String> fields : this.capturedFields) {
+            String value = fields.get(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns {@code true} only if some observed event string captured a field by this name.
+     *
+     * @param name The name of the captured field.
+     * @return whether or not the field was captured.
+     */
+    public boolean hasCapturedField(String name) {
+        return getCapturedField(name) != null;
+    }
+
+    /**
+     * Returns the value of the named field as a decimal long.
+     *
+     * @param name The name of the captured field.
+     * @return The captured value.
+     * @throws IllegalStateException if no such field was captured.
+     * @throws NumberFormatException if the captured value is not a decimal long.
+     */
+    public long getCapturedFieldAsLong(String name) {
+        return Long.parseLong(getRequiredCapturedField(name));
+    }
+
+    /**
+     * Returns the value of the named field as a decimal big integer.
+     *
+     * @param name The name of the captured field.
+     * @return The captured value.
+     * @throws IllegalStateException if no such field was captured.
+     * @throws NumberFormatException if the captured value is not a decimal integer.
+     */
+    public BigInteger getCapturedFieldAsBigInteger(String name) {
+        return new BigInteger(getRequiredCapturedField(name));
+    }
+
+    /**
+     * Returns the value of the named field as the bytes it encodes in hexadecimal, ignoring any
+     * leading "0x".
+     *
+     * @param name The name of the captured field.
+     * @return The captured value.
+     * @throws IllegalStateException if no such field was captured.
+     * @throws IllegalArgumentException if the captured value is not hexadecimal.
+     */
+    public byte[] getCapturedFieldAsBytes(String name) {
+        String value = getRequiredCapturedField(name);
+        if (value.startsWith("0x")) {
+            value = value.substring(2);
+        }
+
+        try {
+            return Hex.decodeHex(value);
+        } catch (DecoderException e) {
+            throw new IllegalArgumentException("Captured field " + name + " is not hexadecimal: " + value, e);
+        }
+    }
+
+    private String getRequiredCapturedField(String name) {
+        String value = getCapturedField(name);
+        if (value == null) {
+            throw new IllegalStateException("No field named " + name + " was captured.");
+        }
+        return value;
+    }
+
     @Override
     public String toString() {
         if (this.resultState == RequestResultState.OBSERVED) {
@@ -195,9 +563,24 @@ public final class LogEventResult {
             return "LogEventResult { Unobserved }";
         } else if (this.resultState == RequestResultState.REJECTED) {
             return "LogEventResult { Rejected due to: " + this.causeOfRejection + " }";
+        } else if (this.resultState == RequestResultState.FALSIFIED) {
+            return "LogEventResult { Falsified }";
         } else {
             return "LogEventResult { Expired }";
         }
     }
 
+    /**
+     * Returns the time at which the kernel logged each of the specified lines, in nanoseconds on
+     * the harness clock, given the time at which each was observed.
+     */
+    private static List<Long> kernelTimesOf(List<String> logs, List<Long> observationTimesInNanos) {
+        int size = Math.min(logs.size(), observationTimesInNanos.size());
+        List<Long> times = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            times.add(KernelClock.kernelTimeOf(logs.get(i), observationTimesInNanos.get(i), TimeUnit.NANOSECONDS));
+        }
+        return times;
+    }
+
 }
@@ -69,6 +69,41 @@ public final class DurationStatistics {
         return new DurationStatistics(start, end);
     }
 
+    /**
+     * Constructs a duration statistics object from the provided lists of rpc results and log event
+     * results, exactly as {@code from()} does, except that the "ending times" are the times at
+     * which the kernel logged the events rather than the times at which the listener read them.
+     *
+     * This excludes the delay in reading the log from the durations, so that they more accurately
+     * reflect the kernel itself.
+     *
+     * The kernel times are only as fine as the timestamps the kernel logs. The Rust kernel logs
+     * whole seconds, so each of its times may be up to a second early, and its durations are biased
+     * low by up to a second. An event can therefore appear to end before it started, and any such
+     * duration is clamped to zero.
+     *
+     * @param rpcResults The "starting" times, held in rpc results.
+     * @param logResults The "ending" times, held in log event results.
+     */
+    public static <T> DurationStatistics fromKernelTimes(List<RpcResult<T>> rpcResults, List<LogEventResult> logResults) {
+        long[] start = TestHarnessHelper.extractResultTimestamps(rpcResults, TimeUnit.NANOSECONDS);
+        long[] end = TestHarnessHelper.extractKernelEventTimestamps(logResults, TimeUnit.NANOSECONDS);
+
+        if (end == null) {
+            throw new IllegalArgumentException("Unable to extract the log result kernel timestamps. "
+                + "At least one of these results was not observed or has no kernel timestamp!");
+        }
+
+        // Compare via subtraction since nano times may overflow.
+        for (int i = 0; i < Math.min(start.length, end.length); i++) {
+            if (end[i] - start[i] < 0) {
+                end[i] = start[i];
+            }
+        }
+
+        return new DurationStatistics(start, end);
+    }
+
     /**
      * Prints some basic duration statistics to console.
      *
@@ -0,0 +1,68 @@
+package org.aion.harness.util;
+
+/**
+ * Helpers for storing a 32-byte value, such as an address or a hash, as four longs rather than as
+ * a byte array.
+ *
+ * The value is split into four big-endian words, word 0 holding the first 8 bytes. Four longs
+ * held in fields take half the memory of a byte array and its reference, and two values can be
+ * compared with four long comparisons.
+ *
+ * This class is thread-safe.
+ */
+public final class Bytes32 {
+    public static final int SIZE = 32;
+    public static final int WORDS = 4;
+
+    private Bytes32() {}
+
+    /**
+     * Returns the specified big-endian word of the 32 bytes.
+     *
+     * @param bytes The 32 bytes.
+     * @param index The index of the word, from 0 to 3.
+     * @return the word.
+     */
+    public static long word(byte[] bytes, int index) {
+        long word = 0;
+        for (int i = index * 8; i < (index + 1) * 8; i++) {
+            word = (word << 8) | (bytes[i] & 0xFF);
+        }
+        return word;
+    }
+
+    /**
+     * Returns the 32 bytes made up of the specified four words.
+     *
+     * @return the bytes.
+     */
+    public static byte[] toBytes(long word0, long word1, long word2, long word3) {
+        byte[] bytes = new byte[SIZE];
+        writeWord(word0, bytes, 0);
+        writeWord(word1, bytes, 8);
+        writeWord(word2, bytes, 16);
+        writeWord(word3, bytes, 24);
+        return bytes;
+    }
+
+    /**
+     * Returns a hash of the specified four words that mixes every bit of each of them, so that
+     * values sharing a common prefix, such as addresses, still spread well over a hash table.
+     *
+     * @return the hash.
+     */
+    public static int hash(long word0, long word1, long word2, long word3) {
+        long hash = word0 * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ word1) * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ word2) * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ word3) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static void writeWord(long word, byte[] bytes, int offset) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) word;
+            word >>>= 8;
+        }
+    }
+}
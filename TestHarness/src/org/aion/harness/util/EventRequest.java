@@ -2,6 +2,7 @@ package org.aion.harness.util;
 
 import java.util.concurrent.TimeUnit;
 import org.aion.harness.main.event.IEvent;
+import org.aion.harness.main.event.LogRecord;
 import org.aion.harness.result.FutureResult;
 import org.aion.harness.result.LogEventResult;
 
@@ -25,7 +26,7 @@ public final class EventRequest {
     private final IEvent requestedEvent;
     private final long deadlineInNanos;
 
-    private enum RequestState { PENDING, SATISFIED, UNOBSERVED, REJECTED, EXPIRED }
+    private enum RequestState { PENDING, SATISFIED, UNOBSERVED, REJECTED, EXPIRED, FALSIFIED }
 
     private RequestState currentState = RequestState.PENDING;
     private String causeOfRejection;
@@ -74,18 +75,84 @@ public final class EventRequest {
      * @return whether or not this request is satisfied.
      */
     public boolean isSatisfiedBy(String line, long currentTime, TimeUnit unit) {
+        return isSatisfiedBy(new LogRecord(line), currentTime, unit);
+    }
+
+    /**
+     * Behaves exactly as {@code isSatisfiedBy(String, long, TimeUnit)} given the line of the
+     * specified record. The listener uses this method so that one record, and therefore one parse
+     * of the line's header, is shared by every request in the pool.
+     *
+     * Not thread-safe.
+     *
+     * @param record The log record to test.
+     * @param currentTime The current time.
+     * @param unit The unit of time of the currentTime.
+     * @return whether or not this request is satisfied.
+     */
+    public boolean isSatisfiedBy(LogRecord record, long currentTime, TimeUnit unit) {
         markAsExpiredIfPastDeadline(currentTime, unit);
 
         if (this.currentState != RequestState.PENDING) {
             return true;
         }
 
-        boolean isSatisfied = this.requestedEvent.isSatisfiedBy(line, currentTime, unit);
+        boolean isSatisfied = this.requestedEvent.isSatisfiedBy(record, currentTime, unit);
+        return decide(isSatisfied, currentTime, unit);
+    }
+
+    /**
+     * Only to be used by {@link LogListener} when this request enters its pool, so that the
+     * requested event begins to be listened for (see {@link IEvent#beginListeningAt(long, TimeUnit)}).
+     *
+     * Not thread-safe.
+     *
+     * @param time The time at which the request enters the pool.
+     * @param unit The unit of time of the time.
+     */
+    public void beginListeningAt(long time, TimeUnit unit) {
+        this.requestedEvent.beginListeningAt(time, unit);
+    }
+
+    /**
+     * Only to be used by {@link LogListener}, periodically, to determine whether or not the request
+     * has been decided by the passage of time alone: either it has expired, or its event is timed
+     * and has now been satisfied or falsified (see {@link IEvent#isTimed()}).
+     *
+     * A timed event is tested at the time up to which the listener has read the whole log, rather
+     * than at the current time, since lines written before the current time may be yet to be read.
+     * If the event is satisfied at that time, the request is satisfied even if it has since
+     * expired.
+     *
+     * Returns {@code true} only if the request is finalized.
+     *
+     * Not thread-safe.
+     *
+     * @param currentTime The current time.
+     * @param readUpTo The time up to which every line of the log has been handed to this request.
+     * @param unit The unit of time of the currentTime and readUpTo.
+     * @return whether or not this request is finalized.
+     */
+    public boolean isDecidedAt(long currentTime, long readUpTo, TimeUnit unit) {
+        if ((this.currentState == RequestState.PENDING) && this.requestedEvent.isTimed() && !isExpiredAtTime(readUpTo, unit)) {
+            decide(this.requestedEvent.isSatisfiedAt(readUpTo, unit), readUpTo, unit);
+        }
+
+        markAsExpiredIfPastDeadline(currentTime, unit);
+        return this.currentState != RequestState.PENDING;
+    }
 
+    /**
+     * Finalizes this request as satisfied if its event is satisfied, or as falsified if its event
+     * can now never be satisfied, and returns whether or not it was satisfied.
+     */
+    private boolean decide(boolean isSatisfied, long currentTime, TimeUnit unit) {
         if (isSatisfied) {
             this.currentState = RequestState.SATISFIED;
             this.timeOfObservationInNanos = unit.toNanos(currentTime);
             finishFuture();
+        } else if (this.requestedEvent.hasBeenFalsified()) {
+            markAsFalsified();
         }
 
         return isSatisfied;
@@ -104,6 +171,28 @@ public final class EventRequest {
         return unit.toNanos(time) > this.deadlineInNanos;
     }
 
+    /**
+     * Returns the time at which this request expires, in the specified units.
+     *
+     * Thread safe.
+     *
+     * @param unit The unit of time of the returned deadline.
+     * @return the deadline of this request.
+     */
+    public long getDeadline(TimeUnit unit) {
+        return unit.convert(this.deadlineInNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns {@code true} only if the requested event can be decided by the passage of time
+     * alone (see {@link IEvent#isTimed()}).
+     *
+     * @return whether or not the requested event is timed.
+     */
+    public boolean isTimed() {
+        return this.requestedEvent.isTimed();
+    }
+
     /**
      * Finalizes this request by moving it into the REJECTED state only if it is not already
      * finalized.
@@ -146,6 +235,19 @@ public final class EventRequest {
         }
     }
 
+    /**
+     * Finalizes this request by moving it into the FALSIFIED state only if it is not already
+     * finalized.
+     *
+     * Thread safe.
+     */
+    public synchronized void markAsFalsified() {
+        if (this.currentState == RequestState.PENDING) {
+            this.currentState = RequestState.FALSIFIED;
+            finishFuture();
+        }
+    }
+
     /**
      * Returns {@code true} only if this request is still pending and therefore not finalized.
      *
@@ -182,6 +284,9 @@ public final class EventRequest {
             return LogEventResult.observedEvent(
                 this.requestedEvent.getAllObservedEvents(),
                 this.requestedEvent.getAllObservedLogs(),
+                this.requestedEvent.getAllObservationTimes(TimeUnit.NANOSECONDS),
+                this.requestedEvent.getAllKernelObservationTimes(TimeUnit.NANOSECONDS),
+                this.requestedEvent.getAllCapturedFields(),
                 this.timeOfObservationInNanos,
                 TimeUnit.NANOSECONDS);
 
@@ -190,19 +295,37 @@ public final class EventRequest {
             return LogEventResult.rejectedEvent(
                 this.causeOfRejection,
                 this.requestedEvent.getAllObservedEvents(),
-                this.requestedEvent.getAllObservedLogs());
+                this.requestedEvent.getAllObservedLogs(),
+                this.requestedEvent.getAllObservationTimes(TimeUnit.NANOSECONDS),
+                this.requestedEvent.getAllKernelObservationTimes(TimeUnit.NANOSECONDS),
+                this.requestedEvent.getAllCapturedFields());
+
+        } else if (this.currentState == RequestState.FALSIFIED) {
+
+            return LogEventResult.falsifiedEvent(
+                this.requestedEvent.getAllObservedEvents(),
+                this.requestedEvent.getAllObservedLogs(),
+                this.requestedEvent.getAllObservationTimes(TimeUnit.NANOSECONDS),
+                this.requestedEvent.getAllKernelObservationTimes(TimeUnit.NANOSECONDS),
+                this.requestedEvent.getAllCapturedFields());
 
         } else if (this.currentState == RequestState.EXPIRED) {
 
             return LogEventResult.expiredEvent(
                 this.requestedEvent.getAllObservedEvents(),
-                this.requestedEvent.getAllObservedLogs());
+                this.requestedEvent.getAllObservedLogs(),
+                this.requestedEvent.getAllObservationTimes(TimeUnit.NANOSECONDS),
+                this.requestedEvent.getAllKernelObservationTimes(TimeUnit.NANOSECONDS),
+                this.requestedEvent.getAllCapturedFields());
 
         } else {
 
             return LogEventResult.unobservedEvent(
                 this.requestedEvent.getAllObservedEvents(),
-                this.requestedEvent.getAllObservedLogs());
+                this.requestedEvent.getAllObservedLogs(),
+                this.requestedEvent.getAllObservationTimes(TimeUnit.NANOSECONDS),
+                this.requestedEvent.getAllKernelObservationTimes(TimeUnit.NANOSECONDS),
+                this.requestedEvent.getAllCapturedFields());
 
         }
     }
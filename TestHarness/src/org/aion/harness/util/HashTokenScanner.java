@@ -0,0 +1,83 @@
+package org.aion.harness.util;
+
+/**
+ * A scanner that locates "hash tokens" in a log line.
+ *
+ * A hash token is a run of exactly {@value TOKEN_LENGTH} hexadecimal characters that is not
+ * immediately preceded or followed by another hexadecimal character. Transaction hashes, block
+ * hashes and addresses all appear in the kernel logs as hash tokens, which makes them a cheap key
+ * for indexing whatever is waiting on a particular hash.
+ *
+ * Scanning a line is a single pass over its characters and allocates nothing.
+ *
+ * This class is thread-safe.
+ */
+public final class HashTokenScanner {
+    public static final int TOKEN_LENGTH = 64;
+
+    private HashTokenScanner() {}
+
+    /**
+     * Returns the index of the first hash token in the line that begins at or after the specified
+     * index, or -1 if there is no such token.
+     *
+     * @param line The line to scan.
+     * @param fromIndex The index to begin scanning from.
+     * @return the starting index of the next hash token or -1.
+     */
+    public static int indexOfNextToken(CharSequence line, int fromIndex) {
+        if (line == null) {
+            throw new NullPointerException("Cannot scan a null line.");
+        }
+
+        int length = line.length();
+        int runStart = -1;
+
+        for (int i = Math.max(fromIndex, 0); i < length; i++) {
+            if (isHexCharacter(line.charAt(i))) {
+                if (runStart < 0) {
+                    // A run may only begin on a boundary, otherwise we are midway through a longer run.
+                    runStart = ((i > 0) && isHexCharacter(line.charAt(i - 1))) ? -2 : i;
+                }
+            } else {
+                if ((runStart >= 0) && (i - runStart == TOKEN_LENGTH)) {
+                    return runStart;
+                }
+                runStart = -1;
+            }
+        }
+
+        return ((runStart >= 0) && (length - runStart == TOKEN_LENGTH)) ? runStart : -1;
+    }
+
+    /**
+     * Returns the index of the first hash token in the string that is strictly bounded on both
+     * sides by a non-hexadecimal character of that same string, or -1 if there is no such token.
+     *
+     * A token that is bounded inside a string is guaranteed to also be a hash token in any line
+     * that contains the whole string, which is what makes it safe to index on.
+     *
+     * @param string The string to scan.
+     * @return the starting index of the first bounded hash token or -1.
+     */
+    public static int indexOfBoundedToken(String string) {
+        int index = indexOfNextToken(string, 0);
+        while (index >= 0) {
+            if ((index > 0) && (index + TOKEN_LENGTH < string.length())) {
+                return index;
+            }
+            index = indexOfNextToken(string, index + TOKEN_LENGTH);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} only if the character is a hexadecimal digit (either case).
+     */
+    public static boolean isHexCharacter(char character) {
+        return ((character >= '0') && (character <= '9'))
+            || ((character >= 'a') && (character <= 'f'))
+            || ((character >= 'A') && (character <= 'F'));
+    }
+
+}
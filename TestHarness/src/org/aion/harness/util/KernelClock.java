@@ -0,0 +1,236 @@
+package org.aion.harness.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Translates the timestamps that the kernels print at the start of each log line onto the
+ * harness's own clock, {@link System#nanoTime()}.
+ *
+ * The harness observes a log line some time after the kernel wrote it, since the log file is only
+ * polled periodically. Timestamps taken from the line itself do not include this lag, and so they
+ * give a more accurate picture of when something actually happened in the kernel.
+ *
+ * Two timestamp formats are recognized, each optionally followed by a fractional second (after
+ * either a '.' or a ','), and each optionally preceded by whitespace or ANSI colour codes:
+ *   - The Java kernel's logback format: {@code yy-MM-dd HH:mm:ss.SSS}
+ *   - The Rust kernel's format: {@code yyyy-MM-dd HH:mm:ss}
+ *
+ * Both kernels log in the local time zone of the machine. The Rust kernel's timestamps have a
+ * resolution of whole seconds, so a time taken from one of its lines is truncated, and may be up
+ * to a second earlier than when the line was actually written.
+ *
+ * Since {@code System.nanoTime()} has no relation to the wall clock, the two are calibrated
+ * against one another by sampling both back-to-back. Any time obtained from a log line is then
+ * clamped so that it never exceeds the time at which the harness actually read that line, which
+ * guards against small clock skews and against coarse (whole second) kernel timestamps.
+ *
+ * This class is thread-safe.
+ */
+public final class KernelClock {
+    private static final int CALIBRATION_SAMPLES = 16;
+    private static volatile long wallClockToHarnessOffsetInNanos = measureOffset();
+
+    private KernelClock() {}
+
+    /**
+     * Re-measures the offset between the wall clock and the harness clock. This is worth doing
+     * whenever a new log starts being read, in case the wall clock has since been adjusted.
+     */
+    public static void calibrate() {
+        wallClockToHarnessOffsetInNanos = measureOffset();
+    }
+
+    /**
+     * Returns the time at which the kernel wrote the specified log line, in terms of the harness
+     * clock ({@code System.nanoTime()}) and in the specified units, or a negative number if the
+     * line does not begin with a recognized timestamp.
+     *
+     * The returned time is never later than the time the line was read.
+     *
+     * @param line The log line.
+     * @param readAt The time, on the harness clock, at which the line was read.
+     * @param unit The time unit of readAt and of the returned time.
+     * @return the kernel time of the line or a negative number.
+     */
+    public static long kernelTimeOf(String line, long readAt, TimeUnit unit) {
+        if (line == null) {
+            throw new NullPointerException("Cannot get the kernel time of a null line.");
+        }
+        if (unit == null) {
+            throw new NullPointerException("Cannot get the kernel time using a null time unit.");
+        }
+
+        long epochNanos = parseEpochNanos(line);
+        if (epochNanos < 0) {
+            return -1;
+        }
+
+        long harnessNanos = epochNanos + wallClockToHarnessOffsetInNanos;
+        long readAtNanos = unit.toNanos(readAt);
+
+        // Compare via subtraction since nano times may overflow.
+        return unit.convert((harnessNanos - readAtNanos > 0) ? readAtNanos : harnessNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the timestamp at the start of the specified log line as nanoseconds since the epoch,
+     * or a negative number if the line does not begin with a recognized timestamp.
+     *
+     * @param line The log line.
+     * @return the timestamp of the line or a negative number.
+     */
+    public static long parseEpochNanos(CharSequence line) {
+        int start = skipPrefix(line);
+        int index = startOfMonth(line, start);
+        if (index < 0) {
+            return -1;
+        }
+
+        int year = (index - start == 5) ? digits(line, start, 4) : 2000 + digits(line, start, 2);
+        int month = digits(line, index, 2);
+        int day = digits(line, index + 3, 2);
+        int hour = digits(line, index + 6, 2);
+        int minute = digits(line, index + 9, 2);
+        int second = digits(line, index + 12, 2);
+        index += 14;
+
+        int nanos = 0;
+        if ((index < line.length()) && ((line.charAt(index) == '.') || (line.charAt(index) == ','))) {
+            int scale = 100_000_000;
+            index++;
+            while ((index < line.length()) && isDigit(line.charAt(index))) {
+                nanos += (line.charAt(index) - '0') * scale;
+                scale /= 10;
+                index++;
+            }
+        }
+
+        try {
+            long epochSecond = LocalDateTime.of(year, month, day, hour, minute, second)
+                .atZone(ZoneId.systemDefault())
+                .toEpochSecond();
+            return TimeUnit.SECONDS.toNanos(epochSecond) + nanos;
+        } catch (RuntimeException e) {
+            // The digits were not a valid date or time.
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the index just past the timestamp (including any fractional second) at the start of
+     * the specified log line, or -1 if the line does not begin with a recognized timestamp.
+     *
+     * @param line The log line.
+     * @return the end of the timestamp or -1.
+     */
+    public static int endOfTimestamp(CharSequence line) {
+        int index = startOfMonth(line, skipPrefix(line));
+        if (index < 0) {
+            return -1;
+        }
+
+        index += 14;
+        if ((index < line.length()) && ((line.charAt(index) == '.') || (line.charAt(index) == ','))) {
+            index++;
+            while ((index < line.length()) && isDigit(line.charAt(index))) {
+                index++;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index of the month in a timestamp beginning at the specified index, or -1 if no
+     * timestamp begins there. The two formats are told apart by the width of their year.
+     */
+    private static int startOfMonth(CharSequence line, int start) {
+        if (isPattern(line, start, "dddd-dd-dd dd:dd:dd")) {
+            return start + 5;
+        } else if (isPattern(line, start, "dd-dd-dd dd:dd:dd")) {
+            return start + 3;
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the index of the first character after any leading whitespace and ANSI escape codes.
+     */
+    private static int skipPrefix(CharSequence line) {
+        int index = 0;
+        while (index < line.length()) {
+            char character = line.charAt(index);
+            if (Character.isWhitespace(character)) {
+                index++;
+            } else if ((character == '\u001B') && (index + 1 < line.length()) && (line.charAt(index + 1) == '[')) {
+                // Skip to the end of the escape sequence, which is its first letter.
+                index += 2;
+                while ((index < line.length()) && !Character.isLetter(line.charAt(index))) {
+                    index++;
+                }
+                index++;
+            } else {
+                break;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns true only if the line matches the pattern at the specified index, where 'd' in the
+     * pattern matches any digit and every other character matches itself.
+     */
+    private static boolean isPattern(CharSequence line, int index, String pattern) {
+        if (index + pattern.length() > line.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < pattern.length(); i++) {
+            char expected = pattern.charAt(i);
+            char actual = line.charAt(index + i);
+            if ((expected == 'd') ? !isDigit(actual) : (expected != actual)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char character) {
+        return (character >= '0') && (character <= '9');
+    }
+
+    private static int digits(CharSequence line, int index, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value * 10) + (line.charAt(index + i) - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Samples both clocks back-to-back a number of times and keeps the sample taken over the
+     * shortest interval, since it is the least disturbed by scheduling.
+     */
+    private static long measureOffset() {
+        long bestInterval = Long.MAX_VALUE;
+        long bestOffset = 0;
+
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long before = System.nanoTime();
+            Instant wallClock = Instant.now();
+            long after = System.nanoTime();
+
+            long interval = after - before;
+            if (interval < bestInterval) {
+                long wallClockNanos = TimeUnit.SECONDS.toNanos(wallClock.getEpochSecond()) + wallClock.getNano();
+                bestInterval = interval;
+                bestOffset = (before + (interval / 2)) - wallClockNanos;
+            }
+        }
+        return bestOffset;
+    }
+
+}
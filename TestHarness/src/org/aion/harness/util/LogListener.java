@@ -1,13 +1,16 @@
 package org.aion.harness.util;
 
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.aion.harness.main.TransactionTracker;
 import org.aion.harness.main.event.IEvent;
+import org.aion.harness.main.event.LogRecord;
+import org.aion.harness.main.global.SingletonFactory;
 import org.aion.harness.result.FutureResult;
 import org.aion.harness.result.LogEventResult;
 import org.aion.harness.result.Result;
-import org.apache.commons.io.input.Tailer;
-import org.apache.commons.io.input.TailerListener;
 
 import java.util.*;
 
@@ -22,7 +25,7 @@ import java.util.*;
  * Each time this listener receives a new line in the log, it checks each of the requests and
  * attempts to satisfy their logic.
  *
- * Requests can be in 1 of 5 states: pending, satisfied, unobserved, expired, rejected.
+ * Requests can be in 1 of 6 states: pending, satisfied, unobserved, expired, rejected, falsified.
  *
  * All requests enter the pool in the pending state. Once they move out of the pending state this
  * listener has the right to remove them from the pool.
@@ -37,15 +40,37 @@ import java.util.*;
  * stops listening to a log file, or if the requester receives an interrupt signal while the request
  * is in the pool, then it will be marked as rejected.
  *
+ * While listening, a single timer belonging to the listener periodically sweeps the pool. This
+ * expires requests that have timed out even when the log is quiet, and decides the requests whose
+ * events can be decided by the passage of time alone (see {@link IEvent#isTimed()}), such as the
+ * absence of some event over a window of time. Such requests, as well as any whose event has been
+ * falsified (see {@link IEvent#hasBeenFalsified()}), leave the pool as soon as they are decided.
+ * A line is read some time after it is written, and so timed requests are decided at the time up
+ * to which the source has read the whole log (see {@code hasReadUpTo()}), rather than at the
+ * current time. They are also swept each time the source has read the whole log, so that no line
+ * written since can be taken for one written before. The window of time of a request begins when
+ * it enters the pool (see {@link IEvent#beginListeningAt(long, TimeUnit)}).
+ * The sweep is skipped unless the pool may hold a timed request or the earliest deadline in the
+ * pool has passed, so that a large pool of ordinary requests is not walked on every tick.
+ *
+ * The listener also retains a bounded window of the most recently read lines (see
+ * {@link RecentLinesBuffer}). A request may ask to "look back" over this window when it is
+ * submitted, in which case it is first tested against those recent lines, and is satisfied
+ * immediately if the event has already occurred.
+ *
  * This class is thread-safe.
  */
-public final class LogListener implements TailerListener {
+public final class LogListener {
     private static final int CAPACITY = 32_768;
+    private static final long TIMER_INTERVAL_IN_MILLIS = 100;
     private static final Object STATE_MONITOR = new Object();
     private static final Semaphore REQUEST_POOL_GATE = new Semaphore(CAPACITY, true);
 
-    // The tailer is responsible for reading each line and updating us. We are its "observer".
-    private Tailer tailer;
+    // The multiplexer whose threads run our timer.
+    private final LogMultiplexer multiplexer;
+
+    // The source is responsible for reading each line and updating us. We are its "observer".
+    private volatile LogMultiplexer.Source source;
 
     private enum ListenerState { ALIVE_AND_LISTENING, ALIVE_AND_NOT_LISTENING, DEAD }
 
@@ -54,6 +79,45 @@ public final class LogListener implements TailerListener {
 
     private List<EventRequest> requestPool = new ArrayList<>(CAPACITY);
 
+    // The number of timed requests in the pool and the earliest deadline of any request in the pool,
+    // which are exact as of the last sweep. Since then requests may have left the pool, so these
+    // err towards sweeping, which brings them up to date again.
+    private int numberOfTimedRequests = 0;
+    private long earliestDeadlineInNanos = Long.MAX_VALUE;
+
+    // Every line written to the log before this time has been handed to the requests in the pool.
+    private long readUpToInNanos;
+
+    // Periodically decides the requests that the passage of time alone can decide.
+    private ScheduledFuture<?> timer = null;
+
+    // The most recent lines read by this listener, so that requests can look back at past events.
+    private final RecentLinesBuffer recentLines = new RecentLinesBuffer();
+
+    // Trackers that are handed every line, outside of the request pool.
+    private final List<TransactionTracker> trackers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a new listener whose timer runs on the shared threads of the singleton
+     * {@link LogMultiplexer}.
+     */
+    public LogListener() {
+        this(SingletonFactory.singleton().logMultiplexer());
+    }
+
+    /**
+     * Constructs a new listener whose timer runs on the threads of the specified multiplexer, which
+     * ought to be the multiplexer that feeds this listener its lines.
+     *
+     * @param multiplexer The multiplexer to run the timer on.
+     */
+    public LogListener(LogMultiplexer multiplexer) {
+        if (multiplexer == null) {
+            throw new NullPointerException("Cannot construct a listener with a null multiplexer.");
+        }
+        this.multiplexer = multiplexer;
+    }
+
     /**
      * Returns true only if the listener is not dead.
      */
@@ -93,17 +157,41 @@ public final class LogListener implements TailerListener {
      *    -> request is marked rejected.
      * 5. The request is observed.
      *    -> request is marked satisfied.
+     * 6. The requester cancels the returned future.
+     *    -> request is removed from the pool.
+     * 7. The event can now never be satisfied (it is falsified).
+     *    -> request is marked falsified.
      */
     public FutureResult<LogEventResult> submitEventToBeListenedFor(IEvent event, long timeout, TimeUnit unit) {
+        return submitEventToBeListenedFor(event, timeout, unit, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Attempts to submit the specified event request into the request pool, exactly as
+     * {@code submitEventToBeListenedFor(IEvent, long, TimeUnit)} does, except that the request is
+     * first tested against any recently read lines that were read within the specified look-back
+     * window. If those lines satisfy the event then the request is satisfied immediately, without
+     * ever entering the pool, and its observation time is the time at which the satisfying line
+     * was originally read.
+     *
+     * The look-back is bounded by how many recent lines this listener retains, and so a large
+     * window is not a guarantee that every line in that window is still available.
+     */
+    public FutureResult<LogEventResult> submitEventToBeListenedFor(IEvent event, long timeout, TimeUnit unit, long lookBack, TimeUnit lookBackUnit) {
         if (event == null) {
             throw new NullPointerException("Cannot submit a null event request.");
         }
+        if (lookBack < 0) {
+            throw new IllegalArgumentException("Look-back window was negative: " + lookBack);
+        }
 
-        long deadlineInNanos = System.nanoTime() + unit.toNanos(timeout);
+        long nowInNanos = System.nanoTime();
+        long deadlineInNanos = nowInNanos + unit.toNanos(timeout);
+        long lookBackStartInNanos = nowInNanos - lookBackUnit.toNanos(lookBack);
         EventRequest eventRequest = new EventRequest(event, deadlineInNanos, TimeUnit.NANOSECONDS);
 
         // Attempt to add the request to the pool.
-        addRequest(eventRequest, timeout, unit);
+        addRequest(eventRequest, timeout, unit, (lookBack > 0), lookBackStartInNanos);
 
         return eventRequest.future;
     }
@@ -124,6 +212,12 @@ public final class LogListener implements TailerListener {
                 return Result.unsuccessfulDueTo("Listener is already listening!");
             } else {
                 this.currentState = ListenerState.ALIVE_AND_LISTENING;
+                this.recentLines.clear();
+                synchronized (this) {
+                    // Before any request can enter the pool, and so before any window begins.
+                    this.readUpToInNanos = System.nanoTime() - 1;
+                }
+                this.timer = this.multiplexer.scheduleWithFixedDelay(this::tick, TIMER_INTERVAL_IN_MILLIS, TimeUnit.MILLISECONDS);
                 return Result.successful();
             }
         }
@@ -132,7 +226,7 @@ public final class LogListener implements TailerListener {
     /**
      * If the listener is listening when this method is invoked, then it will be moved into the
      * not listening state, all requests currently in the pool will be marked unobserved and all
-     * waiting threads will be notified, and the request pool will be cleared.
+     * waiting threads will be notified, and the request pool and recent lines will be cleared.
      *
      * Otherwise, if the listener is not listening when this method is invoked, nothing happens.
      */
@@ -141,9 +235,11 @@ public final class LogListener implements TailerListener {
             if (this.currentState == ListenerState.ALIVE_AND_LISTENING) {
                 this.currentState = ListenerState.ALIVE_AND_NOT_LISTENING;
             }
+            cancelTimer();
         }
 
         clearPool(false, null);
+        this.recentLines.clear();
     }
 
     /**
@@ -162,8 +258,10 @@ public final class LogListener implements TailerListener {
      *    -> request is marked expired.
      * 3. An interrupt exception occurs before adding the request to the pool.
      *    -> request is marked rejected.
+     * 4. The request looks back and is satisfied by a recently read line.
+     *    -> request is marked satisfied.
      */
-    private void addRequest(EventRequest request, long timeout, TimeUnit unit) {
+    private void addRequest(EventRequest request, long timeout, TimeUnit unit, boolean lookBack, long lookBackStartInNanos) {
         try {
             // Try to acquire a permit to add the request to the pool.
             if (!REQUEST_POOL_GATE.tryAcquire(timeout, unit)) {
@@ -172,6 +270,7 @@ public final class LogListener implements TailerListener {
             }
         } catch (InterruptedException e) {
             request.markAsRejected("Interrupted while waiting to submit request!");
+            return;
         }
 
         // If the request has expired, mark it as so and return the pool permit.
@@ -181,21 +280,52 @@ public final class LogListener implements TailerListener {
             return;
         }
 
-        // Otherwise, we are free to add the request since we took the permit.
+        // Otherwise, we are free to add the request since we took the permit. Looking back happens
+        // under the same lock as handling a new line so that no line can slip between the two.
         synchronized (this) {
+            request.beginListeningAt(System.nanoTime(), TimeUnit.NANOSECONDS);
+
+            if (lookBack) {
+                this.recentLines.visitLinesSince(lookBackStartInNanos, TimeUnit.NANOSECONDS,
+                    (line, timeInNanos) -> {
+                        request.isSatisfiedBy(new LogRecord(line), timeInNanos, TimeUnit.NANOSECONDS);
+                        return !request.isPending();
+                    });
+
+                if (!request.isPending()) {
+                    REQUEST_POOL_GATE.release();
+                    return;
+                }
+            }
+
             this.requestPool.add(request);
+            this.numberOfTimedRequests += request.isTimed() ? 1 : 0;
+            this.earliestDeadlineInNanos = Math.min(this.earliestDeadlineInNanos, request.getDeadline(TimeUnit.NANOSECONDS));
         }
 
+        // If the requester cancels the request, withdraw it from the pool. If the requester has
+        // already cancelled it then this withdraws it immediately.
+        request.future.onCancellation(() -> removeRequest(request));
+
         // If the listener is no longer listening, reject the request and return the pool permit.
         synchronized (STATE_MONITOR) {
             if (this.currentState != ListenerState.ALIVE_AND_LISTENING) {
                 request.markAsRejected("Listener is not currently listening to a log file.");
-                this.requestPool.remove(request);
-                REQUEST_POOL_GATE.release();
+                removeRequest(request);
             }
         }
     }
 
+    /**
+     * Removes the specified request from the pool, if it is still in the pool, and returns its
+     * pool permit.
+     */
+    private synchronized void removeRequest(EventRequest request) {
+        if (this.requestPool.remove(request)) {
+            REQUEST_POOL_GATE.release();
+        }
+    }
+
     /**
      * Receives the incoming next line in the log file and processed it.
      *
@@ -206,7 +336,6 @@ public final class LogListener implements TailerListener {
      *
      * @param nextLine The next line in the log file.
      */
-    @Override
     public void handle(String nextLine) {
         synchronized (STATE_MONITOR) {
             if (this.currentState != ListenerState.ALIVE_AND_LISTENING) {
@@ -216,6 +345,10 @@ public final class LogListener implements TailerListener {
 
         synchronized (this) {
             long currentTimeInNanos = System.nanoTime();
+            this.recentLines.add(nextLine, currentTimeInNanos, TimeUnit.NANOSECONDS);
+
+            // The header of the line is parsed at most once, however many requests inspect it.
+            LogRecord record = new LogRecord(nextLine);
 
             // Iterate over each of the requests in the pool.
             Iterator<EventRequest> requestIterator = this.requestPool.iterator();
@@ -227,7 +360,8 @@ public final class LogListener implements TailerListener {
                 if (!request.isPending()) {
                     requestIterator.remove();
                     numRequestsRemoved++;
-                } else if (request.isSatisfiedBy(nextLine, currentTimeInNanos, TimeUnit.NANOSECONDS)) {
+                } else if (request.isSatisfiedBy(record, currentTimeInNanos, TimeUnit.NANOSECONDS) || !request.isPending()) {
+                    // The request was satisfied or else was falsified by this line.
                     requestIterator.remove();
                     numRequestsRemoved++;
                 }
@@ -236,53 +370,163 @@ public final class LogListener implements TailerListener {
             // Return the same number of permits as the number of requests removed from the pool.
             REQUEST_POOL_GATE.release(numRequestsRemoved);
         }
+
+        // Trackers have their own locks, so they need not hold up the request pool.
+        for (TransactionTracker tracker : this.trackers) {
+            tracker.observe(nextLine);
+        }
     }
 
     /**
-     * Called by the {@link Tailer} when it is first initialized with this listener. This is here
-     * so that we can grab hold of this reference and shut it down if we panic.
-     *
-     * The {@link Tailer} is the class responsible for reading the log file and for invoking our
-     * {@code handle()} method (or any other exceptional method) with the next line it reads in the
-     * file.
+     * Attaches the specified tracker to this listener, so that it is handed every line read from
+     * now on. Attaching a tracker that is already attached does nothing.
      *
-     * @param tailer The class that is currently "tailing" the log file and alerting us.
+     * @param tracker The tracker.
      */
-    @Override
-    public void init(Tailer tailer) {
-        if (tailer == null) {
-            throw new NullPointerException("Cannot initialize with a null tailer.");
+    public void attach(TransactionTracker tracker) {
+        if (tracker == null) {
+            throw new NullPointerException("Cannot attach a null tracker.");
+        }
+        if (!this.trackers.contains(tracker)) {
+            this.trackers.add(tracker);
         }
-
-        this.tailer = tailer;
     }
 
-    @Override
-    public void fileNotFound() {
-        panic("Log file not found!");
+    /**
+     * Detaches the specified tracker from this listener, if it is attached.
+     *
+     * @param tracker The tracker.
+     */
+    public void detach(TransactionTracker tracker) {
+        this.trackers.remove(tracker);
     }
 
-    @Override
-    public void fileRotated() {
-        // File not found because we die immediately there is no time to tell it was rotated.
-        panic("Log file not found!");
+    /**
+     * Called by the {@link LogMultiplexer} when it registers the source that will feed this
+     * listener its lines. This is here so that we can grab hold of this reference and stop the
+     * source if we panic.
+     *
+     * @param source The source that is currently "tailing" the log file and alerting us.
+     */
+    void readFrom(LogMultiplexer.Source source) {
+        if (source == null) {
+            throw new NullPointerException("Cannot read from a null source.");
+        }
+
+        this.source = source;
     }
 
-    @Override
+    /**
+     * Called by the source if reading the log file fails.
+     */
     public void handle(Exception e) {
         panic(e.toString());
     }
 
+    /**
+     * Called by the source each time it has read the whole log, with the time at which it began
+     * that read, so that every line written to the log before that time has now been handed to
+     * this listener. The timed requests in the pool are swept at once, before the source can read
+     * any line written since.
+     *
+     * @param time The time up to which the whole log has been read.
+     * @param unit The unit of time of the time.
+     */
+    void hasReadUpTo(long time, TimeUnit unit) {
+        synchronized (STATE_MONITOR) {
+            if (this.currentState != ListenerState.ALIVE_AND_LISTENING) {
+                return;
+            }
+        }
+
+        synchronized (this) {
+            this.readUpToInNanos = unit.toNanos(time);
+
+            if (this.numberOfTimedRequests > 0) {
+                sweep(System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Sweeps the request pool, unless the passage of time cannot have decided anything since the
+     * previous sweep.
+     *
+     * Nothing is swept unless the pool may hold a timed request or its earliest deadline has
+     * passed. Any other request that is no longer pending is removed by the next line, if not by
+     * a sweep.
+     */
+    private void tick() {
+        synchronized (STATE_MONITOR) {
+            if (this.currentState != ListenerState.ALIVE_AND_LISTENING) {
+                return;
+            }
+        }
+
+        synchronized (this) {
+            long currentTimeInNanos = System.nanoTime();
+
+            if ((this.numberOfTimedRequests == 0) && (currentTimeInNanos <= this.earliestDeadlineInNanos)) {
+                return;
+            }
+            sweep(currentTimeInNanos);
+        }
+    }
+
+    /**
+     * Removes every request from the pool that is no longer pending or that has now been decided
+     * by the passage of time, and returns their pool permits.
+     *
+     * ASSUMPTION: the caller holds the lock on this listener.
+     */
+    private void sweep(long currentTimeInNanos) {
+        Iterator<EventRequest> requestIterator = this.requestPool.iterator();
+        int numRequestsRemoved = 0;
+        int numTimedRequests = 0;
+        long earliestDeadline = Long.MAX_VALUE;
+        while (requestIterator.hasNext()) {
+            EventRequest request = requestIterator.next();
+
+            if (request.isDecidedAt(currentTimeInNanos, this.readUpToInNanos, TimeUnit.NANOSECONDS)) {
+                requestIterator.remove();
+                numRequestsRemoved++;
+            } else {
+                numTimedRequests += request.isTimed() ? 1 : 0;
+                earliestDeadline = Math.min(earliestDeadline, request.getDeadline(TimeUnit.NANOSECONDS));
+            }
+        }
+
+        this.numberOfTimedRequests = numTimedRequests;
+        this.earliestDeadlineInNanos = earliestDeadline;
+        REQUEST_POOL_GATE.release(numRequestsRemoved);
+    }
+
+    /**
+     * Stops the timer, if it is running.
+     *
+     * ASSUMPTION: the caller holds STATE_MONITOR.
+     */
+    private void cancelTimer() {
+        if (this.timer != null) {
+            this.timer.cancel(false);
+            this.timer = null;
+        }
+    }
+
     /**
      * Moves this listener to the dead state, rejects all events in the request pool, notifies all
-     * requesting threads that their events are now satisfied, clears the pool, and stops the tailer
+     * requesting threads that their events are now satisfied, clears the pool, and stops the source
      * from "tailing" the log file.
      *
      * @param cause The reason for the fatal panic.
      */
     private void panic(String cause) {
         killRequestPool(cause);
-        this.tailer.stop();
+
+        LogMultiplexer.Source source = this.source;
+        if (source != null) {
+            source.close();
+        }
     }
 
     /**
@@ -294,6 +538,7 @@ public final class LogListener implements TailerListener {
     private void killRequestPool(String causeOfPanic) {
         synchronized (STATE_MONITOR) {
             this.currentState = ListenerState.DEAD;
+            cancelTimer();
         }
 
         clearPool(true, causeOfPanic);
@@ -322,6 +567,8 @@ public final class LogListener implements TailerListener {
         }
 
         this.requestPool.clear();
+        this.numberOfTimedRequests = 0;
+        this.earliestDeadlineInNanos = Long.MAX_VALUE;
 
         REQUEST_POOL_GATE.release(numRequestsRemoved);
     }
@@ -1,18 +1,51 @@
 package org.aion.harness.util;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.aion.harness.misc.Assumptions;
 import org.aion.harness.result.Result;
 import org.apache.commons.io.FileUtils;
 
 /**
  * A class that is used to set up and manage the log files generated by an active node.
+ *
+ * The output log can optionally be rotated once it grows past a given size, so that long runs do
+ * not exhaust the disk. Rotation copies the log into an archive beside it (the newest archive has
+ * the suffix ".1", the next newest ".2", and so on) and then truncates the log in place. The node
+ * must be writing to the log in append mode (see {@link java.lang.ProcessBuilder.Redirect#appendTo})
+ * so that its subsequent writes land at the new end of the truncated file.
+ *
+ * Each truncation is coordinated with the readers of the log (see
+ * {@link LogMultiplexer#truncate}): they are held still and read the log to its end, the rest of
+ * the log is copied into the archive, and only then is the log truncated, after which the readers
+ * carry on from its start. Only output written during those final steps, which take a few system
+ * calls, can be missing from the archive or never reach a reader. This is the price of rotating a
+ * file whose writer cannot be asked to reopen it.
  */
 public final class LogManager {
+    private static final long ROTATION_CHECK_INTERVAL_IN_SECONDS = 5;
+
+    // Rotation copies the whole log, so it runs on its own thread rather than holding up the threads
+    // that tail the logs. The thread is a daemon thread, so that it never keeps the JVM alive.
+    private static final ScheduledExecutorService ROTATION_EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "log-rotation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SimpleLog log = new SimpleLog(getClass().getName());
     private File currentOutputLog;
     private File currentErrorLog;
+    private ScheduledFuture<?> rotationTask = null;
 
     /**
      * This method creates the necessary output and error log files in the logs directory. If this
@@ -73,6 +106,122 @@ public final class LogManager {
         return this.currentErrorLog;
     }
 
+    /**
+     * Truncates the current output log, if there is one, so that a node relaunched onto the same
+     * log starts it afresh. A node writes to its output log in append mode, which unlike opening
+     * the log for writing does not truncate it.
+     */
+    public synchronized void truncateOutputLog() throws IOException {
+        File outputLog = this.currentOutputLog;
+        if (outputLog != null) {
+            try (FileChannel channel = new RandomAccessFile(outputLog, "rw").getChannel()) {
+                LogMultiplexer.truncate(outputLog, () -> channel.truncate(0));
+            }
+        }
+    }
+
+    /**
+     * Starts checking the size of the current output log periodically, rotating it whenever it is
+     * larger than the specified size and keeping at most the specified number of archives of it.
+     * Any previously started rotation is stopped first.
+     *
+     * The checks, and the rotations themselves, run on a single thread shared by every manager
+     * and separate from the threads of the {@link LogMultiplexer}, so that copying a large log
+     * never stalls the tailing of the logs.
+     *
+     * @param maxSizeInBytes The size beyond which the log is rotated.
+     * @param numberOfArchives The number of archived logs to keep, possibly zero.
+     */
+    public synchronized void startRotatingOutputLog(long maxSizeInBytes, int numberOfArchives) {
+        if (maxSizeInBytes <= 0) {
+            throw new IllegalArgumentException("Maximum log size must be positive but was: " + maxSizeInBytes);
+        }
+        if (numberOfArchives < 0) {
+            throw new IllegalArgumentException("Number of archives cannot be negative but was: " + numberOfArchives);
+        }
+
+        stopRotatingOutputLog();
+        this.rotationTask = ROTATION_EXECUTOR.scheduleWithFixedDelay(() -> {
+            try {
+                rotateOutputLogIfLargerThan(maxSizeInBytes, numberOfArchives);
+            } catch (IOException e) {
+                this.log.log(Assumptions.LOGGER_BANNER + "Failed to rotate the output log: " + e.getMessage());
+            }
+        }, ROTATION_CHECK_INTERVAL_IN_SECONDS, ROTATION_CHECK_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops rotating the output log, if it is being rotated.
+     */
+    public synchronized void stopRotatingOutputLog() {
+        if (this.rotationTask != null) {
+            this.rotationTask.cancel(false);
+            this.rotationTask = null;
+        }
+    }
+
+    /**
+     * Rotates the current output log if it is larger than the specified size, keeping at most the
+     * specified number of archives of it. The oldest archive is discarded if there are too many.
+     *
+     * Returns {@code true} only if the log was rotated.
+     *
+     * @param maxSizeInBytes The size beyond which the log is rotated.
+     * @param numberOfArchives The number of archived logs to keep, possibly zero.
+     * @return whether or not the log was rotated.
+     */
+    public synchronized boolean rotateOutputLogIfLargerThan(long maxSizeInBytes, int numberOfArchives) throws IOException {
+        File outputLog = this.currentOutputLog;
+        if ((outputLog == null) || (outputLog.length() <= maxSizeInBytes)) {
+            return false;
+        }
+
+        // Shift each archive along by one, discarding the oldest.
+        for (int archive = numberOfArchives; archive >= 1; archive--) {
+            File older = archiveOf(outputLog, archive);
+            if (archive == numberOfArchives) {
+                FileUtils.deleteQuietly(older);
+            } else if (older.exists()) {
+                FileUtils.moveFile(older, archiveOf(outputLog, archive + 1));
+            }
+        }
+
+        try (FileChannel channel = new RandomAccessFile(outputLog, "rw").getChannel()) {
+            if (numberOfArchives == 0) {
+                LogMultiplexer.truncate(outputLog, () -> channel.truncate(0));
+                return true;
+            }
+
+            try (FileChannel archive = new FileOutputStream(archiveOf(outputLog, 1)).getChannel()) {
+                // The bulk of the log is copied without holding up its readers, and then only what
+                // has been written since is copied while they are held still.
+                long copied = copy(channel, 0, archive);
+                LogMultiplexer.truncate(outputLog, () -> {
+                    copy(channel, copied, archive);
+                    channel.truncate(0);
+                });
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the specified channel, from the specified position to its current end, onto the end
+     * of the archive, and returns the position of the end that was copied to.
+     */
+    private static long copy(FileChannel channel, long from, FileChannel archive) throws IOException {
+        long length = channel.size();
+        long copied = from;
+        while (copied < length) {
+            copied += channel.transferTo(copied, length - copied, archive);
+        }
+        return copied;
+    }
+
+    private static File archiveOf(File log, int archive) {
+        return new File(log.getPath() + "." + archive);
+    }
+
     /**
      * creates the logs directory if it does not exist, otherwise does nothing.
      */
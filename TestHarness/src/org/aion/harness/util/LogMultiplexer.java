@@ -0,0 +1,434 @@
+package org.aion.harness.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A service that tails any number of log files using a small, fixed number of shared I/O threads,
+ * dispatching each new line of a log to the {@link LogListener} registered for it.
+ *
+ * Each registered log is a {@link Source}, which is polled periodically on one of the shared
+ * threads. A poll reads whatever has been appended to the log since the previous poll and hands
+ * every complete line to the listener. A trailing partial line is held back until the rest of it
+ * is written. Polls of the same source never overlap, and so a listener only ever receives its
+ * lines in order and from one thread at a time.
+ *
+ * Since an idle log costs only a length check per poll, watching many nodes does not require
+ * many threads.
+ *
+ * A source survives its log being rotated, whether the log is renamed and replaced or copied and
+ * truncated, and it waits for a missing log to appear. Thus, the listener of a rotated log keeps
+ * its pending requests and simply carries on with the new file. A log that the harness itself
+ * truncates (see {@link #truncate(File, Truncation)}) is first read to its end by every source
+ * tailing it, so that none of its lines are missed.
+ *
+ * The I/O threads are daemon threads, so an unused multiplexer never keeps the JVM alive.
+ *
+ * This class is thread-safe.
+ */
+public final class LogMultiplexer {
+    public static final int DEFAULT_NUMBER_OF_THREADS = 1;
+    public static final long DEFAULT_POLL_INTERVAL_IN_MILLIS = 200;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final AtomicInteger MULTIPLEXER_COUNTER = new AtomicInteger(0);
+
+    // The tails of every log, across all multiplexers, so that a truncation of a log by the harness
+    // can be coordinated with every source reading it.
+    private static final ConcurrentHashMap<File, Tails> TAILS = new ConcurrentHashMap<>();
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final long pollIntervalInNanos;
+    private final AtomicInteger numberOfSources = new AtomicInteger(0);
+
+    /**
+     * Constructs a new multiplexer with the default number of threads and poll interval.
+     */
+    public LogMultiplexer() {
+        this(DEFAULT_NUMBER_OF_THREADS, DEFAULT_POLL_INTERVAL_IN_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructs a new multiplexer that services all of its sources using the specified number of
+     * threads, polling each source once per poll interval.
+     *
+     * @param numberOfThreads The number of I/O threads.
+     * @param pollInterval The time between polls of a source.
+     * @param unit The unit of the poll interval.
+     */
+    public LogMultiplexer(int numberOfThreads, long pollInterval, TimeUnit unit) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive but was: " + numberOfThreads);
+        }
+        if (pollInterval <= 0) {
+            throw new IllegalArgumentException("Poll interval must be positive but was: " + pollInterval);
+        }
+        if (unit == null) {
+            throw new NullPointerException("Cannot construct a multiplexer with a null time unit.");
+        }
+
+        String threadPrefix = "log-multiplexer-" + MULTIPLEXER_COUNTER.incrementAndGet() + "-";
+        AtomicInteger threadCounter = new AtomicInteger(0);
+
+        this.pollIntervalInNanos = unit.toNanos(pollInterval);
+        this.executor = new ScheduledThreadPoolExecutor(numberOfThreads, runnable -> {
+            Thread thread = new Thread(runnable, threadPrefix + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Starts tailing the specified log, dispatching each of its lines to the specified listener.
+     *
+     * If fromBeginning is true then every line already in the log is dispatched first, otherwise
+     * only lines written after this call are dispatched.
+     *
+     * @param log The log file to tail.
+     * @param fromBeginning Whether to read the lines already in the log.
+     * @param listener The listener to dispatch lines to.
+     * @return the registered source.
+     */
+    public Source register(File log, boolean fromBeginning, LogListener listener) {
+        if (log == null) {
+            throw new NullPointerException("Cannot register a null log file.");
+        }
+        if (listener == null) {
+            throw new NullPointerException("Cannot register a null listener.");
+        }
+
+        // The truncation count is read before the length, so that a truncation between the two is
+        // still noticed by the source.
+        Tails tails = tailsOf(log);
+        long truncations = tails.truncations;
+        Source source = new Source(log, tails, truncations, fromBeginning ? 0 : log.length(), listener);
+        listener.readFrom(source);
+        tails.sources.add(source);
+
+        synchronized (source) {
+            source.task = this.executor.scheduleWithFixedDelay(source::poll, 0, this.pollIntervalInNanos, TimeUnit.NANOSECONDS);
+        }
+        this.numberOfSources.incrementAndGet();
+        return source;
+    }
+
+    /**
+     * Runs the specified housekeeping task periodically on the shared I/O threads, for work that
+     * belongs alongside the tailing of logs, such as the timers of listeners. The task should be
+     * short, since every source serviced by the same thread waits on it.
+     *
+     * @param task The task to run.
+     * @param delay The delay between the end of one run and the start of the next.
+     * @param unit The unit of the delay.
+     * @return the scheduled task, which can be cancelled to stop it.
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new NullPointerException("Cannot schedule a null task.");
+        }
+        return this.executor.scheduleWithFixedDelay(task, delay, delay, unit);
+    }
+
+    /**
+     * Returns the number of sources currently being tailed.
+     *
+     * @return the number of open sources.
+     */
+    public int numberOfSources() {
+        return this.numberOfSources.get();
+    }
+
+    /**
+     * Runs the specified truncation of the specified log while every source tailing it is held
+     * still. Each source first reads the log to its end, and once the log has been truncated each
+     * carries on from its start, holding on to any partial line since its writer will finish it at
+     * the start of the log. Every truncation of a log is also counted, so that a source detects it
+     * even if the log has grown back past the point it had read to.
+     *
+     * Only what is written to the log between the sources reading to its end and the truncation
+     * itself can be missed.
+     *
+     * @param log The log to truncate.
+     * @param truncation The truncation of the log.
+     */
+    static void truncate(File log, Truncation truncation) throws IOException {
+        if (log == null) {
+            throw new NullPointerException("Cannot truncate a null log file.");
+        }
+        if (truncation == null) {
+            throw new NullPointerException("Cannot run a null truncation.");
+        }
+
+        Tails tails = tailsOf(log);
+        synchronized (tails) {
+            holdThenTruncate(new ArrayList<>(tails.sources), 0, tails, truncation);
+        }
+    }
+
+    /**
+     * Takes the lock of each of the sources in turn, and once all are held, drains them, truncates
+     * the log and rewinds them.
+     */
+    private static void holdThenTruncate(List<Source> sources, int index, Tails tails, Truncation truncation) throws IOException {
+        if (index < sources.size()) {
+            synchronized (sources.get(index)) {
+                holdThenTruncate(sources, index + 1, tails, truncation);
+            }
+            return;
+        }
+
+        for (Source source : sources) {
+            source.poll();
+        }
+        truncation.truncate();
+        tails.truncations++;
+        for (Source source : sources) {
+            source.rewind(tails.truncations);
+        }
+    }
+
+    private static Tails tailsOf(File log) {
+        return TAILS.computeIfAbsent(log.getAbsoluteFile(), file -> new Tails());
+    }
+
+    /**
+     * A truncation of a log, run by {@link #truncate(File, Truncation)}.
+     */
+    interface Truncation {
+        void truncate() throws IOException;
+    }
+
+    /**
+     * The sources tailing a log, and the number of times the harness has truncated it.
+     */
+    private static final class Tails {
+        private final Set<Source> sources = new CopyOnWriteArraySet<>();
+
+        // Only incremented while holding this object's lock.
+        private volatile long truncations = 0;
+    }
+
+    /**
+     * A single log file being tailed on behalf of a listener.
+     */
+    public final class Source {
+        private final File log;
+        private final Tails tails;
+        private final LogListener listener;
+        private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+        private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+
+        private RandomAccessFile reader = null;
+        private Object fileKey = null;
+        private long position;
+        private long truncations;
+        private boolean previousByteWasCarriageReturn = false;
+        private boolean isOpen = true;
+        private ScheduledFuture<?> task = null;
+
+        private Source(File log, Tails tails, long truncations, long position, LogListener listener) {
+            this.log = log;
+            this.tails = tails;
+            this.truncations = truncations;
+            this.position = position;
+            this.listener = listener;
+        }
+
+        /**
+         * Returns the log file of this source.
+         *
+         * @return the log file.
+         */
+        public File log() {
+            return this.log;
+        }
+
+        /**
+         * Returns {@code true} only if this source has not been closed.
+         *
+         * @return whether this source is still being tailed.
+         */
+        public synchronized boolean isOpen() {
+            return this.isOpen;
+        }
+
+        /**
+         * Stops tailing this source. If a poll of this source is underway, this method waits for
+         * it to finish, so that once this method returns no more lines will be dispatched.
+         */
+        public synchronized void close() {
+            if (!this.isOpen) {
+                return;
+            }
+            this.isOpen = false;
+
+            if (this.task != null) {
+                this.task.cancel(false);
+            }
+            closeReader();
+            this.tails.sources.remove(this);
+            LogMultiplexer.this.numberOfSources.decrementAndGet();
+        }
+
+        /**
+         * Reads whatever has been appended to the log since the previous poll and dispatches each
+         * complete line to the listener.
+         *
+         * Rotation is survived rather than treated as fatal, so that pending requests are kept:
+         *   - If the file is missing, the source waits for it to appear (while still draining the
+         *     file it already has open, which a writer may still be appending to).
+         *   - If the file has been replaced (it is a different file, as when a log is rotated by
+         *     renaming it), the old file is drained and then the new file is read from its start.
+         *     A replacement can only be detected on file systems that identify files by a key.
+         *   - If the harness has truncated the file since the previous poll, it is read again from
+         *     its start. A truncation by anything else is noticed only if the file has shrunk,
+         *     and then it too is read again from its start.
+         *
+         * Once the whole log has been read, the listener is told that every line written before
+         * this poll began has been handed to it.
+         */
+        private synchronized void poll() {
+            if (!this.isOpen) {
+                return;
+            }
+
+            long pollStartInNanos = System.nanoTime();
+            try {
+                Object currentKey = fileKeyOf(this.log);
+
+                if (this.reader == null) {
+                    // A file system without file keys gives no key even for a file that exists.
+                    if ((currentKey == null) && !this.log.exists()) {
+                        this.listener.hasReadUpTo(pollStartInNanos, TimeUnit.NANOSECONDS);
+                        return;
+                    }
+                    open(currentKey);
+                } else if ((currentKey != null) && (this.fileKey != null) && !currentKey.equals(this.fileKey)) {
+                    readLines();
+                    dispatchPartialLine();
+                    closeReader();
+                    this.position = 0;
+                    open(currentKey);
+                }
+
+                long truncations = this.tails.truncations;
+                if (truncations != this.truncations) {
+                    rewind(truncations);
+                } else if (this.reader.length() < this.position) {
+                    dispatchPartialLine();
+                    this.position = 0;
+                }
+
+                readLines();
+                if (this.isOpen) {
+                    this.listener.hasReadUpTo(pollStartInNanos, TimeUnit.NANOSECONDS);
+                }
+            } catch (IOException e) {
+                this.listener.handle(e);
+                close();
+            }
+        }
+
+        /**
+         * Carries on reading the log from its start once it has been truncated by the harness.
+         */
+        private synchronized void rewind(long truncations) {
+            this.truncations = truncations;
+            this.position = 0;
+        }
+
+        private void open(Object key) throws IOException {
+            this.reader = new RandomAccessFile(this.log, "r");
+            this.fileKey = key;
+        }
+
+        private void readLines() throws IOException {
+            if (this.reader.length() <= this.position) {
+                return;
+            }
+            this.reader.seek(this.position);
+
+            int numberOfBytes;
+            while (this.isOpen && ((numberOfBytes = this.reader.read(this.readBuffer)) > 0)) {
+                for (int i = 0; i < numberOfBytes; i++) {
+                    byte nextByte = this.readBuffer[i];
+
+                    if (nextByte == '\n') {
+                        // A "\r\n" terminator was already dispatched at the '\r'.
+                        if (!this.previousByteWasCarriageReturn) {
+                            dispatchLine();
+                        }
+                    } else if (nextByte == '\r') {
+                        dispatchLine();
+                    } else {
+                        this.partialLine.write(nextByte);
+                    }
+                    this.previousByteWasCarriageReturn = (nextByte == '\r');
+                }
+                this.position += numberOfBytes;
+            }
+        }
+
+        private void dispatchLine() {
+            String line = new String(this.partialLine.toByteArray(), StandardCharsets.UTF_8);
+            this.partialLine.reset();
+            this.listener.handle(line);
+        }
+
+        /**
+         * Dispatches the line that was being read when the file was rotated, since nothing more
+         * will be appended to it.
+         */
+        private void dispatchPartialLine() {
+            if (this.partialLine.size() > 0) {
+                dispatchLine();
+            }
+            this.previousByteWasCarriageReturn = false;
+        }
+
+        private void closeReader() {
+            if (this.reader != null) {
+                try {
+                    this.reader.close();
+                } catch (IOException e) {
+                    // Nothing more can be done with this reader.
+                }
+                this.reader = null;
+                this.fileKey = null;
+            }
+        }
+
+        /**
+         * Returns the key that identifies the file at the specified path (on most file systems,
+         * its inode) or null if the file does not exist or the file system provides no such key.
+         */
+        private Object fileKeyOf(File file) {
+            try {
+                return Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "LogMultiplexer.Source { log = " + this.log + " }";
+        }
+    }
+
+}
@@ -1,34 +1,58 @@
 package org.aion.harness.util;
 
-import org.aion.harness.misc.Assumptions;
+import org.aion.harness.main.global.SingletonFactory;
 import org.aion.harness.result.Result;
-import org.apache.commons.io.input.Tailer;
 
 import java.io.File;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A class responsible for reading a log file and setting up a {@link LogListener} that eavesdrops on the log file.
+ *
+ * The log is not read on a thread of its own. Instead, it is registered with a {@link LogMultiplexer}, whose
+ * shared I/O threads tail the logs of every node.
  */
 public final class LogReader {
-    private ExecutorService threadExecutor;
-    private Tailer logTailer;
+    private static final AtomicInteger ID_COUNTER = new AtomicInteger(1);
+
+    private final LogMultiplexer multiplexer;
+    private LogMultiplexer.Source source;
     private LogListener listener;
     private final int ID;
-    private static int IDCounter = 1;
 
     public LogReader() {
-        this.listener = new LogListener();
-        this.ID = IDCounter;
-        IDCounter++;
+        this(SingletonFactory.singleton().logMultiplexer());
+    }
+
+    public LogReader(LogMultiplexer multiplexer) {
+        if (multiplexer == null) {
+            throw new NullPointerException("Cannot construct a log reader with a null multiplexer.");
+        }
+        this.multiplexer = multiplexer;
+        this.listener = new LogListener(this.multiplexer);
+        this.ID = ID_COUNTER.getAndIncrement();
     }
 
+    /**
+     * Starts reading the specified log from its current end, so that only lines written after
+     * this call are observed.
+     */
     public Result startReading(File log) {
+        return startReading(log, false);
+    }
+
+    /**
+     * Starts reading the specified log. If fromBeginning is true then every line already in the
+     * log is read first, otherwise only lines written after this call are observed.
+     *
+     * Reading from the beginning is appropriate when the log was created (or truncated) when the
+     * node was started, since then every line in it belongs to the current run of the node and
+     * nothing it logged while we were getting ready to read it will be missed.
+     */
+    public Result startReading(File log, boolean fromBeginning) {
         // If the listener moved into a dead state then we need a new listener.
         if (!this.listener.isAlive()) {
-            this.listener = new LogListener();
+            this.listener = new LogListener(this.multiplexer);
         }
 
         if (log == null) {
@@ -41,9 +65,8 @@ public final class LogReader {
             return result;
         }
 
-        this.threadExecutor = Executors.newSingleThreadExecutor();
-        this.logTailer = new Tailer(log, this.listener, TimeUnit.SECONDS.toMillis(2), true);
-        this.threadExecutor.execute(this.logTailer);
+        KernelClock.calibrate();
+        this.source = this.multiplexer.register(log, fromBeginning, this.listener);
 
         return Result.successful();
     }
@@ -52,19 +75,16 @@ public final class LogReader {
         if (this.listener.isAlive()) {
 
             this.listener.stopListening();
-            this.logTailer.stop();
-            this.threadExecutor.shutdownNow();
-
-            if (!this.threadExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
-                System.out.println(Assumptions.LOGGER_BANNER
-                    + "Failed to shut down the log reader thread - timed out!");
-            }
         } else {
             // If the listener is dead it cannot be recovered. We need to scrap it entirely.
-            this.listener = new LogListener();
+            this.listener = new LogListener(this.multiplexer);
         }
 
-        this.threadExecutor = null;
+        // Closing the source waits for any poll that is underway, so no more lines are dispatched.
+        if (this.source != null) {
+            this.source.close();
+            this.source = null;
+        }
     }
 
     public LogListener getLogListener() {
@@ -1,12 +1,18 @@
 package org.aion.harness.util;
 
-import java.util.HashMap;
 import java.util.Map;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of the {@link LogReader} of each node, keyed by node ID.
+ *
+ * This class is thread-safe, so that nodes may be created and torn down concurrently.
+ */
 public class NodeWatcher {
-    private static int nodeIDCounter = 0;
+    private static final AtomicInteger NODE_ID_COUNTER = new AtomicInteger(0);
 
-    private Map<Integer, LogReader> nodeToLogReaderPair = new HashMap<>();
+    private final Map<Integer, LogReader> nodeToLogReaderPair = new ConcurrentHashMap<>();
 
     /**
      *  Returns the LogReader corresponding to the given node ID.
@@ -19,7 +25,7 @@ public class NodeWatcher {
      * Add a log reader, new node id is returned to the caller.
      * The caller is a node, and the returned ID will become the caller's identity.
      */
-    public int addReader(LogReader logReader) {
+    public synchronized int addReader(LogReader logReader) {
         if (logReader == null) {
             throw new NullPointerException("log reader cannot be null");
         }
@@ -27,7 +33,7 @@ public class NodeWatcher {
             throw new IllegalArgumentException("this log reader is already in the watcher");
         }
 
-        int newID = nodeIDCounter++;
+        int newID = NODE_ID_COUNTER.getAndIncrement();
         this.nodeToLogReaderPair.put(newID, logReader);
 
         return newID;
@@ -0,0 +1,205 @@
+package org.aion.harness.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded ring buffer of the most recent log lines and the times at which they were read.
+ *
+ * The buffer is capped both in the number of lines it holds and in the total number of bytes
+ * those lines occupy. When adding a line would exceed either cap, the oldest lines are evicted
+ * until it fits. The line contents are stored UTF-8 encoded in a direct (off-heap) buffer so that
+ * holding onto a large window of history does not add to the garbage collector's workload; only
+ * the per-line offsets, lengths and timestamps are kept on the heap, as primitive arrays.
+ *
+ * A line that is larger than the entire byte capacity of the buffer is not retained.
+ *
+ * The storage is only allocated once the first line is added, so that a buffer that is never
+ * used costs next to nothing. The default caps hold a few thousand lines, which comfortably
+ * covers a kernel's start-up output.
+ *
+ * This class is thread-safe.
+ */
+public final class RecentLinesBuffer {
+    public static final int DEFAULT_MAX_BYTES = 256 * 1024;
+    public static final int DEFAULT_MAX_LINES = 4_096;
+
+    private final int maxBytes;
+    private final int maxLines;
+
+    // These are null until the first line is added.
+    private ByteBuffer bytes = null;
+    private int[] lineOffsets = null;
+    private int[] lineLengths = null;
+    private long[] lineTimesInNanos = null;
+
+    // The oldest line is at index 'head' and there are 'numberOfLines' lines following it (circularly).
+    private int head = 0;
+    private int numberOfLines = 0;
+    private int nextByteOffset = 0;
+    private int numberOfBytesUsed = 0;
+
+    /**
+     * A visitor of buffered lines.
+     */
+    public interface LineVisitor {
+
+        /**
+         * Visits the next buffered line.
+         *
+         * @param line The line.
+         * @param timeInNanos The time at which the line was read, in nanoseconds.
+         * @return {@code true} to stop visiting any further lines.
+         */
+        boolean visit(String line, long timeInNanos);
+    }
+
+    /**
+     * Constructs a new buffer with the default caps.
+     */
+    public RecentLinesBuffer() {
+        this(DEFAULT_MAX_BYTES, DEFAULT_MAX_LINES);
+    }
+
+    /**
+     * Constructs a new buffer that will hold at most maxLines lines and at most maxBytes bytes of
+     * UTF-8 encoded line contents.
+     *
+     * @param maxBytes The maximum number of bytes to hold.
+     * @param maxLines The maximum number of lines to hold.
+     */
+    public RecentLinesBuffer(int maxBytes, int maxLines) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Buffer must hold at least 1 byte but got: " + maxBytes);
+        }
+        if (maxLines < 1) {
+            throw new IllegalArgumentException("Buffer must hold at least 1 line but got: " + maxLines);
+        }
+
+        this.maxBytes = maxBytes;
+        this.maxLines = maxLines;
+    }
+
+    /**
+     * Adds the specified line to the buffer, evicting the oldest lines if necessary.
+     *
+     * @param line The line to add.
+     * @param time The time at which the line was read.
+     * @param unit The time unit of the time.
+     */
+    public synchronized void add(String line, long time, TimeUnit unit) {
+        if (line == null) {
+            throw new NullPointerException("Cannot add a null line.");
+        }
+        if (unit == null) {
+            throw new NullPointerException("Cannot add a line with a null time unit.");
+        }
+
+        byte[] encoded = line.getBytes(StandardCharsets.UTF_8);
+        int capacity = this.maxBytes;
+        if (encoded.length > capacity) {
+            return;
+        }
+
+        if (this.bytes == null) {
+            this.bytes = ByteBuffer.allocateDirect(this.maxBytes);
+            this.lineOffsets = new int[this.maxLines];
+            this.lineLengths = new int[this.maxLines];
+            this.lineTimesInNanos = new long[this.maxLines];
+        }
+
+        while ((this.numberOfLines == this.maxLines) || (this.numberOfBytesUsed + encoded.length > capacity)) {
+            evictOldest();
+        }
+
+        // Write the line, wrapping around to the start of the buffer if necessary.
+        int offset = this.nextByteOffset;
+        int firstPart = Math.min(encoded.length, capacity - offset);
+        this.bytes.position(offset);
+        this.bytes.put(encoded, 0, firstPart);
+        if (firstPart < encoded.length) {
+            this.bytes.position(0);
+            this.bytes.put(encoded, firstPart, encoded.length - firstPart);
+        }
+
+        int index = (this.head + this.numberOfLines) % this.maxLines;
+        this.lineOffsets[index] = offset;
+        this.lineLengths[index] = encoded.length;
+        this.lineTimesInNanos[index] = unit.toNanos(time);
+
+        this.numberOfLines++;
+        this.numberOfBytesUsed += encoded.length;
+        this.nextByteOffset = (offset + encoded.length) % capacity;
+    }
+
+    /**
+     * Visits, oldest first, every buffered line that was read at or after the specified time,
+     * until the visitor asks to stop or there are no more lines.
+     *
+     * @param since The earliest time of a line to visit.
+     * @param unit The time unit of since.
+     * @param visitor The visitor.
+     */
+    public synchronized void visitLinesSince(long since, TimeUnit unit, LineVisitor visitor) {
+        if (unit == null) {
+            throw new NullPointerException("Cannot visit lines with a null time unit.");
+        }
+        if (visitor == null) {
+            throw new NullPointerException("Cannot visit lines with a null visitor.");
+        }
+
+        long sinceInNanos = unit.toNanos(since);
+        for (int i = 0; i < this.numberOfLines; i++) {
+            int index = (this.head + i) % this.maxLines;
+
+            // Compare via subtraction since nano times may overflow.
+            if (this.lineTimesInNanos[index] - sinceInNanos >= 0) {
+                if (visitor.visit(readLine(index), this.lineTimesInNanos[index])) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of lines currently in the buffer.
+     *
+     * @return the number of buffered lines.
+     */
+    public synchronized int size() {
+        return this.numberOfLines;
+    }
+
+    /**
+     * Evicts all lines from the buffer.
+     */
+    public synchronized void clear() {
+        this.head = 0;
+        this.numberOfLines = 0;
+        this.nextByteOffset = 0;
+        this.numberOfBytesUsed = 0;
+    }
+
+    private void evictOldest() {
+        this.numberOfBytesUsed -= this.lineLengths[this.head];
+        this.head = (this.head + 1) % this.maxLines;
+        this.numberOfLines--;
+    }
+
+    private String readLine(int index) {
+        int offset = this.lineOffsets[index];
+        int length = this.lineLengths[index];
+        byte[] encoded = new byte[length];
+
+        int firstPart = Math.min(length, this.maxBytes - offset);
+        this.bytes.position(offset);
+        this.bytes.get(encoded, 0, firstPart);
+        if (firstPart < length) {
+            this.bytes.position(0);
+            this.bytes.get(encoded, firstPart, length - firstPart);
+        }
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+}
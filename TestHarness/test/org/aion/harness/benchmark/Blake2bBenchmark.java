@@ -0,0 +1,84 @@
+package org.aion.harness.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.aion.harness.kernel.utils.Blake2b;
+import org.aion.harness.kernel.utils.CryptoUtils;
+
+/**
+ * Compares hashing with a new digest per call, which is what blake256 used to do, against the
+ * thread-local digest of {@link CryptoUtils#blake256(byte[])} and the batch
+ * {@link CryptoUtils#blake256(byte[][], byte[], int)}.
+ *
+ * This is a plain timing loop rather than a JMH benchmark, so its numbers are indicative only. It
+ * warms each path up before measuring, and prints the average time per hash for each input size.
+ *
+ * Usage: Blake2bBenchmark [number of inputs] [iterations]
+ */
+public final class Blake2bBenchmark {
+    private static final int[] INPUT_SIZES = new int[] { 32, 200, 1_024 };
+    private static final int WARMUP_ITERATIONS = 20;
+
+    // Written to so that the JIT cannot discard the hashing as dead code.
+    private static volatile byte sink;
+
+    public static void main(String[] args) {
+        int numberOfInputs = (args.length > 0) ? Integer.parseInt(args[0]) : 10_000;
+        int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : 50;
+
+        Random random = new Random(42);
+        for (int size : INPUT_SIZES) {
+            byte[][] inputs = new byte[numberOfInputs][size];
+            for (byte[] input : inputs) {
+                random.nextBytes(input);
+            }
+            byte[] output = new byte[numberOfInputs * CryptoUtils.BLAKE256_LENGTH];
+
+            System.out.println("input size " + size + " bytes, " + numberOfInputs + " inputs:");
+            report("  new digest per call", measure(iterations, () -> newDigestPerCall(inputs)), numberOfInputs);
+            report("  thread-local digest", measure(iterations, () -> threadLocalDigest(inputs)), numberOfInputs);
+            report("  batch into buffer  ", measure(iterations, () -> batch(inputs, output)), numberOfInputs);
+        }
+    }
+
+    private static void newDigestPerCall(byte[][] inputs) {
+        for (byte[] input : inputs) {
+            Blake2b digest = Blake2b.Digest.newInstance(32);
+            digest.update(input);
+            sink ^= digest.digest()[0];
+        }
+    }
+
+    private static void threadLocalDigest(byte[][] inputs) {
+        for (byte[] input : inputs) {
+            sink ^= CryptoUtils.blake256(input)[0];
+        }
+    }
+
+    private static void batch(byte[][] inputs, byte[] output) {
+        CryptoUtils.blake256(inputs, output, 0);
+        sink ^= output[0];
+    }
+
+    /**
+     * Returns the fastest time, in nanoseconds, that any one of the measured iterations took.
+     */
+    private static long measure(int iterations, Runnable iteration) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration.run();
+        }
+
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            iteration.run();
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest;
+    }
+
+    private static void report(String path, long nanos, int numberOfInputs) {
+        System.out.println(path + ": " + (nanos / numberOfInputs) + " ns/hash, " + TimeUnit.NANOSECONDS.toMicros(nanos) + " us/iteration");
+    }
+
+}
@@ -0,0 +1,76 @@
+package org.aion.harness.benchmark;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.kernel.PrivateKey;
+import org.aion.harness.kernel.SignedTransaction;
+import org.aion.harness.kernel.TransactionTemplate;
+
+/**
+ * Compares building transactions from scratch with {@link SignedTransaction#newGeneralTransaction}
+ * against signing them from a {@link TransactionTemplate}, for transactions that differ only in
+ * their nonce, as in a saturation test.
+ *
+ * This is a plain timing loop rather than a JMH benchmark, so its numbers are indicative only. It
+ * warms each path up before measuring, and prints the average time per transaction.
+ *
+ * Usage: TransactionTemplateBenchmark [number of transactions] [iterations]
+ */
+public final class TransactionTemplateBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final long ENERGY_LIMIT = 2_000_000;
+    private static final long ENERGY_PRICE = 10_000_000_000L;
+
+    // Written to so that the JIT cannot discard the signing as dead code.
+    private static volatile int sink;
+
+    public static void main(String[] args) throws Exception {
+        int numberOfTransactions = (args.length > 0) ? Integer.parseInt(args[0]) : 2_000;
+        int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+        PrivateKey sender = PrivateKey.random();
+        Address destination = PrivateKey.random().getAddress();
+        byte[] data = new byte[200];
+        TransactionTemplate template = TransactionTemplate.forGeneralTransactions(data, ENERGY_LIMIT, ENERGY_PRICE, null);
+
+        System.out.println(numberOfTransactions + " transactions:");
+        report("  built from scratch  ", measure(iterations, () -> {
+            for (int i = 0; i < numberOfTransactions; i++) {
+                sink ^= SignedTransaction.newGeneralTransaction(
+                    sender, BigInteger.valueOf(i), destination, data, ENERGY_LIMIT, ENERGY_PRICE, BigInteger.ONE, null).getTransactionHash()[0];
+            }
+        }), numberOfTransactions);
+        report("  signed from template", measure(iterations, () -> {
+            for (int i = 0; i < numberOfTransactions; i++) {
+                sink ^= template.sign(sender, BigInteger.valueOf(i), destination, BigInteger.ONE).getTransactionHash()[0];
+            }
+        }), numberOfTransactions);
+    }
+
+    /**
+     * Returns the fastest time, in nanoseconds, that any one of the measured iterations took.
+     */
+    private static long measure(int iterations, Iteration iteration) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration.run();
+        }
+
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            iteration.run();
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest;
+    }
+
+    private static void report(String path, long nanos, int numberOfTransactions) {
+        System.out.println(path + ": " + TimeUnit.NANOSECONDS.toMicros(nanos / numberOfTransactions) + " us/transaction");
+    }
+
+    private interface Iteration {
+        void run() throws Exception;
+    }
+
+}
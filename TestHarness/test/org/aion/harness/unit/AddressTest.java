@@ -47,4 +47,24 @@ public class AddressTest {
         Assert.assertFalse(Arrays.equals(retrievedAddress, address.getAddressBytes()));
         Assert.assertArrayEquals(Hex.decodeHex(testingAddress), address.getAddressBytes());
     }
+
+    @Test
+    public void testWordsAreTheBigEndianLongsOfTheBytes() throws DecoderException {
+        Address address = new Address(Hex.decodeHex(testingAddress));
+
+        Assert.assertEquals(0xa0ee00c327f522f0L, address.getWord(0));
+        Assert.assertEquals(0xc8d342921148a6c4L, address.getWord(1));
+        Assert.assertEquals(0x2f40a3ce45c1f56bL, address.getWord(2));
+        Assert.assertEquals(0xaa7bfa752200d9e5L, address.getWord(3));
+        Assert.assertEquals("Address { 0x" + testingAddress + " }", address.toString());
+    }
+
+    @Test
+    public void testAddressesDifferingInOneByteAreNotEqual() throws DecoderException {
+        byte[] bytes = Hex.decodeHex(testingAddress);
+        Address address = new Address(bytes);
+        bytes[17]++;
+
+        Assert.assertNotEquals(address, new Address(bytes));
+    }
 }
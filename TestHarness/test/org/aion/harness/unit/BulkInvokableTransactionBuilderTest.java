@@ -0,0 +1,91 @@
+package org.aion.harness.unit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.kernel.BulkInvokableTransactionBuilder;
+import org.aion.harness.kernel.PrivateKey;
+import org.aion.harness.kernel.SignedInvokableTransaction;
+import org.aion.harness.result.BulkResult;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+public class BulkInvokableTransactionBuilderTest {
+    private static final String SENDER_KEY = "32ee00c327f522f0c8d300921148a6c42f40a3ce45c1f56baa7bfa752200d9e5";
+    private static final Address DESTINATION = new Address(new byte[32]);
+
+    @Test
+    public void testParallelBuildMatchesSingleTransactions() throws Exception {
+        PrivateKey sender = PrivateKey.fromBytes(Hex.decodeHex(SENDER_KEY));
+        BulkResult<SignedInvokableTransaction> result = newBuilder(600).useParallelism(4).build();
+
+        assertTrue(result.isSuccess());
+        List<SignedInvokableTransaction> transactions = result.getResults();
+        assertEquals(600, transactions.size());
+        for (int i = 0; i < transactions.size(); i += 37) {
+            SignedInvokableTransaction expected = new SignedInvokableTransaction(sender, BigInteger.valueOf(5 + i), DESTINATION,
+                payload(i), BigInteger.ONE, null);
+            assertArrayEquals(expected.getSignedTransactionBytes(), transactions.get(i).getSignedTransactionBytes());
+            assertArrayEquals(expected.getTransactionHash(), transactions.get(i).getTransactionHash());
+        }
+    }
+
+    @Test
+    public void testParallelStreamMatchesSerialBuild() throws Exception {
+        List<SignedInvokableTransaction> built = newBuilder(300).build().getResults();
+        List<SignedInvokableTransaction> streamed = newBuilder(300).stream().parallel().collect(Collectors.toList());
+
+        assertEquals(built.size(), streamed.size());
+        for (int i = 0; i < built.size(); i++) {
+            assertArrayEquals(built.get(i).getSignedTransactionBytes(), streamed.get(i).getSignedTransactionBytes());
+        }
+    }
+
+    @Test
+    public void testEveryFailureIsReported() throws Exception {
+        PrivateKey sender = PrivateKey.fromBytes(Hex.decodeHex(SENDER_KEY));
+        BulkResult<SignedInvokableTransaction> result = newBuilder(1000)
+            .useSenders(i -> (i % 400 == 3) ? null : sender, i -> BigInteger.valueOf(i))
+            .useParallelism(4)
+            .build();
+
+        assertFalse(result.isSuccess());
+        assertEquals(List.of(3, 403, 803), List.copyOf(result.getFailures().keySet()));
+    }
+
+    @Test
+    public void testSerialBuildReportsFirstFailure() throws Exception {
+        PrivateKey sender = PrivateKey.fromBytes(Hex.decodeHex(SENDER_KEY));
+        BulkResult<SignedInvokableTransaction> result = newBuilder(1000)
+            .useSenders(i -> (i % 400 == 3) ? null : sender, i -> BigInteger.valueOf(i))
+            .build();
+
+        assertFalse(result.isSuccess());
+        assertEquals(List.of(3), List.copyOf(result.getFailures().keySet()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMissingSettingIsRejected() {
+        new BulkInvokableTransactionBuilder(1).useSameTransferValue(BigInteger.ONE).build();
+    }
+
+    private static BulkInvokableTransactionBuilder newBuilder(int count) throws Exception {
+        return new BulkInvokableTransactionBuilder(count)
+            .useSameSender(PrivateKey.fromBytes(Hex.decodeHex(SENDER_KEY)), BigInteger.valueOf(5))
+            .useSameDestination(DESTINATION)
+            .useTransactionDatas(BulkInvokableTransactionBuilderTest::payload)
+            .useSameTransferValue(BigInteger.ONE);
+    }
+
+    private static byte[] payload(int i) {
+        return ("meta-" + i).getBytes(StandardCharsets.US_ASCII);
+    }
+
+}
@@ -0,0 +1,109 @@
+package org.aion.harness.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.kernel.BulkRawTransactionBuilder;
+import org.aion.harness.kernel.BulkRawTransactionBuilder.TransactionType;
+import org.aion.harness.kernel.PrivateKey;
+import org.aion.harness.kernel.SignedTransaction;
+import org.aion.harness.result.BulkResult;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+public class BulkRawTransactionBuilderTest {
+    private static final String SENDER_KEY = "32ee00c327f522f0c8d300921148a6c42f40a3ce45c1f56baa7bfa752200d9e5";
+
+    @Test
+    public void testParallelBuildPreservesOrder() throws Exception {
+        int count = 1_000;
+        List<byte[]> datas = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            datas.add(payload(i));
+        }
+
+        BulkResult<SignedTransaction> result = newBuilder(count)
+            .useSameSender(PrivateKey.fromBytes(Hex.decodeHex(SENDER_KEY)), BigInteger.ZERO)
+            .useMultipleTransactionDatas(datas)
+            .useParallelism(4)
+            .build();
+
+        assertTrue(result.isSuccess());
+        assertEquals(count, result.getResults().size());
+        for (int i = 0; i < count; i++) {
+            assertTrue(contains(result.getResults().get(i).getSignedTransactionBytes(), payload(i)));
+        }
+    }
+
+    @Test
+    public void testParallelBuildReportsEveryFailure() throws Exception {
+        PrivateKey key = PrivateKey.fromBytes(Hex.decodeHex(SENDER_KEY));
+        List<PrivateKey> keys = new ArrayList<>(Collections.nCopies(600, key));
+        keys.set(3, null);
+        keys.set(512, null);
+
+        BulkResult<SignedTransaction> result = newBuilder(keys.size())
+            .useMultipleSenders(keys, Collections.nCopies(keys.size(), BigInteger.ONE))
+            .useSameTransactionData(new byte[0])
+            .useParallelism(2)
+            .build();
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getResults().isEmpty());
+        assertEquals(List.of(3, 512), new ArrayList<>(result.getFailures().keySet()));
+        assertTrue(result.getError().contains("#3"));
+    }
+
+    @Test
+    public void testSerialBuildReportsFirstFailure() throws Exception {
+        PrivateKey key = PrivateKey.fromBytes(Hex.decodeHex(SENDER_KEY));
+
+        BulkResult<SignedTransaction> result = newBuilder(3)
+            .useMultipleSenders(Arrays.asList(key, null, null), List.of(BigInteger.ZERO, BigInteger.ONE, BigInteger.TWO))
+            .useMultipleTransactionDatas(List.of(new byte[0], new byte[0], new byte[0]))
+            .build();
+
+        assertFalse(result.isSuccess());
+        assertEquals(List.of(1), new ArrayList<>(result.getFailures().keySet()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveParallelismIsRejected() {
+        new BulkRawTransactionBuilder(1).useParallelism(0);
+    }
+
+    private static BulkRawTransactionBuilder newBuilder(int count) throws Exception {
+        return new BulkRawTransactionBuilder(count)
+            .useSameDestination(new Address(new byte[32]))
+            .useSameTransferValue(BigInteger.ONE)
+            .useSameEnergyLimit(50_000)
+            .useSameEnergyPrice(10_000_000_000L)
+            .useSameTransactionType(TransactionType.FVM);
+    }
+
+    private static byte[] payload(int i) {
+        return ("payload-" + i + ";").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static boolean contains(byte[] bytes, byte[] part) {
+        for (int i = 0; i + part.length <= bytes.length; i++) {
+            int j = 0;
+            while ((j < part.length) && (bytes[i + j] == part[j])) {
+                j++;
+            }
+            if (j == part.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,107 @@
+package org.aion.harness.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.main.types.ReceiptHash;
+import org.aion.harness.main.util.Bytes32Map;
+import org.aion.harness.main.util.Bytes32Set;
+import org.junit.Test;
+
+public class Bytes32MapTest {
+
+    @Test
+    public void testMapAgreesWithHashMapUnderRandomPutsAndRemoves() {
+        Random random = new Random(7);
+        Address[] addresses = new Address[500];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = randomAddress(random);
+        }
+
+        // Start small so that the table grows, and remove often so that entries are shifted back.
+        Bytes32Map<Address, Integer> map = Bytes32Map.forAddresses();
+        Map<Address, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            Address address = addresses[random.nextInt(addresses.length)];
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(address), map.remove(address));
+            } else {
+                assertEquals(expected.put(address, i), map.put(address, i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (Address address : addresses) {
+            assertEquals(expected.get(address), map.get(address));
+        }
+
+        Map<Address, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testKeysDifferingOnlyInTheirLastWordAreDistinct() {
+        Bytes32Map<Address, String> map = Bytes32Map.forAddresses(4);
+        byte[] bytes = new byte[32];
+        bytes[0] = (byte) 0xa0;
+        Address first = new Address(bytes);
+        bytes[31] = 1;
+        Address second = new Address(bytes);
+
+        map.put(first, "first");
+        map.put(second, "second");
+
+        assertEquals("first", map.get(first));
+        assertEquals("second", map.get(second));
+        assertNull(map.remove(new Address(new byte[32])));
+    }
+
+    @Test
+    public void testReceiptHashSet() {
+        Random random = new Random(11);
+        Bytes32Set<ReceiptHash> set = Bytes32Set.forReceiptHashes(100);
+        Set<ReceiptHash> expected = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            byte[] hash = new byte[32];
+            random.nextBytes(hash);
+            ReceiptHash receiptHash = new ReceiptHash(hash);
+            expected.add(receiptHash);
+            assertTrue(set.add(receiptHash));
+            assertFalse(set.add(new ReceiptHash(hash)));
+        }
+
+        Set<ReceiptHash> iterated = new HashSet<>();
+        set.forEach(iterated::add);
+        assertEquals(expected, iterated);
+
+        ReceiptHash any = expected.iterator().next();
+        assertTrue(set.remove(any));
+        assertFalse(set.contains(any));
+        assertEquals(99, set.size());
+
+        set.clear();
+        assertTrue(set.isEmpty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullValueIsRejected() {
+        Bytes32Map.forAddresses().put(new Address(new byte[32]), null);
+    }
+
+    private static Address randomAddress(Random random) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        bytes[0] = (byte) 0xa0;
+        return new Address(bytes);
+    }
+
+}
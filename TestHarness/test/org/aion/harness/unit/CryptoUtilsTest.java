@@ -0,0 +1,58 @@
+package org.aion.harness.unit;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.aion.harness.kernel.utils.Blake2b;
+import org.aion.harness.kernel.utils.CryptoUtils;
+import org.junit.Test;
+
+public class CryptoUtilsTest {
+
+    @Test
+    public void testReusedDigestMatchesFreshDigest() {
+        for (int i = 0; i < 10; i++) {
+            byte[] input = ("input-" + i).getBytes(StandardCharsets.US_ASCII);
+            assertArrayEquals(freshBlake256(input), CryptoUtils.blake256(input));
+        }
+    }
+
+    @Test
+    public void testBatchWritesEachHashAtItsOffset() {
+        byte[][] inputs = new byte[20][];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = new byte[i * 13];
+            Arrays.fill(inputs[i], (byte) i);
+        }
+
+        byte[] output = new byte[7 + (inputs.length * CryptoUtils.BLAKE256_LENGTH)];
+        CryptoUtils.blake256(inputs, output, 7);
+
+        for (int i = 0; i < inputs.length; i++) {
+            int offset = 7 + (i * CryptoUtils.BLAKE256_LENGTH);
+            assertArrayEquals(freshBlake256(inputs[i]), Arrays.copyOfRange(output, offset, offset + CryptoUtils.BLAKE256_LENGTH));
+        }
+    }
+
+    @Test
+    public void testRegionIsHashedWithoutCopying() {
+        byte[] input = "prefix-payload-suffix".getBytes(StandardCharsets.US_ASCII);
+        byte[] output = new byte[CryptoUtils.BLAKE256_LENGTH];
+        CryptoUtils.blake256(input, 7, 7, output, 0);
+
+        assertArrayEquals(freshBlake256("payload".getBytes(StandardCharsets.US_ASCII)), output);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testBatchIntoTooSmallOutputIsRejected() {
+        CryptoUtils.blake256(new byte[][] { new byte[1], new byte[2] }, new byte[63], 0);
+    }
+
+    private static byte[] freshBlake256(byte[] input) {
+        Blake2b digest = Blake2b.Digest.newInstance(32);
+        digest.update(input);
+        return digest.digest();
+    }
+
+}
@@ -0,0 +1,247 @@
+package org.aion.harness.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.kernel.BulkRawTransactionBuilder;
+import org.aion.harness.kernel.BulkRawTransactionBuilder.TransactionType;
+import org.aion.harness.kernel.PrivateKey;
+import org.aion.harness.kernel.SignedTransaction;
+import org.aion.harness.kernel.StreamingTransactionBuilder;
+import org.aion.harness.main.EnergyEstimator;
+import org.aion.harness.result.BulkResult;
+import org.aion.harness.result.RpcResult;
+import org.aion.rlp.RLP;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+public class EnergyEstimatorTest {
+    private static final String SENDER_KEY = "32ee00c327f522f0c8d300921148a6c42f40a3ce45c1f56baa7bfa752200d9e5";
+    private static final long ENERGY_PRICE = 10_000_000_000L;
+
+    @Test
+    public void testEstimatesAreCachedByCallShape() throws Exception {
+        FakeBackend backend = new FakeBackend();
+        EnergyEstimator estimator = new EnergyEstimator(backend, 20);
+        Address sender = PrivateKey.random().getAddress();
+
+        // Every account without code is the same shape, so one estimate covers all transfers.
+        for (int i = 0; i < 10; i++) {
+            assertEquals(25_200L, estimator.energyLimitFor(sender, PrivateKey.random().getAddress(), BigInteger.ONE, null, false));
+        }
+        assertEquals(1, backend.estimates.size());
+
+        // Avm calls to the same contract are told apart by method name and data length.
+        Address contract = backend.newContract();
+        estimator.energyLimitFor(sender, contract, BigInteger.ZERO, avmCall("transfer", 10), false);
+        estimator.energyLimitFor(sender, contract, BigInteger.ZERO, avmCall("transfer", 10), false);
+        estimator.energyLimitFor(sender, contract, BigInteger.ZERO, avmCall("transfer", 11), false);
+        estimator.energyLimitFor(sender, contract, BigInteger.ZERO, avmCall("transferAll", 10), false);
+        assertEquals(4, backend.estimates.size());
+
+        // Fvm calls are told apart by their 4-byte selector.
+        estimator.energyLimitFor(sender, contract, BigInteger.ZERO, Hex.decodeHex("a9059cbb0000"), false);
+        estimator.energyLimitFor(sender, contract, BigInteger.ZERO, Hex.decodeHex("a9059cbb1111"), false);
+        estimator.energyLimitFor(sender, contract, BigInteger.ZERO, Hex.decodeHex("095ea7b30000"), false);
+        assertEquals(6, backend.estimates.size());
+        assertEquals(1, backend.codeLookups);
+    }
+
+    @Test
+    public void testContractsWithTheSameCodeShareEstimates() throws Exception {
+        FakeBackend backend = new FakeBackend();
+        EnergyEstimator estimator = new EnergyEstimator(backend, 0);
+        Address sender = PrivateKey.random().getAddress();
+
+        byte[] data = avmCall("run", 4);
+        long first = estimator.energyLimitFor(sender, backend.newContract(), BigInteger.ZERO, data, false);
+        long second = estimator.energyLimitFor(sender, backend.newContract(), BigInteger.ZERO, data, false);
+
+        assertEquals(FakeBackend.CONTRACT_ENERGY + data.length, first);
+        assertEquals(first, second);
+        assertEquals(1, backend.estimates.size());
+    }
+
+    @Test
+    public void testEmptyDataCallsToContractsAreNotTransfers() throws Exception {
+        FakeBackend backend = new FakeBackend();
+        EnergyEstimator estimator = new EnergyEstimator(backend, 0);
+        Address sender = PrivateKey.random().getAddress();
+        Address account = PrivateKey.random().getAddress();
+
+        assertEquals(21_000L, estimator.energyLimitFor(sender, account, BigInteger.ONE, null, false));
+        assertEquals(FakeBackend.CONTRACT_ENERGY, estimator.energyLimitFor(sender, backend.newContract(), BigInteger.ONE, null, false));
+
+        // An account found to have no code is not looked up again.
+        assertEquals(21_000L, estimator.energyLimitFor(sender, account, BigInteger.ONE, new byte[0], false));
+        assertEquals(2, backend.allCodeLookups);
+        assertEquals(2, backend.estimates.size());
+    }
+
+    @Test
+    public void testKnownTransfersNeedNoCode() throws Exception {
+        EnergyEstimator estimator = new EnergyEstimator(new FakeBackend() {
+            @Override
+            public RpcResult<byte[]> getCode(Address address) {
+                throw new AssertionError("A known transfer should not look up code.");
+            }
+        }, 0);
+
+        Address sender = PrivateKey.random().getAddress();
+        assertEquals(21_000L, estimator.transferEnergyLimitFor(sender, PrivateKey.random().getAddress(), BigInteger.ONE));
+        assertEquals(21_000L, estimator.transferEnergyLimitFor(sender, PrivateKey.random().getAddress(), BigInteger.TEN));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailedEstimateIsAnError() throws Exception {
+        EnergyEstimator estimator = new EnergyEstimator(new FakeBackend() {
+            @Override
+            public RpcResult<Long> estimateEnergy(Address sender, Address destination, BigInteger value, byte[] data, boolean isAvmCreate) {
+                return RpcResult.unsuccessful("out of energy");
+            }
+        }, 20);
+
+        estimator.energyLimitFor(PrivateKey.random().getAddress(), null, BigInteger.ZERO, new byte[] { 1, 2, 3 }, true);
+    }
+
+    @Test
+    public void testBuildersUseTheEstimatedLimits() throws Exception {
+        PrivateKey sender = PrivateKey.fromBytes(Hex.decodeHex(SENDER_KEY));
+        FakeBackend backend = new FakeBackend();
+        List<Address> destinations = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            destinations.add(PrivateKey.random().getAddress());
+        }
+
+        BulkResult<SignedTransaction> built = new BulkRawTransactionBuilder(100)
+            .useSameSender(sender, BigInteger.ZERO)
+            .useMultipleDestinations(destinations)
+            .useSameTransferValue(BigInteger.TEN)
+            .useSameTransactionData(new byte[0])
+            .useEstimatedEnergyLimits(new EnergyEstimator(backend, 20))
+            .useSameEnergyPrice(ENERGY_PRICE)
+            .useSameTransactionType(TransactionType.FVM)
+            .useParallelism(4)
+            .build();
+        List<SignedTransaction> streamed = new StreamingTransactionBuilder(100)
+            .useSameSender(sender, BigInteger.ZERO)
+            .useDestinations(destinations::get)
+            .useSameTransferValue(BigInteger.TEN)
+            .useSameTransactionData(new byte[0])
+            .useEstimatedEnergyLimits(new EnergyEstimator(backend, 20))
+            .useSameEnergyPrice(ENERGY_PRICE)
+            .useSameTransactionType(TransactionType.FVM)
+            .stream()
+            .parallel()
+            .collect(Collectors.toList());
+
+        // The energy limit is encoded just before the energy price.
+        byte[] energyFields = concatenate(RLP.encodeLong(25_200L), RLP.encodeLong(ENERGY_PRICE));
+        assertEquals(100, built.getResults().size());
+        assertEquals(100, streamed.size());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(contains(built.getResults().get(i).getSignedTransactionBytes(), energyFields));
+            assertTrue(contains(streamed.get(i).getSignedTransactionBytes(), energyFields));
+        }
+        assertEquals(2, backend.estimates.size());
+    }
+
+    @Test
+    public void testBuilderReportsFailedEstimate() throws Exception {
+        EnergyEstimator estimator = new EnergyEstimator(new FakeBackend() {
+            @Override
+            public RpcResult<byte[]> getCode(Address address) {
+                return RpcResult.unsuccessful("connection refused");
+            }
+        }, 20);
+
+        BulkResult<SignedTransaction> result = new BulkRawTransactionBuilder(3)
+            .useSameSender(PrivateKey.random(), BigInteger.ZERO)
+            .useSameDestination(PrivateKey.random().getAddress())
+            .useSameTransferValue(BigInteger.ONE)
+            .useSameTransactionData(new byte[0])
+            .useEstimatedEnergyLimits(estimator)
+            .useSameEnergyPrice(ENERGY_PRICE)
+            .useSameTransactionType(TransactionType.FVM)
+            .build();
+
+        assertFalse(result.isSuccess());
+        assertEquals(List.of(0), List.copyOf(result.getFailures().keySet()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEstimatedAndFixedLimitsAreExclusive() {
+        new BulkRawTransactionBuilder(1)
+            .useSameEnergyLimit(21_000L)
+            .useEstimatedEnergyLimits(new EnergyEstimator(new FakeBackend(), 20));
+    }
+
+    private static boolean contains(byte[] bytes, byte[] part) {
+        for (int i = 0; i + part.length <= bytes.length; i++) {
+            if (Arrays.equals(bytes, i, i + part.length, part, 0, part.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] concatenate(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * Returns Avm call data that invokes the named method with an argument of the given length.
+     */
+    private static byte[] avmCall(String method, int argumentLength) {
+        byte[] data = new byte[3 + method.length() + argumentLength];
+        data[0] = 0x21;
+        data[2] = (byte) method.length();
+        System.arraycopy(method.getBytes(), 0, data, 3, method.length());
+        return data;
+    }
+
+    /**
+     * Estimates 21,000 energy for a balance transfer, and for anything else a fixed cost plus the
+     * length of the data, while recording each distinct request it is asked to estimate.
+     */
+    private static class FakeBackend implements EnergyEstimator.Backend {
+        private static final long CONTRACT_ENERGY = 60_000L;
+        private static final byte[] CONTRACT_CODE = new byte[] { 0x50, 0x4b, 0x03, 0x04 };
+
+        private final List<Address> contracts = new ArrayList<>();
+        private final List<String> estimates = new ArrayList<>();
+        private int codeLookups = 0;
+        private int allCodeLookups = 0;
+
+        private Address newContract() throws Exception {
+            Address contract = PrivateKey.random().getAddress();
+            this.contracts.add(contract);
+            return contract;
+        }
+
+        @Override
+        public RpcResult<byte[]> getCode(Address address) {
+            this.codeLookups += this.contracts.contains(address) ? 1 : 0;
+            this.allCodeLookups++;
+            byte[] code = this.contracts.contains(address) ? CONTRACT_CODE : new byte[0];
+            return RpcResult.successful(code, 1, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public RpcResult<Long> estimateEnergy(Address sender, Address destination, BigInteger value, byte[] data, boolean isAvmCreate) {
+            this.estimates.add(destination + ":" + Hex.encodeHexString(data));
+            long energy = this.contracts.contains(destination) ? CONTRACT_ENERGY + data.length : 21_000L;
+            return RpcResult.successful(energy, 1, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -5,11 +5,21 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import org.aion.harness.kernel.PrivateKey;
+import org.aion.harness.kernel.SignedTransaction;
+import org.aion.harness.main.event.AtLeastEvent;
 import org.aion.harness.main.event.Event;
 import org.aion.harness.main.event.IEvent;
+import org.aion.harness.main.event.JavaPrepackagedLogEvents;
+import org.aion.harness.main.event.PredicateEvent;
+import org.aion.harness.main.event.PrepackagedLogEvents;
+import org.aion.harness.main.event.RegexEvent;
+import org.apache.commons.codec.binary.Hex;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -479,4 +489,228 @@ public class EventTest {
         assertEquals(2, sawLogLine3Counter);
     }
 
+    @Test
+    public void testAllOfEventIsObserved() {
+        String hash1 = "Transaction: " + repeat('a', 64) + " was sealed";
+        String hash2 = "Transaction: " + repeat('b', 64) + " was sealed";
+        IEvent event1 = new Event(hash1);
+        IEvent event2 = new Event(hash2);
+        IEvent event3 = new Event("plain");
+
+        AtLeastEvent event = Event.allOf(Arrays.asList(event1, event2, event3));
+
+        assertFalse(event.isSatisfiedBy("prefix " + hash2 + " into block", 5, TimeUnit.NANOSECONDS));
+        assertFalse(event.isSatisfiedBy("plain", 7, TimeUnit.NANOSECONDS));
+        assertEquals(2, event.numberOfObservedEvents());
+        assertFalse(event.hasBeenObserved());
+
+        // A longer hex run that merely contains the hash must not count as the hash.
+        assertFalse(event.isSatisfiedBy("Transaction: " + repeat('a', 65) + " was sealed", 8, TimeUnit.NANOSECONDS));
+
+        assertTrue(event.isSatisfiedBy(hash1 + " into block", 9, TimeUnit.NANOSECONDS));
+        assertTrue(event.hasBeenObserved());
+        assertEquals(9, event.observedAt(TimeUnit.NANOSECONDS));
+
+        assertEquals(Arrays.asList(hash1, hash2, "plain"), event.getAllObservedEvents());
+        assertEquals(Arrays.asList(9L, 5L, 7L), event.getAllObservationTimes(TimeUnit.NANOSECONDS));
+        assertEquals(9, event.observationTimesOfEachEvent(TimeUnit.NANOSECONDS)[0]);
+        assertEquals(5, event.observationTimesOfEachEvent(TimeUnit.NANOSECONDS)[1]);
+        assertEquals(7, event.observationTimesOfEachEvent(TimeUnit.NANOSECONDS)[2]);
+    }
+
+    @Test
+    public void testAnyOfEventIsObserved() {
+        AtLeastEvent event = Event.anyOf(Arrays.asList(new Event("one"), new Event("two")));
+
+        assertFalse(event.isSatisfiedBy("three", 1, TimeUnit.NANOSECONDS));
+        assertTrue(event.isSatisfiedBy("two", 2, TimeUnit.NANOSECONDS));
+        assertTrue(event.hasBeenObserved());
+
+        assertEquals(Arrays.asList("two"), event.getAllObservedEvents());
+        assertEquals("((one) OR (two))", event.eventStatement());
+
+        long[] times = event.observationTimesOfEachEvent(TimeUnit.NANOSECONDS);
+        assertTrue(times[0] < 0);
+        assertEquals(2, times[1]);
+    }
+
+    @Test
+    public void testAtLeastEventIsObserved() {
+        List<IEvent> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            events.add(new Event("event" + i));
+        }
+        AtLeastEvent event = Event.atLeast(3, events);
+
+        assertFalse(event.isSatisfiedBy("event0", 1, TimeUnit.NANOSECONDS));
+        assertFalse(event.isSatisfiedBy("event0 event3", 2, TimeUnit.NANOSECONDS));
+        assertTrue(event.isSatisfiedBy("event4", 3, TimeUnit.NANOSECONDS));
+        assertEquals(3, event.numberOfObservedEvents());
+        assertEquals(Arrays.asList(1L, 2L, 3L), event.getAllObservationTimes(TimeUnit.NANOSECONDS));
+        assertTrue(event.eventStatement().startsWith("(AT LEAST 3 OF "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAtLeastEventWithThresholdTooLarge() {
+        Event.atLeast(3, Arrays.asList(new Event("one"), new Event("two")));
+    }
+
+    @Test
+    public void testRegexEventCapturesNamedGroups() {
+        IEvent event = new RegexEvent("block sealed <num=(?<number>\\d+), hash=(?<hash>\\w+)>");
+
+        assertFalse(event.isSatisfiedBy("block sealed <num=abc, hash=12ab>", 1, TimeUnit.NANOSECONDS));
+        assertFalse(event.isSatisfiedBy("block imported <num=5, hash=12ab>", 2, TimeUnit.NANOSECONDS));
+        assertTrue(event.isSatisfiedBy("INFO block sealed <num=42, hash=12ab> done", 3, TimeUnit.NANOSECONDS));
+
+        // Once satisfied, the captured fields are fixed.
+        assertTrue(event.isSatisfiedBy("block sealed <num=43, hash=ffff>", 4, TimeUnit.NANOSECONDS));
+
+        assertEquals(Arrays.asList("block sealed <num=42, hash=12ab>"), event.getAllObservedEvents());
+        assertEquals(Arrays.asList("INFO block sealed <num=42, hash=12ab> done"), event.getAllObservedLogs());
+        assertEquals(3, event.observedAt(TimeUnit.NANOSECONDS));
+        assertEquals("42", event.getAllCapturedFields().get(0).get("number"));
+        assertEquals("12ab", event.getAllCapturedFields().get(0).get("hash"));
+    }
+
+    @Test
+    public void testRegexEventWithLeadingNonLiteral() {
+        IEvent event = new RegexEvent("\\d+ blocks");
+
+        assertFalse(event.isSatisfiedBy("many blocks", 1, TimeUnit.NANOSECONDS));
+        assertTrue(event.isSatisfiedBy("imported 12 blocks", 2, TimeUnit.NANOSECONDS));
+        assertEquals(Arrays.asList("12 blocks"), event.getAllObservedEvents());
+    }
+
+    @Test
+    public void testRegexEventWithTopLevelAlternation() {
+        IEvent event = new RegexEvent("sealed|imported");
+        assertTrue(event.isSatisfiedBy("block imported", 1, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testJavaSealedEventCapturesBlockNumber() throws Exception {
+        SignedTransaction transaction = SignedTransaction.newGeneralTransaction(PrivateKey.random(), BigInteger.ZERO, null, null, 50_000, 10_000_000_000L, BigInteger.ONE, null);
+        String hash = Hex.encodeHexString(transaction.getTransactionHash());
+        PrepackagedLogEvents prepackagedEvents = new JavaPrepackagedLogEvents();
+
+        IEvent event = prepackagedEvents.getTransactionSealedEvent(transaction);
+        assertTrue(event.isSatisfiedBy("Transaction: " + hash + " was sealed into block #1234", 1, TimeUnit.NANOSECONDS));
+        assertEquals("1234", event.getAllCapturedFields().get(0).get(PrepackagedLogEvents.BLOCK_NUMBER_FIELD));
+
+        IEvent eventWithoutNumber = prepackagedEvents.getTransactionSealedEvent(transaction);
+        assertTrue(eventWithoutNumber.isSatisfiedBy("Transaction: " + hash + " was sealed into block", 1, TimeUnit.NANOSECONDS));
+        assertTrue(eventWithoutNumber.getAllCapturedFields().get(0).isEmpty());
+    }
+
+    @Test
+    public void testPredicateEventIsObserved() {
+        IEvent event = new PredicateEvent("txs=", "more than 10 transactions", line -> Integer.parseInt(line.substring(line.indexOf("txs=") + 4)) > 10);
+
+        assertFalse(event.isSatisfiedBy("no count here", 1, TimeUnit.NANOSECONDS));
+        assertFalse(event.isSatisfiedBy("txs=3", 2, TimeUnit.NANOSECONDS));
+        assertTrue(event.isSatisfiedBy("txs=11", 3, TimeUnit.NANOSECONDS));
+        assertEquals("(more than 10 transactions)", event.eventStatement());
+        assertEquals(Arrays.asList("txs=11"), event.getAllObservedLogs());
+        assertEquals(3, event.observedAt(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testAbsentEventIsFalsifiedByObservation() {
+        IEvent event = Event.absent(new Event("rejected"), 1, TimeUnit.HOURS);
+        long now = System.nanoTime();
+
+        assertTrue(event.isTimed());
+        assertFalse(event.isSatisfiedBy("sealed", now, TimeUnit.NANOSECONDS));
+        assertFalse(event.hasBeenFalsified());
+
+        assertFalse(event.isSatisfiedBy("tx was rejected", now, TimeUnit.NANOSECONDS));
+        assertTrue(event.hasBeenFalsified());
+        assertEquals(Arrays.asList("rejected"), event.getAllObservedEvents());
+
+        // Falsification is permanent, even once the window has passed.
+        assertFalse(event.isSatisfiedAt(now + TimeUnit.HOURS.toNanos(2), TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testAbsentEventIsSatisfiedOnceWindowElapses() {
+        IEvent event = Event.absent(new Event("rejected"), 1, TimeUnit.MINUTES);
+        long now = System.nanoTime();
+
+        assertFalse(event.isSatisfiedAt(now, TimeUnit.NANOSECONDS));
+        assertTrue(event.isSatisfiedAt(now + TimeUnit.MINUTES.toNanos(2), TimeUnit.NANOSECONDS));
+        assertTrue(event.hasBeenObserved());
+        assertFalse(event.hasBeenFalsified());
+        assertTrue(event.getAllObservedEvents().isEmpty());
+
+        // A line arriving after the window cannot falsify it.
+        assertTrue(event.isSatisfiedBy("rejected", now + TimeUnit.MINUTES.toNanos(3), TimeUnit.NANOSECONDS));
+        assertFalse(event.hasBeenFalsified());
+    }
+
+    @Test
+    public void testAbsentEventWindowBeginsWhenListenedFor() {
+        IEvent event = Event.absent(new Event("rejected"), 1, TimeUnit.MINUTES);
+        long start = System.nanoTime() + TimeUnit.HOURS.toNanos(1);
+        event.beginListeningAt(start, TimeUnit.NANOSECONDS);
+
+        // A line read before the window began does not count, and none read within it satisfies.
+        assertFalse(event.isSatisfiedBy("tx was rejected", start - 1, TimeUnit.NANOSECONDS));
+        assertFalse(event.hasBeenFalsified());
+        assertFalse(event.isSatisfiedBy("sealed", start + TimeUnit.MINUTES.toNanos(2), TimeUnit.NANOSECONDS));
+
+        assertFalse(event.isSatisfiedAt(start + TimeUnit.SECONDS.toNanos(59), TimeUnit.NANOSECONDS));
+        assertTrue(event.isSatisfiedAt(start + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testBeforeEvent() {
+        IEvent sealedFirst = Event.before(new Event("sealed"), new Event("rejected"));
+        assertFalse(sealedFirst.isSatisfiedBy("something else", 1, TimeUnit.NANOSECONDS));
+        assertTrue(sealedFirst.isSatisfiedBy("tx sealed", 2, TimeUnit.NANOSECONDS));
+        assertTrue(sealedFirst.isSatisfiedBy("tx rejected", 3, TimeUnit.NANOSECONDS));
+        assertFalse(sealedFirst.hasBeenFalsified());
+        assertEquals(Arrays.asList("sealed"), sealedFirst.getAllObservedEvents());
+        assertEquals("((sealed) BEFORE (rejected))", sealedFirst.eventStatement());
+
+        IEvent rejectedFirst = Event.before(new Event("sealed"), new Event("rejected"));
+        assertFalse(rejectedFirst.isSatisfiedBy("tx rejected", 1, TimeUnit.NANOSECONDS));
+        assertTrue(rejectedFirst.hasBeenFalsified());
+        assertFalse(rejectedFirst.isSatisfiedBy("tx sealed", 2, TimeUnit.NANOSECONDS));
+        assertEquals(Arrays.asList("rejected"), rejectedFirst.getAllObservedEvents());
+
+        IEvent sameLine = Event.before(new Event("sealed"), new Event("rejected"));
+        assertFalse(sameLine.isSatisfiedBy("sealed then rejected", 1, TimeUnit.NANOSECONDS));
+        assertTrue(sameLine.hasBeenFalsified());
+    }
+
+    @Test
+    public void testFalsificationPropagatesThroughCompositeEvents() {
+        IEvent absent1 = Event.absent(new Event("one"), 1, TimeUnit.HOURS);
+        IEvent absent2 = Event.absent(new Event("two"), 1, TimeUnit.HOURS);
+
+        IEvent and = Event.and(absent1, new Event("other"));
+        IEvent or = Event.or(Event.absent(new Event("one"), 1, TimeUnit.HOURS), Event.absent(new Event("two"), 1, TimeUnit.HOURS));
+        AtLeastEvent atLeast = Event.allOf(Arrays.asList(absent2, new Event("other")));
+        long now = System.nanoTime();
+
+        for (String line : Arrays.asList("one", "two")) {
+            and.isSatisfiedBy(line, now, TimeUnit.NANOSECONDS);
+            or.isSatisfiedBy(line, now, TimeUnit.NANOSECONDS);
+            atLeast.isSatisfiedBy(line, now, TimeUnit.NANOSECONDS);
+        }
+
+        assertTrue(and.hasBeenFalsified());
+        assertTrue(or.hasBeenFalsified());
+        assertTrue(atLeast.hasBeenFalsified());
+        assertTrue(and.isTimed() && or.isTimed() && atLeast.isTimed());
+        assertFalse(new Event("x").hasBeenFalsified());
+    }
+
+    private static String repeat(char character, int count) {
+        char[] characters = new char[count];
+        Arrays.fill(characters, character);
+        return new String(characters);
+    }
+
 }
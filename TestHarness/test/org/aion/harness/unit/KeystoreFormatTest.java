@@ -0,0 +1,152 @@
+package org.aion.harness.unit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.kernel.Kernel;
+import org.aion.harness.kernel.PrivateKey;
+import org.aion.harness.kernel.utils.KeystoreFormat;
+import org.aion.harness.kernel.utils.Scrypt;
+import org.aion.harness.main.Network;
+import org.aion.rlp.RLP;
+import org.aion.rlp.RLPElement;
+import org.aion.rlp.RLPList;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+public class KeystoreFormatTest {
+    private static final String PASSWORD = "password";
+
+    // A keystore file for the seed 0x01..0x20 under the password "password", with N = 2^10 and fixed
+    // salt and iv, written independently of this class by following the kernel's keystore format.
+    private static final String FIXTURE_SEED = "0102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f20";
+    private static final String FIXTURE_ADDRESS = "a04dbe917544b07922348a66b9c4b5a5a5f34a9ffb319915c39409c7d0ff230a";
+    private static final String FIXTURE = "f901b5a433663764316635632d366137652d346433622d396332612d35623865306631643263336103b84061303464626539"
+        + "3137353434623037393232333438613636623963346235613561356633346139666662333139393135633339343039633764"
+        + "30666632333061b9014af901478b6165732d3132382d637472b8803832343662353239363131613236636635303834323732"
+        + "3632393936643839636136653838633637643665356439386561356464323738346630336131333762613532313864333533"
+        + "3738626563343236653434613566353665313563336361623032363365333937663362653762326162656331626663346161"
+        + "383666663086736372797074b840613136356538316662666561336261373134633962336161636366653663383466393361"
+        + "38393233366135343961343464343662313433363335663734303664a2e1a037303731373237333734373537363737373837"
+        + "39376137623763376437653766b84bf84980208204000108b840343034313432343334343435343634373438343934613462"
+        + "34633464346534663530353135323533353435353536353735383539356135623563356435653566";
+
+    @Test
+    public void testScryptMatchesRfc7914() throws Exception {
+        byte[] empty = Scrypt.scrypt(new byte[0], new byte[0], 16, 1, 1, 64);
+        assertEquals("77d6576238657b203b19ca42c18a0497f16b4844e3074ae8dfdffa3fede21442fcd0069ded0948f8326a753a0fc81f17e8d3e0fb2e0d3628cf35e20c38d18906", Hex.encodeHexString(empty));
+
+        byte[] password = Scrypt.scrypt(bytes("password"), bytes("NaCl"), 1024, 8, 16, 64);
+        assertEquals("fdbabe1c9d3472007856e7190d01e9fe7c6ad7cbc8237830e77376634b3731622eaf30d92e22a3886ff109279d9830dac727afb94a83ee6d8360cbdfa2cc0640", Hex.encodeHexString(password));
+    }
+
+    @Test
+    public void testKeystoreRoundTrip() throws Exception {
+        PrivateKey key = PrivateKey.random();
+        byte[] keystore = KeystoreFormat.toKeystore(key.getPrivateKeyBytes(), key.getAddress().getAddressBytes(), PASSWORD, 1 << 10);
+
+        assertArrayEquals(key.getPrivateKeyBytes(), KeystoreFormat.fromKeystore(keystore, PASSWORD));
+    }
+
+    @Test
+    public void testFixtureIsReadable() throws Exception {
+        byte[] privateKey = KeystoreFormat.fromKeystore(Hex.decodeHex(FIXTURE), PASSWORD);
+
+        assertEquals(FIXTURE_SEED, Hex.encodeHexString(privateKey));
+        assertEquals(FIXTURE_ADDRESS, Hex.encodeHexString(PrivateKey.fromBytes(privateKey).getAddress().getAddressBytes()));
+    }
+
+    @Test
+    public void testKeystoreHasTheKernelsStructure() throws Exception {
+        PrivateKey key = PrivateKey.random();
+        byte[] keystore = KeystoreFormat.toKeystore(key.getPrivateKeyBytes(), key.getAddress().getAddressBytes(), PASSWORD, 1 << 10);
+
+        RLPList item = list(keystore);
+        assertEquals(4, item.size());
+        assertEquals(36, string(item.get(0)).length());
+        assertEquals(3, integer(item.get(1)));
+        assertEquals(Hex.encodeHexString(key.getAddress().getAddressBytes()), string(item.get(2)));
+
+        RLPList crypto = list(item.get(3).getRLPData());
+        assertEquals(6, crypto.size());
+        assertEquals("aes-128-ctr", string(crypto.get(0)));
+        assertEquals(64, Hex.decodeHex(string(crypto.get(1))).length);
+        assertEquals("scrypt", string(crypto.get(2)));
+        assertEquals(32, Hex.decodeHex(string(crypto.get(3))).length);
+
+        RLPList cipherParams = list(crypto.get(4).getRLPData());
+        assertEquals(1, cipherParams.size());
+        assertEquals(16, Hex.decodeHex(string(cipherParams.get(0))).length);
+
+        RLPList kdfParams = list(crypto.get(5).getRLPData());
+        assertEquals(6, kdfParams.size());
+        assertEquals(0, integer(kdfParams.get(0)));
+        assertEquals(32, integer(kdfParams.get(1)));
+        assertEquals(1 << 10, integer(kdfParams.get(2)));
+        assertEquals(1, integer(kdfParams.get(3)));
+        assertEquals(8, integer(kdfParams.get(4)));
+        assertEquals(32, Hex.decodeHex(string(kdfParams.get(5))).length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongPasswordIsRejected() throws Exception {
+        PrivateKey key = PrivateKey.random();
+        byte[] keystore = KeystoreFormat.toKeystore(key.getPrivateKeyBytes(), key.getAddress().getAddressBytes(), PASSWORD, 1 << 10);
+
+        KeystoreFormat.fromKeystore(keystore, "notthepassword");
+    }
+
+    @Test
+    public void testCreateAccountsWritesOneFilePerAccount() throws Exception {
+        File kernelDirectory = Files.createTempDirectory("kernel").toFile();
+        try {
+            Kernel kernel = new Kernel(kernelDirectory, Network.CUSTOM);
+            List<Address> accounts = kernel.createNewAccountsInKeystore(PASSWORD, 20, 4);
+
+            File[] files = new File(kernelDirectory, "custom" + File.separator + "keystore").listFiles();
+            assertEquals(20, accounts.size());
+            assertEquals(20, files.length);
+
+            for (Address account : accounts) {
+                String address = Hex.encodeHexString(account.getAddressBytes());
+                File file = null;
+                for (File candidate : files) {
+                    if (candidate.getName().startsWith("UTC--") && candidate.getName().endsWith("--" + address)) {
+                        file = candidate;
+                    }
+                }
+                assertTrue("No keystore file for " + address, file != null);
+
+                byte[] privateKey = KeystoreFormat.fromKeystore(Files.readAllBytes(file.toPath()), PASSWORD);
+                assertEquals(account, PrivateKey.fromBytes(privateKey).getAddress());
+            }
+        } finally {
+            FileUtils.deleteDirectory(kernelDirectory);
+        }
+    }
+
+    private static RLPList list(byte[] encoding) {
+        return (RLPList) RLP.decode2(encoding).get(0);
+    }
+
+    private static String string(RLPElement element) {
+        return new String(element.getRLPData(), StandardCharsets.UTF_8);
+    }
+
+    private static int integer(RLPElement element) {
+        byte[] bytes = element.getRLPData();
+        return (bytes == null) ? 0 : new BigInteger(1, bytes).intValueExact();
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,73 @@
+package org.aion.harness.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.aion.harness.main.event.Event;
+import org.aion.harness.main.event.IEvent;
+import org.aion.harness.main.event.LogRecord;
+import org.junit.Test;
+
+public class LogRecordTest {
+
+    @Test
+    public void testJavaHeader() {
+        LogRecord record = new LogRecord("19-10-23 14:05:32.123 INFO  SYNC [sync-ib]: <import-best num=12>");
+        assertEquals("INFO", record.level());
+        assertEquals("SYNC", record.module());
+        assertEquals("sync-ib", record.thread());
+        assertEquals("<import-best num=12>", record.message());
+        assertTrue(record.isLevel("info"));
+        assertTrue(record.isModule("SYNC"));
+        assertFalse(record.isModule("SYN"));
+        assertTrue(record.epochNanos() > 0);
+    }
+
+    @Test
+    public void testRustHeader() {
+        LogRecord record = new LogRecord("2019-10-23 14:05:32 [main] \u001B[32mINFO\u001B[0m sync  = Sync Statics =");
+        assertEquals("INFO", record.level());
+        assertEquals("sync", record.module());
+        assertEquals("main", record.thread());
+        assertEquals("= Sync Statics =", record.message());
+        assertTrue(record.messageContains("Sync Statics"));
+    }
+
+    @Test
+    public void testLineWithoutHeader() {
+        LogRecord record = new LogRecord("Transaction mined (hash 00)");
+        assertNull(record.level());
+        assertNull(record.module());
+        assertNull(record.thread());
+        assertEquals("Transaction mined (hash 00)", record.message());
+        assertFalse(record.isModule("sync"));
+        assertTrue(record.epochNanos() < 0);
+    }
+
+    @Test
+    public void testModuleFilter() {
+        IEvent event = Event.inModule("rpc-server", new Event("started"));
+
+        assertFalse(event.isSatisfiedBy("19-10-23 14:05:32.123 INFO  GEN  [main]: started", 1, TimeUnit.NANOSECONDS));
+        assertFalse(event.isSatisfiedBy("started", 2, TimeUnit.NANOSECONDS));
+        assertTrue(event.isSatisfiedBy("19-10-23 14:05:33.000 INFO  rpc-server [main]: rpc-server - (UNDERTOW) started", 3, TimeUnit.NANOSECONDS));
+
+        assertEquals(3, event.observedAt(TimeUnit.NANOSECONDS));
+        assertEquals("(IN MODULE rpc-server (started))", event.eventStatement());
+    }
+
+    @Test
+    public void testLevelFilterInsideCompositeEvent() {
+        IEvent error = Event.atLevel("ERROR", new Event("failed"));
+        IEvent event = Event.anyOf(List.of(error, new Event("done")));
+
+        assertFalse(event.isSatisfiedBy("2019-10-23 14:05:32 [main] WARN sync import failed, retrying", 1, TimeUnit.NANOSECONDS));
+        assertTrue(event.isSatisfiedBy("2019-10-23 14:05:33 [main] ERROR sync import failed", 2, TimeUnit.NANOSECONDS));
+        assertTrue(error.hasBeenObserved());
+    }
+
+}
@@ -7,7 +7,12 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import net.i2p.crypto.eddsa.EdDSAPrivateKey;
+import org.aion.harness.kernel.utils.CryptoUtils;
 
 public class PrivateKeyTest {
     private String testingPrivateKey = "32ee00c327f522f0c8d300921148a6c42f40a3ce45c1f56baa7bfa752200d9e5";
@@ -53,4 +58,24 @@ public class PrivateKeyTest {
         Assert.assertFalse(Arrays.equals(retrievedPrivateKey, privateKey.getPrivateKeyBytes()));
         Assert.assertArrayEquals(Hex.decodeHex(testingPrivateKey), privateKey.getPrivateKeyBytes());
     }
+
+    @Test
+    public void testAddressMatchesPkcs8DerivedPublicKey() throws DecoderException, InvalidKeySpecException {
+        byte[] seed = Hex.decodeHex(testingPrivateKey);
+        EdDSAPrivateKey pkcs8Key = new EdDSAPrivateKey(new PKCS8EncodedKeySpec(Hex.decodeHex("302e020100300506032b657004220420" + testingPrivateKey)));
+
+        Assert.assertArrayEquals(pkcs8Key.getAbyte(), CryptoUtils.derivePublicKey(seed));
+        Assert.assertEquals((byte) 0xa0, PrivateKey.fromBytes(seed).getAddress().getAddressBytes()[0]);
+    }
+
+    @Test
+    public void testBulkRandomKeysAreDistinct() throws InvalidKeySpecException {
+        List<PrivateKey> keys = PrivateKey.random(2_000, 4);
+
+        Assert.assertEquals(2_000, keys.size());
+        Assert.assertEquals(2_000, new HashSet<>(keys).size());
+        for (PrivateKey key : keys) {
+            Assert.assertEquals(PrivateKey.fromBytes(key.getPrivateKeyBytes()).getAddress(), key.getAddress());
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package org.aion.harness.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.aion.harness.kernel.PrivateKey;
+import org.aion.harness.kernel.SenderKeyFile;
+import org.junit.Test;
+
+public class SenderKeyFileTest {
+    private static final byte[] SEED = "sender-key-file-test".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void testDerivationIsDeterministic() throws Exception {
+        SenderKeyFile senders = SenderKeyFile.derive(SEED, 50);
+
+        assertEquals(50, senders.numberOfAccounts());
+        assertEquals(PrivateKey.derive(SEED, 7), senders.getKey(7));
+        assertEquals(SenderKeyFile.derive(SEED, 50).getKeys(), senders.getKeys());
+        assertNotEquals(senders.getKey(0), senders.getKey(1));
+        assertNotEquals(PrivateKey.derive("another seed".getBytes(StandardCharsets.US_ASCII), 0), senders.getKey(0));
+    }
+
+    @Test
+    public void testSaveAndLoadRoundTripsKeysAddressesAndNonces() throws Exception {
+        SenderKeyFile senders = SenderKeyFile.derive(SEED, 20);
+        senders.setNonce(3, BigInteger.valueOf(120));
+        File keyfile = Files.createTempFile("senders", ".keys").toFile();
+
+        try {
+            senders.save(keyfile);
+            SenderKeyFile loaded = SenderKeyFile.load(keyfile);
+
+            assertEquals(senders.getKeys(), loaded.getKeys());
+            for (int i = 0; i < 20; i++) {
+                assertEquals(senders.getKey(i).getAddress(), loaded.getKey(i).getAddress());
+                assertEquals(senders.getNonce(i), loaded.getNonce(i));
+            }
+            assertEquals(BigInteger.valueOf(120), loaded.getNonce(3));
+        } finally {
+            keyfile.delete();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testFileWithoutHeaderIsRejected() throws Exception {
+        File keyfile = Files.createTempFile("senders", ".keys").toFile();
+
+        try {
+            Files.write(keyfile.toPath(), "not a keyfile\n".getBytes(StandardCharsets.US_ASCII));
+            SenderKeyFile.load(keyfile);
+        } finally {
+            keyfile.delete();
+        }
+    }
+
+}
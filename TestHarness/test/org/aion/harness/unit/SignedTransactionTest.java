@@ -0,0 +1,65 @@
+package org.aion.harness.unit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import main.SignedTransactionBuilder;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.kernel.PrivateKey;
+import org.aion.harness.kernel.SignedTransaction;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+public class SignedTransactionTest {
+    private static final String SENDER_KEY = "32ee00c327f522f0c8d300921148a6c42f40a3ce45c1f56baa7bfa752200d9e5";
+
+    @Test
+    public void testHashMatchesTheHashOfTheDecodedTransaction() throws Exception {
+        PrivateKey sender = PrivateKey.fromBytes(Hex.decodeHex(SENDER_KEY));
+
+        // Cover RLP list headers whose payload length takes 1 and 3 bytes.
+        for (int dataLength : new int[] { 0, 1, 100, 300, 70_000 }) {
+            SignedTransaction transaction = SignedTransaction.newGeneralTransaction(
+                sender, BigInteger.valueOf(dataLength), new Address(new byte[32]), new byte[dataLength],
+                2_000_000, 10_000_000_000L, BigInteger.ONE, null);
+
+            byte[] expected = SignedTransactionBuilder.getTransactionHashOfSignedTransaction(transaction.getSignedTransactionBytes());
+            assertArrayEquals(expected, transaction.getTransactionHash());
+        }
+
+        SignedTransaction create = SignedTransaction.newAvmCreateTransaction(
+            sender, BigInteger.ZERO, new byte[5_000], 5_000_000, 10_000_000_000L, BigInteger.ZERO, null);
+        assertArrayEquals(SignedTransactionBuilder.getTransactionHashOfSignedTransaction(create.getSignedTransactionBytes()), create.getTransactionHash());
+    }
+
+    @Test
+    public void testReturnedHashCannotModifyTheTransaction() throws Exception {
+        SignedTransaction transaction = newTransaction();
+        byte[] hash = transaction.getTransactionHash();
+        hash[0] ^= 1;
+
+        assertArrayEquals(SignedTransactionBuilder.getTransactionHashOfSignedTransaction(transaction.getSignedTransactionBytes()), transaction.getTransactionHash());
+    }
+
+    @Test
+    public void testViewsAreReadOnlyAndMatchTheCopies() throws Exception {
+        SignedTransaction transaction = newTransaction();
+        ByteBuffer bytes = transaction.getSignedTransactionBytesView();
+        ByteBuffer hash = transaction.getTransactionHashView();
+
+        assertTrue(bytes.isReadOnly());
+        assertTrue(hash.isReadOnly());
+        assertEquals(ByteBuffer.wrap(transaction.getSignedTransactionBytes()), bytes);
+        assertEquals(ByteBuffer.wrap(transaction.getTransactionHash()), hash);
+    }
+
+    private static SignedTransaction newTransaction() throws Exception {
+        return SignedTransaction.newGeneralTransaction(
+            PrivateKey.fromBytes(Hex.decodeHex(SENDER_KEY)), BigInteger.ZERO, new Address(new byte[32]),
+            new byte[0], 2_000_000, 10_000_000_000L, BigInteger.ONE, null);
+    }
+
+}
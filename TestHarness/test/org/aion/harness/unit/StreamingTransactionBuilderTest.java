@@ -0,0 +1,96 @@
+package org.aion.harness.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.kernel.BulkRawTransactionBuilder.TransactionType;
+import org.aion.harness.kernel.PrivateKey;
+import org.aion.harness.kernel.SignedTransaction;
+import org.aion.harness.kernel.StreamingTransactionBuilder;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+public class StreamingTransactionBuilderTest {
+    private static final String SENDER_KEY = "32ee00c327f522f0c8d300921148a6c42f40a3ce45c1f56baa7bfa752200d9e5";
+
+    @Test
+    public void testParallelStreamIsOrderedByIndex() throws Exception {
+        List<SignedTransaction> transactions = newBuilder(500).stream().parallel().collect(Collectors.toList());
+
+        assertEquals(500, transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            assertTrue(contains(transactions.get(i).getSignedTransactionBytes(), payload(i)));
+        }
+    }
+
+    @Test
+    public void testChunksCoverEveryTransactionOnce() throws Exception {
+        Iterator<List<SignedTransaction>> chunks = newBuilder(10).chunks(4);
+
+        assertEquals(4, chunks.next().size());
+        assertEquals(4, chunks.next().size());
+        List<SignedTransaction> last = chunks.next();
+        assertEquals(2, last.size());
+        assertTrue(contains(last.get(1).getSignedTransactionBytes(), payload(9)));
+        assertFalse(chunks.hasNext());
+    }
+
+    @Test
+    public void testSettingsAreCapturedWhenIterationBegins() throws Exception {
+        StreamingTransactionBuilder builder = newBuilder(1);
+        Iterator<SignedTransaction> iterator = builder.iterator();
+        builder.useTransactionDatas(i -> "changed".getBytes(StandardCharsets.US_ASCII));
+
+        assertTrue(contains(iterator.next().getSignedTransactionBytes(), payload(0)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMissingSettingIsRejected() {
+        new StreamingTransactionBuilder(1).useSameEnergyLimit(1).stream();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testArrayOfWrongLengthIsRejected() {
+        new StreamingTransactionBuilder(2).useEnergyLimits(new long[3]);
+    }
+
+    private static StreamingTransactionBuilder newBuilder(int count) throws Exception {
+        long[] energyLimits = new long[count];
+        Arrays.fill(energyLimits, 50_000);
+
+        return new StreamingTransactionBuilder(count)
+            .useSameSender(PrivateKey.fromBytes(Hex.decodeHex(SENDER_KEY)), BigInteger.ZERO)
+            .useSameDestination(new Address(new byte[32]))
+            .useTransferValues(i -> BigInteger.valueOf(i + 1))
+            .useTransactionDatas(StreamingTransactionBuilderTest::payload)
+            .useEnergyLimits(energyLimits)
+            .useSameEnergyPrice(10_000_000_000L)
+            .useSameTransactionType(TransactionType.FVM);
+    }
+
+    private static byte[] payload(int i) {
+        return ("payload-" + i + ";").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static boolean contains(byte[] bytes, byte[] part) {
+        for (int i = 0; i + part.length <= bytes.length; i++) {
+            int j = 0;
+            while ((j < part.length) && (bytes[i + j] == part[j])) {
+                j++;
+            }
+            if (j == part.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.aion.harness.unit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.kernel.PrivateKey;
+import org.aion.harness.kernel.SignedTransaction;
+import org.aion.harness.kernel.TransactionTemplate;
+import org.aion.harness.main.SubmissionScheduler;
+import org.aion.harness.main.SubmissionScheduler.Report;
+import org.aion.harness.main.TransactionTracker;
+import org.aion.harness.main.event.JavaPrepackagedLogEvents;
+import org.aion.harness.main.types.ReceiptHash;
+import org.aion.harness.result.RpcResult;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+public class SubmissionSchedulerTest {
+    private static final TransactionTemplate TEMPLATE = TransactionTemplate.forGeneralTransactions(new byte[0], 50_000, 10_000_000_000L, null);
+
+    @Test
+    public void testSendsAreInterleavedAndLimitedByDepth() throws Exception {
+        List<List<SignedTransaction>> workload = newWorkload(3, 5);
+        TransactionTracker tracker = new TransactionTracker(new JavaPrepackagedLogEvents(), 15);
+        List<SignedTransaction> sent = Collections.synchronizedList(new ArrayList<>());
+
+        // Nothing is ever sealed, so each sender stops at its in-flight depth.
+        Report report = new SubmissionScheduler(transaction -> accept(sent, transaction), tracker, 2, 1)
+            .submit(workload, 200, TimeUnit.MILLISECONDS);
+
+        assertEquals(6, report.numberOfTransactionsSent());
+        assertEquals(9, report.numberOfTransactionsNotSent());
+        assertEquals(0, report.numberOfTransactionsSealed());
+        for (int i = 0; i < 6; i++) {
+            assertArrayEquals(workload.get(i % 3).get(i / 3).getTransactionHash(), sent.get(i).getTransactionHash());
+        }
+    }
+
+    @Test
+    public void testSealingFreesSendersUntilTheWorkloadIsDone() throws Exception {
+        List<List<SignedTransaction>> workload = newWorkload(8, 25);
+        TransactionTracker tracker = new TransactionTracker(new JavaPrepackagedLogEvents(), 200);
+        List<SignedTransaction> sent = Collections.synchronizedList(new ArrayList<>());
+
+        // Seal every accepted transaction a little later, from another thread, as a node would.
+        Thread sealer = new Thread(() -> {
+            int sealed = 0;
+            try {
+                while (sealed < 200) {
+                    Thread.sleep(1);
+                    List<SignedTransaction> batch;
+                    synchronized (sent) {
+                        batch = new ArrayList<>(sent.subList(sealed, sent.size()));
+                    }
+                    for (SignedTransaction transaction : batch) {
+                        tracker.observe("Transaction: " + Hex.encodeHexString(transaction.getTransactionHash()) + " was sealed into block #1");
+                    }
+                    sealed += batch.size();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        sealer.start();
+
+        Report report = new SubmissionScheduler(transaction -> accept(sent, transaction), tracker, 4, 3)
+            .submit(workload, 1, TimeUnit.MINUTES);
+        sealer.join();
+
+        assertEquals(200, report.numberOfTransactionsSent());
+        assertEquals(200, report.numberOfTransactionsSealed());
+        assertEquals(0, report.numberOfTransactionsNotSent());
+        assertEquals(0, tracker.numberOfPendingTransactions());
+    }
+
+    @Test
+    public void testRejectionStopsOnlyItsSender() throws Exception {
+        List<List<SignedTransaction>> workload = newWorkload(2, 4);
+        TransactionTracker tracker = new TransactionTracker(new JavaPrepackagedLogEvents(), 8);
+        byte[] rejected = workload.get(1).get(1).getTransactionHash();
+
+        Report report = new SubmissionScheduler(transaction -> {
+            String hash = Hex.encodeHexString(transaction.getTransactionHash());
+            if (hash.equals(Hex.encodeHexString(rejected))) {
+                tracker.observe("tx " + hash + " is rejected");
+            } else {
+                tracker.observe("Transaction: " + hash + " was sealed into block #1");
+            }
+            return RpcResult.successful(new ReceiptHash(transaction.getTransactionHash()), 0, TimeUnit.MILLISECONDS);
+        }, tracker, 1, 1).submit(workload, 1, TimeUnit.MINUTES);
+
+        assertEquals(5, report.numberOfTransactionsSealed());
+        assertEquals(1, report.numberOfTransactionsRejected());
+        assertEquals(2, report.numberOfTransactionsNotSent());
+        assertFalse(report.toString().isEmpty());
+        assertTrue(report.elapsedTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    private static RpcResult<ReceiptHash> accept(List<SignedTransaction> sent, SignedTransaction transaction) {
+        sent.add(transaction);
+        return RpcResult.successful(new ReceiptHash(transaction.getTransactionHash()), 0, TimeUnit.MILLISECONDS);
+    }
+
+    private static List<List<SignedTransaction>> newWorkload(int numberOfSenders, int transactionsPerSender) throws Exception {
+        Address destination = new Address(new byte[32]);
+        List<List<SignedTransaction>> workload = new ArrayList<>();
+        for (int i = 0; i < numberOfSenders; i++) {
+            PrivateKey sender = PrivateKey.random();
+            List<SignedTransaction> transactions = new ArrayList<>();
+            for (int nonce = 0; nonce < transactionsPerSender; nonce++) {
+                transactions.add(TEMPLATE.sign(sender, BigInteger.valueOf(nonce), destination, BigInteger.ONE));
+            }
+            workload.add(transactions);
+        }
+        return workload;
+    }
+
+}
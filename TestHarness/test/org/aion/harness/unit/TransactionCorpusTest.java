@@ -0,0 +1,115 @@
+package org.aion.harness.unit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import main.SignedTransactionBuilder;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.kernel.BulkRawTransactionBuilder.TransactionType;
+import org.aion.harness.kernel.PrivateKey;
+import org.aion.harness.kernel.SignedTransaction;
+import org.aion.harness.kernel.StreamingTransactionBuilder;
+import org.aion.harness.kernel.TransactionCorpus;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+public class TransactionCorpusTest {
+    private static final String SENDER_KEY = "32ee00c327f522f0c8d300921148a6c42f40a3ce45c1f56baa7bfa752200d9e5";
+
+    @Test
+    public void testCorpusRoundTripsEveryTransactionInOrder() throws Exception {
+        List<SignedTransaction> transactions = newBuilder(300).stream().collect(Collectors.toList());
+        File file = Files.createTempFile("corpus", ".bin").toFile();
+
+        try {
+            assertEquals(300, TransactionCorpus.write(file, transactions.stream()));
+
+            try (TransactionCorpus corpus = TransactionCorpus.open(file)) {
+                assertEquals(300, corpus.numberOfTransactions());
+
+                for (int pass = 0; pass < 2; pass++) {
+                    for (SignedTransaction transaction : transactions) {
+                        assertTrue(corpus.next());
+                        assertArrayEquals(transaction.getSignedTransactionBytes(), toArray(corpus.rawTransaction()));
+                        assertArrayEquals(transaction.getTransactionHash(), corpus.transactionHash());
+                    }
+                    assertFalse(corpus.next());
+                    corpus.rewind();
+                }
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testPresignedHashesMatchTheirTransactions() throws Exception {
+        File file = Files.createTempFile("corpus", ".bin").toFile();
+
+        try {
+            assertEquals(100, TransactionCorpus.presign(file, newBuilder(100)));
+
+            List<Long> indices = new ArrayList<>();
+            try (TransactionCorpus corpus = TransactionCorpus.open(file)) {
+                while (corpus.next()) {
+                    byte[] raw = toArray(corpus.rawTransaction());
+                    assertArrayEquals(SignedTransactionBuilder.getTransactionHashOfSignedTransaction(raw), corpus.transactionHash());
+                    indices.add(corpus.index());
+                }
+            }
+            assertEquals(100, indices.size());
+            assertEquals(Long.valueOf(99), indices.get(99));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedCorpusIsReported() throws Exception {
+        File file = Files.createTempFile("corpus", ".bin").toFile();
+
+        try {
+            TransactionCorpus.write(file, newBuilder(2).stream());
+            try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+                raw.setLength(raw.length() - 1);
+            }
+
+            try (TransactionCorpus corpus = TransactionCorpus.open(file)) {
+                while (corpus.next()) {
+                    corpus.rawTransaction();
+                }
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static StreamingTransactionBuilder newBuilder(int count) throws Exception {
+        return new StreamingTransactionBuilder(count)
+            .useSameSender(PrivateKey.fromBytes(Hex.decodeHex(SENDER_KEY)), BigInteger.ZERO)
+            .useSameDestination(new Address(new byte[32]))
+            .useSameTransferValue(BigInteger.ONE)
+            .useTransactionDatas(i -> new byte[i % 7])
+            .useSameEnergyLimit(50_000)
+            .useSameEnergyPrice(10_000_000_000L)
+            .useSameTransactionType(TransactionType.FVM);
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+}
@@ -0,0 +1,113 @@
+package org.aion.harness.unit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import main.SignedTransactionBuilder;
+import net.i2p.crypto.eddsa.EdDSAEngine;
+import net.i2p.crypto.eddsa.EdDSAPublicKey;
+import net.i2p.crypto.eddsa.spec.EdDSANamedCurveTable;
+import net.i2p.crypto.eddsa.spec.EdDSAParameterSpec;
+import net.i2p.crypto.eddsa.spec.EdDSAPublicKeySpec;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.kernel.PrivateKey;
+import org.aion.harness.kernel.SignedTransaction;
+import org.aion.harness.kernel.TransactionTemplate;
+import org.aion.harness.kernel.utils.CryptoUtils;
+import org.aion.rlp.RLP;
+import org.aion.rlp.RLPList;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+public class TransactionTemplateTest {
+    private static final String SENDER_KEY = "32ee00c327f522f0c8d300921148a6c42f40a3ce45c1f56baa7bfa752200d9e5";
+    private static final int TIMESTAMP = 4;
+    private static final int SIGNATURE = 8;
+
+    @Test
+    public void testTemplateMatchesTheSignerLibraryExceptForTheTimestamp() throws Exception {
+        PrivateKey sender = PrivateKey.fromBytes(Hex.decodeHex(SENDER_KEY));
+        Address destination = PrivateKey.random().getAddress();
+        byte[] beaconHash = new byte[32];
+        beaconHash[5] = 9;
+
+        // Cover numbers encoded as a single byte, with a leading zero byte, and longer than a long.
+        BigInteger[] numbers = new BigInteger[] { BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf(127), BigInteger.valueOf(128),
+            BigInteger.valueOf(Long.MAX_VALUE), BigInteger.TEN.pow(30) };
+
+        for (byte[] data : new byte[][] { new byte[0], new byte[1], new byte[600] }) {
+            for (byte[] beacon : new byte[][] { null, beaconHash }) {
+                TransactionTemplate template = TransactionTemplate.forGeneralTransactions(data, 2_000_000, 10_000_000_000L, beacon);
+                for (BigInteger number : numbers) {
+                    SignedTransaction expected = SignedTransaction.newGeneralTransaction(
+                        sender, number, destination, data, 2_000_000, 10_000_000_000L, number, beacon);
+                    SignedTransaction actual = template.sign(sender, number, destination, number);
+                    assertSameExceptForTimestamp(expected, actual);
+                }
+            }
+        }
+
+        TransactionTemplate creates = TransactionTemplate.forAvmCreateTransactions(new byte[3_000], 5_000_000, 10_000_000_000L, null);
+        assertSameExceptForTimestamp(
+            SignedTransaction.newAvmCreateTransaction(sender, BigInteger.TEN, new byte[3_000], 5_000_000, 10_000_000_000L, BigInteger.ZERO, null),
+            creates.sign(sender, BigInteger.TEN, null, BigInteger.ZERO));
+    }
+
+    @Test
+    public void testSignatureVerifiesAgainstTheSendersPublicKey() throws Exception {
+        PrivateKey sender = PrivateKey.fromBytes(Hex.decodeHex(SENDER_KEY));
+        SignedTransaction transaction = TransactionTemplate.forGeneralTransactions(new byte[10], 50_000, 10_000_000_000L, null)
+            .sign(sender, BigInteger.valueOf(3), new Address(new byte[32]), BigInteger.ONE);
+
+        RLPList fields = (RLPList) RLP.decode2(transaction.getSignedTransactionBytes()).get(0);
+        byte[] signature = fields.get(SIGNATURE).getRLPData();
+        byte[] publicKey = Arrays.copyOfRange(signature, 0, 32);
+
+        // The signed message is the hash of the transaction with its signature removed.
+        byte[][] unsignedFields = new byte[SIGNATURE][];
+        for (int i = 0; i < SIGNATURE; i++) {
+            unsignedFields[i] = RLP.encodeElement(fields.get(i).getRLPData());
+        }
+        byte[] message = CryptoUtils.blake256(RLP.encodeList(unsignedFields));
+
+        EdDSAParameterSpec spec = EdDSANamedCurveTable.getByName(EdDSANamedCurveTable.ED_25519);
+        EdDSAEngine engine = new EdDSAEngine(MessageDigest.getInstance(spec.getHashAlgorithm()));
+        engine.initVerify(new EdDSAPublicKey(new EdDSAPublicKeySpec(publicKey, spec)));
+        assertTrue(engine.verifyOneShot(message, Arrays.copyOfRange(signature, 32, 96)));
+        assertArrayEquals(CryptoUtils.derivePublicKey(Hex.decodeHex(SENDER_KEY)), publicKey);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAvmCreateWithDestinationIsRejected() throws Exception {
+        TransactionTemplate.forAvmCreateTransactions(new byte[1], 1, 1, null)
+            .sign(PrivateKey.random(), BigInteger.ZERO, new Address(new byte[32]), BigInteger.ZERO);
+    }
+
+    /**
+     * Asserts that the two transactions hold the same fields, other than their timestamps and
+     * therefore their signatures, and that the hash of the actual transaction is correct.
+     */
+    private static void assertSameExceptForTimestamp(SignedTransaction expected, SignedTransaction actual) {
+        RLPList expectedFields = (RLPList) RLP.decode2(expected.getSignedTransactionBytes()).get(0);
+        RLPList actualFields = (RLPList) RLP.decode2(actual.getSignedTransactionBytes()).get(0);
+
+        assertEquals(expectedFields.size(), actualFields.size());
+        for (int i = 0; i < expectedFields.size(); i++) {
+            byte[] expectedField = RLP.encodeElement(expectedFields.get(i).getRLPData());
+            byte[] actualField = RLP.encodeElement(actualFields.get(i).getRLPData());
+            if (i == TIMESTAMP) {
+                assertEquals(expectedField.length, actualField.length);
+            } else if (i == SIGNATURE) {
+                assertArrayEquals(Arrays.copyOf(expectedField, 34), Arrays.copyOf(actualField, 34));
+            } else {
+                assertArrayEquals("field #" + i, expectedField, actualField);
+            }
+        }
+        assertArrayEquals(SignedTransactionBuilder.getTransactionHashOfSignedTransaction(actual.getSignedTransactionBytes()), actual.getTransactionHash());
+    }
+
+}
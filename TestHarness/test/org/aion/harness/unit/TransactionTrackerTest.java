@@ -0,0 +1,139 @@
+package org.aion.harness.unit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.aion.harness.main.TransactionTracker;
+import org.aion.harness.main.TransactionTracker.State;
+import org.aion.harness.main.event.JavaPrepackagedLogEvents;
+import org.aion.harness.main.event.RustPrepackagedLogEvents;
+import org.aion.harness.main.util.TestHarnessHelper;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.Test;
+
+public class TransactionTrackerTest {
+
+    @Test
+    public void testLifecycleFromJavaLogLines() {
+        TransactionTracker tracker = new TransactionTracker(new JavaPrepackagedLogEvents(), 4);
+        byte[] sealed = hash(1);
+        byte[] rejected = hash(2);
+
+        assertTrue(tracker.track(sealed));
+        assertTrue(tracker.track(rejected));
+        assertFalse(tracker.track(sealed));
+        assertTrue(tracker.markAcked(sealed));
+        assertEquals(State.ACKED, tracker.stateOf(sealed));
+        assertEquals(State.SENT, tracker.stateOf(rejected));
+        assertNull(tracker.stateOf(hash(3)));
+
+        // A line naming a tracked hash but neither outcome changes nothing.
+        tracker.observe("broadcasting tx " + Hex.encodeHexString(sealed));
+        assertEquals(2, tracker.numberOfPendingTransactions());
+
+        tracker.observe("19-06-01 12:00:00.000 INFO  CONS [pool]: Transaction: " + Hex.encodeHexString(sealed) + " was sealed into block #12");
+        tracker.observe("19-06-01 12:00:00.000 DEBUG TX   [pool]: tx " + Hex.encodeHexString(rejected) + " is rejected");
+
+        assertEquals(State.SEALED, tracker.stateOf(sealed));
+        assertEquals(State.REJECTED, tracker.stateOf(rejected));
+        assertEquals(0, tracker.numberOfPendingTransactions());
+        assertTrue(tracker.latencyOf(sealed, TimeUnit.MILLISECONDS) >= 0);
+
+        // Only a sealed transaction has a receipt, and it cannot go back to being acknowledged.
+        assertFalse(tracker.markReceiptFetched(rejected));
+        assertTrue(tracker.markReceiptFetched(sealed));
+        assertFalse(tracker.markAcked(sealed));
+        assertEquals(1, tracker.countOf(State.RECEIPT_FETCHED));
+        assertEquals(1, tracker.countOf(State.REJECTED));
+    }
+
+    @Test
+    public void testRustLogLinesAndUppercaseHashes() {
+        TransactionTracker tracker = new TransactionTracker(new RustPrepackagedLogEvents(), 0);
+        byte[] transaction = hash(7);
+        tracker.track(transaction);
+
+        tracker.observe("2019-06-01 12:00:00 [miner] INFO miner Transaction mined (hash " + Hex.encodeHexString(transaction).toUpperCase() + ")");
+        assertEquals(State.SEALED, tracker.stateOf(transaction));
+    }
+
+    @Test
+    public void testGrowsBeyondExpectedSizeAndQueriesEveryEntry() throws InterruptedException {
+        TransactionTracker tracker = new TransactionTracker(new JavaPrepackagedLogEvents(), 1);
+        int count = 10_000;
+        assertTrue(tracker.track(hash(0)));
+        Thread.sleep(5);
+        for (int i = 1; i < count; i++) {
+            assertTrue(tracker.track(hash(i)));
+        }
+        assertEquals(count, tracker.size());
+        assertArrayEquals(hash(0), tracker.oldestPendingTransaction());
+
+        for (int i = 0; i < count; i += 2) {
+            tracker.observe("Transaction: " + Hex.encodeHexString(hash(i)) + " was sealed into block");
+        }
+        assertEquals(count / 2, tracker.countOf(State.SEALED));
+        assertEquals(count / 2, tracker.countOf(State.SENT));
+        assertEquals(State.SENT, tracker.stateOf(tracker.oldestPendingTransaction()));
+
+        List<byte[]> visited = new ArrayList<>();
+        tracker.forEach(State.SENT, (hash, state, sentAt, decidedAt) -> {
+            assertEquals(State.SENT, state);
+            assertEquals(-1, decidedAt);
+            visited.add(hash);
+        });
+        assertEquals(count / 2, visited.size());
+
+        assertFalse(tracker.awaitNoPendingTransactions(10, TimeUnit.MILLISECONDS));
+        for (int i = 1; i < count; i += 2) {
+            tracker.observe("tx " + Hex.encodeHexString(hash(i)) + " is rejected");
+        }
+        assertTrue(tracker.awaitNoPendingTransactions(0, TimeUnit.MILLISECONDS));
+        assertNull(tracker.oldestPendingTransaction());
+    }
+
+    @Test
+    public void testBufferViewsMatchTheirBytes() {
+        TransactionTracker tracker = new TransactionTracker(new JavaPrepackagedLogEvents(), 4);
+        byte[] transaction = hash(9);
+
+        // A view onto the middle of a larger buffer is read from its position, without moving it.
+        ByteBuffer view = ByteBuffer.allocate(40).position(4).put(transaction).position(4).limit(36).asReadOnlyBuffer();
+
+        assertTrue(tracker.track(view));
+        assertFalse(tracker.track(transaction));
+        assertTrue(tracker.markAcked(view));
+        assertEquals(State.ACKED, tracker.stateOf(transaction));
+        assertEquals(State.ACKED, tracker.stateOf(view));
+        assertEquals(4, view.position());
+        assertEquals(Hex.encodeHexString(transaction), TestHarnessHelper.toHexString(view));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortHashIsRejected() {
+        new TransactionTracker(new JavaPrepackagedLogEvents(), 1).track(new byte[31]);
+    }
+
+    /**
+     * Returns a distinct hash for each seed whose bytes, like a real hash, are spread out.
+     */
+    private static byte[] hash(int seed) {
+        byte[] hash = new byte[32];
+        long state = seed * 0x9E3779B97F4A7C15L + 1;
+        for (int i = 0; i < hash.length; i++) {
+            state ^= state << 13;
+            state ^= state >>> 7;
+            state ^= state << 17;
+            hash[i] = (byte) state;
+        }
+        return hash;
+    }
+
+}
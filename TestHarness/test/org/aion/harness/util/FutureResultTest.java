@@ -0,0 +1,90 @@
+package org.aion.harness.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.aion.harness.main.event.Event;
+import org.aion.harness.result.FutureResult;
+import org.aion.harness.result.LogEventResult;
+import org.junit.Test;
+
+public class FutureResultTest {
+
+    @Test
+    public void testAllOfCompletesOnceEveryFutureIsFinished() throws Exception {
+        FutureResult<String> first = new FutureResult<>();
+        FutureResult<String> second = new FutureResult<>();
+
+        CompletableFuture<List<String>> all = FutureResult.allOf(List.of(first, second));
+        second.finish("two");
+        assertFalse(all.isDone());
+
+        first.finish("one");
+        assertEquals(List.of("one", "two"), all.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAnyOfCompletesOnceAnyFutureIsFinished() throws Exception {
+        FutureResult<String> first = new FutureResult<>();
+        FutureResult<String> second = new FutureResult<>();
+
+        CompletableFuture<Integer> any = FutureResult.anyOf(List.of(first, second)).thenApply(String::length);
+        second.finish("three");
+        assertEquals(5, (int) any.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOrTimeoutDoesNotAffectTheFuture() throws Exception {
+        FutureResult<String> future = new FutureResult<>();
+
+        try {
+            future.orTimeout(10, TimeUnit.MILLISECONDS).get();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+
+        assertFalse(future.isDone());
+        future.finish("done");
+        assertEquals("done", future.get());
+    }
+
+    @Test(expected = CancellationException.class)
+    public void testCancelledFutureCannotBeFinished() throws Exception {
+        FutureResult<String> future = new FutureResult<>();
+        assertTrue(future.cancel(false));
+        future.finish("too late");
+        future.get();
+    }
+
+    @Test
+    public void testCancellingRemovesEventRequestFromPool() {
+        LogListener listener = new LogListener();
+        assertTrue(listener.startListening().isSuccess());
+
+        try {
+            int pendingBefore = listener.numberOfPendingEventRequests();
+
+            FutureResult<LogEventResult> future = listener.submitEventToBeListenedFor(new Event("never"), 1, TimeUnit.MINUTES);
+            assertEquals(pendingBefore + 1, listener.numberOfPendingEventRequests());
+
+            assertTrue(future.cancel(false));
+            assertTrue(future.isCancelled());
+            assertEquals(pendingBefore, listener.numberOfPendingEventRequests());
+
+            // A line satisfying the cancelled event must not resurrect it.
+            listener.handle("never");
+            assertTrue(future.isCancelled());
+            assertEquals(pendingBefore, listener.numberOfPendingEventRequests());
+        } finally {
+            listener.stopListening();
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.aion.harness.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.aion.harness.main.event.Event;
+import org.aion.harness.result.FutureResult;
+import org.aion.harness.result.LogEventResult;
+import org.junit.Test;
+
+public class KernelClockTest {
+    private static final long EXPECTED_SECOND = LocalDateTime.of(2019, 10, 23, 14, 5, 32).atZone(ZoneId.systemDefault()).toEpochSecond();
+
+    @Test
+    public void testParseJavaTimestamp() {
+        long nanos = KernelClock.parseEpochNanos("19-10-23 14:05:32.123 INFO  GEN  [main]: Starting kernel");
+        assertEquals(TimeUnit.SECONDS.toNanos(EXPECTED_SECOND) + TimeUnit.MILLISECONDS.toNanos(123), nanos);
+    }
+
+    @Test
+    public void testParseRustTimestamp() {
+        long nanos = KernelClock.parseEpochNanos("2019-10-23 14:05:32  INFO sync  = Sync Statics =");
+        assertEquals(TimeUnit.SECONDS.toNanos(EXPECTED_SECOND), nanos);
+    }
+
+    @Test
+    public void testParseColouredTimestamp() {
+        long nanos = KernelClock.parseEpochNanos("\u001B[37m2019-10-23 14:05:32,5\u001B[0m Transaction mined");
+        assertEquals(TimeUnit.SECONDS.toNanos(EXPECTED_SECOND) + TimeUnit.MILLISECONDS.toNanos(500), nanos);
+    }
+
+    @Test
+    public void testLinesWithoutTimestamps() {
+        assertTrue(KernelClock.parseEpochNanos("") < 0);
+        assertTrue(KernelClock.parseEpochNanos("Transaction mined (hash 00)") < 0);
+        assertTrue(KernelClock.parseEpochNanos("19-13-45 14:05:32.123 INFO") < 0);
+        assertTrue(KernelClock.kernelTimeOf("no timestamp", System.nanoTime(), TimeUnit.NANOSECONDS) < 0);
+    }
+
+    @Test
+    public void testKernelTimeIsNeverAfterReadTime() {
+        // A timestamp far in the future must be clamped to the time the line was read.
+        long readAt = System.nanoTime();
+        assertEquals(readAt, KernelClock.kernelTimeOf("2099-01-01 00:00:00 future", readAt, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testKernelTimeIsTakenWhenLineIsObserved() {
+        long readAt = System.nanoTime();
+        String line = "2099-01-01 00:00:00 block sealed";
+
+        Event event = new Event("sealed");
+        assertTrue(event.isSatisfiedBy(line, readAt, TimeUnit.NANOSECONDS));
+        assertEquals(List.of(readAt), event.getAllKernelObservationTimes(TimeUnit.NANOSECONDS));
+
+        // The result keeps the kernel times it is given rather than working them out again.
+        LogEventResult result = LogEventResult.observedEvent(List.of("sealed"), List.of(line), List.of(readAt), List.of(readAt - 5), null, readAt, TimeUnit.NANOSECONDS);
+        assertEquals(List.of(readAt - 5), result.getAllKernelObservationTimes(TimeUnit.NANOSECONDS));
+        assertEquals(readAt - 5, result.kernelTimeOfObservation(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testLogEventResultExposesKernelTime() throws Exception {
+        LogListener listener = new LogListener();
+        assertTrue(listener.startListening().isSuccess());
+
+        try {
+            FutureResult<LogEventResult> future = listener.submitEventToBeListenedFor(new Event("sealed"), 1, TimeUnit.MINUTES);
+            listener.handle(LocalDateTime.now().minusSeconds(2).toString().replace('T', ' ') + " block sealed");
+
+            LogEventResult result = future.get();
+            long harnessTime = result.timeOfObservation(TimeUnit.NANOSECONDS);
+            long kernelTime = result.kernelTimeOfObservation(TimeUnit.NANOSECONDS);
+
+            assertTrue(kernelTime >= 0);
+            assertTrue(harnessTime - kernelTime >= TimeUnit.SECONDS.toNanos(1));
+            assertEquals(List.of(kernelTime), result.getAllKernelObservationTimes(TimeUnit.NANOSECONDS));
+        } finally {
+            listener.stopListening();
+        }
+    }
+
+}
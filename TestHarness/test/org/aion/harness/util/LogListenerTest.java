@@ -0,0 +1,156 @@
+package org.aion.harness.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.aion.harness.main.event.Event;
+import org.aion.harness.main.event.IEvent;
+import org.aion.harness.result.FutureResult;
+import org.aion.harness.result.LogEventResult;
+import org.junit.Test;
+
+public class LogListenerTest {
+
+    @Test
+    public void testAbsentEventIsDecidedByTimerOnQuietLog() throws Exception {
+        LogMultiplexer multiplexer = new LogMultiplexer(1, 10, TimeUnit.MILLISECONDS);
+        File log = Files.createTempFile("listener", ".log").toFile();
+        LogReader reader = new LogReader(multiplexer);
+
+        try {
+            assertTrue(reader.startReading(log, true).isSuccess());
+            LogListener listener = reader.getLogListener();
+
+            int pendingBefore = listener.numberOfPendingEventRequests();
+            FutureResult<LogEventResult> future = listener.submitEventToBeListenedFor(Event.absent(new Event("rejected"), 50, TimeUnit.MILLISECONDS), 10, TimeUnit.MINUTES);
+
+            // No lines arrive at all, yet the request is decided well before its timeout.
+            assertTrue(future.get(10, TimeUnit.SECONDS).eventWasObserved());
+
+            // The future is completed just before the request is removed from the pool.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while ((listener.numberOfPendingEventRequests() != pendingBefore) && (System.nanoTime() < deadline)) {
+                Thread.sleep(10);
+            }
+            assertEquals(pendingBefore, listener.numberOfPendingEventRequests());
+        } finally {
+            reader.stopReading();
+            log.delete();
+        }
+    }
+
+    @Test
+    public void testAbsenceWaitsForTheLogToBeReadPastItsWindow() throws Exception {
+        LogListener listener = new LogListener();
+        assertTrue(listener.startListening().isSuccess());
+
+        try {
+            FutureResult<LogEventResult> future = listener.submitEventToBeListenedFor(Event.absent(new Event("rejected"), 50, TimeUnit.MILLISECONDS), 10, TimeUnit.MINUTES);
+
+            // The window has elapsed, but nothing has read the log, which may hold a rejection.
+            Thread.sleep(500);
+            assertFalse(future.isDone());
+
+            listener.hasReadUpTo(System.nanoTime(), TimeUnit.NANOSECONDS);
+            assertTrue(future.isDone());
+            assertTrue(future.get().eventWasObserved());
+        } finally {
+            listener.stopListening();
+        }
+    }
+
+    @Test
+    public void testAbsenceIsFalsifiedByLineReadAfterItsWindow() throws Exception {
+        LogListener listener = new LogListener();
+        assertTrue(listener.startListening().isSuccess());
+
+        try {
+            FutureResult<LogEventResult> future = listener.submitEventToBeListenedFor(Event.absent(new Event("rejected"), 50, TimeUnit.MILLISECONDS), 10, TimeUnit.MINUTES);
+            Thread.sleep(200);
+
+            // Read after the window, but perhaps written within it.
+            listener.handle("tx rejected");
+            assertTrue(future.isDone());
+            assertTrue(future.get().eventWasFalsified());
+        } finally {
+            listener.stopListening();
+        }
+    }
+
+    @Test
+    public void testAbsenceWindowBeginsWhenListenedFor() throws Exception {
+        LogListener listener = new LogListener();
+        assertTrue(listener.startListening().isSuccess());
+
+        try {
+            IEvent absence = Event.absent(new Event("rejected"), 1, TimeUnit.MINUTES);
+            Thread.sleep(500);
+            long beforeSubmission = System.nanoTime();
+            FutureResult<LogEventResult> future = listener.submitEventToBeListenedFor(absence, 10, TimeUnit.MINUTES);
+
+            // The minute-long window began on submission, not on construction.
+            listener.hasReadUpTo(beforeSubmission + TimeUnit.MINUTES.toNanos(1) - 1, TimeUnit.NANOSECONDS);
+            assertFalse(future.isDone());
+            listener.hasReadUpTo(System.nanoTime() + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS);
+            assertTrue(future.isDone());
+            assertTrue(future.get().eventWasObserved());
+        } finally {
+            listener.stopListening();
+        }
+    }
+
+    @Test
+    public void testFalsifiedRequestLeavesPoolImmediately() throws Exception {
+        LogListener listener = new LogListener();
+        assertTrue(listener.startListening().isSuccess());
+
+        try {
+            int pendingBefore = listener.numberOfPendingEventRequests();
+            FutureResult<LogEventResult> future = listener.submitEventToBeListenedFor(Event.before(new Event("sealed"), new Event("rejected")), 10, TimeUnit.MINUTES);
+
+            listener.handle("tx rejected");
+
+            assertTrue(future.isDone());
+            LogEventResult result = future.get();
+            assertTrue(result.eventWasFalsified());
+            assertEquals("rejected", result.getAllObservedEvents().get(0));
+            assertEquals(pendingBefore, listener.numberOfPendingEventRequests());
+        } finally {
+            listener.stopListening();
+        }
+    }
+
+    @Test
+    public void testTimedOutRequestExpiresWithoutNewLines() throws Exception {
+        LogListener listener = new LogListener();
+        assertTrue(listener.startListening().isSuccess());
+
+        try {
+            FutureResult<LogEventResult> future = listener.submitEventToBeListenedFor(new Event("never"), 50, TimeUnit.MILLISECONDS);
+            assertTrue(future.get(10, TimeUnit.SECONDS).eventExpired());
+        } finally {
+            listener.stopListening();
+        }
+    }
+
+    @Test
+    public void testEarliestDeadlineIsSweptAmongLaterOnes() throws Exception {
+        LogListener listener = new LogListener();
+        assertTrue(listener.startListening().isSuccess());
+
+        try {
+            FutureResult<LogEventResult> later = listener.submitEventToBeListenedFor(new Event("never"), 10, TimeUnit.MINUTES);
+            FutureResult<LogEventResult> sooner = listener.submitEventToBeListenedFor(new Event("never"), 50, TimeUnit.MILLISECONDS);
+
+            assertTrue(sooner.get(10, TimeUnit.SECONDS).eventExpired());
+            assertFalse(later.isDone());
+        } finally {
+            listener.stopListening();
+        }
+    }
+
+}
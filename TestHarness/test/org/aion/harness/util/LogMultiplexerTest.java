@@ -0,0 +1,220 @@
+package org.aion.harness.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.aion.harness.main.event.Event;
+import org.aion.harness.main.event.IEvent;
+import org.aion.harness.result.FutureResult;
+import org.aion.harness.result.LogEventResult;
+import org.junit.Test;
+
+public class LogMultiplexerTest {
+
+    @Test
+    public void testOneThreadServicesManyLogs() throws Exception {
+        LogMultiplexer multiplexer = new LogMultiplexer(1, 10, TimeUnit.MILLISECONDS);
+        File log1 = Files.createTempFile("multiplexer", ".log").toFile();
+        File log2 = Files.createTempFile("multiplexer", ".log").toFile();
+
+        LogReader reader1 = new LogReader(multiplexer);
+        LogReader reader2 = new LogReader(multiplexer);
+
+        try {
+            assertTrue(reader1.startReading(log1, true).isSuccess());
+            assertTrue(reader2.startReading(log2, true).isSuccess());
+            assertEquals(2, multiplexer.numberOfSources());
+
+            FutureResult<LogEventResult> future1 = reader1.getLogListener().submitEventToBeListenedFor(new Event("node one ready"), 1, TimeUnit.MINUTES);
+            FutureResult<LogEventResult> future2 = reader2.getLogListener().submitEventToBeListenedFor(new Event("node two ready"), 1, TimeUnit.MINUTES);
+
+            append(log1, "node one ready\n");
+            append(log2, "node two ready\r\n");
+
+            assertTrue(future1.get(10, TimeUnit.SECONDS).eventWasObserved());
+            assertTrue(future2.get(10, TimeUnit.SECONDS).eventWasObserved());
+        } finally {
+            reader1.stopReading();
+            reader2.stopReading();
+            log1.delete();
+            log2.delete();
+        }
+
+        assertEquals(0, multiplexer.numberOfSources());
+    }
+
+    @Test
+    public void testPartialLineIsHeldUntilComplete() throws Exception {
+        LogMultiplexer multiplexer = new LogMultiplexer(1, 10, TimeUnit.MILLISECONDS);
+        File log = Files.createTempFile("multiplexer", ".log").toFile();
+        LogReader reader = new LogReader(multiplexer);
+
+        try {
+            assertTrue(reader.startReading(log, false).isSuccess());
+            FutureResult<LogEventResult> future = reader.getLogListener().submitEventToBeListenedFor(new Event("block sealed"), 1, TimeUnit.MINUTES);
+
+            append(log, "block sea");
+            Thread.sleep(100);
+            assertFalse(future.isDone());
+
+            append(log, "led\n");
+            LogEventResult result = future.get(10, TimeUnit.SECONDS);
+            assertTrue(result.eventWasObserved());
+            assertEquals("block sealed", result.getObservedLogs().get(0));
+        } finally {
+            reader.stopReading();
+            log.delete();
+        }
+    }
+
+    @Test
+    public void testMissingLogIsAwaited() throws Exception {
+        LogMultiplexer multiplexer = new LogMultiplexer(1, 10, TimeUnit.MILLISECONDS);
+        File log = new File(Files.createTempDirectory("multiplexer").toFile(), "late.log");
+        LogReader reader = new LogReader(multiplexer);
+
+        try {
+            assertTrue(reader.startReading(log, true).isSuccess());
+            FutureResult<LogEventResult> future = reader.getLogListener().submitEventToBeListenedFor(new Event("finally here"), 1, TimeUnit.MINUTES);
+
+            Thread.sleep(100);
+            assertFalse(future.isDone());
+            assertTrue(reader.getLogListener().isAlive());
+
+            append(log, "finally here\n");
+            assertTrue(future.get(10, TimeUnit.SECONDS).eventWasObserved());
+        } finally {
+            reader.stopReading();
+            log.delete();
+            log.getParentFile().delete();
+        }
+    }
+
+    @Test
+    public void testTruncatedLogIsReadFromItsStart() throws Exception {
+        LogMultiplexer multiplexer = new LogMultiplexer(1, 10, TimeUnit.MILLISECONDS);
+        File log = Files.createTempFile("multiplexer", ".log").toFile();
+        LogReader reader = new LogReader(multiplexer);
+
+        try {
+            assertTrue(reader.startReading(log, true).isSuccess());
+            FutureResult<LogEventResult> before = reader.getLogListener().submitEventToBeListenedFor(new Event("before truncation"), 1, TimeUnit.MINUTES);
+            FutureResult<LogEventResult> after = reader.getLogListener().submitEventToBeListenedFor(new Event("after"), 1, TimeUnit.MINUTES);
+
+            append(log, "a rather long line written before truncation\n");
+            assertTrue(before.get(10, TimeUnit.SECONDS).eventWasObserved());
+
+            try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+                file.setLength(0);
+            }
+            Thread.sleep(100);
+            append(log, "after\n");
+
+            assertTrue(after.get(10, TimeUnit.SECONDS).eventWasObserved());
+            assertTrue(reader.getLogListener().isAlive());
+        } finally {
+            reader.stopReading();
+            log.delete();
+        }
+    }
+
+    @Test
+    public void testTruncationDrainsSourcesFirst() throws Exception {
+        // The source is polled once on registering, and then not again during the test.
+        LogMultiplexer multiplexer = new LogMultiplexer(1, 1, TimeUnit.HOURS);
+        File log = Files.createTempFile("multiplexer", ".log").toFile();
+        LogReader reader = new LogReader(multiplexer);
+
+        try {
+            assertTrue(reader.startReading(log, true).isSuccess());
+            Thread.sleep(100);
+            FutureResult<LogEventResult> future = reader.getLogListener().submitEventToBeListenedFor(new Event("just before truncation"), 1, TimeUnit.MINUTES);
+
+            append(log, "written just before truncation\n");
+            LogMultiplexer.truncate(log, () -> truncate(log));
+
+            assertTrue(future.get(10, TimeUnit.SECONDS).eventWasObserved());
+            assertEquals(0, log.length());
+        } finally {
+            reader.stopReading();
+            log.delete();
+        }
+    }
+
+    @Test
+    public void testTruncatedLogThatRegrowsIsReadFromItsStart() throws Exception {
+        LogMultiplexer multiplexer = new LogMultiplexer(1, 10, TimeUnit.MILLISECONDS);
+        File log = Files.createTempFile("multiplexer", ".log").toFile();
+        LogReader reader = new LogReader(multiplexer);
+
+        try {
+            assertTrue(reader.startReading(log, true).isSuccess());
+            FutureResult<LogEventResult> before = reader.getLogListener().submitEventToBeListenedFor(new Event("short"), 1, TimeUnit.MINUTES);
+            FutureResult<LogEventResult> after = reader.getLogListener().submitEventToBeListenedFor(new Event("regrown"), 1, TimeUnit.MINUTES);
+
+            append(log, "short\n");
+            assertTrue(before.get(10, TimeUnit.SECONDS).eventWasObserved());
+
+            // The log is longer after the truncation than the source had read to before it.
+            LogMultiplexer.truncate(log, () -> {
+                truncate(log);
+                append(log, "regrown well past the old length of the log\n");
+            });
+
+            assertTrue(after.get(10, TimeUnit.SECONDS).eventWasObserved());
+        } finally {
+            reader.stopReading();
+            log.delete();
+        }
+    }
+
+    @Test
+    public void testRenamedLogIsDrainedThenReplacementIsFollowed() throws Exception {
+        LogMultiplexer multiplexer = new LogMultiplexer(1, 10, TimeUnit.MILLISECONDS);
+        File directory = Files.createTempDirectory("multiplexer").toFile();
+        File log = new File(directory, "node.log");
+        File rotated = new File(directory, "node.log.1");
+        append(log, "first\n");
+
+        LogReader reader = new LogReader(multiplexer);
+        try {
+            assertTrue(reader.startReading(log, true).isSuccess());
+            IEvent event = Event.allOf(List.of(new Event("first"), new Event("tail of old"), new Event("head of new")));
+            FutureResult<LogEventResult> future = reader.getLogListener().submitEventToBeListenedFor(event, 1, TimeUnit.MINUTES, 1, TimeUnit.MINUTES);
+
+            Thread.sleep(100);
+            assertTrue(log.renameTo(rotated));
+            append(rotated, "tail of old\n");
+            append(log, "head of new\n");
+
+            assertTrue(future.get(10, TimeUnit.SECONDS).eventWasObserved());
+        } finally {
+            reader.stopReading();
+            log.delete();
+            rotated.delete();
+            directory.delete();
+        }
+    }
+
+    private static void truncate(File log) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+            file.setLength(0);
+        }
+    }
+
+    private static void append(File log, String text) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(log, true)) {
+            stream.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+}
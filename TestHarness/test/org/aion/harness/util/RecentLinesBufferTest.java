@@ -0,0 +1,92 @@
+package org.aion.harness.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.aion.harness.main.event.Event;
+import org.aion.harness.result.FutureResult;
+import org.aion.harness.result.LogEventResult;
+import org.junit.Test;
+
+public class RecentLinesBufferTest {
+
+    @Test
+    public void testLinesAreVisitedOldestFirst() {
+        RecentLinesBuffer buffer = new RecentLinesBuffer(1024, 16);
+        buffer.add("first", 1, TimeUnit.NANOSECONDS);
+        buffer.add("second", 2, TimeUnit.NANOSECONDS);
+        buffer.add("third", 3, TimeUnit.NANOSECONDS);
+
+        assertEquals(List.of("second", "third"), linesSince(buffer, 2));
+        assertEquals(List.of("first", "second", "third"), linesSince(buffer, 0));
+    }
+
+    @Test
+    public void testOldestLinesAreEvictedWhenLineCapIsReached() {
+        RecentLinesBuffer buffer = new RecentLinesBuffer(1024, 2);
+        buffer.add("first", 1, TimeUnit.NANOSECONDS);
+        buffer.add("second", 2, TimeUnit.NANOSECONDS);
+        buffer.add("third", 3, TimeUnit.NANOSECONDS);
+
+        assertEquals(2, buffer.size());
+        assertEquals(List.of("second", "third"), linesSince(buffer, 0));
+    }
+
+    @Test
+    public void testOldestLinesAreEvictedWhenByteCapIsReachedAndLinesWrapAround() {
+        RecentLinesBuffer buffer = new RecentLinesBuffer(10, 16);
+        buffer.add("aaaa", 1, TimeUnit.NANOSECONDS);
+        buffer.add("bbbb", 2, TimeUnit.NANOSECONDS);
+        buffer.add("cccccc", 3, TimeUnit.NANOSECONDS);
+
+        // The last line does not fit after "bbbb" without wrapping around the end of the buffer.
+        assertEquals(List.of("bbbb", "cccccc"), linesSince(buffer, 0));
+
+        buffer.add("dd\u00e9", 4, TimeUnit.NANOSECONDS);
+        assertEquals(List.of("cccccc", "dd\u00e9"), linesSince(buffer, 0));
+    }
+
+    @Test
+    public void testLineLargerThanBufferIsNotRetained() {
+        RecentLinesBuffer buffer = new RecentLinesBuffer(4, 16);
+        buffer.add("abc", 1, TimeUnit.NANOSECONDS);
+        buffer.add("too long", 2, TimeUnit.NANOSECONDS);
+
+        assertEquals(List.of("abc"), linesSince(buffer, 0));
+    }
+
+    @Test
+    public void testListenerLooksBackAtRecentLines() throws Exception {
+        LogListener listener = new LogListener();
+        assertTrue(listener.startListening().isSuccess());
+
+        try {
+            listener.handle("some line");
+            listener.handle("the event happened");
+
+            FutureResult<LogEventResult> lookedBack = listener.submitEventToBeListenedFor(new Event("event happened"), 1, TimeUnit.MINUTES, 1, TimeUnit.MINUTES);
+            assertTrue(lookedBack.isDone());
+            assertTrue(lookedBack.get().eventWasObserved());
+
+            // Without looking back the event is still pending.
+            FutureResult<LogEventResult> notLookedBack = listener.submitEventToBeListenedFor(new Event("event happened"), 1, TimeUnit.MINUTES);
+            assertFalse(notLookedBack.isDone());
+
+            listener.handle("the event happened again");
+            assertTrue(notLookedBack.get().eventWasObserved());
+        } finally {
+            listener.stopListening();
+        }
+    }
+
+    private static List<String> linesSince(RecentLinesBuffer buffer, long since) {
+        List<String> lines = new ArrayList<>();
+        buffer.visitLinesSince(since, TimeUnit.NANOSECONDS, (line, time) -> !lines.add(line));
+        return lines;
+    }
+
+}
@@ -0,0 +1,260 @@
+package org.aion.harness.tests.contracts;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.CodeSource;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aion.avm.core.dappreading.JarBuilder;
+import org.aion.avm.tooling.deploy.JarOptimizer;
+import org.aion.avm.userlib.CodeAndArguments;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Holds static helpers for getting the deployment bytes of the Avm contracts used by the tests,
+ * that is, the jar holding the contract's classes encoded, with no arguments, as an Avm create
+ * transaction expects them.
+ *
+ * Building a jar and encoding it is the same work every time a test JVM asks for the same
+ * contract, so the encoded jars are cached both in memory and on disk. The cache key is the SHA-256
+ * hash of the bytes of every class that goes into the jar (the given classes and their inner and
+ * anonymous classes) along with the digest of each Avm jar that builds it, so that editing a
+ * contract, or upgrading the Avm, can never hand a test a stale jar. An Avm class that was not
+ * loaded from a jar contributes only its own bytes.
+ *
+ * The disk cache lives in build/contract-jars under the working directory unless the
+ * 'contractJarCache' system property names another directory. Setting that property to the empty
+ * string disables the disk cache.
+ *
+ * If the 'optimizeContractJars' system property is set to true, the jars are run through the avm-tooling
+ * {@link JarOptimizer} before being encoded, which strips unreachable code and makes both the
+ * deployment transactions and the kernel's work on them smaller. Optimized and unoptimized jars
+ * are cached separately.
+ */
+public final class ContractJars {
+    private static final int FORMAT_VERSION = 2;
+    private static final String CACHE_DIRECTORY_PROPERTY = "contractJarCache";
+    private static final String OPTIMIZE_PROPERTY = "optimizeContractJars";
+
+    private static final Map<String, byte[]> ENCODED_JARS = new ConcurrentHashMap<>();
+    private static final Map<File, byte[]> JAR_DIGESTS = new ConcurrentHashMap<>();
+
+    private ContractJars() {}
+
+    /**
+     * Returns the jar holding the specified main class and other classes, encoded with no
+     * arguments as an Avm create transaction expects them.
+     *
+     * The returned bytes are shared and must not be modified.
+     */
+    public static byte[] encodedJarFor(Class<?> mainClass, Class<?>... otherClasses) {
+        if (mainClass == null) {
+            throw new NullPointerException("Cannot build a jar with a null main class.");
+        }
+
+        boolean optimize = Boolean.getBoolean(OPTIMIZE_PROPERTY);
+        String key = cacheKey(optimize, mainClass, otherClasses);
+
+        return ENCODED_JARS.computeIfAbsent(key, (ignored) -> {
+            File cached = cacheFile(key);
+
+            if ((cached != null) && cached.isFile()) {
+                try {
+                    return Files.readAllBytes(cached.toPath());
+                } catch (IOException e) {
+                    // Fall through and rebuild the jar, which also replaces the unreadable file.
+                }
+            }
+
+            byte[] jar = JarBuilder.buildJarForMainAndClasses(mainClass, otherClasses);
+            if (optimize) {
+                jar = new JarOptimizer(false).optimize(jar);
+            }
+            byte[] encodedJar = new CodeAndArguments(jar, new byte[0]).encodeToBytes();
+
+            if (cached != null) {
+                save(cached, encodedJar);
+            }
+            return encodedJar;
+        });
+    }
+
+    /**
+     * Writes the encoded jar to the cache file. The file is replaced atomically, so that a
+     * concurrent test JVM never reads a partially written jar.
+     *
+     * The disk cache is only an optimization, so failing to write to it is not an error.
+     */
+    private static void save(File cached, byte[] encodedJar) {
+        try {
+            File directory = cached.getParentFile();
+            Files.createDirectories(directory.toPath());
+
+            File temporary = File.createTempFile(cached.getName(), ".tmp", directory);
+            try {
+                Files.write(temporary.toPath(), encodedJar);
+                Files.move(temporary.toPath(), cached.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                temporary.delete();
+            }
+        } catch (IOException e) {
+            // Next time the jar will simply be built again.
+        }
+    }
+
+    /**
+     * Returns the file the encoded jar with the specified key is cached in, or null if the disk
+     * cache is disabled.
+     */
+    private static File cacheFile(String key) {
+        String directory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+        if (directory == null) {
+            directory = System.getProperty("user.dir") + File.separator + "build" + File.separator + "contract-jars";
+        } else if (directory.isEmpty()) {
+            return null;
+        }
+        return new File(directory, key + ".bin");
+    }
+
+    /**
+     * Returns the hex-encoded SHA-256 hash of everything that determines the encoded jar: the
+     * format of the cache, whether the jar is optimized, the name of the main class, the names
+     * and bytes of every class in the jar, and the jars holding the classes that build it.
+     */
+    private static String cacheKey(boolean optimize, Class<?> mainClass, Class<?>... otherClasses) {
+        List<Class<?>> builders = new ArrayList<>();
+        builders.add(JarBuilder.class);
+        builders.add(CodeAndArguments.class);
+        if (optimize) {
+            builders.add(JarOptimizer.class);
+        }
+
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        addClassAndInners(mainClass, classes);
+        for (Class<?> otherClass : otherClasses) {
+            addClassAndInners(otherClass, classes);
+        }
+
+        try {
+            ByteArrayOutputStream keyBytes = new ByteArrayOutputStream();
+            DataOutputStream key = new DataOutputStream(keyBytes);
+            key.writeInt(FORMAT_VERSION);
+            key.writeBoolean(optimize);
+            key.writeUTF(mainClass.getName());
+            for (Class<?> builder : builders) {
+                writeOrigin(builder, key);
+            }
+            for (Class<?> contractClass : classes) {
+                writeClass(contractClass, key);
+            }
+            key.flush();
+
+            return Hex.encodeHexString(MessageDigest.getInstance("SHA-256").digest(keyBytes.toByteArray()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the classes of " + mainClass.getName(), e);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256, we should never hit this.
+            throw new IllegalStateException("SHA-256 is unavailable!", e);
+        }
+    }
+
+    /**
+     * Adds the class to the set, along with its inner classes and its anonymous classes, which the
+     * jar builder also puts into the jar.
+     */
+    private static void addClassAndInners(Class<?> clazz, Set<Class<?>> classes) {
+        if (!classes.add(clazz)) {
+            return;
+        }
+
+        for (Class<?> inner : clazz.getDeclaredClasses()) {
+            addClassAndInners(inner, classes);
+        }
+        for (int i = 1; ; i++) {
+            try {
+                addClassAndInners(Class.forName(clazz.getName() + "$" + i, false, clazz.getClassLoader()), classes);
+            } catch (ClassNotFoundException e) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Writes the name and digest of the jar that the class was loaded from, which covers every
+     * class of that jar that the class may use, or else the class itself if it was not loaded from
+     * a jar.
+     */
+    private static void writeOrigin(Class<?> clazz, DataOutputStream key) throws IOException {
+        File jar = jarOf(clazz);
+        if (jar == null) {
+            writeClass(clazz, key);
+            return;
+        }
+
+        byte[] digest = JAR_DIGESTS.get(jar);
+        if (digest == null) {
+            digest = digestOf(jar);
+            JAR_DIGESTS.put(jar, digest);
+        }
+        key.writeUTF(jar.getName());
+        key.write(digest);
+    }
+
+    private static File jarOf(Class<?> clazz) {
+        CodeSource source = clazz.getProtectionDomain().getCodeSource();
+        if ((source == null) || (source.getLocation() == null)) {
+            return null;
+        }
+
+        try {
+            File file = new File(source.getLocation().toURI());
+            return file.isFile() ? file : null;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static byte[] digestOf(File jar) throws IOException {
+        try (InputStream stream = Files.newInputStream(jar.toPath())) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int numberOfBytes;
+            while ((numberOfBytes = stream.read(buffer)) > 0) {
+                digest.update(buffer, 0, numberOfBytes);
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256, we should never hit this.
+            throw new IllegalStateException("SHA-256 is unavailable!", e);
+        }
+    }
+
+    private static void writeClass(Class<?> clazz, DataOutputStream key) throws IOException {
+        String resource = clazz.getName().replace('.', '/') + ".class";
+        ClassLoader loader = (clazz.getClassLoader() == null) ? ClassLoader.getSystemClassLoader() : clazz.getClassLoader();
+
+        try (InputStream stream = loader.getResourceAsStream(resource)) {
+            if (stream == null) {
+                throw new IOException("Cannot find the bytes of " + clazz.getName());
+            }
+            byte[] bytes = stream.readAllBytes();
+
+            key.writeUTF(clazz.getName());
+            key.writeInt(bytes.length);
+            key.write(bytes);
+        }
+    }
+}
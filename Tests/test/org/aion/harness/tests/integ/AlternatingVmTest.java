@@ -11,8 +11,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import org.aion.avm.core.dappreading.JarBuilder;
-import org.aion.avm.userlib.CodeAndArguments;
 import org.aion.harness.kernel.SignedTransaction;
 import org.aion.harness.main.NodeFactory.NodeType;
 import org.aion.harness.main.RPC;
@@ -27,6 +25,7 @@ import org.aion.harness.result.RpcResult;
 import org.aion.harness.tests.contracts.avm.SimpleContract;
 import org.aion.harness.tests.integ.runner.ExcludeNodeType;
 import org.aion.harness.tests.integ.runner.SequentialRunner;
+import org.aion.harness.tests.integ.runner.internal.ContractFixtures;
 import org.aion.harness.tests.integ.runner.internal.LocalNodeListener;
 import org.aion.harness.tests.integ.runner.internal.PreminedAccount;
 import org.aion.harness.tests.integ.runner.internal.PrepackagedLogEventsFactory;
@@ -56,6 +55,9 @@ public class AlternatingVmTest {
     @Rule
     private PrepackagedLogEventsFactory prepackagedLogEventsFactory = new PrepackagedLogEventsFactory();
 
+    @Rule
+    private ContractFixtures contractFixtures = new ContractFixtures();
+
     /**
      * Tests making a bunch of Avm-Fvm alternating contract create transactions and sending them off.
      *
@@ -130,7 +132,7 @@ public class AlternatingVmTest {
         return SignedTransaction.newAvmCreateTransaction(
             this.preminedAccount.getPrivateKey(),
             this.preminedAccount.getAndIncrementNonce(),
-            new CodeAndArguments(JarBuilder.buildJarForMainAndClasses(SimpleContract.class), new byte[0]).encodeToBytes(),
+            this.contractFixtures.codeFor(SimpleContract.class),
             ENERGY_LIMIT,
             ENERGY_PRICE,
             BigInteger.ZERO, null);
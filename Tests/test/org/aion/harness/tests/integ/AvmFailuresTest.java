@@ -7,8 +7,6 @@ import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import org.aion.avm.core.dappreading.JarBuilder;
-import org.aion.avm.userlib.CodeAndArguments;
 import org.aion.harness.kernel.Address;
 import org.aion.harness.kernel.SignedTransaction;
 import org.aion.harness.main.NodeFactory.NodeType;
@@ -19,6 +17,7 @@ import org.aion.harness.main.types.TransactionReceipt;
 import org.aion.harness.result.FutureResult;
 import org.aion.harness.result.LogEventResult;
 import org.aion.harness.result.RpcResult;
+import org.aion.harness.tests.contracts.ContractJars;
 import org.aion.harness.tests.contracts.Assertions;
 import org.aion.harness.tests.contracts.avm.AvmFailureModes;
 import org.aion.harness.tests.integ.runner.ExcludeNodeType;
@@ -112,9 +111,7 @@ public class AvmFailuresTest {
         SignedTransaction transaction = SignedTransaction.newAvmCreateTransaction(
             this.preminedAccount.getPrivateKey(),
             this.preminedAccount.getAndIncrementNonce(),
-            new CodeAndArguments(
-                JarBuilder.buildJarForMainAndClasses(AvmFailureModes.class), new byte[0])
-                .encodeToBytes(),
+            ContractJars.encodedJarFor(AvmFailureModes.class),
             ENERGY_LIMIT,
             ENERGY_PRICE,
             BigInteger.ZERO, /* amount */
@@ -16,8 +16,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import org.aion.avm.core.dappreading.JarBuilder;
-import org.aion.avm.userlib.CodeAndArguments;
 import org.aion.avm.userlib.abi.ABIDecoder;
 import org.aion.avm.userlib.abi.ABIEncoder;
 import org.aion.avm.userlib.abi.ABIException;
@@ -35,6 +33,7 @@ import org.aion.harness.main.types.TransactionReceipt;
 import org.aion.harness.result.FutureResult;
 import org.aion.harness.result.LogEventResult;
 import org.aion.harness.result.RpcResult;
+import org.aion.harness.tests.contracts.ContractJars;
 import org.aion.harness.tests.contracts.avm.LogTarget;
 import org.aion.harness.tests.integ.runner.ExcludeNodeType;
 import org.aion.harness.tests.integ.runner.SequentialRunner;
@@ -440,7 +439,7 @@ public class AvmReceiptLogTest {
     }
 
     private byte[] getAvmContractBytes() {
-        return new CodeAndArguments(JarBuilder.buildJarForMainAndClasses(LogTarget.class, ABIDecoder.class, ABIToken.class, ABIException.class), new byte[0]).encodeToBytes();
+        return ContractJars.encodedJarFor(LogTarget.class, ABIDecoder.class, ABIToken.class, ABIException.class);
     }
 
     private static byte[] padOrTruncateTo32bytes(byte[] bytes) {
@@ -11,8 +11,6 @@ import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import org.aion.avm.core.dappreading.JarBuilder;
-import org.aion.avm.userlib.CodeAndArguments;
 import org.aion.harness.kernel.Address;
 import org.aion.harness.kernel.SignedTransaction;
 import org.aion.harness.kernel.Transaction;
@@ -26,6 +24,7 @@ import org.aion.harness.result.LogEventResult;
 import org.aion.harness.result.RpcResult;
 import org.aion.harness.tests.contracts.avm.ByteArrayHolder;
 import org.aion.harness.tests.integ.runner.ExcludeNodeType;
+import org.aion.harness.tests.integ.runner.internal.ContractFixtures;
 import org.aion.harness.tests.integ.runner.internal.LocalNodeListener;
 import org.aion.harness.tests.integ.runner.internal.PreminedAccount;
 import org.aion.harness.tests.integ.runner.SequentialRunner;
@@ -61,15 +60,16 @@ public class AvmTxSmokeTest {
     @Rule
     private PrepackagedLogEventsFactory prepackagedLogEventsFactory = new PrepackagedLogEventsFactory();
 
+    @Rule
+    private ContractFixtures contractFixtures = new ContractFixtures();
+
     @Test
     public void test() throws Exception {
         // build contract deployment Tx
         SignedTransaction transaction = SignedTransaction.newAvmCreateTransaction(
             this.preminedAccount.getPrivateKey(),
             this.preminedAccount.getNonce(),
-            new CodeAndArguments(
-                JarBuilder.buildJarForMainAndClasses(ByteArrayHolder.class), new byte[0])
-                .encodeToBytes(),
+            this.contractFixtures.codeFor(ByteArrayHolder.class),
             ENERGY_LIMIT,
             ENERGY_PRICE,
             BigInteger.ZERO, /* amount */
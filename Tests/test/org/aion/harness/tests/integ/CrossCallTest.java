@@ -12,9 +12,7 @@ import java.security.spec.InvalidKeySpecException;
 import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import org.aion.avm.core.dappreading.JarBuilder;
 import org.aion.avm.tooling.ABIUtil;
-import org.aion.avm.userlib.CodeAndArguments;
 import org.aion.avm.userlib.abi.ABIDecoder;
 import org.aion.avm.userlib.abi.ABIException;
 import org.aion.avm.userlib.abi.ABIToken;
@@ -31,6 +29,7 @@ import org.aion.harness.result.LogEventResult;
 import org.aion.harness.result.RpcResult;
 import org.aion.harness.tests.contracts.avm.AvmCrossCallDispatcher;
 import org.aion.harness.tests.integ.runner.ExcludeNodeType;
+import org.aion.harness.tests.integ.runner.internal.ContractFixtures;
 import org.aion.harness.tests.integ.runner.internal.LocalNodeListener;
 import org.aion.harness.tests.integ.runner.internal.PreminedAccount;
 import org.aion.harness.tests.integ.runner.SequentialRunner;
@@ -61,14 +60,16 @@ public class CrossCallTest {
     @Rule
     private PrepackagedLogEventsFactory prepackagedLogEventsFactory = new PrepackagedLogEventsFactory();
 
+    @Rule
+    private ContractFixtures contractFixtures = new ContractFixtures();
+
     @Test
     public void testCallingFvmContractFromAvm() throws Exception {
         System.out.println("Deploying fvm contract...");
         Address fvmContract = deployFvmContract();
 
-        System.out.println("Deploying avm contract...");
-        this.preminedAccount.incrementNonce();
-        Address avmContract = deployAvmDispatcherContract();
+        System.out.println("Getting the shared avm contract...");
+        Address avmContract = getAvmDispatcherContract();
 
         System.out.println("Calling avm contract...");
         this.preminedAccount.incrementNonce();
@@ -80,21 +81,19 @@ public class CrossCallTest {
         // This is the token bridge contract address.
         Address precompiledContract = new Address(Hex.decodeHex("0000000000000000000000000000000000000000000000000000000000000200"));
 
-        System.out.println("Deploying avm contract...");
-        Address avmContract = deployAvmDispatcherContract();
+        System.out.println("Getting the shared avm contract...");
+        Address avmContract = getAvmDispatcherContract();
 
         System.out.println("Calling avm contract...");
-        this.preminedAccount.incrementNonce();
         callAvmDispatcher(avmContract, precompiledContract);
     }
 
     @Test
     public void testCallingAvmContractFromFvm() throws Exception {
-        System.out.println("Deploying avm contract...");
-        Address avmContract = deployAvmDispatcherContract();
+        System.out.println("Getting the shared avm contract...");
+        Address avmContract = getAvmDispatcherContract();
 
         System.out.println("Deploying fvm contract...");
-        this.preminedAccount.incrementNonce();
         Address fvmContract = deployFvmContract();
 
         System.out.println("Calling fvm contract...");
@@ -130,17 +129,11 @@ public class CrossCallTest {
         sendCrossCallToAvm(transaction);
     }
 
-    private Address deployAvmDispatcherContract() throws InterruptedException, TimeoutException, InvalidKeySpecException, NoSuchAlgorithmException, InvalidKeyException, SignatureException {
-        SignedTransaction transaction = SignedTransaction.newAvmCreateTransaction(
-            this.preminedAccount.getPrivateKey(),
-            this.preminedAccount.getNonce(),
-            getAvmContractBytes(),
-            ENERGY_LIMIT,
-            ENERGY_PRICE,
-            BigInteger.ZERO, null);
-
-        TransactionReceipt receipt = sendTransaction(transaction);
-        return receipt.getAddressOfDeployedContract().get();
+    /**
+     * The dispatcher holds no state, so every test shares the one deployment of it on the node.
+     */
+    private Address getAvmDispatcherContract() throws InterruptedException {
+        return this.contractFixtures.deployed(AvmCrossCallDispatcher.class, ABIDecoder.class, ABIToken.class, ABIException.class);
     }
 
     private Address deployFvmContract()
@@ -272,10 +265,6 @@ public class CrossCallTest {
         return Hex.decodeHex("605060405234156100105760006000fd5b610015565b610105806100246000396000f30060506040526000356c01000000000000000000000000900463ffffffff1680638f2a06d514603157602b565b60006000fd5b3415603c5760006000fd5b605860048080806010013590359091602001909192905050605a565b005b818160405180806f73616d706c652875696e743132382900815260100150600f019050604051809103902090506c0100000000000000000000000090046040518163ffffffff166c01000000000000000000000000028152600401600060405180830381600088885af19350505050151560d45760006000fd5b5b50505600a165627a7a72305820c49126936a14c9e5246af4d9f33d7c62b2178c20b7986799854c73ef0fe047280029");
     }
 
-    private byte[] getAvmContractBytes() {
-        return new CodeAndArguments(JarBuilder.buildJarForMainAndClasses(AvmCrossCallDispatcher.class, ABIDecoder.class, ABIToken.class, ABIException.class), new byte[0]).encodeToBytes();
-    }
-
     private byte[] getFvmCallDispatcherBytes(Address target) throws DecoderException {
         byte[] functionHash = Hex.decodeHex("8f2a06d5");
         return joinArrays(functionHash, target.getAddressBytes());
@@ -12,8 +12,6 @@ import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import org.aion.avm.core.dappreading.JarBuilder;
-import org.aion.avm.userlib.CodeAndArguments;
 import org.aion.avm.userlib.abi.ABIDecoder;
 import org.aion.avm.userlib.abi.ABIEncoder;
 import org.aion.avm.userlib.abi.ABIException;
@@ -29,6 +27,7 @@ import org.aion.harness.main.types.TransactionReceipt;
 import org.aion.harness.result.FutureResult;
 import org.aion.harness.result.LogEventResult;
 import org.aion.harness.result.RpcResult;
+import org.aion.harness.tests.contracts.ContractJars;
 import org.aion.harness.tests.contracts.avm.InternalTxTarget;
 import org.aion.harness.tests.integ.runner.ExcludeNodeType;
 import org.aion.harness.tests.integ.runner.SequentialRunner;
@@ -230,7 +229,7 @@ public class InternalTxTest {
     }
 
     private byte[] getAvmContractBytes() {
-        return new CodeAndArguments(JarBuilder.buildJarForMainAndClasses(InternalTxTarget.class,
-            ABIDecoder.class, ABIEncoder.class, ABIException.class), new byte[0]).encodeToBytes();
+        return ContractJars.encodedJarFor(InternalTxTarget.class,
+            ABIDecoder.class, ABIEncoder.class, ABIException.class);
     }
 }
@@ -10,8 +10,6 @@ import java.math.BigInteger;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import main.SignedInvokableTransactionBuilder;
-import org.aion.avm.core.dappreading.JarBuilder;
-import org.aion.avm.userlib.CodeAndArguments;
 import org.aion.avm.userlib.abi.ABIDecoder;
 import org.aion.avm.userlib.abi.ABIEncoder;
 import org.aion.avm.userlib.abi.ABIException;
@@ -27,6 +25,7 @@ import org.aion.harness.main.types.TransactionReceipt;
 import org.aion.harness.result.FutureResult;
 import org.aion.harness.result.LogEventResult;
 import org.aion.harness.result.RpcResult;
+import org.aion.harness.tests.contracts.ContractJars;
 import org.aion.harness.tests.contracts.Assertions;
 import org.aion.harness.tests.contracts.avm.MetaTransactionProxy;
 import org.aion.harness.tests.integ.runner.ExcludeNodeType;
@@ -48,9 +47,7 @@ public class MetaTransactionTest {
     private final long ENERGY_PRICE = 10_010_020_345L;
 
     private final byte[] codeAndArgsForProxy =
-        new CodeAndArguments(
-            JarBuilder.buildJarForMainAndClasses(MetaTransactionProxy.class, ABIEncoder.class, ABIDecoder.class, ABIException.class, ABIToken.class), new byte[0])
-            .encodeToBytes();
+        ContractJars.encodedJarFor(MetaTransactionProxy.class, ABIEncoder.class, ABIDecoder.class, ABIException.class, ABIToken.class);
 
     private final SimpleLog log = new SimpleLog("org.aion.harness.tests.integ.AvmFailuresTest");
 
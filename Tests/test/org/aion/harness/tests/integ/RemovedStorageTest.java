@@ -11,9 +11,7 @@ import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import org.aion.avm.core.dappreading.JarBuilder;
 import org.aion.avm.tooling.ABIUtil;
-import org.aion.avm.userlib.CodeAndArguments;
 import org.aion.avm.userlib.abi.ABIDecoder;
 import org.aion.avm.userlib.abi.ABIEncoder;
 import org.aion.avm.userlib.abi.ABIException;
@@ -30,6 +28,7 @@ import org.aion.harness.main.types.TransactionReceipt;
 import org.aion.harness.result.FutureResult;
 import org.aion.harness.result.LogEventResult;
 import org.aion.harness.result.RpcResult;
+import org.aion.harness.tests.contracts.ContractJars;
 import org.aion.harness.tests.contracts.avm.RemoveStorageTarget;
 import org.aion.harness.tests.contracts.avm.StorageTargetClinitTarget;
 import org.aion.harness.tests.integ.runner.ExcludeNodeType;
@@ -561,7 +560,7 @@ public class RemovedStorageTest {
         return SignedTransaction.newAvmCreateTransaction(
             this.preminedAccount.getPrivateKey(),
             this.preminedAccount.getAndIncrementNonce(),
-            new CodeAndArguments(JarBuilder.buildJarForMainAndClasses(RemoveStorageTarget.class, ABIDecoder.class, ABIException.class, ABIToken.class), new byte[0]).encodeToBytes(),
+            ContractJars.encodedJarFor(RemoveStorageTarget.class, ABIDecoder.class, ABIException.class, ABIToken.class),
             ENERGY_LIMIT,
             ENERGY_PRICE,
             BigInteger.ZERO, null);
@@ -571,7 +570,7 @@ public class RemovedStorageTest {
         return SignedTransaction.newAvmCreateTransaction(
             this.preminedAccount.getPrivateKey(),
             this.preminedAccount.getAndIncrementNonce(),
-            new CodeAndArguments(JarBuilder.buildJarForMainAndClasses(StorageTargetClinitTarget.class, ABIDecoder.class, ABIException.class, ABIToken.class), new byte[0]).encodeToBytes(),
+            ContractJars.encodedJarFor(StorageTargetClinitTarget.class, ABIDecoder.class, ABIException.class, ABIToken.class),
             ENERGY_LIMIT,
             ENERGY_PRICE,
             BigInteger.ZERO, null);
@@ -20,6 +20,7 @@ import org.aion.harness.main.NodeListener;
 import org.aion.harness.main.RPC;
 import org.aion.harness.main.event.Event;
 import org.aion.harness.main.event.IEvent;
+import org.aion.harness.main.event.RegexEvent;
 import org.aion.harness.main.types.Block;
 import org.aion.harness.main.types.ReceiptHash;
 import org.aion.harness.main.types.TransactionReceipt;
@@ -269,7 +270,7 @@ public class BeaconHashSidechainTest {
     }
 
     private static final Pattern BLOCK_SEALED_NUM_CAPTURE = Pattern.compile(
-        "block sealed <num=(\\d+), hash=(\\w+)");
+        "block sealed <num=(?<num>\\d+), hash=(?<hash>\\w+)");
 
     /**
      * Blocking-wait on "block sealed" kernel log messages until given block number
@@ -289,7 +290,7 @@ public class BeaconHashSidechainTest {
         Map<Long, String> minedBlocks = new HashMap<>();
         long mostRecentBlockNumberSeen = -1;
         while(mostRecentBlockNumberSeen < number) {
-            IEvent blockSealedEv = new Event("block sealed <num=");
+            IEvent blockSealedEv = new RegexEvent(BLOCK_SEALED_NUM_CAPTURE);
             FutureResult<LogEventResult> resultFuture =
                 listener.listenForEvent(blockSealedEv, 1, TimeUnit.MINUTES);
 
@@ -298,15 +299,13 @@ public class BeaconHashSidechainTest {
                 throw new RuntimeException("Didn't observe block sealed string");
             }
 
-            String line = res.getObservedLogs().get(0);
-            Matcher m = BLOCK_SEALED_NUM_CAPTURE.matcher(line);
-            m.find();
-            mostRecentBlockNumberSeen = Long.parseLong(m.group(1));
+            mostRecentBlockNumberSeen = res.getCapturedFieldAsLong("num");
+            String hash = res.getCapturedField("hash");
 
-            minedBlocks.put(mostRecentBlockNumberSeen, m.group(2));
+            minedBlocks.put(mostRecentBlockNumberSeen, hash);
             log.log(String.format(
                 "Saw block sealed message for (num, hash): (%d, %s)",
-                mostRecentBlockNumberSeen, m.group(2)));
+                mostRecentBlockNumberSeen, hash));
         }
         return minedBlocks;
     }
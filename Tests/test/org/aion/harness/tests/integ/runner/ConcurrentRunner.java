@@ -14,10 +14,12 @@ import java.util.List;
 import java.util.Map;
 import org.aion.harness.main.NodeFactory.NodeType;
 import org.aion.harness.main.event.JavaPrepackagedLogEvents;
+import org.aion.harness.main.event.PrepackagedLogEvents;
 import org.aion.harness.main.event.RustPrepackagedLogEvents;
 import org.aion.harness.tests.integ.runner.exception.TestRunnerInitializationException;
 import org.aion.harness.tests.integ.runner.exception.UnexpectedTestRunnerException;
 import org.aion.harness.tests.integ.runner.exception.UnsupportedAnnotation;
+import org.aion.harness.tests.integ.runner.internal.ContractFixtureCache;
 import org.aion.harness.tests.integ.runner.internal.FailedClass;
 import org.aion.harness.tests.integ.runner.internal.PreminedAccountFunder;
 import org.aion.harness.tests.integ.runner.internal.TestAndResultQueueManager;
@@ -174,17 +176,19 @@ public final class ConcurrentRunner extends Runner {
         int numThreads = Math.min(MAX_NUM_THREADS, allTestContexts.size());
         TestAndResultQueueManager queueManager = new TestAndResultQueueManager(numThreads);
 
-        final PreminedAccountFunder paf;
+        final PrepackagedLogEvents logEvents;
         if(nt == NodeType.RUST_NODE) {
-            paf = new PreminedAccountFunder(testNodeManager, new RustPrepackagedLogEvents());
+            logEvents = new RustPrepackagedLogEvents();
         } else if(nt == NodeType.JAVA_NODE || nt == NodeType.PROXY_JAVA_NODE) {
-            paf = new PreminedAccountFunder(testNodeManager, new JavaPrepackagedLogEvents());
+            logEvents = new JavaPrepackagedLogEvents();
         } else {
             throw new IllegalArgumentException(
                 "Don't know how to construct PreminedAccountFunder for node type" + nt.name());
         }
+        PreminedAccountFunder paf = new PreminedAccountFunder(testNodeManager, logEvents);
+        ContractFixtureCache fixtures = new ContractFixtureCache(testNodeManager, logEvents, paf);
 
-        List<TestExecutor> testExecutors = createTestExecutors(numThreads, paf, queueManager, testNodeManager, nt);
+        List<TestExecutor> testExecutors = createTestExecutors(numThreads, paf, fixtures, queueManager, testNodeManager, nt);
         List<Thread> executorThreads = createExecutorThreads(testExecutors);
 
         // Start the threads.
@@ -235,6 +239,7 @@ public final class ConcurrentRunner extends Runner {
 
     private List<TestExecutor> createTestExecutors(int num,
                                                    PreminedAccountFunder paf,
+                                                   ContractFixtureCache fixtures,
                                                    TestAndResultQueueManager queueManager,
                                                    TestNodeManager testNodeManager,
                                                    NodeType nt) {
@@ -242,6 +247,7 @@ public final class ConcurrentRunner extends Runner {
         for (int i = 0; i < num; i++) {
             threads.add(new TestExecutor(testNodeManager,
                 paf,
+                fixtures,
                 queueManager,
                 nt)
             );
@@ -13,9 +13,11 @@ import java.util.List;
 import java.util.Map;
 import org.aion.harness.main.NodeFactory.NodeType;
 import org.aion.harness.main.event.JavaPrepackagedLogEvents;
+import org.aion.harness.main.event.PrepackagedLogEvents;
 import org.aion.harness.main.event.RustPrepackagedLogEvents;
 import org.aion.harness.tests.integ.runner.exception.TestRunnerInitializationException;
 import org.aion.harness.tests.integ.runner.exception.UnsupportedAnnotation;
+import org.aion.harness.tests.integ.runner.internal.ContractFixtureCache;
 import org.aion.harness.tests.integ.runner.internal.PreminedAccountFunder;
 import org.aion.harness.tests.integ.runner.internal.TestAndResultQueueManager;
 import org.aion.harness.tests.integ.runner.internal.TestContext;
@@ -160,18 +162,20 @@ public final class SequentialRunner extends Runner {
         TestAndResultQueueManager queueManager = new TestAndResultQueueManager(1);
 
         // Run all of the tests on a single thread.
-        final PreminedAccountFunder paf;
+        final PrepackagedLogEvents logEvents;
         if(nt == NodeType.RUST_NODE) {
-            paf = new PreminedAccountFunder(testNodeManager, new RustPrepackagedLogEvents());
+            logEvents = new RustPrepackagedLogEvents();
         } else if (nt == NodeType.JAVA_NODE || nt == NodeType.PROXY_JAVA_NODE) {
-            paf = new PreminedAccountFunder(testNodeManager, new JavaPrepackagedLogEvents());
+            logEvents = new JavaPrepackagedLogEvents();
         } else {
             throw new IllegalArgumentException(String.format(
                 "Don't know how to construct PremindedAccountFunder for NodeType '%s'.",
                 nt));
         }
+        PreminedAccountFunder paf = new PreminedAccountFunder(testNodeManager, logEvents);
+        ContractFixtureCache fixtures = new ContractFixtureCache(testNodeManager, logEvents, paf);
 
-        TestExecutor testExecutor = new TestExecutor(testNodeManager, paf, queueManager, nt);
+        TestExecutor testExecutor = new TestExecutor(testNodeManager, paf, fixtures, queueManager, nt);
         Thread executorThread = new Thread(testExecutor);
         executorThread.start();
 
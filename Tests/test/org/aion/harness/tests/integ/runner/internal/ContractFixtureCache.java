@@ -0,0 +1,212 @@
+package org.aion.harness.tests.integ.runner.internal;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.aion.harness.kernel.Address;
+import org.aion.harness.kernel.PrivateKey;
+import org.aion.harness.kernel.SignedTransaction;
+import org.aion.harness.main.NodeListener;
+import org.aion.harness.main.RPC;
+import org.aion.harness.main.event.Event;
+import org.aion.harness.main.event.IEvent;
+import org.aion.harness.main.event.PrepackagedLogEvents;
+import org.aion.harness.main.types.ReceiptHash;
+import org.aion.harness.main.types.TransactionReceipt;
+import org.aion.harness.result.FutureResult;
+import org.aion.harness.result.LogEventResult;
+import org.aion.harness.result.RpcResult;
+import org.aion.harness.tests.contracts.ContractJars;
+import org.aion.harness.tests.integ.runner.exception.UnexpectedTestRunnerException;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * This class is used by our custom runners to build and deploy the Avm contracts that tests use as
+ * fixtures, on behalf of the {@link ContractFixtures} @Rule.
+ *
+ * Each distinct set of contract classes is built into a jar, and encoded for deployment, only once
+ * (see {@link ContractJars}). The encoded jar is then identified by its SHA-256 hash, and the contract it holds is deployed at
+ * most once, so that every test asking for that contract is handed the same address rather than
+ * waiting for a deployment of its own to be sealed. Tests that need a contract in its initial state
+ * ask for a fresh deployment instead.
+ *
+ * Deployments are sent from a dedicated account, funded from the real pre-mined account the first
+ * time it is needed, and are sent one at a time so that its nonce never needs to be re-synced.
+ *
+ * This class should be created once per node lifetime, since the addresses it caches are only
+ * meaningful to the node they were deployed on.
+ */
+public final class ContractFixtureCache {
+    private static final long ENERGY_LIMIT = 5_000_000;
+    private static final long ENERGY_PRICE = 10_000_000_000L;
+    private static final BigInteger DEPLOYER_FUNDS = BigInteger.TEN.pow(21);
+
+    private final TestNodeManager nodeManager;
+    private final PrepackagedLogEvents prepackagedLogEvents;
+    private final PreminedAccountFunder preminedDispatcher;
+    private final RPC rpc;
+
+    private final Map<String, CompletableFuture<Address>> deployments = new ConcurrentHashMap<>();
+
+    private final Object deployLock = new Object();
+    private PrivateKey deployer = null;
+    private BigInteger deployerNonce = BigInteger.ZERO;
+
+    public ContractFixtureCache(TestNodeManager nodeManager, PrepackagedLogEvents prepackagedLogEvents, PreminedAccountFunder preminedDispatcher) {
+        this.nodeManager = nodeManager;
+        this.prepackagedLogEvents = prepackagedLogEvents;
+        this.preminedDispatcher = preminedDispatcher;
+        this.rpc = RPC.newRpc("127.0.0.1", "8545");
+    }
+
+    /**
+     * Returns the bytes of the jar holding the specified main class and other classes, encoded with
+     * no arguments as an Avm create transaction expects them. See {@link ContractJars} for how the
+     * jars are cached.
+     *
+     * The returned bytes are shared and must not be modified.
+     */
+    public byte[] encodedJarFor(Class<?> mainClass, Class<?>... otherClasses) {
+        return ContractJars.encodedJarFor(mainClass, otherClasses);
+    }
+
+    /**
+     * Returns the address of the contract built from the specified classes, deploying it if this is
+     * the first time it has been asked for on this node.
+     *
+     * If several tests ask for the same contract at once, only one of them deploys it and the rest
+     * wait for that deployment. A failed deployment is not cached, so the next test to ask for the
+     * contract tries again.
+     */
+    public Address sharedDeployment(Class<?> mainClass, Class<?>... otherClasses) throws InterruptedException {
+        byte[] encodedJar = encodedJarFor(mainClass, otherClasses);
+        String jarHash = sha256(encodedJar);
+
+        CompletableFuture<Address> deployment = new CompletableFuture<>();
+        CompletableFuture<Address> existing = this.deployments.putIfAbsent(jarHash, deployment);
+
+        if (existing == null) {
+            try {
+                deployment.complete(deploy(encodedJar));
+            } catch (Throwable e) {
+                this.deployments.remove(jarHash, deployment);
+                deployment.completeExceptionally(e);
+                throw e;
+            }
+            return deployment.join();
+        }
+
+        try {
+            return existing.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The shared deployment of " + mainClass.getName() + " failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Returns the address of a new deployment of the contract built from the specified classes. The
+     * jar itself is still only built once.
+     */
+    public Address freshDeployment(Class<?> mainClass, Class<?>... otherClasses) throws InterruptedException {
+        return deploy(encodedJarFor(mainClass, otherClasses));
+    }
+
+    /**
+     * Deploys the encoded jar from the deployer account and returns the address of the deployed
+     * contract once its deployment has been sealed into a block.
+     */
+    private Address deploy(byte[] encodedJar) throws InterruptedException {
+        synchronized (this.deployLock) {
+            PrivateKey deployer = getFundedDeployer();
+
+            SignedTransaction transaction;
+            try {
+                transaction = SignedTransaction.newAvmCreateTransaction(
+                    deployer,
+                    this.deployerNonce,
+                    encodedJar,
+                    ENERGY_LIMIT,
+                    ENERGY_PRICE,
+                    BigInteger.ZERO,
+                    null);
+            } catch (Exception e) {
+                throw new UnexpectedTestRunnerException("Failed to sign a contract fixture deployment!", e);
+            }
+
+            // Construct the 'transaction is sealed and not rejected' event, exactly as the
+            // premined account funder does.
+            IEvent transactionSealed = this.prepackagedLogEvents.getTransactionSealedEvent(transaction);
+            IEvent transactionRejected = this.prepackagedLogEvents.getTransactionRejectedEvent(transaction);
+            IEvent transactionProcessed = Event.before(transactionSealed, transactionRejected);
+
+            NodeListener listener = this.nodeManager.newNodeListener();
+            FutureResult<LogEventResult> future = listener.listenForEvent(transactionProcessed, 10, TimeUnit.MINUTES);
+            RpcResult<ReceiptHash> sendResult = this.rpc.sendSignedTransaction(transaction);
+
+            if (!sendResult.isSuccess()) {
+                throw new IllegalStateException("Failed to send a contract fixture deployment: " + sendResult.getError());
+            }
+            // The transaction was accepted, so its nonce is now spent whatever becomes of it.
+            this.deployerNonce = this.deployerNonce.add(BigInteger.ONE);
+
+            LogEventResult listenResult;
+            try {
+                listenResult = future.get(5, TimeUnit.MINUTES);
+            } catch (TimeoutException e) {
+                throw new IllegalStateException("Timed out waiting for a contract fixture deployment to be sealed.", e);
+            }
+            if (!listenResult.eventWasObserved()) {
+                throw new IllegalStateException("A contract fixture deployment was not sealed: " + listenResult);
+            }
+
+            RpcResult<TransactionReceipt> receiptResult = this.rpc.getTransactionReceipt(sendResult.getResult());
+            if (!receiptResult.isSuccess()) {
+                throw new IllegalStateException("Failed to get the receipt of a contract fixture deployment: " + receiptResult.getError());
+            }
+
+            TransactionReceipt receipt = receiptResult.getResult();
+            Optional<Address> contract = receipt.getAddressOfDeployedContract();
+            if (!receipt.transactionWasSuccessful() || !contract.isPresent()) {
+                throw new IllegalStateException("A contract fixture deployment failed: " + receipt);
+            }
+            return contract.get();
+        }
+    }
+
+    /**
+     * Returns the deployer account, creating and funding it if this is its first deployment.
+     *
+     * Must be called while holding the deploy lock.
+     */
+    private PrivateKey getFundedDeployer() {
+        if (this.deployer == null) {
+            try {
+                PrivateKey deployer = PrivateKey.random();
+                this.preminedDispatcher.fundAccount(deployer.getAddress(), DEPLOYER_FUNDS);
+                this.deployer = deployer;
+            } catch (InvalidKeySpecException e) {
+                throw new UnexpectedTestRunnerException("Failed to generate the contract fixture deployer!", e);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to fund the contract fixture deployer.", e);
+            }
+        }
+        return this.deployer;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return Hex.encodeHexString(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256, we should never hit this.
+            throw new UnexpectedTestRunnerException("SHA-256 is unavailable!", e);
+        }
+    }
+}
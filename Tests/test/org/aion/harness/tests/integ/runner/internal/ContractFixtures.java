@@ -0,0 +1,62 @@
+package org.aion.harness.tests.integ.runner.internal;
+
+import org.aion.harness.kernel.Address;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+/**
+ * The Avm contracts a test uses as fixtures, which are built and deployed once per node rather
+ * than once per test.
+ *
+ * A test that only reads from a contract, or that does not mind the state other tests have left
+ * in it, should use {@link #deployed(Class, Class[])}. A test that needs a contract in its initial
+ * state should use {@link #deployFresh(Class, Class[])}. A test that deploys a contract itself, for
+ * example under a particular beacon hash, can still get the already built jar from
+ * {@link #codeFor(Class, Class[])}.
+ */
+public final class ContractFixtures implements TestRule {
+    private ContractFixtureCache cache;
+
+    /**
+     * This method is invoked via reflection by the custom runners to hand over the cache of the
+     * node the test runs against.
+     */
+    private void setCache(ContractFixtureCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Do not invoke.
+     */
+    @Override
+    public Statement apply(Statement statement, Description description) {
+        throw new UnsupportedOperationException("Didn't you read my doc?");
+    }
+
+    /**
+     * Returns the address of the contract built from the specified classes, which every test asking
+     * for it on this node shares. The contract is deployed the first time it is asked for.
+     */
+    public Address deployed(Class<?> mainClass, Class<?>... otherClasses) throws InterruptedException {
+        return this.cache.sharedDeployment(mainClass, otherClasses);
+    }
+
+    /**
+     * Returns the address of a new deployment of the contract built from the specified classes,
+     * whose state no other test has touched.
+     */
+    public Address deployFresh(Class<?> mainClass, Class<?>... otherClasses) throws InterruptedException {
+        return this.cache.freshDeployment(mainClass, otherClasses);
+    }
+
+    /**
+     * Returns the jar holding the specified classes, encoded with no arguments as an Avm create
+     * transaction expects them.
+     *
+     * The returned bytes are shared and must not be modified.
+     */
+    public byte[] codeFor(Class<?> mainClass, Class<?>... otherClasses) {
+        return this.cache.encodedJarFor(mainClass, otherClasses);
+    }
+}
@@ -6,6 +6,7 @@ import java.util.concurrent.TimeUnit;
 import org.aion.harness.kernel.Address;
 import org.aion.harness.kernel.PrivateKey;
 import org.aion.harness.kernel.SignedTransaction;
+import org.aion.harness.main.EnergyEstimator;
 import org.aion.harness.main.NodeListener;
 import org.aion.harness.main.RPC;
 import org.aion.harness.main.event.Event;
@@ -27,18 +28,22 @@ import org.apache.commons.codec.binary.Hex;
  */
 public final class PreminedAccountFunder {
     private static final String PREMINED_KEY = "4c3c8a7c0292bc55d97c50b4bdabfd47547757d9e5c194e89f66f25855baacd0";
+    private static final long FALLBACK_ENERGY_LIMIT = 2_000_000;
     private final Object nonceLock = new Object();
 
     private final TestNodeManager nodeManager;
     private final PrepackagedLogEvents prepackagedLogEvents;
     private final PrivateKey preminedAccount;
     private final RPC rpc;
+    private final EnergyEstimator energyEstimator;
+    private volatile boolean energyEstimationFailed = false;
     private BigInteger currentNonce = null;
 
     public PreminedAccountFunder(TestNodeManager nodeManager, PrepackagedLogEvents prepackagedLogEvents) {
         this.nodeManager = nodeManager;
         this.prepackagedLogEvents = prepackagedLogEvents;
         this.rpc = RPC.newRpc("127.0.0.1", "8545");
+        this.energyEstimator = new EnergyEstimator(this.rpc);
 
         try {
             this.preminedAccount = PrivateKey.fromBytes(Hex.decodeHex(PREMINED_KEY));
@@ -57,6 +62,9 @@ public final class PreminedAccountFunder {
      */
     public void fundAccount(Address address, BigInteger amount)
         throws Exception {
+        // Estimate the energy limit first, so that a failed estimate cannot leave a gap in the nonces.
+        long energyLimit = transferEnergyLimit(address, amount);
+
         // Build the transaction to transfer balance to the specified account.
         // We are assuming this transaction succeeds, so we increment nonce here too. This allows for much higher concurrent throughput.
         SignedTransaction transaction = SignedTransaction.newGeneralTransaction(
@@ -64,14 +72,15 @@ public final class PreminedAccountFunder {
             getCurrentNonceThenIncrement(),
             address,
             null,
-            2_000_000,
+            energyLimit,
             10_000_000_000L,
             amount, null);
 
-        // Construct the 'transaction is processed' event we want to listen for.
+        // Construct the 'transaction is sealed and not rejected' event we want to listen for. This
+        // is decided as soon as the transaction is either sealed or rejected.
         IEvent transactionSealed = prepackagedLogEvents.getTransactionSealedEvent(transaction);
         IEvent transactionRejected = prepackagedLogEvents.getTransactionRejectedEvent(transaction);
-        IEvent transactionProcessed = Event.or(transactionRejected, transactionSealed);
+        IEvent transactionProcessed = Event.before(transactionSealed, transactionRejected);
 
         // Start listening for the transaction to get processed and send it off.
         NodeListener listener = this.nodeManager.newNodeListener();
@@ -85,12 +94,28 @@ public final class PreminedAccountFunder {
         // Block until it's processed and verify it was sealed into a block and not rejected!
         LogEventResult listenResult = future.get(5, TimeUnit.MINUTES);
 
-        if(! transactionSealed.hasBeenObserved() || transactionRejected.hasBeenObserved() ) {
+        if (!listenResult.eventWasObserved()) {
             throw new UnexpectedTestRunnerException("Failed transferring " + amount +
                 " funds from the real pre-mined account: " + listenResult);
         }
     }
 
+    /**
+     * Returns the energy limit of the transfer to the specified account, which is a new account
+     * without code, as estimated by the node.
+     * If the node fails to estimate it then we fall back to a generous fixed limit from then on.
+     */
+    private long transferEnergyLimit(Address address, BigInteger amount) throws InterruptedException {
+        if (!this.energyEstimationFailed) {
+            try {
+                return this.energyEstimator.transferEnergyLimitFor(this.preminedAccount.getAddress(), address, amount);
+            } catch (IllegalStateException e) {
+                this.energyEstimationFailed = true;
+            }
+        }
+        return FALLBACK_ENERGY_LIMIT;
+    }
+
     /**
      * Grabs the current value of the nonce and then increments it.
      */
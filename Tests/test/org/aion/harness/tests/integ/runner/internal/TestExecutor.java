@@ -39,16 +39,19 @@ public final class TestExecutor implements Runnable {
     private final TestAndResultQueueManager queueManager;
     private final NodeType nodeType;
     private final PreminedAccountFunder preminedDispatcher;
+    private final ContractFixtureCache contractFixtures;
     private boolean alive;
 
     public TestExecutor(TestNodeManager nodeManager,
                         PreminedAccountFunder preminedDispatcher,
+                        ContractFixtureCache contractFixtures,
                         TestAndResultQueueManager queueManager,
                         NodeType nodeType) {
         this.nodeManagerForTests = nodeManager;
         this.queueManager = queueManager;
         this.nodeType = nodeType;
         this.preminedDispatcher = preminedDispatcher;
+        this.contractFixtures = contractFixtures;
         this.alive = true;
     }
 
@@ -214,8 +217,10 @@ public final class TestExecutor implements Runnable {
                 initializeNodeListenerRule(ruleField, testClassInstance);
             } else if (ruleType.equals(PrepackagedLogEventsFactory.class)) {
                 initializePrepackagdLogEventsFactory(ruleField, testClassInstance);
+            } else if (ruleType.equals(ContractFixtures.class)) {
+                initializeContractFixturesRule(ruleField, testClassInstance);
             } else {
-                throw new UnsupportedAnnotation("This custom runner only supports the following @Rule's: PreminedAccount, LocalNodeListener. Found: " + ruleType);
+                throw new UnsupportedAnnotation("This custom runner only supports the following @Rule's: PreminedAccount, LocalNodeListener, PrepackagedLogEventsFactory, ContractFixtures. Found: " + ruleType);
             }
         }
     }
@@ -279,6 +284,20 @@ public final class TestExecutor implements Runnable {
         }
     }
 
+    private void initializeContractFixturesRule(Field ruleField, Object testClassInstance) {
+        try {
+            // Grab the field instance and invoke the 'setCache' method.
+            ruleField.setAccessible(true);
+            Object fixtures = ruleField.get(testClassInstance);
+            Method setCacheMethod = fixtures.getClass().getDeclaredMethod("setCache", ContractFixtureCache.class);
+            setCacheMethod.setAccessible(true);
+            setCacheMethod.invoke(fixtures, this.contractFixtures);
+
+        } catch (IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+            throw new UnexpectedTestRunnerException("Failed initializing the contract fixtures @Rule", e);
+        }
+    }
+
     private Class<? extends Throwable> getExpectedException(Method method) {
         Annotation annotation = method.getAnnotation(org.junit.Test.class);
         return ((org.junit.Test) annotation).expected();
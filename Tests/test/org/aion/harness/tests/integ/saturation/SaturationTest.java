@@ -3,6 +3,7 @@ package org.aion.harness.tests.integ.saturation;
 import java.io.File;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.security.spec.InvalidKeySpecException;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,7 +15,9 @@ import org.aion.harness.kernel.Address;
 import org.aion.harness.kernel.BulkRawTransactionBuilder;
 import org.aion.harness.kernel.BulkRawTransactionBuilder.TransactionType;
 import org.aion.harness.kernel.PrivateKey;
+import org.aion.harness.kernel.SenderKeyFile;
 import org.aion.harness.kernel.SignedTransaction;
+import org.aion.harness.main.EnergyEstimator;
 import org.aion.harness.main.LocalNode;
 import org.aion.harness.main.Network;
 import org.aion.harness.main.NodeConfigurations;
@@ -49,6 +52,10 @@ public class SaturationTest {
     private static LocalNode node;
     private static PrivateKey preminedAccount;
     private static BigInteger preminedNonce = BigInteger.ZERO;
+
+    // The energy limit of every transfer, estimated by the node, so that blocks are packed as they
+    // would be with realistic limits. ENERGY_LIMIT stays as an upper bound for the balance checks.
+    private static long transferEnergyLimit = 50_000L;
     private static JavaPrepackagedLogEvents prepackagedLogEvents = new JavaPrepackagedLogEvents();
 
     private static final String PREMINED_KEY = "4c3c8a7c0292bc55d97c50b4bdabfd47547757d9e5c194e89f66f25855baacd0";
@@ -63,12 +70,20 @@ public class SaturationTest {
     private static final int NUM_SENDERS = 1000;        // Number of threads sending transactions.
     public static final int NUM_TRANSACTIONS = 120;     // Number of transactions each thread sends.
 
+    // With a preserved database, the funded senders are saved to the keyfile and reused by later runs.
+    private static final DatabaseOption DATABASE_OPTION = DatabaseOption.DO_NOT_PRESERVE_DATABASE;
+    private static final File SENDER_KEYFILE = new File(System.getProperty("user.dir") + "/saturation-senders.keys");
+    private static final byte[] SENDER_SEED = "saturation-test-senders".getBytes(StandardCharsets.US_ASCII);
+
     @BeforeClass
     public static void setupNode() throws Exception {
         checkKernelExistsAndOverwriteConfigs();
         node = initializeNode();
         startNode(node);
         preminedAccount = initializePreminedAccount();
+        preminedNonce = rpc.getNonce(preminedAccount.getAddress()).getResult();
+        transferEnergyLimit = new EnergyEstimator(rpc).transferEnergyLimitFor(preminedAccount.getAddress(), PrivateKey.random().getAddress(), TRANSFER_AMOUNT);
+        Assert.assertTrue(transferEnergyLimit <= ENERGY_LIMIT);
     }
 
     @AfterClass
@@ -86,13 +101,12 @@ public class SaturationTest {
 
         // Set up the sender accounts, giving them each enough balance for their transactions.
         System.out.println("Initializing all of the sender accounts with " + INITIAL_SENDER_BALANCE + " balance each ...");
-        List<PrivateKey> senderKeys = initializeAllSenderAccounts();
-        assertAllSendersHaveExpectedBalance(senderKeys);
+        SenderKeyFile senders = initializeAllSenderAccounts();
         System.out.println("All sender accounts initialized!");
 
         // Start the saturation threads and wait for them to complete.
         System.out.println("Initializing and starting all sender threads ...");
-        List<Saturator> saturators = createAllSaturators(senderKeys);
+        List<Saturator> saturators = createAllSaturators(senders);
         List<FutureTask<SaturationReport>> tasks = createAllFutureTasks(saturators);
         List<Thread> threads = createAllThreads(tasks);
         startAllThreads(threads);
@@ -111,6 +125,7 @@ public class SaturationTest {
         System.out.println("All thread reports collected!");
 
         waitForAllThreadsToComplete(threads);
+        saveSenderNonces(senders, !encounteredError);
 
         // We want to fail out if we did encounter an error, just so it's obvious.
         Assert.assertFalse(encounteredError);
@@ -124,11 +139,11 @@ public class SaturationTest {
         return threads;
     }
 
-    private static List<Saturator> createAllSaturators(List<PrivateKey> senderKeys) {
+    private static List<Saturator> createAllSaturators(SenderKeyFile senders) {
         CyclicBarrier barrier = new CyclicBarrier(NUM_SENDERS);
         List<Saturator> threads = new ArrayList<>();
         for (int i = 0; i < NUM_SENDERS; i++) {
-            threads.add(new Saturator(i, barrier, senderKeys.get(i)));
+            threads.add(new Saturator(i, barrier, senders.getKey(i), senders.getNonce(i), transferEnergyLimit));
         }
         return threads;
     }
@@ -154,25 +169,61 @@ public class SaturationTest {
     }
 
     /**
-     * Creates NUM_SENDERS new random accounts and gives each of them INITIAL_SENDER_BALANCE amount
-     * of funds. This method fails if anything goes wrong in this initialization process. If it
-     * returns then these addresses are ready to use.
+     * Creates NUM_SENDERS accounts, derived deterministically from SENDER_SEED, and gives each of
+     * them INITIAL_SENDER_BALANCE amount of funds. This method fails if anything goes wrong in this
+     * initialization process. If it returns then these addresses are ready to use.
      *
-     * This method returns the private keys of the accounts, from which their addresses can be
-     * discovered.
+     * If the database is preserved and a previous run saved its funded senders to the keyfile,
+     * then those senders are reused as they are, skipping both key derivation and funding.
      */
-    private static List<PrivateKey> initializeAllSenderAccounts() throws InvalidKeySpecException, InterruptedException, TimeoutException {
-        List<PrivateKey> senderKeys = newRandomKeys(NUM_SENDERS);
-        fundAllSenderAccounts(toAddresses(senderKeys));
-        return senderKeys;
+    private static SenderKeyFile initializeAllSenderAccounts() throws IOException, InvalidKeySpecException, InterruptedException, TimeoutException {
+        if ((DATABASE_OPTION == DatabaseOption.PRESERVE_DATABASE) && SENDER_KEYFILE.exists()) {
+            SenderKeyFile senders = SenderKeyFile.load(SENDER_KEYFILE);
+            if (senders.numberOfAccounts() == NUM_SENDERS) {
+                System.out.println("Reusing the funded sender accounts in " + SENDER_KEYFILE);
+                assertAllSendersCanAffordTheirTransactions(senders.getKeys());
+                return senders;
+            }
+        }
+
+        SenderKeyFile senders = SenderKeyFile.derive(SENDER_SEED, NUM_SENDERS);
+        fundAllSenderAccounts(toAddresses(senders.getKeys()));
+
+        if (DATABASE_OPTION == DatabaseOption.PRESERVE_DATABASE) {
+            // The derived accounts may already exist in the preserved database with other nonces.
+            for (int i = 0; i < NUM_SENDERS; i++) {
+                senders.setNonce(i, rpc.getNonce(senders.getKey(i).getAddress()).getResult());
+            }
+            assertAllSendersCanAffordTheirTransactions(senders.getKeys());
+            senders.save(SENDER_KEYFILE);
+        } else {
+            assertAllSendersHaveExpectedBalance(senders.getKeys());
+        }
+        return senders;
     }
 
-    private static List<PrivateKey> newRandomKeys(int num) throws InvalidKeySpecException {
-        List<PrivateKey> keys = new ArrayList<>();
-        for (int i = 0; i < num; i++) {
-            keys.add(PrivateKey.random());
+    /**
+     * Records the nonce each sender now has according to the node, so that the next run against
+     * the preserved database can reuse the senders.
+     *
+     * If the run failed then some of the transactions may never be processed, or may yet be, so no
+     * nonce can be trusted. The keyfile is deleted instead, and the next run reads every nonce
+     * from the node again.
+     */
+    private static void saveSenderNonces(SenderKeyFile senders, boolean runSucceeded) throws IOException, InterruptedException {
+        if (DATABASE_OPTION == DatabaseOption.PRESERVE_DATABASE) {
+            if (!runSucceeded) {
+                FileUtils.deleteQuietly(SENDER_KEYFILE);
+                return;
+            }
+
+            for (int i = 0; i < NUM_SENDERS; i++) {
+                RpcResult<BigInteger> nonce = rpc.getNonce(senders.getKey(i).getAddress());
+                Assert.assertTrue(nonce.getError(), nonce.isSuccess());
+                senders.setNonce(i, nonce.getResult());
+            }
+            senders.save(SENDER_KEYFILE);
         }
-        return keys;
     }
 
     /**
@@ -184,7 +235,7 @@ public class SaturationTest {
             .useMultipleDestinations(senders)
             .useSameTransferValue(INITIAL_SENDER_BALANCE)
             .useSameTransactionData(new byte[0])
-            .useSameEnergyLimit(ENERGY_LIMIT)
+            .useSameEnergyLimit(transferEnergyLimit)
             .useSameEnergyPrice(ENERGY_PRICE)
             .useSameTransactionType(TransactionType.FVM)
             .build();
@@ -238,6 +289,16 @@ public class SaturationTest {
         }
     }
 
+    private static void assertAllSendersCanAffordTheirTransactions(List<PrivateKey> senderKeys) throws InterruptedException {
+        BigInteger energyCost = BigInteger.valueOf(ENERGY_LIMIT).multiply(BigInteger.valueOf(ENERGY_PRICE));
+        BigInteger totalCost = energyCost.add(TRANSFER_AMOUNT).multiply(BigInteger.valueOf(NUM_TRANSACTIONS));
+        for (Address sender : toAddresses(senderKeys)) {
+            RpcResult<BigInteger> result = rpc.getBalance(sender);
+            Assert.assertTrue(result.isSuccess());
+            Assert.assertTrue(result.getResult().compareTo(totalCost) >= 0);
+        }
+    }
+
     private static List<ProcessedTransactionEventHolder> constructTransactionProcessedEvents(List<SignedTransaction> transactions) {
         List<ProcessedTransactionEventHolder> events = new ArrayList<>();
         for (SignedTransaction transaction : transactions) {
@@ -275,7 +336,7 @@ public class SaturationTest {
     }
 
     private static LocalNode initializeNode() throws IOException, InterruptedException {
-        NodeConfigurations configurations = NodeConfigurations.alwaysUseBuiltKernel(Network.CUSTOM, kernelDirectoryPath, DatabaseOption.DO_NOT_PRESERVE_DATABASE);
+        NodeConfigurations configurations = NodeConfigurations.alwaysUseBuiltKernel(Network.CUSTOM, kernelDirectoryPath, DATABASE_OPTION);
         LocalNode node = NodeFactory.getNewLocalNodeInstance(NodeType.JAVA_NODE);
         node.configure(configurations);
         Result result = node.initialize();
@@ -14,11 +14,15 @@ public final class Saturator implements Callable<SaturationReport> {
     private final String name;
     private final CyclicBarrier barrier;
     private final PrivateKey senderKey;
+    private final BigInteger initialNonce;
+    private final long energyLimit;
 
-    public Saturator(int threadID, CyclicBarrier barrier, PrivateKey senderKey) {
+    public Saturator(int threadID, CyclicBarrier barrier, PrivateKey senderKey, BigInteger initialNonce, long energyLimit) {
         this.name = "[Saturator-#" + threadID + "]";
         this.barrier = barrier;
         this.senderKey = senderKey;
+        this.initialNonce = initialNonce;
+        this.energyLimit = energyLimit;
         Thread.currentThread().setName(this.name);
     }
 
@@ -35,9 +39,9 @@ public final class Saturator implements Callable<SaturationReport> {
 
         try {
             for (int i = 0; i < SaturationTest.NUM_TRANSACTIONS; i++) {
-                BigInteger nonce = BigInteger.valueOf(i);
+                BigInteger nonce = this.initialNonce.add(BigInteger.valueOf(i));
 
-                SignedTransaction transaction = SignedTransaction.newGeneralTransaction(this.senderKey, nonce, destination, new byte[0], SaturationTest.ENERGY_LIMIT, SaturationTest.ENERGY_PRICE, SaturationTest.TRANSFER_AMOUNT,
+                SignedTransaction transaction = SignedTransaction.newGeneralTransaction(this.senderKey, nonce, destination, new byte[0], this.energyLimit, SaturationTest.ENERGY_PRICE, SaturationTest.TRANSFER_AMOUNT,
                     null);
                 this.rpc.sendSignedTransaction(transaction);
             }
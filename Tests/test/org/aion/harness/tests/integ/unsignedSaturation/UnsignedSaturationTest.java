@@ -109,6 +109,10 @@ public class UnsignedSaturationTest {
         assertAllSendersHaveExpectedBalance(senders);
         System.out.println("All sender accounts initialized!");
 
+        System.out.println("Unlocking all of the sender accounts ...");
+        unlockAllSenderAccounts(senders);
+        System.out.println("All sender accounts unlocked!");
+
         // 5. Start the saturation threads and wait for them to complete.
         System.out.println("Initializing and starting all sender threads ...");
         List<UnsignedSaturator> saturators = createAllSaturators(senders);
@@ -154,11 +158,7 @@ public class UnsignedSaturationTest {
         Assert.assertNotNull(node);
         Kernel kernel = node.getKernel();
 
-        List<Address> accounts = new ArrayList<>();
-        for (int i = 0; i < NUM_SENDERS; i++) {
-            accounts.add(kernel.createNewAccountInKeystore(PASSWORD));
-        }
-        return accounts;
+        return kernel.createNewAccountsInKeystore(PASSWORD, NUM_SENDERS, Runtime.getRuntime().availableProcessors());
     }
 
     private static void checkKernelExistsAndOverwriteConfigs() throws IOException {
@@ -248,6 +248,18 @@ public class UnsignedSaturationTest {
         return extractedEvents;
     }
 
+    /**
+     * Unlocks all of the senders in the keystore, using batched unlock calls.
+     */
+    private static void unlockAllSenderAccounts(List<Address> senders) throws InterruptedException {
+        List<RpcResult<Boolean>> results = rpc.unlockKeystoreAccounts(senders, PASSWORD, 10, TimeUnit.HOURS);
+        for (int i = 0; i < senders.size(); i++) {
+            RpcResult<Boolean> result = results.get(i);
+            Assert.assertTrue("Keystore account unlock attempt failed: " + result.getError(), result.isSuccess());
+            Assert.assertTrue("Keystore account was not unlocked: " + senders.get(i), result.getResult());
+        }
+    }
+
     private static void assertAllSendersHaveExpectedBalance(List<Address> senders) throws InterruptedException {
         for (Address sender : senders) {
             RpcResult<BigInteger> result = rpc.getBalance(sender);
@@ -3,7 +3,6 @@ package org.aion.harness.tests.integ.unsignedSaturation;
 import java.math.BigInteger;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CyclicBarrier;
-import java.util.concurrent.TimeUnit;
 import org.aion.harness.kernel.Address;
 import org.aion.harness.kernel.PrivateKey;
 import org.aion.harness.kernel.UnsignedTransaction;
@@ -36,15 +35,7 @@ public final class UnsignedSaturator implements Callable<SaturationReport> {
         // Send the transactions.
         System.out.println(this.name + " sending the " + UnsignedSaturationTest.NUM_TRANSACTIONS + " transactions ...");
 
-        // Unlock the account.
-        RpcResult<Boolean> unlockResult = this.rpc.unlockKeystoreAccount(this.sender, UnsignedSaturationTest.PASSWORD, 10, TimeUnit.HOURS);
-        if (!unlockResult.isSuccess()) {
-            report = SaturationReport.unsuccessful(this.name, "Keystore account unlock attempt failed: " + unlockResult.getError());
-        }
-        if (!unlockResult.getResult()) {
-            report = SaturationReport.unsuccessful(this.name, "Keystore account was not unlocked!");
-        }
-
+        // The account has already been unlocked by the test.
         Address destination = PrivateKey.random().getAddress();
         if (report == null) {
             for (int i = 0; i < UnsignedSaturationTest.NUM_TRANSACTIONS; i++) {